@@ -0,0 +1,73 @@
+/**
+ * P-256 prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <code>P256Curve</code> (4x64 bit Montgomery limbs, complete formulas, constant-time fixed window)
+ * against Bouncy Castle's <code>SecP256R1Curve</code> (wNAF, not constant-time). Both return affine points.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class P256CurveBenchmark {
+	private ECCurve curve;
+	private ECPoint p;
+	private BigInteger k;
+	private byte[] encoded;
+
+	@Setup
+	public void setup() {
+		final var spec = ECNamedCurveTable.getParameterSpec("P-256");
+		final var bytes = new byte[48];
+		new SecureRandom().nextBytes(bytes);
+
+		curve = spec.getCurve();
+		k = BigIntegers.fromUnsignedByteArray(bytes).mod(spec.getN());
+		p = spec.getG().multiply(k.add(BigInteger.ONE)).normalize();
+		encoded = p.getEncoded(true);
+	}
+
+	@Benchmark
+	public ECPoint multiplyP256Curve() {
+		return P256Curve.multiply(p, k);
+	}
+
+	@Benchmark
+	public ECPoint multiplyBouncyCastle() {
+		return p.multiply(k).normalize();
+	}
+
+	@Benchmark
+	public ECPoint decodeP256Curve() {
+		return P256Curve.decodePoint(curve, encoded);
+	}
+
+	@Benchmark
+	public ECPoint decodeBouncyCastle() {
+		return curve.decodePoint(encoded);
+	}
+}
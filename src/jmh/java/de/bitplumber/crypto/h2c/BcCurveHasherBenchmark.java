@@ -0,0 +1,72 @@
+/**
+ * RFC 9380 Hash-to-Curve implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.h2c;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * hashToCurve / encodeToCurve / hashToScalar for all supported suites and a range of
+ * message sizes. BcCurveHasher instances are not thread-safe, hence one per thread.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BcCurveHasherBenchmark {
+	@Param({ "P256", "P384", "P521", "secp256k1" })
+	public String suite;
+
+	@Param({ "0", "32", "1024" })
+	public int inputSize;
+
+	private BcCurveHasher hasher;
+	private byte[] input;
+
+	@Setup
+	public void setup() {
+		hasher = switch (suite) {
+			case "P256" -> BcCurveHasher.createP256();
+			case "P384" -> BcCurveHasher.createP384();
+			case "P521" -> BcCurveHasher.createP521();
+			case "secp256k1" -> BcCurveHasher.createSecp256k1();
+			default -> throw new IllegalArgumentException("Unknown suite '" + suite + "'");
+		};
+
+		input = new byte[inputSize];
+		new Random(inputSize).nextBytes(input);
+	}
+
+	@Benchmark
+	public ECPoint hashToCurve() {
+		return hasher.hashToCurve(input);
+	}
+
+	@Benchmark
+	public ECPoint encodeToCurve() {
+		return hasher.encodeToCurve(input, null);
+	}
+
+	@Benchmark
+	public BigInteger hashToScalar() {
+		return hasher.hashToScalar(input, hasher.hashToCurveDST);
+	}
+}
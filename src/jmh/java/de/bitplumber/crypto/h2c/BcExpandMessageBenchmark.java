@@ -0,0 +1,79 @@
+/**
+ * RFC 9380 Hash-to-Curve implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.h2c;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.crypto.Xof;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA384Digest;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * expand_message_xmd / expand_message_xof, with the output lengths used by the suites
+ * (hash_to_curve with m = 1, count = 2) and a range of message sizes.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BcExpandMessageBenchmark {
+	private static final byte[] DST = "QUUX-V01-CS02-with-expander".getBytes(StandardCharsets.UTF_8);
+
+	@Param({ "SHA-256:96", "SHA-384:144", "SHA-512:196", "SHAKE128:96", "SHAKE256:196" })
+	public String expander;
+
+	@Param({ "0", "32", "1024" })
+	public int inputSize;
+
+	private ExtendedDigest xmd;
+	private Xof xof;
+	private int lengthInBytes;
+	private int k;			// Security level (XOF only)
+	private byte[] input;
+
+	@Setup
+	public void setup() {
+		final var parts = expander.split(":");
+		lengthInBytes = Integer.parseInt(parts[1]);
+		switch (parts[0]) {
+			case "SHA-256" -> xmd = new SHA256Digest();
+			case "SHA-384" -> xmd = new SHA384Digest();
+			case "SHA-512" -> xmd = new SHA512Digest();
+			case "SHAKE128" -> { xof = new SHAKEDigest(128); k = 128; }
+			case "SHAKE256" -> { xof = new SHAKEDigest(256); k = 256; }
+			default -> throw new IllegalArgumentException("Unknown expander '" + expander + "'");
+		}
+
+		input = new byte[inputSize];
+		new Random(inputSize).nextBytes(input);
+	}
+
+	@Benchmark
+	public byte[] expandMessage() {
+		if (xof != null) {
+			return BcExpandMessage.expandMessageXOF(xof, input, DST, lengthInBytes, k);
+		} else {
+			return BcExpandMessage.expandMessageXMD(xmd, input, DST, lengthInBytes);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.INPUT;
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.SEED;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+
+/**
+ * Client and server operations of the base mode (RFC 9497 3.3.1) for all curves.
+ * The suites hold a reusable digest and are not thread-safe, hence one per thread.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BcOPRFBenchmark {
+	@Param({ "P256", "P384", "P521", "secp256k1" })
+	public String suite;
+
+	private BcOPRF oprf;
+	private OPRFKeyPair keyPair;
+	private BcOPRF.BlindResult blindResult;
+	private ECPoint evaluatedElement;
+	private List<OPRFKeyPair> rotationKeyPairs;
+	private byte[] encodedBlindedElement;
+
+	@Setup
+	public void setup() throws Exception {
+		oprf = switch (suite) {
+			case "P256" -> BcOPRF.createP256();
+			case "P384" -> BcOPRF.createP384();
+			case "P521" -> BcOPRF.createP521();
+			case "secp256k1" -> BcOPRF.createSecp256k1();
+			default -> throw new IllegalArgumentException("Unknown suite '" + suite + "'");
+		};
+
+		keyPair = oprf.deriveKeyPair(SEED, null);
+		blindResult = oprf.blind(INPUT);
+		evaluatedElement = oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement());
+		rotationKeyPairs = List.of(keyPair, oprf.deriveKeyPair(SEED, INPUT));
+		encodedBlindedElement = oprf.encodeElement(blindResult.blindedElement());
+	}
+
+	@Benchmark
+	public OPRFKeyPair deriveKeyPair() throws Exception {
+		return oprf.deriveKeyPair(SEED, null);
+	}
+
+	@Benchmark
+	public BcOPRF.BlindResult blind() throws Exception {
+		return oprf.blind(INPUT);
+	}
+
+	@Benchmark
+	public ECPoint blindEvaluate() throws Exception {
+		return oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement());
+	}
+
+	/**
+	 * Key rotation overlap: a freshly decoded element evaluated under the old and the new key,
+	 * one <code>blindEvaluate()</code> call per key
+	 */
+	@Benchmark
+	public ECPoint[] blindEvaluateRotation() throws Exception {
+		final var blindedElement = oprf.decodeElement(encodedBlindedElement);
+		final var result = new ECPoint[rotationKeyPairs.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = oprf.blindEvaluate(rotationKeyPairs.get(i).secretKey(), blindedElement);
+		return result;
+	}
+
+	@Benchmark
+	public ECPoint[] blindEvaluateMulti() throws Exception {
+		return oprf.blindEvaluateMulti(rotationKeyPairs, oprf.decodeElement(encodedBlindedElement));
+	}
+
+	@Benchmark
+	public byte[] finalizeOutput() throws Exception {
+		return oprf.finalize(INPUT, blindResult.blind(), evaluatedElement);
+	}
+
+	@Benchmark
+	public byte[] evaluate() throws Exception {
+		return oprf.evaluate(keyPair.secretKey(), INPUT);
+	}
+}
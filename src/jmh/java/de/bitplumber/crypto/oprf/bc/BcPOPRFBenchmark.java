@@ -0,0 +1,110 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.INFO;
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.INPUT;
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.SEED;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.bitplumber.crypto.oprf.Labels;
+import de.bitplumber.crypto.oprf.Modes;
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ECScalar;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.Proof;
+
+/**
+ * Client and server operations of the partially-oblivious mode (RFC 9497 3.3.3) for all
+ * curves, plus the DLEQ proof generation and verification over the tweaked key on their own.
+ * The suites hold a reusable digest and are not thread-safe, hence one per thread.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BcPOPRFBenchmark {
+	@Param({ "P256", "P384", "P521", "secp256k1" })
+	public String suite;
+
+	private BcOPRFSuite oprfSuite;
+	private BcPOPRF poprf;
+	private byte[] context;
+	private OPRFKeyPair keyPair;
+	private BcPOPRF.BlindResult blindResult;
+	private BcPOPRF.BlindEvaluateResult evaluateResult;
+	private Proof proof;
+	private ECScalar tweakedSecret;
+	private ECPoint[] blindedElements;
+	private ECPoint[] evaluatedElements;
+
+	@Setup
+	public void setup() throws Exception {
+		oprfSuite = BenchmarkSuites.create(suite);
+		poprf = new BcPOPRF(oprfSuite);
+		context = BenchmarkSuites.context(oprfSuite, Modes.POPRF);
+
+		keyPair = poprf.deriveKeyPair(SEED, null);
+		blindResult = poprf.blind(INPUT, INFO, keyPair.publicKey());
+		evaluateResult = poprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement(), INFO);
+		proof = poprf.decodeProof(evaluateResult.proof());
+		blindedElements = new ECPoint[]{ blindResult.blindedElement() };
+		evaluatedElements = new ECPoint[]{ evaluateResult.evaluatedElement() };
+
+		final var m = oprfSuite.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(INFO), null, context);
+		tweakedSecret = oprfSuite.getFn().add(poprf.decodeScalar(keyPair.secretKey()), m);
+	}
+
+	@Benchmark
+	public OPRFKeyPair deriveKeyPair() throws Exception {
+		return poprf.deriveKeyPair(SEED, null);
+	}
+
+	@Benchmark
+	public BcPOPRF.BlindResult blind() throws Exception {
+		return poprf.blind(INPUT, INFO, keyPair.publicKey());
+	}
+
+	@Benchmark
+	public BcPOPRF.BlindEvaluateResult blindEvaluate() throws Exception {
+		return poprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement(), INFO);
+	}
+
+	@Benchmark
+	public byte[] finalizeOutput() throws Exception {
+		return poprf.finalize(INPUT, blindResult.blind(), evaluateResult.evaluatedElement(),
+			blindResult.blindedElement(), proof, INFO, blindResult.tweakedKey());
+	}
+
+	@Benchmark
+	public byte[] evaluate() throws Exception {
+		return poprf.evaluate(keyPair.secretKey(), INPUT, INFO);
+	}
+
+	@Benchmark
+	public Proof generateProof() {
+		return oprfSuite.generateProof(tweakedSecret, oprfSuite.getG(), blindResult.tweakedKey(), evaluatedElements, blindedElements, context);
+	}
+
+	@Benchmark
+	public boolean verifyProof() throws Exception {
+		return oprfSuite.verifyProof(oprfSuite.getG(), blindResult.tweakedKey(), evaluatedElements, blindedElements, proof, context);
+	}
+}
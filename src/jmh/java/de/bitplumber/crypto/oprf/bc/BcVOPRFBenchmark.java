@@ -0,0 +1,113 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.INPUT;
+import static de.bitplumber.crypto.oprf.bc.BenchmarkSuites.SEED;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.bitplumber.crypto.oprf.Modes;
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.Proof;
+
+/**
+ * Client and server operations of the verifiable mode (RFC 9497 3.3.2) for all curves,
+ * plus the DLEQ proof generation and verification on their own.
+ * The suites hold a reusable digest and are not thread-safe, hence one per thread.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BcVOPRFBenchmark {
+	@Param({ "P256", "P384", "P521", "secp256k1" })
+	public String suite;
+
+	private BcOPRFSuite oprfSuite;
+	private BcVOPRF voprf;
+	private byte[] context;
+	private OPRFKeyPair keyPair;
+	private BcVOPRF.BlindResult blindResult;
+	private BcVOPRF.BlindEvaluateResult evaluateResult;
+	private Proof proof;
+	private ECPoint[] blindedElements;
+	private ECPoint[] evaluatedElements;
+	private BcKeyManager keyManager;
+
+	@Setup
+	public void setup() throws Exception {
+		oprfSuite = BenchmarkSuites.create(suite);
+		voprf = new BcVOPRF(oprfSuite);
+		context = BenchmarkSuites.context(oprfSuite, Modes.VOPRF);
+
+		keyPair = voprf.deriveKeyPair(SEED, null);
+		blindResult = voprf.blind(INPUT);
+		evaluateResult = voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), blindResult.blindedElement());
+		proof = voprf.decodeProof(evaluateResult.proof());
+		blindedElements = new ECPoint[]{ blindResult.blindedElement() };
+		evaluatedElements = new ECPoint[]{ evaluateResult.evaluatedElement() };
+		keyManager = voprf.keyManager(keyPair, 1);
+	}
+
+	@Benchmark
+	public OPRFKeyPair deriveKeyPair() throws Exception {
+		return voprf.deriveKeyPair(SEED, null);
+	}
+
+	@Benchmark
+	public BcVOPRF.BlindResult blind() throws Exception {
+		return voprf.blind(INPUT);
+	}
+
+	@Benchmark
+	public BcVOPRF.BlindEvaluateResult blindEvaluate() throws Exception {
+		return voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), blindResult.blindedElement());
+	}
+
+	@Benchmark
+	public BcVOPRF.BlindEvaluateResult blindEvaluateServerKey() {
+		return voprf.blindEvaluate(keyManager.current(), blindResult.blindedElement());
+	}
+
+	@Benchmark
+	public byte[] finalizeOutput() throws Exception {
+		return voprf.finalize(INPUT, blindResult.blind(), evaluateResult.evaluatedElement(),
+			blindResult.blindedElement(), keyPair.publicKey(), proof);
+	}
+
+	@Benchmark
+	public byte[] evaluate() throws Exception {
+		return voprf.evaluate(keyPair.secretKey(), INPUT);
+	}
+
+	@Benchmark
+	public Proof generateProof() {
+		final var skS = oprfSuite.decodeScalar(keyPair.secretKey());
+		final var pkS = oprfSuite.decodeElement(keyPair.publicKey());
+		return oprfSuite.generateProof(skS, oprfSuite.getG(), pkS, blindedElements, evaluatedElements, context);
+	}
+
+	@Benchmark
+	public boolean verifyProof() throws Exception {
+		final var pkS = oprfSuite.decodeElement(keyPair.publicKey());
+		return oprfSuite.verifyProof(oprfSuite.getG(), pkS, blindedElements, evaluatedElements, proof, context);
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import java.nio.charset.StandardCharsets;
+
+import org.bouncycastle.util.Arrays;
+
+import de.bitplumber.crypto.oprf.Labels;
+
+/**
+ * Shared fixtures for the Bouncy Castle OPRF benchmarks
+ */
+final class BenchmarkSuites {
+	static final byte[] INPUT = "benchmark input".getBytes(StandardCharsets.UTF_8);
+	static final byte[] INFO  = "benchmark info".getBytes(StandardCharsets.UTF_8);
+	static final byte[] SEED  = new byte[32];
+
+	private BenchmarkSuites() {}
+
+	static BcOPRFSuite create(String suite) {
+		return switch (suite) {
+			case "P256" -> BcOPRFSuite.createP256();
+			case "P384" -> BcOPRFSuite.createP384();
+			case "P521" -> BcOPRFSuite.createP521();
+			case "secp256k1" -> BcOPRFSuite.createSecp256k1();
+			default -> throw new IllegalArgumentException("Unknown suite '" + suite + "'");
+		};
+	}
+
+	/**
+	 * Same context string the mode classes derive internally, needed to call the
+	 * (package-private) proof primitives directly
+	 * @param suite
+	 * @param mode
+	 * @return
+	 */
+	static byte[] context(BcOPRFSuite suite, byte[] mode) {
+		return Arrays.concatenate(new byte[][]{
+			Labels.CONTEXT_PREFIX, mode,
+			("-" + suite.getName()).getBytes(StandardCharsets.UTF_8),
+		});
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * secp256k1 scalar multiplication with the GLV endomorphism (the curve of the suite, BC's
+ * <code>SecP256K1Curve</code>) against plain wNAF on the same curve without endomorphism.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Secp256k1GLVBenchmark {
+	private ECPoint glvP;
+	private ECPoint glvQ;
+	private ECPoint plainP;
+	private ECPoint plainQ;
+	private BigInteger a;
+	private BigInteger b;
+
+	@Setup
+	public void setup() {
+		final var suite = BcOPRFSuite.createSecp256k1();
+		final var curve = suite.getCurve();
+		final var plain = new ECCurve.Fp(curve.getField().getCharacteristic(), curve.getA().toBigInteger(), curve.getB().toBigInteger(),
+			curve.getOrder(), curve.getCofactor());
+
+		a = suite.randomScalar().toBigInteger();
+		b = suite.randomScalar().toBigInteger();
+		glvP = suite.multiply(suite.getG(), suite.randomScalar()).normalize();
+		glvQ = suite.multiply(suite.getG(), suite.randomScalar()).normalize();
+		plainP = plain.decodePoint(glvP.getEncoded(true));
+		plainQ = plain.decodePoint(glvQ.getEncoded(true));
+	}
+
+	@Benchmark
+	public ECPoint multiplyGLV() {
+		return glvP.multiply(a);
+	}
+
+	@Benchmark
+	public ECPoint multiplyWNaf() {
+		return plainP.multiply(a);
+	}
+
+	@Benchmark
+	public ECPoint sumOfTwoMultipliesGLV() {
+		return ECAlgorithms.sumOfTwoMultiplies(glvP, a, glvQ, b);
+	}
+
+	@Benchmark
+	public ECPoint sumOfTwoMultipliesWNaf() {
+		return ECAlgorithms.sumOfTwoMultiplies(plainP, a, plainQ, b);
+	}
+}
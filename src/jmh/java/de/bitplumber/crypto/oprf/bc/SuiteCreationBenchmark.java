@@ -0,0 +1,44 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of creating a mode instance, e.g. per tenant or per thread. Run with
+ * <code>-bm ss -wi 0 -i 1 -f 10</code> to measure the first (cold) instantiation instead.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuiteCreationBenchmark {
+	@Param({ "P256", "P384", "P521", "secp256k1" })
+	public String suite;
+
+	@Benchmark
+	public BcVOPRF createVOPRF() {
+		return switch (suite) {
+			case "P256" -> BcVOPRF.createP256();
+			case "P384" -> BcVOPRF.createP384();
+			case "P521" -> BcVOPRF.createP521();
+			case "secp256k1" -> BcVOPRF.createSecp256k1();
+			default -> throw new IllegalArgumentException("Unknown suite '" + suite + "'");
+		};
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * RFC 9497 OPRF implementation for Ristretto255
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.ristretto255;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weavechain.curve25519.RistrettoElement;
+
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+
+/**
+ * Client and server operations of the base mode (RFC 9497 3.3.1).
+ * The Ristretto255 classes keep no mutable state, so a single instance is shared
+ * by all benchmark threads.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Ristretto255OPRFBenchmark {
+	private static final byte[] INPUT = "benchmark input".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SEED  = new byte[32];
+
+	private Ristretto255OPRF oprf;
+	private OPRFKeyPair keyPair;
+	private Ristretto255OPRF.BlindResult blindResult;
+	private RistrettoElement evaluatedElement;
+
+	@Setup
+	public void setup() throws Exception {
+		oprf = new Ristretto255OPRF();
+		keyPair = oprf.deriveKeyPair(SEED, null);
+		blindResult = oprf.blind(INPUT);
+		evaluatedElement = oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement());
+	}
+
+	@Benchmark
+	public OPRFKeyPair deriveKeyPair() throws Exception {
+		return oprf.deriveKeyPair(SEED, null);
+	}
+
+	@Benchmark
+	public Ristretto255OPRF.BlindResult blind() throws Exception {
+		return oprf.blind(INPUT);
+	}
+
+	@Benchmark
+	public RistrettoElement blindEvaluate() throws Exception {
+		return oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement());
+	}
+
+	@Benchmark
+	public byte[] finalizeOutput() throws Exception {
+		return oprf.finalize(INPUT, blindResult.blind(), evaluatedElement);
+	}
+
+	@Benchmark
+	public byte[] evaluate() throws Exception {
+		return oprf.evaluate(keyPair.secretKey(), INPUT);
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * RFC 9497 OPRF implementation for Ristretto255
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.ristretto255;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weavechain.curve25519.RistrettoElement;
+import com.weavechain.curve25519.Scalar;
+
+import de.bitplumber.crypto.oprf.Labels;
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+import de.bitplumber.crypto.oprf.ristretto255.AbstractRistretto255.Proof;
+
+/**
+ * Client and server operations of the partially-oblivious mode (RFC 9497 3.3.3), plus
+ * the DLEQ proof generation and verification over the tweaked key on their own.
+ * The Ristretto255 classes keep no mutable state, so a single instance is shared
+ * by all benchmark threads.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Ristretto255POPRFBenchmark {
+	private static final byte[] INPUT = "benchmark input".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] INFO  = "benchmark info".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SEED  = new byte[32];
+
+	private Ristretto255POPRF poprf;
+	private OPRFKeyPair keyPair;
+	private Ristretto255POPRF.BlindResult blindResult;
+	private Ristretto255POPRF.BlindEvaluateResult evaluateResult;
+	private Proof proof;
+	private Scalar tweakedSecret;
+	private RistrettoElement[] blindedElements;
+	private RistrettoElement[] evaluatedElements;
+
+	@Setup
+	public void setup() throws Exception {
+		poprf = new Ristretto255POPRF();
+		keyPair = poprf.deriveKeyPair(SEED, null);
+		blindResult = poprf.blind(INPUT, INFO, keyPair.publicKey());
+		evaluateResult = poprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement(), INFO);
+		proof = Proof.fromBytes(evaluateResult.proof());
+		blindedElements = new RistrettoElement[]{ blindResult.blindedElement() };
+		evaluatedElements = new RistrettoElement[]{ evaluateResult.evaluatedElement() };
+
+		tweakedSecret = poprf.decodeScalar(keyPair.secretKey()).add(poprf.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(INFO), null));
+	}
+
+	@Benchmark
+	public OPRFKeyPair deriveKeyPair() throws Exception {
+		return poprf.deriveKeyPair(SEED, null);
+	}
+
+	@Benchmark
+	public Ristretto255POPRF.BlindResult blind() throws Exception {
+		return poprf.blind(INPUT, INFO, keyPair.publicKey());
+	}
+
+	@Benchmark
+	public Ristretto255POPRF.BlindEvaluateResult blindEvaluate() throws Exception {
+		return poprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement(), INFO);
+	}
+
+	@Benchmark
+	public byte[] finalizeOutput() throws Exception {
+		return poprf.finalize(INPUT, blindResult.blind(), evaluateResult.evaluatedElement(),
+			blindResult.blindedElement(), proof, INFO, blindResult.tweakedKey());
+	}
+
+	@Benchmark
+	public byte[] evaluate() throws Exception {
+		return poprf.evaluate(keyPair.secretKey(), INPUT, INFO);
+	}
+
+	@Benchmark
+	public Proof generateProof() {
+		return poprf.generateProof(tweakedSecret, RistrettoElement.BASEPOINT, blindResult.tweakedKey(), evaluatedElements, blindedElements);
+	}
+
+	@Benchmark
+	public boolean verifyProof() throws Exception {
+		return poprf.verifyProof(RistrettoElement.BASEPOINT, blindResult.tweakedKey(), evaluatedElements, blindedElements, proof);
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * RFC 9497 OPRF implementation for Ristretto255
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.ristretto255;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weavechain.curve25519.RistrettoElement;
+
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+import de.bitplumber.crypto.oprf.ristretto255.AbstractRistretto255.Proof;
+
+/**
+ * Client and server operations of the verifiable mode (RFC 9497 3.3.2), plus the DLEQ
+ * proof generation and verification on their own.
+ * The Ristretto255 classes keep no mutable state, so a single instance is shared
+ * by all benchmark threads.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Ristretto255VOPRFBenchmark {
+	private static final byte[] INPUT = "benchmark input".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SEED  = new byte[32];
+
+	private Ristretto255VOPRF voprf;
+	private OPRFKeyPair keyPair;
+	private Ristretto255VOPRF.BlindResult blindResult;
+	private Ristretto255VOPRF.BlindEvaluateResult evaluateResult;
+	private Proof proof;
+	private RistrettoElement[] blindedElements;
+	private RistrettoElement[] evaluatedElements;
+
+	@Setup
+	public void setup() throws Exception {
+		voprf = new Ristretto255VOPRF();
+		keyPair = voprf.deriveKeyPair(SEED, null);
+		blindResult = voprf.blind(INPUT);
+		evaluateResult = voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), blindResult.blindedElement());
+		proof = Proof.fromBytes(evaluateResult.proof());
+		blindedElements = new RistrettoElement[]{ blindResult.blindedElement() };
+		evaluatedElements = new RistrettoElement[]{ evaluateResult.evaluatedElement() };
+	}
+
+	@Benchmark
+	public OPRFKeyPair deriveKeyPair() throws Exception {
+		return voprf.deriveKeyPair(SEED, null);
+	}
+
+	@Benchmark
+	public Ristretto255VOPRF.BlindResult blind() throws Exception {
+		return voprf.blind(INPUT);
+	}
+
+	@Benchmark
+	public Ristretto255VOPRF.BlindEvaluateResult blindEvaluate() throws Exception {
+		return voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), blindResult.blindedElement());
+	}
+
+	@Benchmark
+	public byte[] finalizeOutput() throws Exception {
+		return voprf.finalize(INPUT, blindResult.blind(), evaluateResult.evaluatedElement(),
+			blindResult.blindedElement(), keyPair.publicKey(), proof);
+	}
+
+	@Benchmark
+	public byte[] evaluate() throws Exception {
+		return voprf.evaluate(keyPair.secretKey(), INPUT);
+	}
+
+	@Benchmark
+	public Proof generateProof() throws Exception {
+		final var skS = voprf.decodeScalar(keyPair.secretKey());
+		final var pkS = voprf.decodeElement(keyPair.publicKey());
+		return voprf.generateProof(skS, RistrettoElement.BASEPOINT, pkS, blindedElements, evaluatedElements);
+	}
+
+	@Benchmark
+	public boolean verifyProof() throws Exception {
+		final var pkS = voprf.decodeElement(keyPair.publicKey());
+		return voprf.verifyProof(RistrettoElement.BASEPOINT, pkS, blindedElements, evaluatedElements, proof);
+	}
+}
@@ -0,0 +1,308 @@
+/**
+ * Curve25519 prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo p = 2^255 - 19 on 5 unsaturated 51 bit limbs (little-endian).
+ *
+ * Since 2^255 = 19 (mod p), the upper half of a product is folded onto the lower half
+ * by multiplying it with 19, followed by carry propagation.
+ *
+ * All operations produce <em>weakly reduced</em> outputs: limbs are within 51 bits
+ * (limb 1 may exceed it by a few bits), the value itself is in [0, 2p).
+ * Use <code>canonical()</code> before comparing or encoding.
+ * All operations are constant-time with respect to the values.
+ */
+final class Curve25519Field {
+	static final int LIMBS = 5;
+	static final int BITS = 51;
+	static final long MASK = (1L << BITS) - 1;
+
+	static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+
+	private Curve25519Field() { /* */ }
+
+	static long[] create() {
+		return new long[LIMBS];
+	}
+
+	static long[] one() {
+		final var r = create();
+		r[0] = 1;
+		return r;
+	}
+
+	static long[] fromBigInteger(BigInteger x) {
+		final var r = create();
+		final var v = x.mod(P);
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = v.shiftRight(i * BITS).longValue() & MASK;
+		return r;
+	}
+
+	static BigInteger toBigInteger(long[] a) {
+		final var c = canonical(a);
+		var v = BigInteger.ZERO;
+		for (int i = LIMBS - 1; i >= 0; i--)
+			v = v.shiftLeft(BITS).or(BigInteger.valueOf(c[i]));
+		return v;
+	}
+
+	/**
+	 * Little-endian 32 byte input, the top bit is ignored
+	 */
+	static long[] fromBytes(byte[] le) {
+		final var w0 = load64(le, 0);
+		final var w1 = load64(le, 8);
+		final var w2 = load64(le, 16);
+		final var w3 = load64(le, 24);
+
+		final var r = create();
+		r[0] = w0 & MASK;
+		r[1] = ((w0 >>> 51) | (w1 << 13)) & MASK;
+		r[2] = ((w1 >>> 38) | (w2 << 26)) & MASK;
+		r[3] = ((w2 >>> 25) | (w3 << 39)) & MASK;
+		r[4] = (w3 >>> 12) & MASK;
+		return r;
+	}
+
+	private static long load64(byte[] le, int offset) {
+		long w = 0;
+		for (int k = 7; k >= 0; k--)
+			w = (w << 8) | (le[offset + k] & 0xffL);
+		return w;
+	}
+
+	/**
+	 * Little-endian encoding (32 bytes) of the canonical value of <code>a</code>
+	 */
+	static byte[] toBytes(long[] a) {
+		final var c = canonical(a);
+		final var le = new byte[32];
+		long acc = 0;
+		int accBits = 0, limb = 0;
+		for (int k = 0; k < le.length; k++) {
+			if (accBits < 8 && limb < LIMBS) {
+				acc |= c[limb++] << accBits;
+				accBits += BITS;
+			}
+			le[k] = (byte) acc;
+			acc >>>= 8;
+			accBits -= 8;
+		}
+		return le;
+	}
+
+	/**
+	 * Carry propagation, limbs may be up to 62 bits on input
+	 */
+	static void carry(long[] r) {
+		long c;
+		for (int i = 0; i < LIMBS - 1; i++) {
+			c = r[i] >>> BITS;
+			r[i] &= MASK;
+			r[i + 1] += c;
+		}
+		c = r[4] >>> BITS;
+		r[4] &= MASK;
+		r[0] += 19 * c;
+		c = r[0] >>> BITS;
+		r[0] &= MASK;
+		r[1] += c;
+	}
+
+	/**
+	 * Fully reduced copy of <code>a</code>, in [0, p)
+	 */
+	static long[] canonical(long[] a) {
+		final var r = a.clone();
+		carry(r);
+		carry(r);
+
+		// r in [0, 2^255) now, r + 19 in [19, 2^255 + 19)
+		r[0] += 19;
+		carry(r);
+
+		// Offset by 2^255 - 19: r + 2^255 - 19 in [2^255, 2^256), dropping bit 255 yields r mod p
+		r[0] += (1L << BITS) - 19;
+		for (int i = 1; i < LIMBS; i++)
+			r[i] += (1L << BITS) - 1;
+		for (int i = 0; i < LIMBS - 1; i++) {
+			r[i + 1] += r[i] >>> BITS;
+			r[i] &= MASK;
+		}
+		r[4] &= MASK;
+		return r;
+	}
+
+	static void copy(long[] r, long[] a) {
+		System.arraycopy(a, 0, r, 0, LIMBS);
+	}
+
+	static void add(long[] r, long[] a, long[] b) {
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] + b[i];
+		carry(r);
+	}
+
+	// 4p, limb-wise, to keep subtraction results positive
+	private static final long[] P4 = new long[]{
+		(MASK - 18) << 2, MASK << 2, MASK << 2, MASK << 2, MASK << 2,
+	};
+
+	static void sub(long[] r, long[] a, long[] b) {
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] + P4[i] - b[i];
+		carry(r);
+	}
+
+	static void neg(long[] r, long[] a) {
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = P4[i] - a[i];
+		carry(r);
+	}
+
+	/**
+	 * r = a * b (mod p)
+	 */
+	static void mul(long[] r, long[] a, long[] b) {
+		// 19 * b for the wrapped-around columns, 2^255 = 19 (mod p)
+		final long b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3], b4 = b[4];
+		final long d1 = 19 * b1, d2 = 19 * b2, d3 = 19 * b3, d4 = 19 * b4;
+		final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+
+		final var c = new long[2 * LIMBS];	// 128-bit column sums, (lo, hi) pairs
+		column(c, 0, a0, b0, a1, d4, a2, d3, a3, d2, a4, d1);
+		column(c, 1, a0, b1, a1, b0, a2, d4, a3, d3, a4, d2);
+		column(c, 2, a0, b2, a1, b1, a2, b0, a3, d4, a4, d3);
+		column(c, 3, a0, b3, a1, b2, a2, b1, a3, b0, a4, d4);
+		column(c, 4, a0, b4, a1, b3, a2, b2, a3, b1, a4, b0);
+		reduceColumns(r, c);
+	}
+
+	/**
+	 * r = a^2 (mod p)
+	 */
+	static void sqr(long[] r, long[] a) {
+		final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+		final long a0x2 = a0 << 1, a1x2 = a1 << 1;
+		final long a3x19 = 19 * a3, a4x19 = 19 * a4, a3x38 = a3x19 << 1, a4x38 = a4x19 << 1;
+
+		final var c = new long[2 * LIMBS];
+		column(c, 0, a0, a0, a1, a4x38, a2, a3x38, 0, 0, 0, 0);
+		column(c, 1, a0x2, a1, a2, a4x38, a3, a3x19, 0, 0, 0, 0);
+		column(c, 2, a0x2, a2, a1, a1, a3, a4x38, 0, 0, 0, 0);
+		column(c, 3, a0x2, a3, a1x2, a2, a4, a4x19, 0, 0, 0, 0);
+		column(c, 4, a0x2, a4, a1x2, a3, a2, a2, 0, 0, 0, 0);
+		reduceColumns(r, c);
+	}
+
+	/**
+	 * r = a^2^n (mod p)
+	 */
+	static void sqr(long[] r, long[] a, int n) {
+		copy(r, a);
+		for (int i = 0; i < n; i++)
+			sqr(r, r);
+	}
+
+	private static void column(long[] c, int k, long x0, long y0, long x1, long y1, long x2, long y2, long x3, long y3, long x4, long y4) {
+		long lo = 0, hi = 0, t;
+		t = x0 * y0; hi += Math.multiplyHigh(x0, y0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = x1 * y1; hi += Math.multiplyHigh(x1, y1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = x2 * y2; hi += Math.multiplyHigh(x2, y2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = x3 * y3; hi += Math.multiplyHigh(x3, y3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = x4 * y4; hi += Math.multiplyHigh(x4, y4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		c[2 * k] = lo;
+		c[2 * k + 1] = hi;
+	}
+
+	/**
+	 * Carry propagation over the 128-bit column sums into 5 limbs
+	 */
+	private static void reduceColumns(long[] r, long[] c) {
+		long carryLo = 0, carryHi = 0;
+		for (int k = 0; k < LIMBS; k++) {
+			final var lo = c[2 * k] + carryLo;
+			final var hi = c[2 * k + 1] + carryHi + (Long.compareUnsigned(lo, carryLo) < 0 ? 1 : 0);
+			r[k] = lo & MASK;
+			carryLo = (lo >>> BITS) | (hi << (64 - BITS));
+			carryHi = hi >>> BITS;
+		}
+
+		// Carry out of the top limb wraps around (2^255 = 19), it is < 2^61
+		final var t = 19 * carryLo;
+		final var lo = r[0] + t;
+		final var hi = Math.multiplyHigh(19, carryLo) + (Long.compareUnsigned(lo, t) < 0 ? 1 : 0);
+		r[0] = lo & MASK;
+		r[1] += (lo >>> BITS) | (hi << (64 - BITS));
+		final var c1 = r[1] >>> BITS;
+		r[1] &= MASK;
+		r[2] += c1;
+	}
+
+	/**
+	 * r = cond ? b : a
+	 */
+	static void cmov(long[] r, long[] a, long[] b, boolean cond) {
+		final var mask = -(long) (cond ? 1 : 0);
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] ^ ((a[i] ^ b[i]) & mask);
+	}
+
+	static boolean isZero(long[] a) {
+		final var c = canonical(a);
+		long acc = 0;
+		for (int i = 0; i < LIMBS; i++)
+			acc |= c[i];
+		return acc == 0;
+	}
+
+	/** Low bit of the canonical value, see RFC 9496 IS_NEGATIVE */
+	static boolean isNegative(long[] a) {
+		return (canonical(a)[0] & 1) == 1;
+	}
+
+	/**
+	 * r = a^-1 = a^(p - 2) = a^(2^255 - 21), fixed addition chain, zero maps to zero
+	 */
+	static void invert(long[] r, long[] a) {
+		final var z2 = create();
+		final var z9 = create();
+		final var z11 = create();
+		final var t0 = create();
+		final var t1 = create();
+		final var t = create();
+
+		sqr(z2, a);				// 2
+		sqr(t, z2, 2);
+		mul(z9, t, a);			// 9
+		mul(z11, z9, z2);		// 11
+		sqr(t, z11);
+		mul(t0, t, z9);			// 2^5 - 1
+
+		sqr(t, t0, 5);
+		mul(t0, t, t0);			// 2^10 - 1
+		sqr(t, t0, 10);
+		mul(t1, t, t0);			// 2^20 - 1
+		sqr(t, t1, 20);
+		mul(t, t, t1);			// 2^40 - 1
+		sqr(t, t, 10);
+		mul(t0, t, t0);			// 2^50 - 1
+		sqr(t, t0, 50);
+		mul(t1, t, t0);			// 2^100 - 1
+		sqr(t, t1, 100);
+		mul(t, t, t1);			// 2^200 - 1
+		sqr(t, t, 50);
+		mul(t, t, t0);			// 2^250 - 1
+		sqr(t, t, 5);
+		mul(r, t, z11);			// 2^255 - 21
+	}
+}
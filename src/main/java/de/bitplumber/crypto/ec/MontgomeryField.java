@@ -0,0 +1,378 @@
+/**
+ * Montgomery arithmetic modulo curve orders
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.math.raw.Mod;
+import org.bouncycastle.util.BigIntegers;
+
+/**
+ * Arithmetic modulo an odd modulus n (e.g. the order of P-256, P-384, P-521 or secp256k1)
+ * on saturated 64 bit limbs (little-endian), in Montgomery form a * R mod n with R = 2^(64 * limbs).
+ *
+ * Elements are <code>long[]</code> of <code>getLimbs()</code> length, always fully reduced (in [0, n)),
+ * so they can be compared limb-wise. All operations write into a caller-provided result array
+ * (which may alias the inputs) and are constant-time with respect to the values. <code>add</code>,
+ * <code>sub</code>, <code>neg</code> and the <code>mul</code> / <code>sqr</code> variants that take
+ * a scratch array (<code>createScratch()</code>) do not allocate, for batch loops; the other
+ * <code>mul</code> / <code>sqr</code> variants allocate their scratch array on each call.
+ */
+public final class MontgomeryField {
+	private final BigInteger modulus;
+	private final int limbs;
+	private final int words;		// 32 bit words of n, for Mod.modOddInverse()
+	private final long[] n;
+	private final long n0inv;		// -n^-1 mod 2^64
+	private final long[] r2;		// R^2 mod n, converts into Montgomery form
+	private final long[] r3;		// R^3 mod n, inversion stays in Montgomery form
+	private final long[] one;		// R mod n
+
+	public MontgomeryField(BigInteger modulus) {
+		if (modulus.signum() <= 0 || !modulus.testBit(0))
+			throw new IllegalArgumentException("Modulus must be odd and positive");
+
+		this.modulus = modulus;
+		this.limbs = (modulus.bitLength() + 63) >>> 6;
+		this.words = (modulus.bitLength() + 31) >>> 5;
+		this.n = toLimbs(modulus);
+
+		// Newton iteration for n^-1 mod 2^64, each step doubles the number of correct bits
+		long inv = n[0];
+		for (int i = 0; i < 5; i++)
+			inv *= 2 - n[0] * inv;
+		this.n0inv = -inv;
+
+		final var R = BigInteger.ONE.shiftLeft(64 * limbs);
+		this.one = toLimbs(R.mod(modulus));
+		this.r2 = toLimbs(R.multiply(R).mod(modulus));
+		this.r3 = toLimbs(R.multiply(R).multiply(R).mod(modulus));
+	}
+
+	public BigInteger getModulus() {
+		return modulus;
+	}
+
+	public int getLimbs() {
+		return limbs;
+	}
+
+	public long[] create() {
+		return new long[limbs];
+	}
+
+	/**
+	 * @return Scratch array for <code>mul()</code> / <code>sqr()</code>, reusable across calls (not across threads)
+	 */
+	public long[] createScratch() {
+		return new long[limbs + 2];
+	}
+
+	/**
+	 * @return 1 in Montgomery form
+	 */
+	public long[] one() {
+		return one.clone();
+	}
+
+	private long[] toLimbs(BigInteger x) {
+		final var r = new long[limbs];
+		final var bytes = BigIntegers.asUnsignedByteArray(8 * limbs, x);
+		for (int i = 0; i < limbs; i++)
+			r[i] = load64(bytes, 8 * (limbs - 1 - i));
+		return r;
+	}
+
+	private static long load64(byte[] be, int offset) {
+		long w = 0;
+		for (int k = 0; k < 8; k++)
+			w = (w << 8) | (be[offset + k] & 0xffL);
+		return w;
+	}
+
+	/**
+	 * @param x Any non-negative value, reduced modulo n
+	 * @return x in Montgomery form
+	 */
+	public long[] fromBigInteger(BigInteger x) {
+		final var r = toLimbs(x.mod(modulus));
+		mul(r, r, r2, createScratch());
+		return r;
+	}
+
+	/**
+	 * @param a Element in Montgomery form
+	 * @return Canonical value of a, in [0, n)
+	 */
+	public BigInteger toBigInteger(long[] a) {
+		final var r = create();
+		final var unit = create();
+		unit[0] = 1;
+		mul(r, a, unit, createScratch());
+
+		final var bytes = new byte[8 * limbs];
+		for (int i = 0; i < limbs; i++) {
+			final var w = r[limbs - 1 - i];
+			for (int k = 0; k < 8; k++)
+				bytes[8 * i + k] = (byte) (w >>> (56 - 8 * k));
+		}
+		return BigIntegers.fromUnsignedByteArray(bytes);
+	}
+
+	/**
+	 * Reduce an arbitrary length big-endian value modulo n (e.g. the uniform bytes of hash_to_field),
+	 * folding it in blocks of <code>getLimbs()</code> limbs: acc = acc * 2^(64 * limbs) + block
+	 * @param be
+	 * @return Reduced value in Montgomery form
+	 */
+	public long[] reduce(byte[] be) {
+		final var blockBytes = 8 * limbs;
+		final var blocks = Math.max(1, (be.length + blockBytes - 1) / blockBytes);
+		final var padded = new byte[blocks * blockBytes];
+		System.arraycopy(be, 0, padded, padded.length - be.length, be.length);
+
+		final var acc = create();
+		final var block = create();
+		final var t = createScratch();
+		for (int b = 0; b < blocks; b++) {
+			for (int i = 0; i < limbs; i++)
+				block[i] = load64(padded, b * blockBytes + 8 * (limbs - 1 - i));
+
+			// block < R and r2 < n, the Montgomery product is fully reduced
+			mul(acc, acc, r2, t);		// acc * 2^(64 * limbs), in Montgomery form
+			mul(block, block, r2, t);
+			add(acc, acc, block);
+		}
+		return acc;
+	}
+
+	public void copy(long[] r, long[] a) {
+		System.arraycopy(a, 0, r, 0, limbs);
+	}
+
+	/**
+	 * r = a + b (mod n)
+	 */
+	public void add(long[] r, long[] a, long[] b) {
+		long carry = 0;
+		for (int i = 0; i < limbs; i++) {
+			final var s = a[i] + b[i];
+			final var c1 = Long.compareUnsigned(s, a[i]) < 0 ? 1L : 0L;
+			r[i] = s + carry;
+			carry = c1 + (Long.compareUnsigned(r[i], s) < 0 ? 1L : 0L);
+		}
+		subtractModulus(r, carry);
+	}
+
+	/**
+	 * r = a - b (mod n)
+	 */
+	public void sub(long[] r, long[] a, long[] b) {
+		long borrow = 0;
+		for (int i = 0; i < limbs; i++) {
+			final var d = a[i] - b[i];
+			final var b1 = Long.compareUnsigned(a[i], b[i]) < 0 ? 1L : 0L;
+			r[i] = d - borrow;
+			borrow = b1 | (Long.compareUnsigned(d, borrow) < 0 ? 1L : 0L);
+		}
+		addModulus(r, borrow);
+	}
+
+	/**
+	 * r = -a (mod n)
+	 */
+	public void neg(long[] r, long[] a) {
+		long borrow = 0;
+		for (int i = 0; i < limbs; i++) {
+			final var d = -a[i];
+			final var b1 = a[i] != 0 ? 1L : 0L;
+			r[i] = d - borrow;
+			borrow = b1 | (Long.compareUnsigned(d, borrow) < 0 ? 1L : 0L);
+		}
+		addModulus(r, borrow);
+	}
+
+	/**
+	 * Add n back to r if the preceding subtraction borrowed
+	 */
+	private void addModulus(long[] r, long borrow) {
+		final var mask = -borrow;
+		long carry = 0;
+		for (int i = 0; i < limbs; i++) {
+			final var addend = n[i] & mask;
+			final var s = r[i] + addend;
+			final var c1 = Long.compareUnsigned(s, addend) < 0 ? 1L : 0L;
+			r[i] = s + carry;
+			carry = c1 + (Long.compareUnsigned(r[i], s) < 0 ? 1L : 0L);
+		}
+	}
+
+	/**
+	 * Montgomery product r = a * b * R^-1 (mod n)
+	 */
+	public void mul(long[] r, long[] a, long[] b) {
+		mul(r, a, b, createScratch());
+	}
+
+	/**
+	 * Montgomery product r = a * b * R^-1 (mod n), CIOS method
+	 * @param t Scratch array from <code>createScratch()</code>, overwritten
+	 */
+	public void mul(long[] r, long[] a, long[] b, long[] t) {
+		Arrays.fill(t, 0L);
+		for (int i = 0; i < limbs; i++) {
+			final var bi = b[i];
+			long c = 0;
+			for (int j = 0; j < limbs; j++) {
+				final var plo = a[j] * bi;
+				var hi = Math.unsignedMultiplyHigh(a[j], bi);
+				var lo = t[j] + plo;
+				hi += Long.compareUnsigned(lo, plo) < 0 ? 1 : 0;
+				lo += c;
+				hi += Long.compareUnsigned(lo, c) < 0 ? 1 : 0;
+				t[j] = lo;
+				c = hi;
+			}
+			var s = t[limbs] + c;
+			t[limbs + 1] = Long.compareUnsigned(s, c) < 0 ? 1 : 0;
+			t[limbs] = s;
+
+			// t += m * n, shifted down by one limb (t[0] becomes zero)
+			final var m = t[0] * n0inv;
+			var plo = m * n[0];
+			c = Math.unsignedMultiplyHigh(m, n[0]) + (Long.compareUnsigned(t[0] + plo, plo) < 0 ? 1 : 0);
+			for (int j = 1; j < limbs; j++) {
+				plo = m * n[j];
+				var hi = Math.unsignedMultiplyHigh(m, n[j]);
+				var lo = t[j] + plo;
+				hi += Long.compareUnsigned(lo, plo) < 0 ? 1 : 0;
+				lo += c;
+				hi += Long.compareUnsigned(lo, c) < 0 ? 1 : 0;
+				t[j - 1] = lo;
+				c = hi;
+			}
+			s = t[limbs] + c;
+			t[limbs - 1] = s;
+			t[limbs] = t[limbs + 1] + (Long.compareUnsigned(s, c) < 0 ? 1 : 0);
+		}
+
+		System.arraycopy(t, 0, r, 0, limbs);
+		subtractModulus(r, t[limbs]);
+	}
+
+	/**
+	 * r = a^2 * R^-1 (mod n)
+	 */
+	public void sqr(long[] r, long[] a) {
+		mul(r, a, a);
+	}
+
+	/**
+	 * r = a^2 * R^-1 (mod n)
+	 * @param t Scratch array from <code>createScratch()</code>, overwritten
+	 */
+	public void sqr(long[] r, long[] a, long[] t) {
+		mul(r, a, a, t);
+	}
+
+	/**
+	 * Subtract n once if (carry : r) >= n, for values in [0, 2n)
+	 */
+	private void subtractModulus(long[] r, long carry) {
+		// First pass only computes the borrow of r - n
+		long borrow = 0;
+		for (int i = 0; i < limbs; i++) {
+			final var x = r[i] - n[i];
+			final var b1 = Long.compareUnsigned(r[i], n[i]) < 0 ? 1L : 0L;
+			borrow = b1 | (Long.compareUnsigned(x, borrow) < 0 ? 1L : 0L);
+		}
+
+		// Subtract n unless r is below it, i.e. the subtraction borrowed and there is no carry
+		final var mask = ~(-(borrow & (carry ^ 1)));
+		borrow = 0;
+		for (int i = 0; i < limbs; i++) {
+			final var subtrahend = n[i] & mask;
+			final var x = r[i] - subtrahend;
+			final var b1 = Long.compareUnsigned(r[i], subtrahend) < 0 ? 1L : 0L;
+			r[i] = x - borrow;
+			borrow = b1 | (Long.compareUnsigned(x, borrow) < 0 ? 1L : 0L);
+		}
+	}
+
+	/**
+	 * r = a^-1 (mod n) in Montgomery form, using Bouncy Castle's constant-time safegcd
+	 * (<code>Mod.modOddInverse()</code>) on the Montgomery representation:
+	 * (aR)^-1 = a^-1 * R^-1, one Montgomery product with R^3 yields a^-1 * R.
+	 * @return false if a is zero (not invertible), r is zero then
+	 */
+	public boolean invert(long[] r, long[] a) {
+		final var m = toWords(n);
+		final var x = toWords(a);
+		final var z = new int[words];
+		final var invertible = Mod.modOddInverse(m, x, z) != 0;
+
+		for (int i = 0; i < limbs; i++) {
+			final var lo = 2 * i < words ? z[2 * i] & 0xffffffffL : 0;
+			final var hi = 2 * i + 1 < words ? (long) z[2 * i + 1] << 32 : 0;
+			r[i] = hi | lo;
+		}
+		mul(r, r, r3, createScratch());
+		return invertible;
+	}
+
+	private int[] toWords(long[] a) {
+		final var w = new int[words];
+		for (int i = 0; i < words; i++)
+			w[i] = (int) (a[i >>> 1] >>> ((i & 1) << 5));
+		return w;
+	}
+
+	/**
+	 * Montgomery's trick, replaces each a[i] by its inverse with a single field inversion
+	 * @return false if any element is zero (not invertible), all elements are left unchanged then
+	 */
+	public boolean invertAll(long[][] a) {
+		final var count = a.length;
+		final var prefix = new long[count][];
+		final var acc = one();
+		final var scratch = createScratch();
+		for (int i = 0; i < count; i++) {
+			prefix[i] = acc.clone();
+			mul(acc, acc, a[i], scratch);
+		}
+
+		if (!invert(acc, acc))
+			return false;
+
+		final var t = create();
+		for (int i = count - 1; i >= 0; i--) {
+			mul(t, acc, prefix[i], scratch);
+			mul(acc, acc, a[i], scratch);
+			copy(a[i], t);
+		}
+		return true;
+	}
+
+	public boolean isZero(long[] a) {
+		long acc = 0;
+		for (int i = 0; i < limbs; i++)
+			acc |= a[i];
+		return acc == 0;
+	}
+
+	/**
+	 * Constant-time comparison of two (fully reduced) elements
+	 */
+	public boolean equals(long[] a, long[] b) {
+		long acc = 0;
+		for (int i = 0; i < limbs; i++)
+			acc |= a[i] ^ b[i];
+		return acc == 0;
+	}
+}
@@ -0,0 +1,528 @@
+/**
+ * Vector API (jdk.incubator.vector) batched P-256 point arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+
+/**
+ * Batched P-256 operations (RFC 9380 SSWU mapping, point addition, normalization and
+ * scalar multiplication) on top of the lane-parallel Montgomery field multiplier
+ * in <code>P256VectorField</code>.
+ *
+ * The Vector API is an incubator module, which needs to be enabled with
+ * <code>--add-modules jdk.incubator.vector</code>. Callers have to check <code>isAvailable()</code>
+ * first and use the regular (Bouncy Castle, one element at a time) code path otherwise.
+ * Setting the system property <code>de.bitplumber.crypto.vector=false</code> disables it.
+ */
+public final class P256Batch {
+	private static final boolean AVAILABLE = detect();
+
+	// Curve constants, in canonical form
+	private static final BigInteger Q = P256Limbs.FIELD_P;
+	private static final BigInteger CURVE_A = Q.subtract(BigInteger.valueOf(3));
+	private static final BigInteger CURVE_B = new BigInteger("5ac635d8aa3a93e7b3ebbd55769886bc651d06b0cc53b0f63bce3c3e27d2604b", 16);
+	private static final BigInteger SSWU_Z = Q.subtract(BigInteger.valueOf(10));
+	private static final BigInteger SQRT_C1 = Q.subtract(BigInteger.valueOf(3)).shiftRight(2);	// (q - 3) / 4
+	private static final BigInteger SQRT_C2 = SSWU_Z.negate().mod(Q).modPow(Q.add(BigInteger.ONE).shiftRight(2), Q);	// sqrt(-Z)
+	private static final BigInteger INV_EXP = Q.subtract(BigInteger.TWO);
+
+	private P256Batch() { /* */ }
+
+	private static boolean detect() {
+		if (!Boolean.parseBoolean(System.getProperty("de.bitplumber.crypto.vector", "true")))
+			return false;
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return false;
+		try {
+			return P256VectorField.LANES >= 4;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the Vector API is usable and provides at least 4 64-bit lanes
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	/**
+	 * @param curve
+	 * @return <code>true</code> if the batched operations can be used for points on <code>curve</code>
+	 */
+	public static boolean supports(ECCurve curve) {
+		return AVAILABLE && curve.getField().getCharacteristic().equals(Q)
+			&& curve.getA().toBigInteger().equals(CURVE_A) && curve.getB().toBigInteger().equals(CURVE_B);
+	}
+
+	/** Batch of projective points (X : Y : Z), x = X / Z, y = Y / Z */
+	private static final record Points(long[][] X, long[][] Y, long[][] Z) {
+		static Points allocate(int n) {
+			return new Points(P256Limbs.allocate(n), P256Limbs.allocate(n), P256Limbs.allocate(n));
+		}
+	}
+
+	private static int padded(int count) {
+		final var lanes = P256VectorField.LANES;
+		return Math.max(lanes, Math.ceilDiv(count, lanes) * lanes);
+	}
+
+	private static long[][] constant(BigInteger x, int n) {
+		final var fe = P256Limbs.broadcast(P256Limbs.fromBigInteger(x), n);
+		toMontgomery(fe, fe, n);
+		return fe;
+	}
+
+	private static void toMontgomery(long[][] r, long[][] a, int n) {
+		P256VectorField.mul(r, a, P256Limbs.broadcast(P256Limbs.fromBigInteger(P256Limbs.MONT_R2), n), n);
+	}
+
+	/** Convert from Montgomery into canonical form */
+	private static void fromMontgomery(long[][] r, long[][] a, int n) {
+		P256VectorField.mul(r, a, P256Limbs.broadcast(P256Limbs.fromBigInteger(BigInteger.ONE), n), n);
+		P256VectorField.reduce(r, r, n);
+	}
+
+	/**
+	 * Load field elements into a Montgomery form batch, padding lanes are set to one
+	 */
+	private static long[][] load(ECFieldElement[] elements, int n) {
+		final var fe = P256Limbs.allocate(n);
+		final var one = P256Limbs.fromBigInteger(BigInteger.ONE);
+		for (int j = 0; j < n; j++) {
+			if (j < elements.length) {
+				P256Limbs.fromBytes(fe, j, elements[j].getEncoded());
+			} else {
+				P256Limbs.set(fe, j, one);
+			}
+		}
+		toMontgomery(fe, fe, n);
+		return fe;
+	}
+
+	/** r = a^e for a fixed (public) exponent, 4-bit fixed window */
+	private static void pow(long[][] r, long[][] a, BigInteger e, int n) {
+		final var table = new long[16][][];
+		table[1] = a;
+		for (int i = 2; i < 16; i++) {
+			table[i] = P256Limbs.allocate(n);
+			P256VectorField.mul(table[i], table[i - 1], a, n);
+		}
+
+		final var acc = P256Limbs.allocate(n);
+		boolean first = true;
+		for (int w = (e.bitLength() + 3) / 4 - 1; w >= 0; w--) {
+			if (!first) {
+				for (int s = 0; s < 4; s++)
+					P256VectorField.sqr(acc, acc, n);
+			}
+			final int nibble = (e.testBit(4 * w) ? 1 : 0) | (e.testBit(4 * w + 1) ? 2 : 0)
+				| (e.testBit(4 * w + 2) ? 4 : 0) | (e.testBit(4 * w + 3) ? 8 : 0);
+			if (first) {
+				copy(acc, table[nibble], n);
+				first = false;
+			} else if (nibble != 0) {
+				P256VectorField.mul(acc, acc, table[nibble], n);
+			}
+		}
+		copy(r, acc, n);
+	}
+
+	private static void copy(long[][] r, long[][] a, int n) {
+		for (int i = 0; i < P256Limbs.LIMBS; i++)
+			System.arraycopy(a[i], 0, r[i], 0, n);
+	}
+
+	/**
+	 * Batch inversion (Montgomery's trick), computed independently in each lane so that
+	 * the products stay vectorized. All lanes share the final Fermat inversion.
+	 * None of the elements may be zero.
+	 */
+	private static void invert(long[][] r, long[][] a, int n) {
+		final var lanes = P256VectorField.LANES;
+		final var blocks = n / lanes;
+		final var prefix = new long[blocks][][];
+		for (int b = 0; b < blocks; b++) {
+			prefix[b] = P256Limbs.allocate(lanes);
+			final var block = slice(a, b, lanes);
+			if (b == 0) {
+				copy(prefix[b], block, lanes);
+			} else {
+				P256VectorField.mul(prefix[b], prefix[b - 1], block, lanes);
+			}
+		}
+
+		final var inv = P256Limbs.allocate(lanes);
+		pow(inv, prefix[blocks - 1], INV_EXP, lanes);
+
+		final var tmp = P256Limbs.allocate(lanes);
+		for (int b = blocks - 1; b >= 0; b--) {
+			final var block = slice(a, b, lanes);
+			if (b > 0) {
+				P256VectorField.mul(tmp, inv, prefix[b - 1], lanes);
+				P256VectorField.mul(inv, inv, block, lanes);
+			} else {
+				copy(tmp, inv, lanes);
+			}
+			unslice(r, tmp, b, lanes);
+		}
+	}
+
+	private static long[][] slice(long[][] a, int block, int lanes) {
+		final var fe = P256Limbs.allocate(lanes);
+		for (int i = 0; i < P256Limbs.LIMBS; i++)
+			System.arraycopy(a[i], block * lanes, fe[i], 0, lanes);
+		return fe;
+	}
+
+	private static void unslice(long[][] r, long[][] fe, int block, int lanes) {
+		for (int i = 0; i < P256Limbs.LIMBS; i++)
+			System.arraycopy(fe[i], 0, r[i], block * lanes, lanes);
+	}
+
+	/** out[j] = -1 if a[j] is odd (sgn0), 0 otherwise */
+	private static long[] sgn0(long[][] a, int n) {
+		final var canonical = P256Limbs.allocate(n);
+		fromMontgomery(canonical, a, n);
+		final var out = new long[n];
+		for (int j = 0; j < n; j++)
+			out[j] = -(canonical[0][j] & 1);
+		return out;
+	}
+
+	/**
+	 * RFC 9380 - F.2 map_to_curve_simple_swu() with sqrt_ratio() for q = 3 (mod 4), on a
+	 * batch of field elements. The result is kept projective: (x_num : y * tv4 : tv4)
+	 */
+	private static Points mapToCurveSimpleSWU(long[][] u, int n) {
+		final var A = constant(CURVE_A, n);
+		final var B = constant(CURVE_B, n);
+		final var Z = constant(SSWU_Z, n);
+		final var one = constant(BigInteger.ONE, n);
+
+		final var tv1 = P256Limbs.allocate(n);
+		final var tv2 = P256Limbs.allocate(n);
+		final var tv3 = P256Limbs.allocate(n);
+		final var tv4 = P256Limbs.allocate(n);
+		final var tv5 = P256Limbs.allocate(n);
+		final var tv6 = P256Limbs.allocate(n);
+		final var x = P256Limbs.allocate(n);
+		final var y = P256Limbs.allocate(n);
+		final var cond = new long[n];
+
+		P256VectorField.sqr(tv1, u, n);
+		P256VectorField.mul(tv1, Z, tv1, n);
+		P256VectorField.sqr(tv2, tv1, n);
+		P256VectorField.add(tv2, tv2, tv1, n);
+		P256VectorField.add(tv3, tv2, one, n);
+		P256VectorField.mul(tv3, B, tv3, n);
+		P256VectorField.reduce(tv5, tv2, n);
+		P256VectorField.isZero(cond, tv5, n);
+		P256VectorField.neg(tv4, tv2, n);
+		P256VectorField.select(tv4, tv4, Z, cond, n);		// tv4 = CMOV(Z, -tv2, tv2 != 0)
+		P256VectorField.mul(tv4, A, tv4, n);
+		P256VectorField.sqr(tv2, tv3, n);
+		P256VectorField.sqr(tv6, tv4, n);
+		P256VectorField.mul(tv5, A, tv6, n);
+		P256VectorField.add(tv2, tv2, tv5, n);
+		P256VectorField.mul(tv2, tv2, tv3, n);
+		P256VectorField.mul(tv6, tv6, tv4, n);
+		P256VectorField.mul(tv5, B, tv6, n);
+		P256VectorField.add(tv2, tv2, tv5, n);
+		P256VectorField.mul(x, tv1, tv3, n);
+
+		// sqrt_ratio(tv2, tv6)
+		final var isQR = new long[n];
+		final var y1 = P256Limbs.allocate(n);
+		{
+			final var s1 = P256Limbs.allocate(n);
+			final var s2 = P256Limbs.allocate(n);
+			P256VectorField.sqr(s1, tv6, n);
+			P256VectorField.mul(s2, tv2, tv6, n);
+			P256VectorField.mul(s1, s1, s2, n);
+			pow(y1, s1, SQRT_C1, n);
+			P256VectorField.mul(y1, y1, s2, n);
+			final var y2 = P256Limbs.allocate(n);
+			P256VectorField.mul(y2, y1, constant(SQRT_C2, n), n);
+			P256VectorField.sqr(s1, y1, n);
+			P256VectorField.mul(s1, s1, tv6, n);
+			P256VectorField.sub(s1, s1, tv2, n);
+			P256VectorField.reduce(s1, s1, n);
+			P256VectorField.isZero(isQR, s1, n);
+			P256VectorField.select(y1, y2, y1, isQR, n);
+		}
+
+		P256VectorField.mul(y, tv1, u, n);
+		P256VectorField.mul(y, y, y1, n);
+		P256VectorField.select(x, x, tv3, isQR, n);
+		P256VectorField.select(y, y, y1, isQR, n);
+
+		final var sgnU = sgn0(u, n);
+		final var sgnY = sgn0(y, n);
+		for (int j = 0; j < n; j++)
+			cond[j] = ~(sgnU[j] ^ sgnY[j]);
+		P256VectorField.neg(tv5, y, n);
+		P256VectorField.select(y, tv5, y, cond, n);
+
+		final var result = Points.allocate(n);
+		copy(result.X(), x, n);
+		P256VectorField.mul(result.Y(), y, tv4, n);
+		copy(result.Z(), tv4, n);
+		return result;
+	}
+
+	/**
+	 * Complete projective point addition for a = -3, Renes-Costello-Batina 2016, Algorithm 4
+	 */
+	private static void add(Points r, Points p, Points q, long[][] b, int n) {
+		final var X1 = p.X(); final var Y1 = p.Y(); final var Z1 = p.Z();
+		final var X2 = q.X(); final var Y2 = q.Y(); final var Z2 = q.Z();
+		final var t0 = P256Limbs.allocate(n);
+		final var t1 = P256Limbs.allocate(n);
+		final var t2 = P256Limbs.allocate(n);
+		final var t3 = P256Limbs.allocate(n);
+		final var t4 = P256Limbs.allocate(n);
+		final var X3 = P256Limbs.allocate(n);
+		final var Y3 = P256Limbs.allocate(n);
+		final var Z3 = P256Limbs.allocate(n);
+
+		P256VectorField.mul(t0, X1, X2, n);
+		P256VectorField.mul(t1, Y1, Y2, n);
+		P256VectorField.mul(t2, Z1, Z2, n);
+		P256VectorField.add(t3, X1, Y1, n);
+		P256VectorField.add(t4, X2, Y2, n);
+		P256VectorField.mul(t3, t3, t4, n);
+		P256VectorField.add(t4, t0, t1, n);
+		P256VectorField.sub(t3, t3, t4, n);
+		P256VectorField.add(t4, Y1, Z1, n);
+		P256VectorField.add(X3, Y2, Z2, n);
+		P256VectorField.mul(t4, t4, X3, n);
+		P256VectorField.add(X3, t1, t2, n);
+		P256VectorField.sub(t4, t4, X3, n);
+		P256VectorField.add(X3, X1, Z1, n);
+		P256VectorField.add(Y3, X2, Z2, n);
+		P256VectorField.mul(X3, X3, Y3, n);
+		P256VectorField.add(Y3, t0, t2, n);
+		P256VectorField.sub(Y3, X3, Y3, n);
+		P256VectorField.mul(Z3, b, t2, n);
+		P256VectorField.sub(X3, Y3, Z3, n);
+		P256VectorField.add(Z3, X3, X3, n);
+		P256VectorField.add(X3, X3, Z3, n);
+		P256VectorField.sub(Z3, t1, X3, n);
+		P256VectorField.add(X3, t1, X3, n);
+		P256VectorField.mul(Y3, b, Y3, n);
+		P256VectorField.add(t1, t2, t2, n);
+		P256VectorField.add(t2, t1, t2, n);
+		P256VectorField.sub(Y3, Y3, t2, n);
+		P256VectorField.sub(Y3, Y3, t0, n);
+		P256VectorField.add(t1, Y3, Y3, n);
+		P256VectorField.add(Y3, t1, Y3, n);
+		P256VectorField.add(t1, t0, t0, n);
+		P256VectorField.add(t0, t1, t0, n);
+		P256VectorField.sub(t0, t0, t2, n);
+		P256VectorField.mul(t1, t4, Y3, n);
+		P256VectorField.mul(t2, t0, Y3, n);
+		P256VectorField.mul(Y3, X3, Z3, n);
+		P256VectorField.add(Y3, Y3, t2, n);
+		P256VectorField.mul(X3, t3, X3, n);
+		P256VectorField.sub(X3, X3, t1, n);
+		P256VectorField.mul(Z3, t4, Z3, n);
+		P256VectorField.mul(t1, t3, t0, n);
+		P256VectorField.add(Z3, Z3, t1, n);
+
+		copy(r.X(), X3, n);
+		copy(r.Y(), Y3, n);
+		copy(r.Z(), Z3, n);
+	}
+
+	/**
+	 * Complete projective point doubling for a = -3, Renes-Costello-Batina 2016, Algorithm 6
+	 */
+	private static void dbl(Points r, Points p, long[][] b, int n) {
+		final var X = p.X(); final var Y = p.Y(); final var Z = p.Z();
+		final var t0 = P256Limbs.allocate(n);
+		final var t1 = P256Limbs.allocate(n);
+		final var t2 = P256Limbs.allocate(n);
+		final var t3 = P256Limbs.allocate(n);
+		final var X3 = P256Limbs.allocate(n);
+		final var Y3 = P256Limbs.allocate(n);
+		final var Z3 = P256Limbs.allocate(n);
+
+		P256VectorField.sqr(t0, X, n);
+		P256VectorField.sqr(t1, Y, n);
+		P256VectorField.sqr(t2, Z, n);
+		P256VectorField.mul(t3, X, Y, n);
+		P256VectorField.add(t3, t3, t3, n);
+		P256VectorField.mul(Z3, X, Z, n);
+		P256VectorField.add(Z3, Z3, Z3, n);
+		P256VectorField.mul(Y3, b, t2, n);
+		P256VectorField.sub(Y3, Y3, Z3, n);
+		P256VectorField.add(X3, Y3, Y3, n);
+		P256VectorField.add(Y3, X3, Y3, n);
+		P256VectorField.sub(X3, t1, Y3, n);
+		P256VectorField.add(Y3, t1, Y3, n);
+		P256VectorField.mul(Y3, X3, Y3, n);
+		P256VectorField.mul(X3, X3, t3, n);
+		P256VectorField.add(t3, t2, t2, n);
+		P256VectorField.add(t2, t2, t3, n);
+		P256VectorField.mul(Z3, b, Z3, n);
+		P256VectorField.sub(Z3, Z3, t2, n);
+		P256VectorField.sub(Z3, Z3, t0, n);
+		P256VectorField.add(t3, Z3, Z3, n);
+		P256VectorField.add(Z3, Z3, t3, n);
+		P256VectorField.add(t3, t0, t0, n);
+		P256VectorField.add(t0, t3, t0, n);
+		P256VectorField.sub(t0, t0, t2, n);
+		P256VectorField.mul(t0, t0, Z3, n);
+		P256VectorField.add(Y3, Y3, t0, n);
+		P256VectorField.mul(t0, Y, Z, n);
+		P256VectorField.add(t0, t0, t0, n);
+		P256VectorField.mul(Z3, t0, Z3, n);
+		P256VectorField.sub(X3, X3, Z3, n);
+		P256VectorField.mul(Z3, t0, t1, n);
+		P256VectorField.add(Z3, Z3, Z3, n);
+		P256VectorField.add(Z3, Z3, Z3, n);
+
+		copy(r.X(), X3, n);
+		copy(r.Y(), Y3, n);
+		copy(r.Z(), Z3, n);
+	}
+
+	/**
+	 * Batch normalization of projective points to affine Bouncy Castle points, sharing one
+	 * (vectorized) field inversion between all of them.
+	 */
+	private static ECPoint[] normalize(ECCurve curve, Points p, int count, int n) {
+		// Replace Z = 0 (point at infinity, padding lanes) by one, a zero would spoil the
+		// inversion of all other elements sharing the same lane.
+		final var infinity = new long[n];
+		final var zInv = P256Limbs.allocate(n);
+		P256VectorField.reduce(zInv, p.Z(), n);
+		P256VectorField.isZero(infinity, zInv, n);
+		for (int j = count; j < n; j++)
+			infinity[j] = -1L;
+		P256VectorField.select(zInv, p.Z(), constant(BigInteger.ONE, n), infinity, n);
+		invert(zInv, zInv, n);
+
+		final var x = P256Limbs.allocate(n);
+		final var y = P256Limbs.allocate(n);
+		P256VectorField.mul(x, p.X(), zInv, n);
+		P256VectorField.mul(y, p.Y(), zInv, n);
+		fromMontgomery(x, x, n);
+		fromMontgomery(y, y, n);
+
+		final var points = new ECPoint[count];
+		for (int j = 0; j < count; j++) {
+			if (infinity[j] != 0) {
+				points[j] = curve.getInfinity();
+				continue;
+			}
+			points[j] = curve.createPoint(
+				BigIntegers.fromUnsignedByteArray(P256Limbs.toBytes(x, j)),
+				BigIntegers.fromUnsignedByteArray(P256Limbs.toBytes(y, j)));
+		}
+		return points;
+	}
+
+	/**
+	 * Batched RFC 9380 encode_to_curve mapping step: map_to_curve(u[i])
+	 * @param curve P-256 curve, used to create the resulting points
+	 * @param u
+	 * @return
+	 */
+	public static ECPoint[] mapToCurve(ECCurve curve, ECFieldElement[] u) {
+		final var n = padded(u.length);
+		final var q = mapToCurveSimpleSWU(load(u, n), n);
+		return normalize(curve, q, u.length, n);
+	}
+
+	/**
+	 * Batched RFC 9380 hash_to_curve mapping step: map_to_curve(u0[i]) + map_to_curve(u1[i])
+	 * (P-256 has cofactor 1, so no cofactor clearing is required)
+	 * @param curve P-256 curve, used to create the resulting points
+	 * @param u0
+	 * @param u1
+	 * @return
+	 */
+	public static ECPoint[] mapToCurve(ECCurve curve, ECFieldElement[] u0, ECFieldElement[] u1) {
+		if (u0.length != u1.length)
+			throw new IllegalArgumentException("u0 and u1 must have the same length");
+
+		final var n = padded(u0.length);
+		final var q0 = mapToCurveSimpleSWU(load(u0, n), n);
+		final var q1 = mapToCurveSimpleSWU(load(u1, n), n);
+		add(q0, q0, q1, constant(CURVE_B, n), n);
+		return normalize(curve, q0, u0.length, n);
+	}
+
+	/**
+	 * Multiply all <code>points</code> by the same scalar <code>k</code>, using a constant-time
+	 * 4-bit fixed window over complete addition formulas, lane-parallel over the points.
+	 * @param curve P-256 curve
+	 * @param points Points, must not contain the point at infinity
+	 * @param k Scalar, 0 < k < n
+	 * @return
+	 */
+	public static ECPoint[] multiply(ECCurve curve, ECPoint[] points, BigInteger k) {
+		final var count = points.length;
+		final var n = padded(count);
+		final var normalized = points.clone();
+		curve.normalizeAll(normalized);
+
+		final var px = new ECFieldElement[count];
+		final var py = new ECFieldElement[count];
+		for (int j = 0; j < count; j++) {
+			if (normalized[j].isInfinity())
+				throw new IllegalArgumentException("Point at infinity");
+			px[j] = normalized[j].getAffineXCoord();
+			py[j] = normalized[j].getAffineYCoord();
+		}
+
+		// Padding lanes are filled with y = 1, x = 1, which is not a curve point, but the
+		// complete formulas don't care and the lanes are discarded anyway.
+		final var b = constant(CURVE_B, n);
+		final var table = new Points[16];
+		table[0] = new Points(P256Limbs.allocate(n), constant(BigInteger.ONE, n), P256Limbs.allocate(n));
+		table[1] = new Points(load(px, n), load(py, n), constant(BigInteger.ONE, n));
+		for (int i = 2; i < 16; i++) {
+			table[i] = Points.allocate(n);
+			add(table[i], table[i - 1], table[1], b, n);
+		}
+
+		final var tx = new long[16][][];
+		final var ty = new long[16][][];
+		final var tz = new long[16][][];
+		for (int i = 0; i < 16; i++) {
+			tx[i] = table[i].X();
+			ty[i] = table[i].Y();
+			tz[i] = table[i].Z();
+		}
+
+		final var scalar = BigIntegers.asUnsignedByteArray(32, k);
+		final var acc = new Points(P256Limbs.allocate(n), constant(BigInteger.ONE, n), P256Limbs.allocate(n));
+		final var sel = Points.allocate(n);
+		for (int w = 63; w >= 0; w--) {
+			if (w != 63) {
+				for (int d = 0; d < 4; d++)
+					dbl(acc, acc, b, n);
+			}
+			final int nibble = (scalar[31 - (w >>> 1)] >>> ((w & 1) * 4)) & 0x0f;
+			P256VectorField.lookup(sel.X(), tx, nibble, n);
+			P256VectorField.lookup(sel.Y(), ty, nibble, n);
+			P256VectorField.lookup(sel.Z(), tz, nibble, n);
+			add(acc, acc, sel, b, n);
+		}
+		return normalize(curve, acc, count, n);
+	}
+}
@@ -0,0 +1,502 @@
+/**
+ * P-256 prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+
+/**
+ * P-256 operations on top of the 4x64 bit Montgomery field arithmetic in <code>P256Field</code>:
+ * hash_to_field reduction, RFC 9380 SSWU mapping, point decompression and (constant-time)
+ * scalar multiplication. Inputs and outputs are Bouncy Castle
+ * types, so this can be used as a drop-in replacement for the corresponding Bouncy Castle
+ * operations on the secp256r1 curve. Returned points are affine (normalized).
+ *
+ * The sum of the two SSWU mappings in hash_to_curve uses the complete projective formulas
+ * (Renes-Costello-Batina), its inputs are attacker-controlled and may well be equal or opposite.
+ * Scalar multiplication uses the cheaper Jacobian formulas, it only has to handle the point
+ * at infinity, which is done with constant-time selects. Unlike the other operations it is
+ * not faster than Bouncy Castle's (variable-time) wNAF multiplication, see <code>P256CurveBenchmark</code>.
+ */
+public final class P256Curve {
+	private static final BigInteger Q = P256Field.P;
+	private static final BigInteger CURVE_A = Q.subtract(BigInteger.valueOf(3));
+	private static final BigInteger CURVE_B = new BigInteger("5ac635d8aa3a93e7b3ebbd55769886bc651d06b0cc53b0f63bce3c3e27d2604b", 16);
+	private static final BigInteger SSWU_Z = Q.subtract(BigInteger.TEN);
+
+	private static final long[] A = P256Field.fromBigInteger(CURVE_A);
+	private static final long[] B = P256Field.fromBigInteger(CURVE_B);
+	private static final long[] Z = P256Field.fromBigInteger(SSWU_Z);
+	private static final long[] SQRT_MINUS_Z = P256Field.fromBigInteger(	// sqrt(-Z)
+		SSWU_Z.negate().mod(Q).modPow(Q.add(BigInteger.ONE).shiftRight(2), Q));
+	private static final long[] ONE = P256Field.one();
+
+	private static final int WINDOW = 5;
+	private static final int WINDOWS = (256 + WINDOW - 1) / WINDOW;	// Top digit takes the final carry
+
+	private P256Curve() { /* */ }
+
+	/**
+	 * @param curve
+	 * @return <code>true</code> if <code>curve</code> is secp256r1
+	 */
+	public static boolean supports(ECCurve curve) {
+		return curve.getField().getCharacteristic().equals(Q)
+			&& curve.getA().toBigInteger().equals(CURVE_A) && curve.getB().toBigInteger().equals(CURVE_B);
+	}
+
+	/**
+	 * hash_to_field reduction: OS2IP(tv) mod p, for the uniform bytes of one field element
+	 * @param uniformBytes Any length (L = 48 for P256_XMD:SHA-256)
+	 * @return
+	 */
+	public static BigInteger reduce(byte[] uniformBytes) {
+		return P256Field.toBigInteger(P256Field.fromBytesReduce(uniformBytes));
+	}
+
+	/** Projective coordinates, x = X / Z, y = Y / Z, infinity is (0 : 1 : 0) */
+	private static final record Projective(long[] X, long[] Y, long[] Z) {
+		static Projective create() {
+			return new Projective(P256Field.create(), P256Field.create(), P256Field.create());
+		}
+
+		static Projective infinity() {
+			return new Projective(P256Field.create(), ONE.clone(), P256Field.create());
+		}
+
+		void set(Projective p) {
+			P256Field.copy(X, p.X());
+			P256Field.copy(Y, p.Y());
+			P256Field.copy(Z, p.Z());
+		}
+
+		void cmov(Projective p, boolean cond) {
+			P256Field.cmov(X, X, p.X(), cond);
+			P256Field.cmov(Y, Y, p.Y(), cond);
+			P256Field.cmov(Z, Z, p.Z(), cond);
+		}
+	}
+
+	/**
+	 * RFC 9380 - F.2 map_to_curve_simple_swu() for P-256, using sqrt_ratio() for q = 3 (mod 4).
+	 * The result is kept projective: (x * tv4 : y * tv4 : tv4), the final division is left to the caller.
+	 */
+	private static Projective mapToCurveSimpleSWU(long[] u) {
+		final var tv1 = P256Field.create();
+		final var tv2 = P256Field.create();
+		final var tv3 = P256Field.create();
+		final var tv4 = P256Field.create();
+		final var tv5 = P256Field.create();
+		final var tv6 = P256Field.create();
+
+		P256Field.sqr(tv1, u);
+		P256Field.mul(tv1, Z, tv1);
+		P256Field.sqr(tv2, tv1);
+		P256Field.add(tv2, tv2, tv1);
+		P256Field.add(tv3, tv2, ONE);
+		P256Field.mul(tv3, B, tv3);
+		P256Field.neg(tv4, tv2);
+		P256Field.cmov(tv4, Z, tv4, !P256Field.isZero(tv2));
+		P256Field.mul(tv4, A, tv4);
+		P256Field.sqr(tv2, tv3);
+		P256Field.sqr(tv6, tv4);
+		P256Field.mul(tv5, A, tv6);
+		P256Field.add(tv2, tv2, tv5);
+		P256Field.mul(tv2, tv2, tv3);
+		P256Field.mul(tv6, tv6, tv4);
+		P256Field.mul(tv5, B, tv6);
+		P256Field.add(tv2, tv2, tv5);
+
+		// sqrt_ratio(tv2, tv6)
+		final var y1 = P256Field.create();
+		final var y2 = P256Field.create();
+		final var s = P256Field.create();
+		P256Field.sqr(s, tv6);
+		P256Field.mul(y2, tv2, tv6);
+		P256Field.mul(s, s, y2);
+		P256Field.powP34(y1, s);
+		P256Field.mul(y1, y1, y2);
+		P256Field.mul(y2, y1, SQRT_MINUS_Z);
+		P256Field.sqr(s, y1);
+		P256Field.mul(s, s, tv6);
+		final var isQR = P256Field.equals(s, tv2);
+		P256Field.cmov(y1, y2, y1, isQR);
+
+		final var x = P256Field.create();
+		final var y = P256Field.create();
+		P256Field.mul(x, tv1, tv3);
+		P256Field.mul(y, tv1, u);
+		P256Field.mul(y, y, y1);
+		P256Field.cmov(x, x, tv3, isQR);
+		P256Field.cmov(y, y, y1, isQR);
+
+		final var e1 = P256Field.sgn0(u) == P256Field.sgn0(y);
+		P256Field.neg(s, y);
+		P256Field.cmov(y, s, y, e1);
+
+		P256Field.mul(y, y, tv4);
+		return new Projective(x, y, tv4);
+	}
+
+	private static ECPoint toAffine(ECCurve curve, Projective p) {
+		if (P256Field.isZero(p.Z()))
+			return curve.getInfinity();
+
+		final var zInv = P256Field.create();
+		final var x = P256Field.create();
+		final var y = P256Field.create();
+		P256Field.invert(zInv, p.Z());
+		P256Field.mul(x, p.X(), zInv);
+		P256Field.mul(y, p.Y(), zInv);
+		return curve.createPoint(P256Field.toBigInteger(x), P256Field.toBigInteger(y));
+	}
+
+	/**
+	 * RFC 9380 encode_to_curve mapping step: map_to_curve(u)
+	 * @param curve secp256r1 curve, used to create the resulting point
+	 * @param u
+	 * @return
+	 */
+	public static ECPoint mapToCurveSimpleSWU(ECCurve curve, ECFieldElement u) {
+		return toAffine(curve, mapToCurveSimpleSWU(P256Field.fromBigInteger(u.toBigInteger())));
+	}
+
+	/**
+	 * RFC 9380 hash_to_curve mapping step: map_to_curve(u0) + map_to_curve(u1), added in
+	 * projective coordinates, so both mappings share a single field inversion
+	 * (P-256 has cofactor 1, so no cofactor clearing is required)
+	 * @param curve secp256r1 curve, used to create the resulting point
+	 * @param u0
+	 * @param u1
+	 * @return
+	 */
+	public static ECPoint mapToCurve(ECCurve curve, ECFieldElement u0, ECFieldElement u1) {
+		final var q0 = mapToCurveSimpleSWU(P256Field.fromBigInteger(u0.toBigInteger()));
+		final var q1 = mapToCurveSimpleSWU(P256Field.fromBigInteger(u1.toBigInteger()));
+		add(q0, q0, q1);
+		return toAffine(curve, q0);
+	}
+
+	/**
+	 * SEC1 point decompression (compressed encoding only, 33 bytes)
+	 * @param curve secp256r1 curve, used to create the resulting point
+	 * @param encoded
+	 * @return The decoded point, or <code>null</code> if the encoding is invalid
+	 */
+	public static ECPoint decodePoint(ECCurve curve, byte[] encoded) {
+		if (encoded == null || encoded.length != 33 || (encoded[0] != 0x02 && encoded[0] != 0x03))
+			return null;
+		final var xi = new BigInteger(1, encoded, 1, 32);
+		if (xi.compareTo(Q) >= 0)
+			return null;
+
+		// y^2 = x^3 + ax + b, y = rhs^((p + 1) / 4)
+		final var x = P256Field.fromBytes(encoded, 1);
+		final var rhs = P256Field.create();
+		final var t = P256Field.create();
+		P256Field.sqr(rhs, x);
+		P256Field.add(rhs, rhs, A);
+		P256Field.mul(rhs, rhs, x);
+		P256Field.add(rhs, rhs, B);
+
+		final var y = P256Field.create();
+		P256Field.powP34(y, rhs);
+		P256Field.mul(y, y, rhs);
+		P256Field.sqr(t, y);
+		if (!P256Field.equals(t, rhs))
+			return null;
+
+		P256Field.neg(t, y);
+		P256Field.cmov(y, y, t, P256Field.sgn0(y) != (encoded[0] & 1));
+		return curve.createPoint(xi, P256Field.toBigInteger(y));
+	}
+
+	/**
+	 * Complete projective point addition for a = -3, Renes-Costello-Batina 2016, Algorithm 4
+	 */
+	private static void add(Projective r, Projective p, Projective q) {
+		final var X1 = p.X(); final var Y1 = p.Y(); final var Z1 = p.Z();
+		final var X2 = q.X(); final var Y2 = q.Y(); final var Z2 = q.Z();
+		final var t0 = P256Field.create();
+		final var t1 = P256Field.create();
+		final var t2 = P256Field.create();
+		final var t3 = P256Field.create();
+		final var t4 = P256Field.create();
+		final var X3 = P256Field.create();
+		final var Y3 = P256Field.create();
+		final var Z3 = P256Field.create();
+
+		P256Field.mul(t0, X1, X2);
+		P256Field.mul(t1, Y1, Y2);
+		P256Field.mul(t2, Z1, Z2);
+		P256Field.add(t3, X1, Y1);
+		P256Field.add(t4, X2, Y2);
+		P256Field.mul(t3, t3, t4);
+		P256Field.add(t4, t0, t1);
+		P256Field.sub(t3, t3, t4);
+		P256Field.add(t4, Y1, Z1);
+		P256Field.add(X3, Y2, Z2);
+		P256Field.mul(t4, t4, X3);
+		P256Field.add(X3, t1, t2);
+		P256Field.sub(t4, t4, X3);
+		P256Field.add(X3, X1, Z1);
+		P256Field.add(Y3, X2, Z2);
+		P256Field.mul(X3, X3, Y3);
+		P256Field.add(Y3, t0, t2);
+		P256Field.sub(Y3, X3, Y3);
+		P256Field.mul(Z3, B, t2);
+		P256Field.sub(X3, Y3, Z3);
+		P256Field.add(Z3, X3, X3);
+		P256Field.add(X3, X3, Z3);
+		P256Field.sub(Z3, t1, X3);
+		P256Field.add(X3, t1, X3);
+		P256Field.mul(Y3, B, Y3);
+		P256Field.add(t1, t2, t2);
+		P256Field.add(t2, t1, t2);
+		P256Field.sub(Y3, Y3, t2);
+		P256Field.sub(Y3, Y3, t0);
+		P256Field.add(t1, Y3, Y3);
+		P256Field.add(Y3, t1, Y3);
+		P256Field.add(t1, t0, t0);
+		P256Field.add(t0, t1, t0);
+		P256Field.sub(t0, t0, t2);
+		P256Field.mul(t1, t4, Y3);
+		P256Field.mul(t2, t0, Y3);
+		P256Field.mul(Y3, X3, Z3);
+		P256Field.add(Y3, Y3, t2);
+		P256Field.mul(X3, t3, X3);
+		P256Field.sub(X3, X3, t1);
+		P256Field.mul(Z3, t4, Z3);
+		P256Field.mul(t1, t3, t0);
+		P256Field.add(Z3, Z3, t1);
+
+		P256Field.copy(r.X(), X3);
+		P256Field.copy(r.Y(), Y3);
+		P256Field.copy(r.Z(), Z3);
+	}
+
+	/** Jacobian coordinates, x = X / Z^2, y = Y / Z^3 */
+	private static final record Jacobian(long[] X, long[] Y, long[] Z) {
+		static Jacobian create() {
+			return new Jacobian(P256Field.create(), P256Field.create(), P256Field.create());
+		}
+
+		void set(Jacobian p) {
+			P256Field.copy(X, p.X());
+			P256Field.copy(Y, p.Y());
+			P256Field.copy(Z, p.Z());
+		}
+
+		void cmov(Jacobian p, boolean cond) {
+			P256Field.cmov(X, X, p.X(), cond);
+			P256Field.cmov(Y, Y, p.Y(), cond);
+			P256Field.cmov(Z, Z, p.Z(), cond);
+		}
+
+		boolean isInfinity() {
+			return P256Field.isZero(Z);
+		}
+	}
+
+	/**
+	 * Point doubling for a = -3, dbl-2001-b (3M + 5S), maps infinity (Z = 0) to infinity
+	 */
+	private static void dbl(Jacobian r, Jacobian p) {
+		final var delta = P256Field.create();
+		final var gamma = P256Field.create();
+		final var beta = P256Field.create();
+		final var alpha = P256Field.create();
+		final var t = P256Field.create();
+
+		P256Field.sqr(delta, p.Z());
+		P256Field.sqr(gamma, p.Y());
+		P256Field.mul(beta, p.X(), gamma);
+		P256Field.sub(t, p.X(), delta);
+		P256Field.add(alpha, p.X(), delta);
+		P256Field.mul(alpha, alpha, t);
+		P256Field.add(t, alpha, alpha);
+		P256Field.add(alpha, alpha, t);			// alpha = 3 * (X - delta) * (X + delta)
+
+		P256Field.add(r.Z(), p.Y(), p.Z());
+		P256Field.sqr(r.Z(), r.Z());
+		P256Field.sub(r.Z(), r.Z(), gamma);
+		P256Field.sub(r.Z(), r.Z(), delta);		// Z3 = (Y + Z)^2 - gamma - delta
+
+		P256Field.add(beta, beta, beta);
+		P256Field.add(beta, beta, beta);		// beta = 4 * beta
+		P256Field.sqr(r.X(), alpha);
+		P256Field.sub(r.X(), r.X(), beta);
+		P256Field.sub(r.X(), r.X(), beta);		// X3 = alpha^2 - 8 * beta
+
+		P256Field.sub(t, beta, r.X());
+		P256Field.mul(t, alpha, t);
+		P256Field.sqr(gamma, gamma);
+		P256Field.add(gamma, gamma, gamma);
+		P256Field.add(gamma, gamma, gamma);
+		P256Field.add(gamma, gamma, gamma);
+		P256Field.sub(r.Y(), t, gamma);			// Y3 = alpha * (4 * beta - X3) - 8 * gamma^2
+	}
+
+	/**
+	 * Point addition, add-2007-bl (11M + 5S). Does not handle the special cases P = Q,
+	 * P = -Q and P or Q = infinity, the caller has to take care of them.
+	 */
+	private static void add(Jacobian r, Jacobian p, Jacobian q) {
+		final var z1z1 = P256Field.create();
+		final var z2z2 = P256Field.create();
+		final var u1 = P256Field.create();
+		final var u2 = P256Field.create();
+		final var s1 = P256Field.create();
+		final var s2 = P256Field.create();
+		final var h = P256Field.create();
+		final var i = P256Field.create();
+		final var j = P256Field.create();
+		final var rr = P256Field.create();
+		final var v = P256Field.create();
+
+		P256Field.sqr(z1z1, p.Z());
+		P256Field.sqr(z2z2, q.Z());
+		P256Field.mul(u1, p.X(), z2z2);
+		P256Field.mul(u2, q.X(), z1z1);
+		P256Field.mul(s1, p.Y(), q.Z());
+		P256Field.mul(s1, s1, z2z2);
+		P256Field.mul(s2, q.Y(), p.Z());
+		P256Field.mul(s2, s2, z1z1);
+		P256Field.sub(h, u2, u1);
+		P256Field.add(i, h, h);
+		P256Field.sqr(i, i);
+		P256Field.mul(j, h, i);
+		P256Field.sub(rr, s2, s1);
+		P256Field.add(rr, rr, rr);
+		P256Field.mul(v, u1, i);
+
+		final var z3 = P256Field.create();
+		P256Field.add(z3, p.Z(), q.Z());
+		P256Field.sqr(z3, z3);
+		P256Field.sub(z3, z3, z1z1);
+		P256Field.sub(z3, z3, z2z2);
+		P256Field.mul(r.Z(), z3, h);
+
+		P256Field.sqr(r.X(), rr);
+		P256Field.sub(r.X(), r.X(), j);
+		P256Field.sub(r.X(), r.X(), v);
+		P256Field.sub(r.X(), r.X(), v);
+
+		P256Field.mul(s1, s1, j);
+		P256Field.add(s1, s1, s1);
+		P256Field.sub(v, v, r.X());
+		P256Field.mul(v, rr, v);
+		P256Field.sub(r.Y(), v, s1);
+	}
+
+	/**
+	 * Constant-time table lookup of |digit| * P, scans all entries, negated for digit < 0
+	 */
+	private static void lookup(Jacobian r, Jacobian[] table, int digit) {
+		final var sign = digit >> 31;
+		final var index = (digit ^ sign) - sign;
+		for (int i = 0; i < table.length; i++)
+			r.cmov(table[i], i == index);
+
+		final var minusY = P256Field.create();
+		P256Field.neg(minusY, r.Y());
+		P256Field.cmov(r.Y(), r.Y(), minusY, sign != 0);
+	}
+
+	/**
+	 * Signed (Booth) recoding of k into 5-bit windows, digits in [-16, 16]: k = sum(d[i] * 32^i)
+	 * @param k Scalar, 0 <= k < 2^256
+	 * @return
+	 */
+	private static int[] recode(BigInteger k) {
+		final var bytes = BigIntegers.asUnsignedByteArray(33, k);
+		final var digits = new int[WINDOWS];
+		var carry = 0;
+		for (int w = 0; w < WINDOWS; w++) {
+			// 5 bits starting at bit 5 * w, from the little-endian byte pair at that position
+			final var bit = WINDOW * w;
+			final var lo = bytes[32 - (bit >>> 3)] & 0xff;
+			final var hi = bytes[31 - (bit >>> 3)] & 0xff;
+			final var v = (((hi << 8) | lo) >>> (bit & 7) & 0x1f) + carry;
+
+			// v > 16: d = v - 32, carry into the next window
+			final var mask = (16 - v) >> 31;
+			digits[w] = v - (32 & mask);
+			carry = mask & 1;
+		}
+		return digits;
+	}
+
+	/**
+	 * Scalar multiplication k * P with a signed 5-bit window, constant-time with respect to k.
+	 * @param p Point on secp256r1
+	 * @param k Scalar, reduced modulo the group order
+	 * @return
+	 */
+	public static ECPoint multiply(ECPoint p, BigInteger k) {
+		final var curve = p.getCurve();
+		final var digits = recode(k.mod(curve.getOrder()));
+		if (p.isInfinity())
+			return curve.getInfinity();
+
+		// 0 * P (infinity, Z = 0), P, 2P, ..., 16P
+		final var affine = p.normalize();
+		final var table = new Jacobian[(1 << (WINDOW - 1)) + 1];
+		table[0] = Jacobian.create();
+		table[1] = new Jacobian(
+			P256Field.fromBigInteger(affine.getAffineXCoord().toBigInteger()),
+			P256Field.fromBigInteger(affine.getAffineYCoord().toBigInteger()),
+			ONE.clone());
+		for (int i = 2; i < table.length; i++) {
+			table[i] = Jacobian.create();
+			if ((i & 1) == 0) {
+				dbl(table[i], table[i >>> 1]);
+			} else {
+				add(table[i], table[i - 1], table[1]);
+			}
+		}
+
+		// acc = 32 * m * P for the prefix m >= 0 of the digits processed so far (m <= k / 32^w + 1).
+		// Adding d * P with |d| <= 16 could only hit acc = +/- d * P for k = 0 or k = n + 2d,
+		// the latter is impossible since n = 17 (mod 32) implies d = 15 in that case.
+		// The only special cases are therefore infinity on either side.
+		final var acc = Jacobian.create();
+		final var sel = Jacobian.create();
+		final var sum = Jacobian.create();
+		for (int w = WINDOWS - 1; w >= 0; w--) {
+			for (int d = 0; d < WINDOW; d++)
+				dbl(acc, acc);
+
+			lookup(sel, table, digits[w]);
+			add(sum, acc, sel);
+			final var accInfinity = acc.isInfinity();
+			final var selInfinity = sel.isInfinity();
+			sum.cmov(sel, accInfinity);
+			sum.cmov(acc, selInfinity);
+			acc.set(sum);
+		}
+
+		if (acc.isInfinity())
+			return curve.getInfinity();
+
+		final var zInv = P256Field.create();
+		final var t = P256Field.create();
+		P256Field.invert(zInv, acc.Z());
+		P256Field.sqr(t, zInv);
+		final var x = P256Field.create();
+		P256Field.mul(x, acc.X(), t);
+		P256Field.mul(t, t, zInv);
+		final var y = P256Field.create();
+		P256Field.mul(y, acc.Y(), t);
+		return curve.createPoint(P256Field.toBigInteger(x), P256Field.toBigInteger(y));
+	}
+}
@@ -0,0 +1,438 @@
+/**
+ * P-256 prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo p = 2^256 - 2^224 + 2^192 + 2^96 - 1 on 4 saturated 64 bit limbs (little-endian),
+ * in Montgomery form a * R mod p with R = 2^256.
+ *
+ * Since p = -1 (mod 2^64), the Montgomery reduction factor m is simply the lowest limb, and the
+ * special form of p turns m * p into shifts: m * p0 + m = m * 2^64, m * p1 + m = m * 2^32, p2 = 0
+ * and m * p3 = m * 2^64 - m * 2^32 + m.
+ *
+ * All elements are fully reduced (in [0, p)), so they can be compared limb-wise.
+ * All operations are constant-time with respect to the values.
+ */
+final class P256Field {
+	static final int LIMBS = 4;
+
+	static final BigInteger P = new BigInteger("ffffffff00000001000000000000000000000000ffffffffffffffffffffffff", 16);
+
+	private static final long P0 = 0xffffffffffffffffL;
+	private static final long P1 = 0x00000000ffffffffL;
+	private static final long P2 = 0x0000000000000000L;
+	private static final long P3 = 0xffffffff00000001L;
+
+	private static final long[] R2 = toLimbs(BigInteger.ONE.shiftLeft(512).mod(P));	// Converts into Montgomery form
+	private static final long[] ONE = toLimbs(BigInteger.ONE.shiftLeft(256).mod(P));	// R mod p
+
+	private P256Field() { /* */ }
+
+	static long[] create() {
+		return new long[LIMBS];
+	}
+
+	/**
+	 * @return 1 in Montgomery form
+	 */
+	static long[] one() {
+		return ONE.clone();
+	}
+
+	private static long[] toLimbs(BigInteger x) {
+		final var r = create();
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = x.shiftRight(64 * i).longValue();
+		return r;
+	}
+
+	static long[] fromBigInteger(BigInteger x) {
+		final var r = toLimbs(x.mod(P));
+		mul(r, r, R2);
+		return r;
+	}
+
+	static BigInteger toBigInteger(long[] a) {
+		return new BigInteger(1, toBytes(a));
+	}
+
+	private static long load64(byte[] be, int offset) {
+		long w = 0;
+		for (int k = 0; k < 8; k++)
+			w = (w << 8) | (be[offset + k] & 0xffL);
+		return w;
+	}
+
+	/**
+	 * Big-endian input of 32 bytes, reduced modulo p
+	 */
+	static long[] fromBytes(byte[] be, int offset) {
+		final var r = create();
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = load64(be, offset + 8 * (LIMBS - 1 - i));
+
+		// r < 2^256 and R2 < p, the Montgomery product is fully reduced
+		mul(r, r, R2);
+		return r;
+	}
+
+	/**
+	 * Reduce an arbitrary length big-endian value modulo p (e.g. the uniform bytes of hash_to_field),
+	 * folding it in 32 byte blocks: acc = acc * 2^256 + block
+	 * @param be
+	 * @return Reduced value in Montgomery form
+	 */
+	static long[] fromBytesReduce(byte[] be) {
+		final var blocks = Math.max(1, (be.length + 31) / 32);
+		final var padded = new byte[32 * blocks];
+		System.arraycopy(be, 0, padded, padded.length - be.length, be.length);
+
+		final var acc = create();
+		for (int b = 0; b < blocks; b++) {
+			mul(acc, acc, R2);		// acc * 2^256, in Montgomery form
+			add(acc, acc, fromBytes(padded, 32 * b));
+		}
+		return acc;
+	}
+
+	/**
+	 * Big-endian encoding (32 bytes) of the canonical value of <code>a</code>
+	 */
+	static byte[] toBytes(long[] a) {
+		final var c = canonical(a);
+		final var be = new byte[32];
+		for (int i = 0; i < LIMBS; i++) {
+			final var w = c[LIMBS - 1 - i];
+			for (int k = 0; k < 8; k++)
+				be[8 * i + k] = (byte) (w >>> (56 - 8 * k));
+		}
+		return be;
+	}
+
+	/**
+	 * Canonical (non-Montgomery) value of <code>a</code>, in [0, p)
+	 */
+	static long[] canonical(long[] a) {
+		final var r = create();
+		final var unit = create();
+		unit[0] = 1;
+		mul(r, a, unit);
+		return r;
+	}
+
+	static void copy(long[] r, long[] a) {
+		System.arraycopy(a, 0, r, 0, LIMBS);
+	}
+
+	static void add(long[] r, long[] a, long[] b) {
+		long s0, s1, s2, s3, c, c1;
+		s0 = a[0] + b[0]; c = Long.compareUnsigned(s0, b[0]) < 0 ? 1 : 0;
+		s1 = a[1] + b[1]; c1 = Long.compareUnsigned(s1, b[1]) < 0 ? 1 : 0; s1 += c; c = c1 | (Long.compareUnsigned(s1, c) < 0 ? 1 : 0);
+		s2 = a[2] + b[2]; c1 = Long.compareUnsigned(s2, b[2]) < 0 ? 1 : 0; s2 += c; c = c1 | (Long.compareUnsigned(s2, c) < 0 ? 1 : 0);
+		s3 = a[3] + b[3]; c1 = Long.compareUnsigned(s3, b[3]) < 0 ? 1 : 0; s3 += c; c = c1 | (Long.compareUnsigned(s3, c) < 0 ? 1 : 0);
+		subtractModulus(r, s0, s1, s2, s3, c);
+	}
+
+	static void sub(long[] r, long[] a, long[] b) {
+		long d0, d1, d2, d3, borrow, b1;
+		d0 = a[0] - b[0]; borrow = Long.compareUnsigned(a[0], b[0]) < 0 ? 1 : 0;
+		d1 = a[1] - b[1]; b1 = Long.compareUnsigned(a[1], b[1]) < 0 ? 1 : 0; b1 |= Long.compareUnsigned(d1, borrow) < 0 ? 1 : 0; d1 -= borrow; borrow = b1;
+		d2 = a[2] - b[2]; b1 = Long.compareUnsigned(a[2], b[2]) < 0 ? 1 : 0; b1 |= Long.compareUnsigned(d2, borrow) < 0 ? 1 : 0; d2 -= borrow; borrow = b1;
+		d3 = a[3] - b[3]; b1 = Long.compareUnsigned(a[3], b[3]) < 0 ? 1 : 0; b1 |= Long.compareUnsigned(d3, borrow) < 0 ? 1 : 0; d3 -= borrow; borrow = b1;
+
+		// Add p back on borrow (p2 = 0)
+		final var mask = -borrow;
+		long s, c;
+		s = d0 + (P0 & mask); c = Long.compareUnsigned(s, d0) < 0 ? 1 : 0; r[0] = s;
+		s = d1 + (P1 & mask); b1 = Long.compareUnsigned(s, d1) < 0 ? 1 : 0; s += c; c = b1 | (Long.compareUnsigned(s, c) < 0 ? 1 : 0); r[1] = s;
+		s = d2 + c; c = Long.compareUnsigned(s, c) < 0 ? 1 : 0; r[2] = s;
+		r[3] = d3 + (P3 & mask) + c;
+	}
+
+	static void neg(long[] r, long[] a) {
+		sub(r, create(), a);
+	}
+
+	/**
+	 * Montgomery product r = a * b * R^-1 (mod p), CIOS method
+	 */
+	static void mul(long[] r, long[] a, long[] b) {
+		final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+		final long b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3];
+		long t0, t1, t2, t3, t4, t5, lo, hi, c, m;
+
+		// t = a * b0
+		t0 = a0 * b0; c = Math.unsignedMultiplyHigh(a0, b0);
+		lo = a1 * b0; hi = Math.unsignedMultiplyHigh(a1, b0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t1 = lo; c = hi;
+		lo = a2 * b0; hi = Math.unsignedMultiplyHigh(a2, b0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		lo = a3 * b0; hi = Math.unsignedMultiplyHigh(a3, b0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t3 = lo; c = hi;
+		t4 = c; t5 = 0;
+
+		// t = (t + m * p) / 2^64 with m = t0, m * p0 + t0 = m * 2^64 is carried into t1
+		m = t0;
+		t0 = t1 + (m << 32); c = (m >>> 32) + (Long.compareUnsigned(t0, t1) < 0 ? 1 : 0);
+		t1 = t2 + c; c = (Long.compareUnsigned(t1, c) < 0 ? 1 : 0);
+		lo = m - (m << 32); hi = m - (m >>> 32) - (Long.compareUnsigned(m, m << 32) < 0 ? 1 : 0);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		t3 = t4 + c; t4 = t5 + (Long.compareUnsigned(t3, c) < 0 ? 1 : 0);
+
+		// t += a * b1
+		lo = a0 * b1; hi = Math.unsignedMultiplyHigh(a0, b1);
+		lo += t0; hi += (Long.compareUnsigned(lo, t0) < 0 ? 1 : 0);
+		t0 = lo; c = hi;
+		lo = a1 * b1; hi = Math.unsignedMultiplyHigh(a1, b1);
+		lo += t1; hi += (Long.compareUnsigned(lo, t1) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t1 = lo; c = hi;
+		lo = a2 * b1; hi = Math.unsignedMultiplyHigh(a2, b1);
+		lo += t2; hi += (Long.compareUnsigned(lo, t2) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		lo = a3 * b1; hi = Math.unsignedMultiplyHigh(a3, b1);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t3 = lo; c = hi;
+		t4 += c; t5 = (Long.compareUnsigned(t4, c) < 0 ? 1 : 0);
+		m = t0;
+		t0 = t1 + (m << 32); c = (m >>> 32) + (Long.compareUnsigned(t0, t1) < 0 ? 1 : 0);
+		t1 = t2 + c; c = (Long.compareUnsigned(t1, c) < 0 ? 1 : 0);
+		lo = m - (m << 32); hi = m - (m >>> 32) - (Long.compareUnsigned(m, m << 32) < 0 ? 1 : 0);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		t3 = t4 + c; t4 = t5 + (Long.compareUnsigned(t3, c) < 0 ? 1 : 0);
+
+		// t += a * b2
+		lo = a0 * b2; hi = Math.unsignedMultiplyHigh(a0, b2);
+		lo += t0; hi += (Long.compareUnsigned(lo, t0) < 0 ? 1 : 0);
+		t0 = lo; c = hi;
+		lo = a1 * b2; hi = Math.unsignedMultiplyHigh(a1, b2);
+		lo += t1; hi += (Long.compareUnsigned(lo, t1) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t1 = lo; c = hi;
+		lo = a2 * b2; hi = Math.unsignedMultiplyHigh(a2, b2);
+		lo += t2; hi += (Long.compareUnsigned(lo, t2) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		lo = a3 * b2; hi = Math.unsignedMultiplyHigh(a3, b2);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t3 = lo; c = hi;
+		t4 += c; t5 = (Long.compareUnsigned(t4, c) < 0 ? 1 : 0);
+		m = t0;
+		t0 = t1 + (m << 32); c = (m >>> 32) + (Long.compareUnsigned(t0, t1) < 0 ? 1 : 0);
+		t1 = t2 + c; c = (Long.compareUnsigned(t1, c) < 0 ? 1 : 0);
+		lo = m - (m << 32); hi = m - (m >>> 32) - (Long.compareUnsigned(m, m << 32) < 0 ? 1 : 0);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		t3 = t4 + c; t4 = t5 + (Long.compareUnsigned(t3, c) < 0 ? 1 : 0);
+
+		// t += a * b3
+		lo = a0 * b3; hi = Math.unsignedMultiplyHigh(a0, b3);
+		lo += t0; hi += (Long.compareUnsigned(lo, t0) < 0 ? 1 : 0);
+		t0 = lo; c = hi;
+		lo = a1 * b3; hi = Math.unsignedMultiplyHigh(a1, b3);
+		lo += t1; hi += (Long.compareUnsigned(lo, t1) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t1 = lo; c = hi;
+		lo = a2 * b3; hi = Math.unsignedMultiplyHigh(a2, b3);
+		lo += t2; hi += (Long.compareUnsigned(lo, t2) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		lo = a3 * b3; hi = Math.unsignedMultiplyHigh(a3, b3);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t3 = lo; c = hi;
+		t4 += c; t5 = (Long.compareUnsigned(t4, c) < 0 ? 1 : 0);
+		m = t0;
+		t0 = t1 + (m << 32); c = (m >>> 32) + (Long.compareUnsigned(t0, t1) < 0 ? 1 : 0);
+		t1 = t2 + c; c = (Long.compareUnsigned(t1, c) < 0 ? 1 : 0);
+		lo = m - (m << 32); hi = m - (m >>> 32) - (Long.compareUnsigned(m, m << 32) < 0 ? 1 : 0);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		t3 = t4 + c; t4 = t5 + (Long.compareUnsigned(t3, c) < 0 ? 1 : 0);
+
+		subtractModulus(r, t0, t1, t2, t3, t4);
+	}
+
+	/**
+	 * r = a^2 (mod p)
+	 */
+	static void sqr(long[] r, long[] a) {
+		final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+		long t0, t1, t2, t3, t4, t5, t6, t7, lo, hi, c, m;
+
+		// Off-diagonal products a_i * a_j (i < j) into t1..t6
+		t1 = a0 * a1; c = Math.unsignedMultiplyHigh(a0, a1);
+		lo = a0 * a2; hi = Math.unsignedMultiplyHigh(a0, a2);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; c = hi;
+		lo = a0 * a3; hi = Math.unsignedMultiplyHigh(a0, a3);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t3 = lo; t4 = hi;
+		lo = a1 * a2; hi = Math.unsignedMultiplyHigh(a1, a2);
+		lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+		t3 = lo; c = hi;
+		lo = a1 * a3; hi = Math.unsignedMultiplyHigh(a1, a3);
+		lo += t4; hi += (Long.compareUnsigned(lo, t4) < 0 ? 1 : 0);
+		lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t4 = lo; c = hi;
+		t5 = c;
+		lo = a2 * a3; hi = Math.unsignedMultiplyHigh(a2, a3);
+		lo += t5; hi += (Long.compareUnsigned(lo, t5) < 0 ? 1 : 0);
+		t5 = lo; c = hi;
+		t6 = c;
+
+		// Double them
+		t7 = t6 >>> 63;
+		t6 = (t6 << 1) | (t5 >>> 63);
+		t5 = (t5 << 1) | (t4 >>> 63);
+		t4 = (t4 << 1) | (t3 >>> 63);
+		t3 = (t3 << 1) | (t2 >>> 63);
+		t2 = (t2 << 1) | (t1 >>> 63);
+		t1 = t1 << 1;
+
+		// Add the diagonal a_i^2
+		t0 = a0 * a0; hi = Math.unsignedMultiplyHigh(a0, a0);
+		t1 += hi; c = (Long.compareUnsigned(t1, hi) < 0 ? 1 : 0);
+		lo = a1 * a1; hi = Math.unsignedMultiplyHigh(a1, a1);
+		lo += c; c = (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 += lo; c += (Long.compareUnsigned(t2, lo) < 0 ? 1 : 0);
+		hi += c; c = (Long.compareUnsigned(hi, c) < 0 ? 1 : 0); t3 += hi; c += (Long.compareUnsigned(t3, hi) < 0 ? 1 : 0);
+		lo = a2 * a2; hi = Math.unsignedMultiplyHigh(a2, a2);
+		lo += c; c = (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t4 += lo; c += (Long.compareUnsigned(t4, lo) < 0 ? 1 : 0);
+		hi += c; c = (Long.compareUnsigned(hi, c) < 0 ? 1 : 0); t5 += hi; c += (Long.compareUnsigned(t5, hi) < 0 ? 1 : 0);
+		lo = a3 * a3; hi = Math.unsignedMultiplyHigh(a3, a3);
+		lo += c; c = (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t6 += lo; c += (Long.compareUnsigned(t6, lo) < 0 ? 1 : 0);
+		hi += c; c = (Long.compareUnsigned(hi, c) < 0 ? 1 : 0); t7 += hi; c += (Long.compareUnsigned(t7, hi) < 0 ? 1 : 0);
+
+		// Montgomery reduction of the low half, four steps of t = (t + m * p) / 2^64 with m = t0
+		for (int i = 0; i < LIMBS; i++) {
+			m = t0;
+			t0 = t1 + (m << 32); c = (m >>> 32) + (Long.compareUnsigned(t0, t1) < 0 ? 1 : 0);
+			t1 = t2 + c; c = (Long.compareUnsigned(t1, c) < 0 ? 1 : 0);
+			lo = m - (m << 32); hi = m - (m >>> 32) - (Long.compareUnsigned(m, m << 32) < 0 ? 1 : 0);
+			lo += t3; hi += (Long.compareUnsigned(lo, t3) < 0 ? 1 : 0);
+			lo += c; hi += (Long.compareUnsigned(lo, c) < 0 ? 1 : 0); t2 = lo; t3 = hi;
+		}
+
+		// Add the high half
+		t0 += t4; c = (Long.compareUnsigned(t0, t4) < 0 ? 1 : 0);
+		lo = t1 + t5; hi = (Long.compareUnsigned(lo, t5) < 0 ? 1 : 0); t1 = lo + c; c = hi + (Long.compareUnsigned(t1, lo) < 0 ? 1 : 0);
+		lo = t2 + t6; hi = (Long.compareUnsigned(lo, t6) < 0 ? 1 : 0); t2 = lo + c; c = hi + (Long.compareUnsigned(t2, lo) < 0 ? 1 : 0);
+		lo = t3 + t7; hi = (Long.compareUnsigned(lo, t7) < 0 ? 1 : 0); t3 = lo + c; c = hi + (Long.compareUnsigned(t3, lo) < 0 ? 1 : 0);
+		subtractModulus(r, t0, t1, t2, t3, c);
+	}
+
+	/**
+	 * r = a^2^n (mod p)
+	 */
+	static void sqr(long[] r, long[] a, int n) {
+		copy(r, a);
+		for (int i = 0; i < n; i++)
+			sqr(r, r);
+	}
+
+	/**
+	 * r = (carry : x) mod p, for values in [0, 2p)
+	 */
+	private static void subtractModulus(long[] r, long x0, long x1, long x2, long x3, long carry) {
+		long d0, d1, d2, d3, b1, borrow;
+		d0 = x0 - P0; borrow = Long.compareUnsigned(x0, P0) < 0 ? 1 : 0;
+		d1 = x1 - P1; b1 = Long.compareUnsigned(x1, P1) < 0 ? 1 : 0; b1 |= Long.compareUnsigned(d1, borrow) < 0 ? 1 : 0; d1 -= borrow; borrow = b1;
+		d2 = x2 - P2; b1 = Long.compareUnsigned(x2, P2) < 0 ? 1 : 0; b1 |= Long.compareUnsigned(d2, borrow) < 0 ? 1 : 0; d2 -= borrow; borrow = b1;
+		d3 = x3 - P3; b1 = Long.compareUnsigned(x3, P3) < 0 ? 1 : 0; b1 |= Long.compareUnsigned(d3, borrow) < 0 ? 1 : 0; d3 -= borrow; borrow = b1;
+
+		// Keep x only if it is below p, i.e. the subtraction borrowed and there is no carry
+		final var keep = -(borrow & (carry ^ 1));
+		r[0] = (x0 & keep) | (d0 & ~keep);
+		r[1] = (x1 & keep) | (d1 & ~keep);
+		r[2] = (x2 & keep) | (d2 & ~keep);
+		r[3] = (x3 & keep) | (d3 & ~keep);
+	}
+
+	/**
+	 * r = cond ? b : a
+	 */
+	static void cmov(long[] r, long[] a, long[] b, boolean cond) {
+		final var mask = -(long) (cond ? 1 : 0);
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] ^ ((a[i] ^ b[i]) & mask);
+	}
+
+	static boolean isZero(long[] a) {
+		return (a[0] | a[1] | a[2] | a[3]) == 0;
+	}
+
+	static boolean equals(long[] a, long[] b) {
+		return ((a[0] ^ b[0]) | (a[1] ^ b[1]) | (a[2] ^ b[2]) | (a[3] ^ b[3])) == 0;
+	}
+
+	/** Low bit of the canonical value, see RFC 9380 sgn0() */
+	static int sgn0(long[] a) {
+		return (int) (canonical(a)[0] & 1);
+	}
+
+	/**
+	 * a^(2^32 - 1) and a^(2^30 - 1), shared by <code>invert()</code> and <code>powP34()</code>
+	 */
+	private static void pow32(long[] x32, long[] x30, long[] a) {
+		final var x2 = create();
+		final var x3 = create();
+		final var x6 = create();
+		final var t = create();
+
+		sqr(t, a);
+		mul(x2, t, a);			// 2^2 - 1
+		sqr(t, x2);
+		mul(x3, t, a);			// 2^3 - 1
+		sqr(t, x3, 3);
+		mul(x6, t, x3);			// 2^6 - 1
+		sqr(t, x6, 6);
+		mul(t, t, x6);			// 2^12 - 1
+		sqr(t, t, 3);
+		mul(t, t, x3);			// 2^15 - 1
+		copy(x30, t);
+		sqr(x30, x30, 15);
+		mul(x30, x30, t);		// 2^30 - 1
+		sqr(x32, x30, 2);
+		mul(x32, x32, x2);		// 2^32 - 1
+	}
+
+	/**
+	 * r = a^((p - 3) / 4) = a^(2^254 - 2^222 + 2^190 + 2^94 - 1), fixed addition chain
+	 */
+	static void powP34(long[] r, long[] a) {
+		final var x32 = create();
+		final var x30 = create();
+		final var t = create();
+		pow32(x32, x30, a);
+
+		sqr(t, x32, 32);
+		mul(t, t, a);			// 32 ones, 31 zeros, one
+		sqr(t, t, 96 + 32);
+		mul(t, t, x32);
+		sqr(t, t, 32);
+		mul(t, t, x32);
+		sqr(t, t, 30);
+		mul(r, t, x30);			// 96 zeros, 94 ones
+	}
+
+	/**
+	 * r = a^-1 = a^(p - 2), fixed addition chain, zero maps to zero
+	 */
+	static void invert(long[] r, long[] a) {
+		final var x32 = create();
+		final var x30 = create();
+		final var t = create();
+		pow32(x32, x30, a);
+
+		sqr(t, x32, 32);
+		mul(t, t, a);			// 32 ones, 31 zeros, one
+		sqr(t, t, 96 + 32);
+		mul(t, t, x32);
+		sqr(t, t, 32);
+		mul(t, t, x32);
+		sqr(t, t, 30);
+		mul(t, t, x30);			// 96 zeros, 94 ones
+		sqr(t, t, 2);
+		mul(r, t, a);			// 0, one
+	}
+}
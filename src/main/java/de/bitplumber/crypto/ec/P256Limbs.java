@@ -0,0 +1,95 @@
+/**
+ * Vector API (jdk.incubator.vector) P-256 field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Limb layout constants and conversions for the batched P-256 field arithmetic,
+ * kept free of any jdk.incubator.vector references.
+ */
+final class P256Limbs {
+	static final int LIMBS = 10;
+	static final int BITS = 26;
+	static final long MASK = (1L << BITS) - 1;
+
+	static final BigInteger FIELD_P = new BigInteger("ffffffff00000001000000000000000000000000ffffffffffffffffffffffff", 16);
+	static final BigInteger MONT_R = BigInteger.ONE.shiftLeft(LIMBS * BITS).mod(FIELD_P);
+	static final BigInteger MONT_R2 = BigInteger.ONE.shiftLeft(2 * LIMBS * BITS).mod(FIELD_P);
+
+	static final long[] P  = fromBigInteger(FIELD_P);
+	static final long[] P2 = fromBigInteger(FIELD_P.shiftLeft(1));
+
+	private P256Limbs() { /* */ }
+
+	static long[] fromBigInteger(BigInteger x) {
+		final var limbs = new long[LIMBS];
+		for (int i = 0; i < LIMBS; i++) {
+			limbs[i] = x.shiftRight(i * BITS).longValue() & MASK;
+		}
+		return limbs;
+	}
+
+	/**
+	 * Big-endian encoding of the (canonical) element j of <code>fe</code>
+	 */
+	static byte[] toBytes(long[][] fe, int j) {
+		final var be = new byte[32];
+		long acc = 0;
+		int accBits = 0, limb = 0;
+		for (int k = be.length - 1; k >= 0; k--) {
+			if (accBits < 8 && limb < LIMBS) {
+				acc |= fe[limb++][j] << accBits;
+				accBits += BITS;
+			}
+			be[k] = (byte) acc;
+			acc >>>= 8;
+			accBits -= 8;
+		}
+		return be;
+	}
+
+	/**
+	 * Store the big-endian encoded value <code>be</code> (at most 32 bytes) as element j of <code>fe</code>
+	 */
+	static void fromBytes(long[][] fe, int j, byte[] be) {
+		long acc = 0;
+		int accBits = 0, limb = 0;
+		for (int k = be.length - 1; k >= 0; k--) {
+			acc |= (be[k] & 0xffL) << accBits;
+			accBits += 8;
+			if (accBits >= BITS) {
+				fe[limb++][j] = acc & MASK;
+				acc >>>= BITS;
+				accBits -= BITS;
+			}
+		}
+		while (limb < LIMBS) {
+			fe[limb++][j] = acc & MASK;
+			acc >>>= BITS;
+		}
+	}
+
+	static long[][] allocate(int n) {
+		return new long[LIMBS][n];
+	}
+
+	static void set(long[][] fe, int j, long[] limbs) {
+		for (int i = 0; i < LIMBS; i++) {
+			fe[i][j] = limbs[i];
+		}
+	}
+
+	static long[][] broadcast(long[] limbs, int n) {
+		final var fe = allocate(n);
+		for (int j = 0; j < n; j++) {
+			set(fe, j, limbs);
+		}
+		return fe;
+	}
+}
@@ -0,0 +1,747 @@
+/**
+ * Vector API (jdk.incubator.vector) P-256 field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static jdk.incubator.vector.VectorOperators.ASHR;
+import static jdk.incubator.vector.VectorOperators.EQ;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LT;
+import static jdk.incubator.vector.VectorOperators.NE;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * P-256 Montgomery field arithmetic on batches of field elements, one element per vector lane.
+ *
+ * Elements are stored in a struct-of-arrays layout: <code>long[10][n]</code>, where <code>[i][j]</code>
+ * holds the i-th 26-bit limb (little-endian) of element j. All values are kept in Montgomery
+ * form (R = 2^260) and loosely reduced to [0, 2p). The batch size <code>n</code> must be a multiple
+ * of <code>LANES</code>.
+ *
+ * The multiplication and reduction code below is unrolled (generated), so that all vectors stay in
+ * local variables and never escape into the heap.
+ *
+ * Only to be used through <code>P256Batch</code>, which checks if the incubator module is available.
+ */
+final class P256VectorField {
+	static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+	static final int LANES = SPECIES.length();
+
+	private static final LongVector ZERO = LongVector.zero(SPECIES);
+	private static final long MASK = (1L << P256Limbs.BITS) - 1;
+	private static final int BITS = P256Limbs.BITS;
+	private static final long[] P  = P256Limbs.P;
+	private static final long[] P2 = P256Limbs.P2;
+
+	private P256VectorField() { /* */ }
+
+	/**
+	 * r = a * b * R^-1 (Montgomery multiplication), inputs and output in [0, 2p)
+	 */
+	static void mul(long[][] r, long[][] a, long[][] b, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var a0 = LongVector.fromArray(SPECIES, a[0], off);
+			final var a1 = LongVector.fromArray(SPECIES, a[1], off);
+			final var a2 = LongVector.fromArray(SPECIES, a[2], off);
+			final var a3 = LongVector.fromArray(SPECIES, a[3], off);
+			final var a4 = LongVector.fromArray(SPECIES, a[4], off);
+			final var a5 = LongVector.fromArray(SPECIES, a[5], off);
+			final var a6 = LongVector.fromArray(SPECIES, a[6], off);
+			final var a7 = LongVector.fromArray(SPECIES, a[7], off);
+			final var a8 = LongVector.fromArray(SPECIES, a[8], off);
+			final var a9 = LongVector.fromArray(SPECIES, a[9], off);
+			final var b0 = LongVector.fromArray(SPECIES, b[0], off);
+			final var b1 = LongVector.fromArray(SPECIES, b[1], off);
+			final var b2 = LongVector.fromArray(SPECIES, b[2], off);
+			final var b3 = LongVector.fromArray(SPECIES, b[3], off);
+			final var b4 = LongVector.fromArray(SPECIES, b[4], off);
+			final var b5 = LongVector.fromArray(SPECIES, b[5], off);
+			final var b6 = LongVector.fromArray(SPECIES, b[6], off);
+			final var b7 = LongVector.fromArray(SPECIES, b[7], off);
+			final var b8 = LongVector.fromArray(SPECIES, b[8], off);
+			final var b9 = LongVector.fromArray(SPECIES, b[9], off);
+			var t0 = a0.mul(b0);
+			var t1 = a0.mul(b1).add(a1.mul(b0));
+			var t2 = a0.mul(b2).add(a1.mul(b1)).add(a2.mul(b0));
+			var t3 = a0.mul(b3).add(a1.mul(b2)).add(a2.mul(b1)).add(a3.mul(b0));
+			var t4 = a0.mul(b4).add(a1.mul(b3)).add(a2.mul(b2)).add(a3.mul(b1)).add(a4.mul(b0));
+			var t5 = a0.mul(b5).add(a1.mul(b4)).add(a2.mul(b3)).add(a3.mul(b2)).add(a4.mul(b1)).add(a5.mul(b0));
+			var t6 = a0.mul(b6).add(a1.mul(b5)).add(a2.mul(b4)).add(a3.mul(b3)).add(a4.mul(b2)).add(a5.mul(b1)).add(a6.mul(b0));
+			var t7 = a0.mul(b7).add(a1.mul(b6)).add(a2.mul(b5)).add(a3.mul(b4)).add(a4.mul(b3)).add(a5.mul(b2)).add(a6.mul(b1)).add(a7.mul(b0));
+			var t8 = a0.mul(b8).add(a1.mul(b7)).add(a2.mul(b6)).add(a3.mul(b5)).add(a4.mul(b4)).add(a5.mul(b3)).add(a6.mul(b2)).add(a7.mul(b1)).add(a8.mul(b0));
+			var t9 = a0.mul(b9).add(a1.mul(b8)).add(a2.mul(b7)).add(a3.mul(b6)).add(a4.mul(b5)).add(a5.mul(b4)).add(a6.mul(b3)).add(a7.mul(b2)).add(a8.mul(b1)).add(a9.mul(b0));
+			var t10 = a1.mul(b9).add(a2.mul(b8)).add(a3.mul(b7)).add(a4.mul(b6)).add(a5.mul(b5)).add(a6.mul(b4)).add(a7.mul(b3)).add(a8.mul(b2)).add(a9.mul(b1));
+			var t11 = a2.mul(b9).add(a3.mul(b8)).add(a4.mul(b7)).add(a5.mul(b6)).add(a6.mul(b5)).add(a7.mul(b4)).add(a8.mul(b3)).add(a9.mul(b2));
+			var t12 = a3.mul(b9).add(a4.mul(b8)).add(a5.mul(b7)).add(a6.mul(b6)).add(a7.mul(b5)).add(a8.mul(b4)).add(a9.mul(b3));
+			var t13 = a4.mul(b9).add(a5.mul(b8)).add(a6.mul(b7)).add(a7.mul(b6)).add(a8.mul(b5)).add(a9.mul(b4));
+			var t14 = a5.mul(b9).add(a6.mul(b8)).add(a7.mul(b7)).add(a8.mul(b6)).add(a9.mul(b5));
+			var t15 = a6.mul(b9).add(a7.mul(b8)).add(a8.mul(b7)).add(a9.mul(b6));
+			var t16 = a7.mul(b9).add(a8.mul(b8)).add(a9.mul(b7));
+			var t17 = a8.mul(b9).add(a9.mul(b8));
+			var t18 = a9.mul(b9);
+			var t19 = ZERO;
+			LongVector m;
+			m = t0.and(MASK);
+			t0 = t0.add(m.lanewise(LSHL, 26).sub(m));
+			t1 = t1.add(m.lanewise(LSHL, 26).sub(m));
+			t2 = t2.add(m.lanewise(LSHL, 26).sub(m));
+			t3 = t3.add(m.lanewise(LSHL, 18).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 10));
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t9 = t9.add(m.lanewise(LSHL, 22).sub(m));
+			t1 = t1.add(t0.lanewise(ASHR, BITS));
+			m = t1.and(MASK);
+			t1 = t1.add(m.lanewise(LSHL, 26).sub(m));
+			t2 = t2.add(m.lanewise(LSHL, 26).sub(m));
+			t3 = t3.add(m.lanewise(LSHL, 26).sub(m));
+			t4 = t4.add(m.lanewise(LSHL, 18).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 10));
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t10 = t10.add(m.lanewise(LSHL, 22).sub(m));
+			t2 = t2.add(t1.lanewise(ASHR, BITS));
+			m = t2.and(MASK);
+			t2 = t2.add(m.lanewise(LSHL, 26).sub(m));
+			t3 = t3.add(m.lanewise(LSHL, 26).sub(m));
+			t4 = t4.add(m.lanewise(LSHL, 26).sub(m));
+			t5 = t5.add(m.lanewise(LSHL, 18).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 10));
+			t10 = t10.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t11 = t11.add(m.lanewise(LSHL, 22).sub(m));
+			t3 = t3.add(t2.lanewise(ASHR, BITS));
+			m = t3.and(MASK);
+			t3 = t3.add(m.lanewise(LSHL, 26).sub(m));
+			t4 = t4.add(m.lanewise(LSHL, 26).sub(m));
+			t5 = t5.add(m.lanewise(LSHL, 26).sub(m));
+			t6 = t6.add(m.lanewise(LSHL, 18).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 10));
+			t11 = t11.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t12 = t12.add(m.lanewise(LSHL, 22).sub(m));
+			t4 = t4.add(t3.lanewise(ASHR, BITS));
+			m = t4.and(MASK);
+			t4 = t4.add(m.lanewise(LSHL, 26).sub(m));
+			t5 = t5.add(m.lanewise(LSHL, 26).sub(m));
+			t6 = t6.add(m.lanewise(LSHL, 26).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 18).sub(m));
+			t11 = t11.add(m.lanewise(LSHL, 10));
+			t12 = t12.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t13 = t13.add(m.lanewise(LSHL, 22).sub(m));
+			t5 = t5.add(t4.lanewise(ASHR, BITS));
+			m = t5.and(MASK);
+			t5 = t5.add(m.lanewise(LSHL, 26).sub(m));
+			t6 = t6.add(m.lanewise(LSHL, 26).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 26).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 18).sub(m));
+			t12 = t12.add(m.lanewise(LSHL, 10));
+			t13 = t13.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t14 = t14.add(m.lanewise(LSHL, 22).sub(m));
+			t6 = t6.add(t5.lanewise(ASHR, BITS));
+			m = t6.and(MASK);
+			t6 = t6.add(m.lanewise(LSHL, 26).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 26).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 18).sub(m));
+			t13 = t13.add(m.lanewise(LSHL, 10));
+			t14 = t14.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t15 = t15.add(m.lanewise(LSHL, 22).sub(m));
+			t7 = t7.add(t6.lanewise(ASHR, BITS));
+			m = t7.and(MASK);
+			t7 = t7.add(m.lanewise(LSHL, 26).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 18).sub(m));
+			t14 = t14.add(m.lanewise(LSHL, 10));
+			t15 = t15.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t16 = t16.add(m.lanewise(LSHL, 22).sub(m));
+			t8 = t8.add(t7.lanewise(ASHR, BITS));
+			m = t8.and(MASK);
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 26).sub(m));
+			t11 = t11.add(m.lanewise(LSHL, 18).sub(m));
+			t15 = t15.add(m.lanewise(LSHL, 10));
+			t16 = t16.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t17 = t17.add(m.lanewise(LSHL, 22).sub(m));
+			t9 = t9.add(t8.lanewise(ASHR, BITS));
+			m = t9.and(MASK);
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 26).sub(m));
+			t11 = t11.add(m.lanewise(LSHL, 26).sub(m));
+			t12 = t12.add(m.lanewise(LSHL, 18).sub(m));
+			t16 = t16.add(m.lanewise(LSHL, 10));
+			t17 = t17.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t18 = t18.add(m.lanewise(LSHL, 22).sub(m));
+			t10 = t10.add(t9.lanewise(ASHR, BITS));
+			t11 = t11.add(t10.lanewise(ASHR, BITS));
+			t10 = t10.and(MASK);
+			t12 = t12.add(t11.lanewise(ASHR, BITS));
+			t11 = t11.and(MASK);
+			t13 = t13.add(t12.lanewise(ASHR, BITS));
+			t12 = t12.and(MASK);
+			t14 = t14.add(t13.lanewise(ASHR, BITS));
+			t13 = t13.and(MASK);
+			t15 = t15.add(t14.lanewise(ASHR, BITS));
+			t14 = t14.and(MASK);
+			t16 = t16.add(t15.lanewise(ASHR, BITS));
+			t15 = t15.and(MASK);
+			t17 = t17.add(t16.lanewise(ASHR, BITS));
+			t16 = t16.and(MASK);
+			t18 = t18.add(t17.lanewise(ASHR, BITS));
+			t17 = t17.and(MASK);
+			t19 = t19.add(t18.lanewise(ASHR, BITS));
+			t18 = t18.and(MASK);
+			t10.intoArray(r[0], off);
+			t11.intoArray(r[1], off);
+			t12.intoArray(r[2], off);
+			t13.intoArray(r[3], off);
+			t14.intoArray(r[4], off);
+			t15.intoArray(r[5], off);
+			t16.intoArray(r[6], off);
+			t17.intoArray(r[7], off);
+			t18.intoArray(r[8], off);
+			t19.intoArray(r[9], off);
+		}
+	}
+
+	/**
+	 * r = a^2 * R^-1 (Montgomery squaring), input and output in [0, 2p)
+	 */
+	static void sqr(long[][] r, long[][] a, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var a0 = LongVector.fromArray(SPECIES, a[0], off);
+			final var a1 = LongVector.fromArray(SPECIES, a[1], off);
+			final var a2 = LongVector.fromArray(SPECIES, a[2], off);
+			final var a3 = LongVector.fromArray(SPECIES, a[3], off);
+			final var a4 = LongVector.fromArray(SPECIES, a[4], off);
+			final var a5 = LongVector.fromArray(SPECIES, a[5], off);
+			final var a6 = LongVector.fromArray(SPECIES, a[6], off);
+			final var a7 = LongVector.fromArray(SPECIES, a[7], off);
+			final var a8 = LongVector.fromArray(SPECIES, a[8], off);
+			final var a9 = LongVector.fromArray(SPECIES, a[9], off);
+			final var d0 = a0.add(a0);
+			final var d1 = a1.add(a1);
+			final var d2 = a2.add(a2);
+			final var d3 = a3.add(a3);
+			final var d4 = a4.add(a4);
+			final var d5 = a5.add(a5);
+			final var d6 = a6.add(a6);
+			final var d7 = a7.add(a7);
+			final var d8 = a8.add(a8);
+			var t0 = a0.mul(a0);
+			var t1 = d0.mul(a1);
+			var t2 = d0.mul(a2).add(a1.mul(a1));
+			var t3 = d0.mul(a3).add(d1.mul(a2));
+			var t4 = d0.mul(a4).add(d1.mul(a3)).add(a2.mul(a2));
+			var t5 = d0.mul(a5).add(d1.mul(a4)).add(d2.mul(a3));
+			var t6 = d0.mul(a6).add(d1.mul(a5)).add(d2.mul(a4)).add(a3.mul(a3));
+			var t7 = d0.mul(a7).add(d1.mul(a6)).add(d2.mul(a5)).add(d3.mul(a4));
+			var t8 = d0.mul(a8).add(d1.mul(a7)).add(d2.mul(a6)).add(d3.mul(a5)).add(a4.mul(a4));
+			var t9 = d0.mul(a9).add(d1.mul(a8)).add(d2.mul(a7)).add(d3.mul(a6)).add(d4.mul(a5));
+			var t10 = d1.mul(a9).add(d2.mul(a8)).add(d3.mul(a7)).add(d4.mul(a6)).add(a5.mul(a5));
+			var t11 = d2.mul(a9).add(d3.mul(a8)).add(d4.mul(a7)).add(d5.mul(a6));
+			var t12 = d3.mul(a9).add(d4.mul(a8)).add(d5.mul(a7)).add(a6.mul(a6));
+			var t13 = d4.mul(a9).add(d5.mul(a8)).add(d6.mul(a7));
+			var t14 = d5.mul(a9).add(d6.mul(a8)).add(a7.mul(a7));
+			var t15 = d6.mul(a9).add(d7.mul(a8));
+			var t16 = d7.mul(a9).add(a8.mul(a8));
+			var t17 = d8.mul(a9);
+			var t18 = a9.mul(a9);
+			var t19 = ZERO;
+			LongVector m;
+			m = t0.and(MASK);
+			t0 = t0.add(m.lanewise(LSHL, 26).sub(m));
+			t1 = t1.add(m.lanewise(LSHL, 26).sub(m));
+			t2 = t2.add(m.lanewise(LSHL, 26).sub(m));
+			t3 = t3.add(m.lanewise(LSHL, 18).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 10));
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t9 = t9.add(m.lanewise(LSHL, 22).sub(m));
+			t1 = t1.add(t0.lanewise(ASHR, BITS));
+			m = t1.and(MASK);
+			t1 = t1.add(m.lanewise(LSHL, 26).sub(m));
+			t2 = t2.add(m.lanewise(LSHL, 26).sub(m));
+			t3 = t3.add(m.lanewise(LSHL, 26).sub(m));
+			t4 = t4.add(m.lanewise(LSHL, 18).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 10));
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t10 = t10.add(m.lanewise(LSHL, 22).sub(m));
+			t2 = t2.add(t1.lanewise(ASHR, BITS));
+			m = t2.and(MASK);
+			t2 = t2.add(m.lanewise(LSHL, 26).sub(m));
+			t3 = t3.add(m.lanewise(LSHL, 26).sub(m));
+			t4 = t4.add(m.lanewise(LSHL, 26).sub(m));
+			t5 = t5.add(m.lanewise(LSHL, 18).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 10));
+			t10 = t10.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t11 = t11.add(m.lanewise(LSHL, 22).sub(m));
+			t3 = t3.add(t2.lanewise(ASHR, BITS));
+			m = t3.and(MASK);
+			t3 = t3.add(m.lanewise(LSHL, 26).sub(m));
+			t4 = t4.add(m.lanewise(LSHL, 26).sub(m));
+			t5 = t5.add(m.lanewise(LSHL, 26).sub(m));
+			t6 = t6.add(m.lanewise(LSHL, 18).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 10));
+			t11 = t11.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t12 = t12.add(m.lanewise(LSHL, 22).sub(m));
+			t4 = t4.add(t3.lanewise(ASHR, BITS));
+			m = t4.and(MASK);
+			t4 = t4.add(m.lanewise(LSHL, 26).sub(m));
+			t5 = t5.add(m.lanewise(LSHL, 26).sub(m));
+			t6 = t6.add(m.lanewise(LSHL, 26).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 18).sub(m));
+			t11 = t11.add(m.lanewise(LSHL, 10));
+			t12 = t12.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t13 = t13.add(m.lanewise(LSHL, 22).sub(m));
+			t5 = t5.add(t4.lanewise(ASHR, BITS));
+			m = t5.and(MASK);
+			t5 = t5.add(m.lanewise(LSHL, 26).sub(m));
+			t6 = t6.add(m.lanewise(LSHL, 26).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 26).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 18).sub(m));
+			t12 = t12.add(m.lanewise(LSHL, 10));
+			t13 = t13.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t14 = t14.add(m.lanewise(LSHL, 22).sub(m));
+			t6 = t6.add(t5.lanewise(ASHR, BITS));
+			m = t6.and(MASK);
+			t6 = t6.add(m.lanewise(LSHL, 26).sub(m));
+			t7 = t7.add(m.lanewise(LSHL, 26).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 18).sub(m));
+			t13 = t13.add(m.lanewise(LSHL, 10));
+			t14 = t14.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t15 = t15.add(m.lanewise(LSHL, 22).sub(m));
+			t7 = t7.add(t6.lanewise(ASHR, BITS));
+			m = t7.and(MASK);
+			t7 = t7.add(m.lanewise(LSHL, 26).sub(m));
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 18).sub(m));
+			t14 = t14.add(m.lanewise(LSHL, 10));
+			t15 = t15.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t16 = t16.add(m.lanewise(LSHL, 22).sub(m));
+			t8 = t8.add(t7.lanewise(ASHR, BITS));
+			m = t8.and(MASK);
+			t8 = t8.add(m.lanewise(LSHL, 26).sub(m));
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 26).sub(m));
+			t11 = t11.add(m.lanewise(LSHL, 18).sub(m));
+			t15 = t15.add(m.lanewise(LSHL, 10));
+			t16 = t16.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t17 = t17.add(m.lanewise(LSHL, 22).sub(m));
+			t9 = t9.add(t8.lanewise(ASHR, BITS));
+			m = t9.and(MASK);
+			t9 = t9.add(m.lanewise(LSHL, 26).sub(m));
+			t10 = t10.add(m.lanewise(LSHL, 26).sub(m));
+			t11 = t11.add(m.lanewise(LSHL, 26).sub(m));
+			t12 = t12.add(m.lanewise(LSHL, 18).sub(m));
+			t16 = t16.add(m.lanewise(LSHL, 10));
+			t17 = t17.add(m.lanewise(LSHL, 26).sub(m.lanewise(LSHL, 16)));
+			t18 = t18.add(m.lanewise(LSHL, 22).sub(m));
+			t10 = t10.add(t9.lanewise(ASHR, BITS));
+			t11 = t11.add(t10.lanewise(ASHR, BITS));
+			t10 = t10.and(MASK);
+			t12 = t12.add(t11.lanewise(ASHR, BITS));
+			t11 = t11.and(MASK);
+			t13 = t13.add(t12.lanewise(ASHR, BITS));
+			t12 = t12.and(MASK);
+			t14 = t14.add(t13.lanewise(ASHR, BITS));
+			t13 = t13.and(MASK);
+			t15 = t15.add(t14.lanewise(ASHR, BITS));
+			t14 = t14.and(MASK);
+			t16 = t16.add(t15.lanewise(ASHR, BITS));
+			t15 = t15.and(MASK);
+			t17 = t17.add(t16.lanewise(ASHR, BITS));
+			t16 = t16.and(MASK);
+			t18 = t18.add(t17.lanewise(ASHR, BITS));
+			t17 = t17.and(MASK);
+			t19 = t19.add(t18.lanewise(ASHR, BITS));
+			t18 = t18.and(MASK);
+			t10.intoArray(r[0], off);
+			t11.intoArray(r[1], off);
+			t12.intoArray(r[2], off);
+			t13.intoArray(r[3], off);
+			t14.intoArray(r[4], off);
+			t15.intoArray(r[5], off);
+			t16.intoArray(r[6], off);
+			t17.intoArray(r[7], off);
+			t18.intoArray(r[8], off);
+			t19.intoArray(r[9], off);
+		}
+	}
+
+	/**
+	 * r = a + b, inputs and output in [0, 2p)
+	 */
+	static void add(long[][] r, long[][] a, long[][] b, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var a0 = LongVector.fromArray(SPECIES, a[0], off);
+			final var a1 = LongVector.fromArray(SPECIES, a[1], off);
+			final var a2 = LongVector.fromArray(SPECIES, a[2], off);
+			final var a3 = LongVector.fromArray(SPECIES, a[3], off);
+			final var a4 = LongVector.fromArray(SPECIES, a[4], off);
+			final var a5 = LongVector.fromArray(SPECIES, a[5], off);
+			final var a6 = LongVector.fromArray(SPECIES, a[6], off);
+			final var a7 = LongVector.fromArray(SPECIES, a[7], off);
+			final var a8 = LongVector.fromArray(SPECIES, a[8], off);
+			final var a9 = LongVector.fromArray(SPECIES, a[9], off);
+			final var b0 = LongVector.fromArray(SPECIES, b[0], off);
+			final var b1 = LongVector.fromArray(SPECIES, b[1], off);
+			final var b2 = LongVector.fromArray(SPECIES, b[2], off);
+			final var b3 = LongVector.fromArray(SPECIES, b[3], off);
+			final var b4 = LongVector.fromArray(SPECIES, b[4], off);
+			final var b5 = LongVector.fromArray(SPECIES, b[5], off);
+			final var b6 = LongVector.fromArray(SPECIES, b[6], off);
+			final var b7 = LongVector.fromArray(SPECIES, b[7], off);
+			final var b8 = LongVector.fromArray(SPECIES, b[8], off);
+			final var b9 = LongVector.fromArray(SPECIES, b[9], off);
+			var s0 = a0.add(b0);
+			var s1 = a1.add(b1);
+			var s2 = a2.add(b2);
+			var s3 = a3.add(b3);
+			var s4 = a4.add(b4);
+			var s5 = a5.add(b5);
+			var s6 = a6.add(b6);
+			var s7 = a7.add(b7);
+			var s8 = a8.add(b8);
+			var s9 = a9.add(b9);
+			s1 = s1.add(s0.lanewise(ASHR, BITS));
+			s0 = s0.and(MASK);
+			s2 = s2.add(s1.lanewise(ASHR, BITS));
+			s1 = s1.and(MASK);
+			s3 = s3.add(s2.lanewise(ASHR, BITS));
+			s2 = s2.and(MASK);
+			s4 = s4.add(s3.lanewise(ASHR, BITS));
+			s3 = s3.and(MASK);
+			s5 = s5.add(s4.lanewise(ASHR, BITS));
+			s4 = s4.and(MASK);
+			s6 = s6.add(s5.lanewise(ASHR, BITS));
+			s5 = s5.and(MASK);
+			s7 = s7.add(s6.lanewise(ASHR, BITS));
+			s6 = s6.and(MASK);
+			s8 = s8.add(s7.lanewise(ASHR, BITS));
+			s7 = s7.and(MASK);
+			s9 = s9.add(s8.lanewise(ASHR, BITS));
+			s8 = s8.and(MASK);
+			var d0 = s0.sub(P2[0]);
+			var d1 = s1.sub(P2[1]).add(d0.lanewise(ASHR, BITS));
+			d0 = d0.and(MASK);
+			var d2 = s2.sub(P2[2]).add(d1.lanewise(ASHR, BITS));
+			d1 = d1.and(MASK);
+			var d3 = s3.sub(P2[3]).add(d2.lanewise(ASHR, BITS));
+			d2 = d2.and(MASK);
+			var d4 = s4.sub(P2[4]).add(d3.lanewise(ASHR, BITS));
+			d3 = d3.and(MASK);
+			var d5 = s5.sub(P2[5]).add(d4.lanewise(ASHR, BITS));
+			d4 = d4.and(MASK);
+			var d6 = s6.sub(P2[6]).add(d5.lanewise(ASHR, BITS));
+			d5 = d5.and(MASK);
+			var d7 = s7.sub(P2[7]).add(d6.lanewise(ASHR, BITS));
+			d6 = d6.and(MASK);
+			var d8 = s8.sub(P2[8]).add(d7.lanewise(ASHR, BITS));
+			d7 = d7.and(MASK);
+			var d9 = s9.sub(P2[9]).add(d8.lanewise(ASHR, BITS));
+			d8 = d8.and(MASK);
+			final var keep = d9.compare(LT, 0);
+			d9 = d9.and(MASK);
+			d0.blend(s0, keep).intoArray(r[0], off);
+			d1.blend(s1, keep).intoArray(r[1], off);
+			d2.blend(s2, keep).intoArray(r[2], off);
+			d3.blend(s3, keep).intoArray(r[3], off);
+			d4.blend(s4, keep).intoArray(r[4], off);
+			d5.blend(s5, keep).intoArray(r[5], off);
+			d6.blend(s6, keep).intoArray(r[6], off);
+			d7.blend(s7, keep).intoArray(r[7], off);
+			d8.blend(s8, keep).intoArray(r[8], off);
+			d9.blend(s9, keep).intoArray(r[9], off);
+		}
+	}
+
+	/**
+	 * r = a - b, inputs and output in [0, 2p)
+	 */
+	static void sub(long[][] r, long[][] a, long[][] b, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var a0 = LongVector.fromArray(SPECIES, a[0], off);
+			final var a1 = LongVector.fromArray(SPECIES, a[1], off);
+			final var a2 = LongVector.fromArray(SPECIES, a[2], off);
+			final var a3 = LongVector.fromArray(SPECIES, a[3], off);
+			final var a4 = LongVector.fromArray(SPECIES, a[4], off);
+			final var a5 = LongVector.fromArray(SPECIES, a[5], off);
+			final var a6 = LongVector.fromArray(SPECIES, a[6], off);
+			final var a7 = LongVector.fromArray(SPECIES, a[7], off);
+			final var a8 = LongVector.fromArray(SPECIES, a[8], off);
+			final var a9 = LongVector.fromArray(SPECIES, a[9], off);
+			final var b0 = LongVector.fromArray(SPECIES, b[0], off);
+			final var b1 = LongVector.fromArray(SPECIES, b[1], off);
+			final var b2 = LongVector.fromArray(SPECIES, b[2], off);
+			final var b3 = LongVector.fromArray(SPECIES, b[3], off);
+			final var b4 = LongVector.fromArray(SPECIES, b[4], off);
+			final var b5 = LongVector.fromArray(SPECIES, b[5], off);
+			final var b6 = LongVector.fromArray(SPECIES, b[6], off);
+			final var b7 = LongVector.fromArray(SPECIES, b[7], off);
+			final var b8 = LongVector.fromArray(SPECIES, b[8], off);
+			final var b9 = LongVector.fromArray(SPECIES, b[9], off);
+			var s0 = a0.sub(b0).add(P2[0]);
+			var s1 = a1.sub(b1).add(P2[1]);
+			var s2 = a2.sub(b2).add(P2[2]);
+			var s3 = a3.sub(b3).add(P2[3]);
+			var s4 = a4.sub(b4).add(P2[4]);
+			var s5 = a5.sub(b5).add(P2[5]);
+			var s6 = a6.sub(b6).add(P2[6]);
+			var s7 = a7.sub(b7).add(P2[7]);
+			var s8 = a8.sub(b8).add(P2[8]);
+			var s9 = a9.sub(b9).add(P2[9]);
+			s1 = s1.add(s0.lanewise(ASHR, BITS));
+			s0 = s0.and(MASK);
+			s2 = s2.add(s1.lanewise(ASHR, BITS));
+			s1 = s1.and(MASK);
+			s3 = s3.add(s2.lanewise(ASHR, BITS));
+			s2 = s2.and(MASK);
+			s4 = s4.add(s3.lanewise(ASHR, BITS));
+			s3 = s3.and(MASK);
+			s5 = s5.add(s4.lanewise(ASHR, BITS));
+			s4 = s4.and(MASK);
+			s6 = s6.add(s5.lanewise(ASHR, BITS));
+			s5 = s5.and(MASK);
+			s7 = s7.add(s6.lanewise(ASHR, BITS));
+			s6 = s6.and(MASK);
+			s8 = s8.add(s7.lanewise(ASHR, BITS));
+			s7 = s7.and(MASK);
+			s9 = s9.add(s8.lanewise(ASHR, BITS));
+			s8 = s8.and(MASK);
+			var d0 = s0.sub(P2[0]);
+			var d1 = s1.sub(P2[1]).add(d0.lanewise(ASHR, BITS));
+			d0 = d0.and(MASK);
+			var d2 = s2.sub(P2[2]).add(d1.lanewise(ASHR, BITS));
+			d1 = d1.and(MASK);
+			var d3 = s3.sub(P2[3]).add(d2.lanewise(ASHR, BITS));
+			d2 = d2.and(MASK);
+			var d4 = s4.sub(P2[4]).add(d3.lanewise(ASHR, BITS));
+			d3 = d3.and(MASK);
+			var d5 = s5.sub(P2[5]).add(d4.lanewise(ASHR, BITS));
+			d4 = d4.and(MASK);
+			var d6 = s6.sub(P2[6]).add(d5.lanewise(ASHR, BITS));
+			d5 = d5.and(MASK);
+			var d7 = s7.sub(P2[7]).add(d6.lanewise(ASHR, BITS));
+			d6 = d6.and(MASK);
+			var d8 = s8.sub(P2[8]).add(d7.lanewise(ASHR, BITS));
+			d7 = d7.and(MASK);
+			var d9 = s9.sub(P2[9]).add(d8.lanewise(ASHR, BITS));
+			d8 = d8.and(MASK);
+			final var keep = d9.compare(LT, 0);
+			d9 = d9.and(MASK);
+			d0.blend(s0, keep).intoArray(r[0], off);
+			d1.blend(s1, keep).intoArray(r[1], off);
+			d2.blend(s2, keep).intoArray(r[2], off);
+			d3.blend(s3, keep).intoArray(r[3], off);
+			d4.blend(s4, keep).intoArray(r[4], off);
+			d5.blend(s5, keep).intoArray(r[5], off);
+			d6.blend(s6, keep).intoArray(r[6], off);
+			d7.blend(s7, keep).intoArray(r[7], off);
+			d8.blend(s8, keep).intoArray(r[8], off);
+			d9.blend(s9, keep).intoArray(r[9], off);
+		}
+	}
+
+	/**
+	 * r = -a, input and output in [0, 2p)
+	 */
+	static void neg(long[][] r, long[][] a, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var a0 = LongVector.fromArray(SPECIES, a[0], off);
+			final var a1 = LongVector.fromArray(SPECIES, a[1], off);
+			final var a2 = LongVector.fromArray(SPECIES, a[2], off);
+			final var a3 = LongVector.fromArray(SPECIES, a[3], off);
+			final var a4 = LongVector.fromArray(SPECIES, a[4], off);
+			final var a5 = LongVector.fromArray(SPECIES, a[5], off);
+			final var a6 = LongVector.fromArray(SPECIES, a[6], off);
+			final var a7 = LongVector.fromArray(SPECIES, a[7], off);
+			final var a8 = LongVector.fromArray(SPECIES, a[8], off);
+			final var a9 = LongVector.fromArray(SPECIES, a[9], off);
+			var s0 = a0.neg().add(P2[0]);
+			var s1 = a1.neg().add(P2[1]);
+			var s2 = a2.neg().add(P2[2]);
+			var s3 = a3.neg().add(P2[3]);
+			var s4 = a4.neg().add(P2[4]);
+			var s5 = a5.neg().add(P2[5]);
+			var s6 = a6.neg().add(P2[6]);
+			var s7 = a7.neg().add(P2[7]);
+			var s8 = a8.neg().add(P2[8]);
+			var s9 = a9.neg().add(P2[9]);
+			s1 = s1.add(s0.lanewise(ASHR, BITS));
+			s0 = s0.and(MASK);
+			s2 = s2.add(s1.lanewise(ASHR, BITS));
+			s1 = s1.and(MASK);
+			s3 = s3.add(s2.lanewise(ASHR, BITS));
+			s2 = s2.and(MASK);
+			s4 = s4.add(s3.lanewise(ASHR, BITS));
+			s3 = s3.and(MASK);
+			s5 = s5.add(s4.lanewise(ASHR, BITS));
+			s4 = s4.and(MASK);
+			s6 = s6.add(s5.lanewise(ASHR, BITS));
+			s5 = s5.and(MASK);
+			s7 = s7.add(s6.lanewise(ASHR, BITS));
+			s6 = s6.and(MASK);
+			s8 = s8.add(s7.lanewise(ASHR, BITS));
+			s7 = s7.and(MASK);
+			s9 = s9.add(s8.lanewise(ASHR, BITS));
+			s8 = s8.and(MASK);
+			var d0 = s0.sub(P2[0]);
+			var d1 = s1.sub(P2[1]).add(d0.lanewise(ASHR, BITS));
+			d0 = d0.and(MASK);
+			var d2 = s2.sub(P2[2]).add(d1.lanewise(ASHR, BITS));
+			d1 = d1.and(MASK);
+			var d3 = s3.sub(P2[3]).add(d2.lanewise(ASHR, BITS));
+			d2 = d2.and(MASK);
+			var d4 = s4.sub(P2[4]).add(d3.lanewise(ASHR, BITS));
+			d3 = d3.and(MASK);
+			var d5 = s5.sub(P2[5]).add(d4.lanewise(ASHR, BITS));
+			d4 = d4.and(MASK);
+			var d6 = s6.sub(P2[6]).add(d5.lanewise(ASHR, BITS));
+			d5 = d5.and(MASK);
+			var d7 = s7.sub(P2[7]).add(d6.lanewise(ASHR, BITS));
+			d6 = d6.and(MASK);
+			var d8 = s8.sub(P2[8]).add(d7.lanewise(ASHR, BITS));
+			d7 = d7.and(MASK);
+			var d9 = s9.sub(P2[9]).add(d8.lanewise(ASHR, BITS));
+			d8 = d8.and(MASK);
+			final var keep = d9.compare(LT, 0);
+			d9 = d9.and(MASK);
+			d0.blend(s0, keep).intoArray(r[0], off);
+			d1.blend(s1, keep).intoArray(r[1], off);
+			d2.blend(s2, keep).intoArray(r[2], off);
+			d3.blend(s3, keep).intoArray(r[3], off);
+			d4.blend(s4, keep).intoArray(r[4], off);
+			d5.blend(s5, keep).intoArray(r[5], off);
+			d6.blend(s6, keep).intoArray(r[6], off);
+			d7.blend(s7, keep).intoArray(r[7], off);
+			d8.blend(s8, keep).intoArray(r[8], off);
+			d9.blend(s9, keep).intoArray(r[9], off);
+		}
+	}
+
+	/**
+	 * Reduce r = a from [0, 2p) into the canonical range [0, p)
+	 */
+	static void reduce(long[][] r, long[][] a, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var a0 = LongVector.fromArray(SPECIES, a[0], off);
+			final var a1 = LongVector.fromArray(SPECIES, a[1], off);
+			final var a2 = LongVector.fromArray(SPECIES, a[2], off);
+			final var a3 = LongVector.fromArray(SPECIES, a[3], off);
+			final var a4 = LongVector.fromArray(SPECIES, a[4], off);
+			final var a5 = LongVector.fromArray(SPECIES, a[5], off);
+			final var a6 = LongVector.fromArray(SPECIES, a[6], off);
+			final var a7 = LongVector.fromArray(SPECIES, a[7], off);
+			final var a8 = LongVector.fromArray(SPECIES, a[8], off);
+			final var a9 = LongVector.fromArray(SPECIES, a[9], off);
+			var s0 = a0;
+			var s1 = a1;
+			var s2 = a2;
+			var s3 = a3;
+			var s4 = a4;
+			var s5 = a5;
+			var s6 = a6;
+			var s7 = a7;
+			var s8 = a8;
+			var s9 = a9;
+			s1 = s1.add(s0.lanewise(ASHR, BITS));
+			s0 = s0.and(MASK);
+			s2 = s2.add(s1.lanewise(ASHR, BITS));
+			s1 = s1.and(MASK);
+			s3 = s3.add(s2.lanewise(ASHR, BITS));
+			s2 = s2.and(MASK);
+			s4 = s4.add(s3.lanewise(ASHR, BITS));
+			s3 = s3.and(MASK);
+			s5 = s5.add(s4.lanewise(ASHR, BITS));
+			s4 = s4.and(MASK);
+			s6 = s6.add(s5.lanewise(ASHR, BITS));
+			s5 = s5.and(MASK);
+			s7 = s7.add(s6.lanewise(ASHR, BITS));
+			s6 = s6.and(MASK);
+			s8 = s8.add(s7.lanewise(ASHR, BITS));
+			s7 = s7.and(MASK);
+			s9 = s9.add(s8.lanewise(ASHR, BITS));
+			s8 = s8.and(MASK);
+			var d0 = s0.sub(P[0]);
+			var d1 = s1.sub(P[1]).add(d0.lanewise(ASHR, BITS));
+			d0 = d0.and(MASK);
+			var d2 = s2.sub(P[2]).add(d1.lanewise(ASHR, BITS));
+			d1 = d1.and(MASK);
+			var d3 = s3.sub(P[3]).add(d2.lanewise(ASHR, BITS));
+			d2 = d2.and(MASK);
+			var d4 = s4.sub(P[4]).add(d3.lanewise(ASHR, BITS));
+			d3 = d3.and(MASK);
+			var d5 = s5.sub(P[5]).add(d4.lanewise(ASHR, BITS));
+			d4 = d4.and(MASK);
+			var d6 = s6.sub(P[6]).add(d5.lanewise(ASHR, BITS));
+			d5 = d5.and(MASK);
+			var d7 = s7.sub(P[7]).add(d6.lanewise(ASHR, BITS));
+			d6 = d6.and(MASK);
+			var d8 = s8.sub(P[8]).add(d7.lanewise(ASHR, BITS));
+			d7 = d7.and(MASK);
+			var d9 = s9.sub(P[9]).add(d8.lanewise(ASHR, BITS));
+			d8 = d8.and(MASK);
+			final var keep = d9.compare(LT, 0);
+			d9 = d9.and(MASK);
+			d0.blend(s0, keep).intoArray(r[0], off);
+			d1.blend(s1, keep).intoArray(r[1], off);
+			d2.blend(s2, keep).intoArray(r[2], off);
+			d3.blend(s3, keep).intoArray(r[3], off);
+			d4.blend(s4, keep).intoArray(r[4], off);
+			d5.blend(s5, keep).intoArray(r[5], off);
+			d6.blend(s6, keep).intoArray(r[6], off);
+			d7.blend(s7, keep).intoArray(r[7], off);
+			d8.blend(s8, keep).intoArray(r[8], off);
+			d9.blend(s9, keep).intoArray(r[9], off);
+		}
+	}
+
+	/**
+	 * r = cond[j] != 0 ? b : a (per lane)
+	 */
+	static void select(long[][] r, long[][] a, long[][] b, long[] cond, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			final var mask = LongVector.fromArray(SPECIES, cond, off).compare(NE, 0);
+			for (int i = 0; i < P256Limbs.LIMBS; i++) {
+				LongVector.fromArray(SPECIES, a[i], off)
+					.blend(LongVector.fromArray(SPECIES, b[i], off), mask)
+					.intoArray(r[i], off);
+			}
+		}
+	}
+
+	/**
+	 * r = table[index] for all lanes, scans the whole table to avoid secret dependent memory access
+	 */
+	static void lookup(long[][] r, long[][][] table, int index, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			for (int i = 0; i < P256Limbs.LIMBS; i++) {
+				var acc = ZERO;
+				for (int t = 0; t < table.length; t++) {
+					final long m = ((long) (t ^ index) - 1) >> 63;
+					acc = acc.or(LongVector.fromArray(SPECIES, table[t][i], off).and(m));
+				}
+				acc.intoArray(r[i], off);
+			}
+		}
+	}
+
+	/**
+	 * out[j] = -1 if a[j] == 0 (mod p), 0 otherwise. <code>a</code> must be canonical (see <code>reduce()</code>)
+	 */
+	static void isZero(long[] out, long[][] a, int n) {
+		for (int off = 0; off < n; off += LANES) {
+			var acc = LongVector.fromArray(SPECIES, a[0], off);
+			for (int i = 1; i < P256Limbs.LIMBS; i++) {
+				acc = acc.or(LongVector.fromArray(SPECIES, a[i], off));
+			}
+			ZERO.blend(-1L, acc.compare(EQ, 0)).intoArray(out, off);
+		}
+	}
+}
@@ -0,0 +1,331 @@
+/**
+ * P-521 Mersenne prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * P-521 operations on top of the limb based Mersenne field arithmetic in <code>P521Field</code>:
+ * hash_to_field reduction, RFC 9380 SSWU mapping and (constant-time) scalar multiplication.
+ * Inputs and outputs are Bouncy Castle types, so this can be used as a drop-in replacement
+ * for the corresponding Bouncy Castle operations on the secp521r1 curve.
+ */
+public final class P521Curve {
+	private static final BigInteger Q = P521Field.P;
+	private static final BigInteger CURVE_A = Q.subtract(BigInteger.valueOf(3));
+	private static final BigInteger CURVE_B = new BigInteger("0051953eb9618e1c9a1f929a21a0b68540eea2da725b99b315f3b8b489918ef109e156193951ec7e937b1652c0bd3bb1bf073573df883d2c34f1ef451fd46b503f00", 16);
+
+	private static final long[] A = P521Field.fromBigInteger(CURVE_A);
+	private static final long[] B = P521Field.fromBigInteger(CURVE_B);
+	private static final long[] Z = P521Field.fromBigInteger(BigInteger.valueOf(-4));
+	private static final long[] ONE = P521Field.fromBigInteger(BigInteger.ONE);
+
+	private static final int WINDOW = 4;
+
+	private P521Curve() { /* */ }
+
+	/**
+	 * @param curve
+	 * @return <code>true</code> if <code>curve</code> is secp521r1
+	 */
+	public static boolean supports(ECCurve curve) {
+		return curve.getField().getCharacteristic().equals(Q)
+			&& curve.getA().toBigInteger().equals(CURVE_A) && curve.getB().toBigInteger().equals(CURVE_B);
+	}
+
+	/**
+	 * hash_to_field reduction: OS2IP(tv) mod p, for the uniform bytes of one field element
+	 * @param uniformBytes At most 101 bytes (L = 98 for P521_XMD:SHA-512)
+	 * @return
+	 */
+	public static BigInteger reduce(byte[] uniformBytes) {
+		return P521Field.toBigInteger(P521Field.fromBytesReduce(uniformBytes));
+	}
+
+	/**
+	 * RFC 9380 - F.2 map_to_curve_simple_swu() for P-521, using sqrt_ratio() for q = 3 (mod 4)
+	 * (q - 3) / 4 = 2^519 - 1 and sqrt(-Z) = 2
+	 * @param curve secp521r1 curve, used to create the resulting point
+	 * @param u
+	 * @return
+	 */
+	public static ECPoint mapToCurveSimpleSWU(ECCurve curve, ECFieldElement u) {
+		final var fu = P521Field.fromBigInteger(u.toBigInteger());
+		final var tv1 = P521Field.create();
+		final var tv2 = P521Field.create();
+		final var tv3 = P521Field.create();
+		final var tv4 = P521Field.create();
+		final var tv5 = P521Field.create();
+		final var tv6 = P521Field.create();
+
+		P521Field.sqr(tv1, fu);
+		P521Field.mul(tv1, Z, tv1);
+		P521Field.sqr(tv2, tv1);
+		P521Field.add(tv2, tv2, tv1);
+		P521Field.add(tv3, tv2, ONE);
+		P521Field.mul(tv3, B, tv3);
+		P521Field.neg(tv4, tv2);
+		P521Field.cmov(tv4, Z, tv4, !P521Field.isZero(tv2));
+		P521Field.mul(tv4, A, tv4);
+		P521Field.sqr(tv2, tv3);
+		P521Field.sqr(tv6, tv4);
+		P521Field.mul(tv5, A, tv6);
+		P521Field.add(tv2, tv2, tv5);
+		P521Field.mul(tv2, tv2, tv3);
+		P521Field.mul(tv6, tv6, tv4);
+		P521Field.mul(tv5, B, tv6);
+		P521Field.add(tv2, tv2, tv5);
+
+		// sqrt_ratio(tv2, tv6)
+		final var y1 = P521Field.create();
+		final var y2 = P521Field.create();
+		final var s = P521Field.create();
+		P521Field.sqr(s, tv6);
+		P521Field.mul(y2, tv2, tv6);
+		P521Field.mul(s, s, y2);
+		P521Field.powP34(y1, s);
+		P521Field.mul(y1, y1, y2);
+		P521Field.add(y2, y1, y1);
+		P521Field.sqr(s, y1);
+		P521Field.mul(s, s, tv6);
+		final var isQR = P521Field.equals(s, tv2);
+		P521Field.cmov(y1, y2, y1, isQR);
+
+		final var x = P521Field.create();
+		final var y = P521Field.create();
+		P521Field.mul(x, tv1, tv3);
+		P521Field.mul(y, tv1, fu);
+		P521Field.mul(y, y, y1);
+		P521Field.cmov(x, x, tv3, isQR);
+		P521Field.cmov(y, y, y1, isQR);
+
+		final var e1 = P521Field.sgn0(fu) == P521Field.sgn0(y);
+		P521Field.neg(s, y);
+		P521Field.cmov(y, s, y, e1);
+
+		P521Field.invert(s, tv4);
+		P521Field.mul(x, x, s);
+		return curve.createPoint(P521Field.toBigInteger(x), P521Field.toBigInteger(y));
+	}
+
+	/** Jacobian coordinates, x = X / Z^2, y = Y / Z^3 */
+	private static final record Jacobian(long[] X, long[] Y, long[] Z) {
+		static Jacobian create() {
+			return new Jacobian(P521Field.create(), P521Field.create(), P521Field.create());
+		}
+
+		void set(Jacobian p) {
+			P521Field.copy(X, p.X());
+			P521Field.copy(Y, p.Y());
+			P521Field.copy(Z, p.Z());
+		}
+
+		void cmov(Jacobian p, boolean cond) {
+			P521Field.cmov(X, X, p.X(), cond);
+			P521Field.cmov(Y, Y, p.Y(), cond);
+			P521Field.cmov(Z, Z, p.Z(), cond);
+		}
+
+		boolean isInfinity() {
+			return P521Field.isZero(Z);
+		}
+	}
+
+	/**
+	 * Point doubling for a = -3, dbl-2001-b (3M + 5S), maps infinity (Z = 0) to infinity
+	 */
+	private static void dbl(Jacobian r, Jacobian p) {
+		final var delta = P521Field.create();
+		final var gamma = P521Field.create();
+		final var beta = P521Field.create();
+		final var alpha = P521Field.create();
+		final var t = P521Field.create();
+
+		P521Field.sqr(delta, p.Z());
+		P521Field.sqr(gamma, p.Y());
+		P521Field.mul(beta, p.X(), gamma);
+		P521Field.sub(t, p.X(), delta);
+		P521Field.add(alpha, p.X(), delta);
+		P521Field.mul(alpha, alpha, t);
+		P521Field.add(t, alpha, alpha);
+		P521Field.add(alpha, alpha, t);			// alpha = 3 * (X - delta) * (X + delta)
+
+		P521Field.add(r.Z(), p.Y(), p.Z());
+		P521Field.sqr(r.Z(), r.Z());
+		P521Field.sub(r.Z(), r.Z(), gamma);
+		P521Field.sub(r.Z(), r.Z(), delta);		// Z3 = (Y + Z)^2 - gamma - delta
+
+		P521Field.add(beta, beta, beta);
+		P521Field.add(beta, beta, beta);		// beta = 4 * beta
+		P521Field.sqr(r.X(), alpha);
+		P521Field.sub(r.X(), r.X(), beta);
+		P521Field.sub(r.X(), r.X(), beta);		// X3 = alpha^2 - 8 * beta
+
+		P521Field.sub(t, beta, r.X());
+		P521Field.mul(t, alpha, t);
+		P521Field.sqr(gamma, gamma);
+		P521Field.add(gamma, gamma, gamma);
+		P521Field.add(gamma, gamma, gamma);
+		P521Field.add(gamma, gamma, gamma);
+		P521Field.sub(r.Y(), t, gamma);			// Y3 = alpha * (4 * beta - X3) - 8 * gamma^2
+	}
+
+	/**
+	 * Point addition, add-2007-bl (11M + 5S). Does not handle the special cases P = Q,
+	 * P = -Q and P or Q = infinity, the caller has to take care of them.
+	 */
+	private static void add(Jacobian r, Jacobian p, Jacobian q) {
+		final var z1z1 = P521Field.create();
+		final var z2z2 = P521Field.create();
+		final var u1 = P521Field.create();
+		final var u2 = P521Field.create();
+		final var s1 = P521Field.create();
+		final var s2 = P521Field.create();
+		final var h = P521Field.create();
+		final var i = P521Field.create();
+		final var j = P521Field.create();
+		final var rr = P521Field.create();
+		final var v = P521Field.create();
+
+		P521Field.sqr(z1z1, p.Z());
+		P521Field.sqr(z2z2, q.Z());
+		P521Field.mul(u1, p.X(), z2z2);
+		P521Field.mul(u2, q.X(), z1z1);
+		P521Field.mul(s1, p.Y(), q.Z());
+		P521Field.mul(s1, s1, z2z2);
+		P521Field.mul(s2, q.Y(), p.Z());
+		P521Field.mul(s2, s2, z1z1);
+		P521Field.sub(h, u2, u1);
+		P521Field.add(i, h, h);
+		P521Field.sqr(i, i);
+		P521Field.mul(j, h, i);
+		P521Field.sub(rr, s2, s1);
+		P521Field.add(rr, rr, rr);
+		P521Field.mul(v, u1, i);
+
+		final var z3 = P521Field.create();
+		P521Field.add(z3, p.Z(), q.Z());
+		P521Field.sqr(z3, z3);
+		P521Field.sub(z3, z3, z1z1);
+		P521Field.sub(z3, z3, z2z2);
+		P521Field.mul(r.Z(), z3, h);
+
+		P521Field.sqr(r.X(), rr);
+		P521Field.sub(r.X(), r.X(), j);
+		P521Field.sub(r.X(), r.X(), v);
+		P521Field.sub(r.X(), r.X(), v);
+
+		P521Field.mul(s1, s1, j);
+		P521Field.add(s1, s1, s1);
+		P521Field.sub(v, v, r.X());
+		P521Field.mul(v, rr, v);
+		P521Field.sub(r.Y(), v, s1);
+	}
+
+	/**
+	 * Constant-time table lookup, scans all entries
+	 */
+	private static void lookup(Jacobian r, Jacobian[] table, int index) {
+		for (int i = 0; i < table.length; i++)
+			r.cmov(table[i], i == index);
+	}
+
+	/**
+	 * Scalar multiplication k * P with a fixed 4-bit window, constant-time with respect to k.
+	 * @param p Point on secp521r1
+	 * @param k Scalar, reduced modulo the group order
+	 * @return
+	 */
+	public static ECPoint multiply(ECPoint p, BigInteger k) {
+		return multiply(p, new BigInteger[]{ k })[0];
+	}
+
+	/**
+	 * Multiply the same point by several scalars, the window table of P is only built once
+	 * @param p Point on secp521r1
+	 * @param k Scalars, reduced modulo the group order
+	 * @return k[i] * P, in the same order
+	 */
+	public static ECPoint[] multiply(ECPoint p, BigInteger[] k) {
+		final var curve = p.getCurve();
+		final var result = new ECPoint[k.length];
+		if (p.isInfinity()) {
+			Arrays.fill(result, curve.getInfinity());
+			return result;
+		}
+
+		final var table = precompute(p.normalize());
+		for (int i = 0; i < k.length; i++)
+			result[i] = multiply(curve, table, k[i].mod(curve.getOrder()));
+		return result;
+	}
+
+	/**
+	 * @param affine
+	 * @return 0 * P (infinity, Z = 0), P, 2P, ..., 15P
+	 */
+	private static Jacobian[] precompute(ECPoint affine) {
+		final var table = new Jacobian[1 << WINDOW];
+		table[0] = Jacobian.create();	// Infinity, Z = 0
+		table[1] = new Jacobian(
+			P521Field.fromBigInteger(affine.getAffineXCoord().toBigInteger()),
+			P521Field.fromBigInteger(affine.getAffineYCoord().toBigInteger()),
+			ONE.clone());
+		table[2] = Jacobian.create();
+		dbl(table[2], table[1]);
+		for (int i = 3; i < table.length; i++) {
+			table[i] = Jacobian.create();
+			add(table[i], table[i - 1], table[1]);
+		}
+		return table;
+	}
+
+	private static ECPoint multiply(ECCurve curve, Jacobian[] table, BigInteger scalar) {
+		// Since k < n and P has order n, the running sum never equals +/- the table entry
+		// that is added, the only special cases are infinity on either side.
+		final var acc = Jacobian.create();
+		final var sel = Jacobian.create();
+		final var sum = Jacobian.create();
+		final var windows = (curve.getOrder().bitLength() + WINDOW - 1) / WINDOW;
+		for (int w = windows - 1; w >= 0; w--) {
+			for (int d = 0; d < WINDOW; d++)
+				dbl(acc, acc);
+
+			var digit = 0;
+			for (int b = WINDOW - 1; b >= 0; b--)
+				digit = (digit << 1) | (scalar.testBit(w * WINDOW + b) ? 1 : 0);
+			lookup(sel, table, digit);
+
+			add(sum, acc, sel);
+			final var accInfinity = acc.isInfinity();
+			final var selInfinity = sel.isInfinity();
+			sum.cmov(sel, accInfinity);
+			sum.cmov(acc, selInfinity);
+			acc.set(sum);
+		}
+
+		if (acc.isInfinity())
+			return curve.getInfinity();
+
+		final var zInv = P521Field.create();
+		final var t = P521Field.create();
+		P521Field.invert(zInv, acc.Z());
+		P521Field.sqr(t, zInv);
+		final var x = P521Field.create();
+		P521Field.mul(x, acc.X(), t);
+		P521Field.mul(t, t, zInv);
+		final var y = P521Field.create();
+		P521Field.mul(y, acc.Y(), t);
+		return curve.createPoint(P521Field.toBigInteger(x), P521Field.toBigInteger(y));
+	}
+}
@@ -0,0 +1,496 @@
+/**
+ * P-521 Mersenne prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo p = 2^521 - 1 on 9 unsaturated limbs (8 x 58 bit + 1 x 57 bit, little-endian).
+ *
+ * Since 2^521 = 1 (mod p), reduction is a matter of folding the upper half of a product
+ * onto the lower half (2^522 = 2 for the limb boundary) followed by carry propagation,
+ * no division or Montgomery conversion is needed.
+ *
+ * All operations produce <em>weakly reduced</em> outputs: limbs are within their nominal
+ * bit size (limb 0 may exceed it by a few bits), the value itself is in [0, 2p).
+ * Use <code>canonical()</code> before comparing or encoding.
+ * All operations are constant-time with respect to the values.
+ */
+final class P521Field {
+	static final int LIMBS = 9;
+	static final int BITS = 58;
+	static final int TOP_BITS = 57;
+	static final long MASK = (1L << BITS) - 1;
+	static final long TOP_MASK = (1L << TOP_BITS) - 1;
+
+	static final BigInteger P = BigInteger.ONE.shiftLeft(521).subtract(BigInteger.ONE);
+
+	private P521Field() { /* */ }
+
+	static long[] create() {
+		return new long[LIMBS];
+	}
+
+	static long[] fromBigInteger(BigInteger x) {
+		final var r = create();
+		final var v = x.mod(P);
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = v.shiftRight(i * BITS).longValue() & MASK;
+		return r;
+	}
+
+	static BigInteger toBigInteger(long[] a) {
+		final var c = canonical(a);
+		var v = BigInteger.ZERO;
+		for (int i = LIMBS - 1; i >= 0; i--)
+			v = v.shiftLeft(BITS).or(BigInteger.valueOf(c[i]));
+		return v;
+	}
+
+	/**
+	 * Reduce an arbitrary big-endian value of at most 101 bytes (14 limbs) modulo p,
+	 * e.g. the uniform bytes of hash_to_field
+	 */
+	static long[] fromBytesReduce(byte[] be) {
+		if (be.length > 101)
+			throw new IllegalArgumentException("Input too long");
+
+		final var wide = new long[14];
+		long acc = 0;
+		int accBits = 0, limb = 0;
+		for (int k = be.length - 1; k >= 0; k--) {
+			acc |= (be[k] & 0xffL) << accBits;
+			accBits += 8;
+			if (accBits >= BITS) {
+				wide[limb++] = acc & MASK;
+				acc >>>= BITS;
+				accBits -= BITS;
+			}
+		}
+		if (limb < wide.length)
+			wide[limb] = acc;
+
+		// 2^(9 * 58) = 2^522 = 2 (mod p)
+		final var r = create();
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = wide[i] + (i + LIMBS < wide.length ? wide[i + LIMBS] << 1 : 0);
+		carry(r);
+		return r;
+	}
+
+	/**
+	 * Big-endian encoding (66 bytes) of the canonical value of <code>a</code>
+	 */
+	static byte[] toBytes(long[] a) {
+		final var c = canonical(a);
+		final var be = new byte[66];
+		long acc = 0;
+		int accBits = 0, limb = 0;
+		for (int k = be.length - 1; k >= 0; k--) {
+			if (accBits < 8 && limb < LIMBS) {
+				acc |= c[limb++] << accBits;
+				accBits += BITS;
+			}
+			be[k] = (byte) acc;
+			acc >>>= 8;
+			accBits -= 8;
+		}
+		return be;
+	}
+
+	/**
+	 * Carry propagation, limbs may be up to 62 bits on input
+	 */
+	static void carry(long[] r) {
+		long c;
+		for (int i = 0; i < LIMBS - 1; i++) {
+			c = r[i] >>> BITS;
+			r[i] &= MASK;
+			r[i + 1] += c;
+		}
+		c = r[8] >>> TOP_BITS;
+		r[8] &= TOP_MASK;
+		r[0] += c;
+		c = r[0] >>> BITS;
+		r[0] &= MASK;
+		r[1] += c;
+	}
+
+	/**
+	 * Fully reduced copy of <code>a</code>, in [0, p)
+	 */
+	static long[] canonical(long[] a) {
+		final var r = a.clone();
+		carry(r);
+		carry(r);
+
+		// r < 2^521 now, subtract p if r >= p, i.e. if r + 1 overflows 2^521
+		final var t = r.clone();
+		t[0] += 1;
+		for (int i = 0; i < LIMBS - 1; i++) {
+			t[i + 1] += t[i] >>> BITS;
+			t[i] &= MASK;
+		}
+		final var overflow = -(t[8] >>> TOP_BITS);	// all ones if r >= p
+		t[8] &= TOP_MASK;
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = (r[i] & ~overflow) | (t[i] & overflow);
+		return r;
+	}
+
+	static void copy(long[] r, long[] a) {
+		System.arraycopy(a, 0, r, 0, LIMBS);
+	}
+
+	static void add(long[] r, long[] a, long[] b) {
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] + b[i];
+		carry(r);
+	}
+
+	// 4p, limb-wise, to keep subtraction results positive
+	private static final long[] P4 = new long[]{
+		MASK << 2, MASK << 2, MASK << 2, MASK << 2, MASK << 2, MASK << 2, MASK << 2, MASK << 2, TOP_MASK << 2,
+	};
+
+	static void sub(long[] r, long[] a, long[] b) {
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] + P4[i] - b[i];
+		carry(r);
+	}
+
+	static void neg(long[] r, long[] a) {
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = P4[i] - a[i];
+		carry(r);
+	}
+
+	/**
+	 * r = a * b (mod p)
+	 */
+	static void mul(long[] r, long[] a, long[] b) {
+		// Doubled b for the wrapped-around columns, 2^522 = 2 (mod p)
+		final long b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3], b4 = b[4], b5 = b[5], b6 = b[6], b7 = b[7], b8 = b[8];
+		final long d1 = b1 << 1, d2 = b2 << 1, d3 = b3 << 1, d4 = b4 << 1, d5 = b5 << 1, d6 = b6 << 1, d7 = b7 << 1, d8 = b8 << 1;
+		final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4], a5 = a[5], a6 = a[6], a7 = a[7], a8 = a[8];
+
+		// 128-bit column sums (lo, hi) in locals, each column starts from the carry of the previous one
+		long lo, hi, t, carryLo, carryHi, r0, r1, r2, r3, r4, r5, r6, r7, r8;
+
+		// Column 0
+		lo = 0; hi = 0;
+		t = a0 * b0; hi += Math.multiplyHigh(a0, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * d8; hi += Math.multiplyHigh(a1, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * d7; hi += Math.multiplyHigh(a2, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * d6; hi += Math.multiplyHigh(a3, d6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * d5; hi += Math.multiplyHigh(a4, d5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * d4; hi += Math.multiplyHigh(a5, d4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * d3; hi += Math.multiplyHigh(a6, d3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d2; hi += Math.multiplyHigh(a7, d2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d1; hi += Math.multiplyHigh(a8, d1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r0 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 1
+		lo = carryLo; hi = carryHi;
+		t = a0 * b1; hi += Math.multiplyHigh(a0, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b0; hi += Math.multiplyHigh(a1, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * d8; hi += Math.multiplyHigh(a2, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * d7; hi += Math.multiplyHigh(a3, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * d6; hi += Math.multiplyHigh(a4, d6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * d5; hi += Math.multiplyHigh(a5, d5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * d4; hi += Math.multiplyHigh(a6, d4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d3; hi += Math.multiplyHigh(a7, d3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d2; hi += Math.multiplyHigh(a8, d2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r1 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 2
+		lo = carryLo; hi = carryHi;
+		t = a0 * b2; hi += Math.multiplyHigh(a0, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b1; hi += Math.multiplyHigh(a1, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b0; hi += Math.multiplyHigh(a2, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * d8; hi += Math.multiplyHigh(a3, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * d7; hi += Math.multiplyHigh(a4, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * d6; hi += Math.multiplyHigh(a5, d6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * d5; hi += Math.multiplyHigh(a6, d5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d4; hi += Math.multiplyHigh(a7, d4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d3; hi += Math.multiplyHigh(a8, d3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r2 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 3
+		lo = carryLo; hi = carryHi;
+		t = a0 * b3; hi += Math.multiplyHigh(a0, b3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b2; hi += Math.multiplyHigh(a1, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b1; hi += Math.multiplyHigh(a2, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * b0; hi += Math.multiplyHigh(a3, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * d8; hi += Math.multiplyHigh(a4, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * d7; hi += Math.multiplyHigh(a5, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * d6; hi += Math.multiplyHigh(a6, d6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d5; hi += Math.multiplyHigh(a7, d5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d4; hi += Math.multiplyHigh(a8, d4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r3 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 4
+		lo = carryLo; hi = carryHi;
+		t = a0 * b4; hi += Math.multiplyHigh(a0, b4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b3; hi += Math.multiplyHigh(a1, b3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b2; hi += Math.multiplyHigh(a2, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * b1; hi += Math.multiplyHigh(a3, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * b0; hi += Math.multiplyHigh(a4, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * d8; hi += Math.multiplyHigh(a5, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * d7; hi += Math.multiplyHigh(a6, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d6; hi += Math.multiplyHigh(a7, d6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d5; hi += Math.multiplyHigh(a8, d5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r4 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 5
+		lo = carryLo; hi = carryHi;
+		t = a0 * b5; hi += Math.multiplyHigh(a0, b5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b4; hi += Math.multiplyHigh(a1, b4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b3; hi += Math.multiplyHigh(a2, b3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * b2; hi += Math.multiplyHigh(a3, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * b1; hi += Math.multiplyHigh(a4, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * b0; hi += Math.multiplyHigh(a5, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * d8; hi += Math.multiplyHigh(a6, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d7; hi += Math.multiplyHigh(a7, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d6; hi += Math.multiplyHigh(a8, d6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r5 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 6
+		lo = carryLo; hi = carryHi;
+		t = a0 * b6; hi += Math.multiplyHigh(a0, b6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b5; hi += Math.multiplyHigh(a1, b5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b4; hi += Math.multiplyHigh(a2, b4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * b3; hi += Math.multiplyHigh(a3, b3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * b2; hi += Math.multiplyHigh(a4, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * b1; hi += Math.multiplyHigh(a5, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * b0; hi += Math.multiplyHigh(a6, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * d8; hi += Math.multiplyHigh(a7, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d7; hi += Math.multiplyHigh(a8, d7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r6 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 7
+		lo = carryLo; hi = carryHi;
+		t = a0 * b7; hi += Math.multiplyHigh(a0, b7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b6; hi += Math.multiplyHigh(a1, b6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b5; hi += Math.multiplyHigh(a2, b5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * b4; hi += Math.multiplyHigh(a3, b4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * b3; hi += Math.multiplyHigh(a4, b3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * b2; hi += Math.multiplyHigh(a5, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * b1; hi += Math.multiplyHigh(a6, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * b0; hi += Math.multiplyHigh(a7, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * d8; hi += Math.multiplyHigh(a8, d8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r7 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 8
+		lo = carryLo; hi = carryHi;
+		t = a0 * b8; hi += Math.multiplyHigh(a0, b8); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * b7; hi += Math.multiplyHigh(a1, b7); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * b6; hi += Math.multiplyHigh(a2, b6); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * b5; hi += Math.multiplyHigh(a3, b5); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * b4; hi += Math.multiplyHigh(a4, b4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * b3; hi += Math.multiplyHigh(a5, b3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * b2; hi += Math.multiplyHigh(a6, b2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * b1; hi += Math.multiplyHigh(a7, b1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * b0; hi += Math.multiplyHigh(a8, b0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r8 = lo & TOP_MASK; carryLo = (lo >>> TOP_BITS) | (hi << (64 - TOP_BITS)); carryHi = hi >>> TOP_BITS;
+
+		wrap(r, r0, r1, r2, r3, r4, r5, r6, r7, r8, carryLo, carryHi);
+	}
+
+	/**
+	 * r = a^2 (mod p)
+	 */
+	static void sqr(long[] r, long[] a) {
+		final long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4], a5 = a[5], a6 = a[6], a7 = a[7], a8 = a[8];
+		final long a1x2 = a1 << 1, a2x2 = a2 << 1, a3x2 = a3 << 1, a4x2 = a4 << 1, a5x2 = a5 << 1, a6x2 = a6 << 1, a7x2 = a7 << 1, a8x2 = a8 << 1;
+		final long a5x4 = a5 << 2, a6x4 = a6 << 2, a7x4 = a7 << 2, a8x4 = a8 << 2;
+
+		// 128-bit column sums (lo, hi) in locals, each column starts from the carry of the previous one
+		long lo, hi, t, carryLo, carryHi, r0, r1, r2, r3, r4, r5, r6, r7, r8;
+
+		// Column 0
+		lo = 0; hi = 0;
+		t = a0 * a0; hi += Math.multiplyHigh(a0, a0); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a8x4; hi += Math.multiplyHigh(a1, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a7x4; hi += Math.multiplyHigh(a2, a7x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * a6x4; hi += Math.multiplyHigh(a3, a6x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * a5x4; hi += Math.multiplyHigh(a4, a5x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r0 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 1
+		lo = carryLo; hi = carryHi;
+		t = a0 * a1x2; hi += Math.multiplyHigh(a0, a1x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a8x4; hi += Math.multiplyHigh(a2, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * a7x4; hi += Math.multiplyHigh(a3, a7x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * a6x4; hi += Math.multiplyHigh(a4, a6x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * a5x2; hi += Math.multiplyHigh(a5, a5x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r1 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 2
+		lo = carryLo; hi = carryHi;
+		t = a0 * a2x2; hi += Math.multiplyHigh(a0, a2x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a1; hi += Math.multiplyHigh(a1, a1); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * a8x4; hi += Math.multiplyHigh(a3, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * a7x4; hi += Math.multiplyHigh(a4, a7x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * a6x4; hi += Math.multiplyHigh(a5, a6x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r2 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 3
+		lo = carryLo; hi = carryHi;
+		t = a0 * a3x2; hi += Math.multiplyHigh(a0, a3x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a2x2; hi += Math.multiplyHigh(a1, a2x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * a8x4; hi += Math.multiplyHigh(a4, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * a7x4; hi += Math.multiplyHigh(a5, a7x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * a6x2; hi += Math.multiplyHigh(a6, a6x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r3 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 4
+		lo = carryLo; hi = carryHi;
+		t = a0 * a4x2; hi += Math.multiplyHigh(a0, a4x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a3x2; hi += Math.multiplyHigh(a1, a3x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a2; hi += Math.multiplyHigh(a2, a2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a5 * a8x4; hi += Math.multiplyHigh(a5, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * a7x4; hi += Math.multiplyHigh(a6, a7x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r4 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 5
+		lo = carryLo; hi = carryHi;
+		t = a0 * a5x2; hi += Math.multiplyHigh(a0, a5x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a4x2; hi += Math.multiplyHigh(a1, a4x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a3x2; hi += Math.multiplyHigh(a2, a3x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a6 * a8x4; hi += Math.multiplyHigh(a6, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * a7x2; hi += Math.multiplyHigh(a7, a7x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r5 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 6
+		lo = carryLo; hi = carryHi;
+		t = a0 * a6x2; hi += Math.multiplyHigh(a0, a6x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a5x2; hi += Math.multiplyHigh(a1, a5x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a4x2; hi += Math.multiplyHigh(a2, a4x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * a3; hi += Math.multiplyHigh(a3, a3); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a7 * a8x4; hi += Math.multiplyHigh(a7, a8x4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r6 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 7
+		lo = carryLo; hi = carryHi;
+		t = a0 * a7x2; hi += Math.multiplyHigh(a0, a7x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a6x2; hi += Math.multiplyHigh(a1, a6x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a5x2; hi += Math.multiplyHigh(a2, a5x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * a4x2; hi += Math.multiplyHigh(a3, a4x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a8 * a8x2; hi += Math.multiplyHigh(a8, a8x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r7 = lo & MASK; carryLo = (lo >>> BITS) | (hi << (64 - BITS)); carryHi = hi >>> BITS;
+
+		// Column 8
+		lo = carryLo; hi = carryHi;
+		t = a0 * a8x2; hi += Math.multiplyHigh(a0, a8x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a1 * a7x2; hi += Math.multiplyHigh(a1, a7x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a2 * a6x2; hi += Math.multiplyHigh(a2, a6x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a3 * a5x2; hi += Math.multiplyHigh(a3, a5x2); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		t = a4 * a4; hi += Math.multiplyHigh(a4, a4); lo += t; hi += Long.compareUnsigned(lo, t) < 0 ? 1 : 0;
+		r8 = lo & TOP_MASK; carryLo = (lo >>> TOP_BITS) | (hi << (64 - TOP_BITS)); carryHi = hi >>> TOP_BITS;
+
+		wrap(r, r0, r1, r2, r3, r4, r5, r6, r7, r8, carryLo, carryHi);
+	}
+
+	/**
+	 * r = a^2^n (mod p)
+	 */
+	static void sqr(long[] r, long[] a, int n) {
+		copy(r, a);
+		for (int i = 0; i < n; i++)
+			sqr(r, r);
+	}
+
+	/**
+	 * Store the column results, the carry out of the top limb wraps around (2^521 = 1), it is < 2^70
+	 */
+	private static void wrap(long[] r, long r0, long r1, long r2, long r3, long r4, long r5, long r6, long r7, long r8,
+		long carryLo, long carryHi)
+	{
+		final var lo = r0 + carryLo;
+		final var hi = carryHi + (Long.compareUnsigned(lo, carryLo) < 0 ? 1 : 0);
+		r1 += (lo >>> BITS) | (hi << (64 - BITS));
+		r[0] = lo & MASK;
+		r[1] = r1 & MASK;
+		r[2] = r2 + (r1 >>> BITS);
+		r[3] = r3;
+		r[4] = r4;
+		r[5] = r5;
+		r[6] = r6;
+		r[7] = r7;
+		r[8] = r8;
+	}
+
+	/**
+	 * r = cond ? b : a
+	 */
+	static void cmov(long[] r, long[] a, long[] b, boolean cond) {
+		final var mask = -(long) (cond ? 1 : 0);
+		for (int i = 0; i < LIMBS; i++)
+			r[i] = a[i] ^ ((a[i] ^ b[i]) & mask);
+	}
+
+	static boolean isZero(long[] a) {
+		final var c = canonical(a);
+		long acc = 0;
+		for (int i = 0; i < LIMBS; i++)
+			acc |= c[i];
+		return acc == 0;
+	}
+
+	static boolean equals(long[] a, long[] b) {
+		final var t = create();
+		sub(t, a, b);
+		return isZero(t);
+	}
+
+	/** sgn0(a) for m = 1 */
+	static int sgn0(long[] a) {
+		return (int) (canonical(a)[0] & 1);
+	}
+
+	/**
+	 * r = a^(2^519 - 1) = a^((p - 3) / 4), fixed addition chain
+	 */
+	static void powP34(long[] r, long[] a) {
+		final var t2 = create();
+		final var t3 = create();
+		final var t4 = create();
+		final var t7 = create();
+		final var t = create();
+
+		sqr(t2, a);
+		mul(t2, t2, a);			// 2^2 - 1
+		sqr(t3, t2);
+		mul(t3, t3, a);			// 2^3 - 1
+		sqr(t4, t2, 2);
+		mul(t4, t4, t2);		// 2^4 - 1
+		sqr(t7, t3, 4);
+		mul(t7, t7, t4);		// 2^7 - 1
+
+		sqr(t, t4, 4);
+		mul(t, t, t4);			// 2^8 - 1
+		final var tmp = create();
+		for (int n = 8; n < 512; n <<= 1) {
+			sqr(tmp, t, n);
+			mul(t, tmp, t);		// 2^(2n) - 1
+		}
+		sqr(t, t, 7);
+		mul(r, t, t7);			// 2^519 - 1
+	}
+
+	/**
+	 * r = a^-1 = a^(p - 2) = a^(4 * (2^519 - 1) + 1), zero maps to zero
+	 */
+	static void invert(long[] r, long[] a) {
+		final var t = create();
+		powP34(t, a);
+		sqr(t, t, 2);
+		mul(r, t, a);
+	}
+}
@@ -0,0 +1,253 @@
+/**
+ * Batched Ristretto255 encoding
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import com.weavechain.curve25519.RistrettoElement;
+
+/**
+ * "Double-and-compress" batch encoding of Ristretto255 elements (as in curve25519-dalek):
+ * the encoding of <code>2 * P</code> can be computed from the extended coordinates of <code>P</code>
+ * without the inverse square root that <code>compress()</code> needs, so a whole batch only costs
+ * a single (shared) field inversion.
+ *
+ * Callers that produce points by scalar multiplication encode <code>k * P</code> as
+ * <code>doubleAndCompress((k / 2) * P)</code>.
+ *
+ * curve25519-elisabeth keeps the point coordinates package-private and its public API has no
+ * way to get them, so they are read through <code>MethodHandles.privateLookupIn()</code>. This
+ * depends on the library internals (checked against com.weavechain:curve25519-elisabeth 0.1.5):
+ * the fields <code>RistrettoElement.e</code>, <code>cafe.cryptography.curve25519.RistrettoElement.repr</code>,
+ * <code>EdwardsPoint.X/Y/Z/T</code> and <code>FieldElement.toByteArray()</code>. The access is
+ * checked against <code>compress()</code> once, on class initialization.
+ *
+ * If it is not permitted (e.g. the library is loaded as a named module without opened packages)
+ * or the internals changed, <code>isAvailable()</code> returns false and <code>doubleAndCompress()</code>
+ * falls back to <code>P.dbl().compress()</code>; <code>requireAvailable()</code> reports the reason.
+ * Ristretto255BatchTest fails in that case, so re-run it after updating the library.
+ */
+public final class Ristretto255Batch {
+	private static final BigInteger P = Curve25519Field.P;
+	private static final long[] EDWARDS_D = Curve25519Field.fromBigInteger(
+		BigInteger.valueOf(-121665).multiply(BigInteger.valueOf(121666).modInverse(P)));
+	private static final long[] SQRT_M1 = Curve25519Field.fromBigInteger(
+		BigInteger.TWO.modPow(P.subtract(BigInteger.ONE).shiftRight(2), P));
+	static final long[] INVSQRT_A_MINUS_D = Curve25519Field.fromBigInteger(
+		new BigInteger("54469307008909316920995813868745141605393597292927456921205312896311721017578"));
+
+	private static final Accessors ACCESSORS;
+	private static final Throwable UNAVAILABLE_CAUSE;	// Why the coordinates are not accessible
+
+	static {
+		Accessors accessors = null;
+		Throwable cause = null;
+		try {
+			accessors = detect();
+		} catch (Throwable e) {	//NOSONAR Any failure disables batching
+			cause = e;
+		}
+		ACCESSORS = accessors;
+		UNAVAILABLE_CAUSE = cause;
+	}
+
+	private Ristretto255Batch() { /* */ }
+
+	/**
+	 * Getters for the extended coordinates (X : Y : Z : T) of an element, as canonical
+	 * little-endian field element encodings
+	 */
+	private static final record Accessors(MethodHandle x, MethodHandle y, MethodHandle z, MethodHandle t) {}
+
+	private static Accessors detect() throws Throwable {
+		final var lookup = MethodHandles.lookup();
+		final var innerClass = Class.forName("cafe.cryptography.curve25519.RistrettoElement");
+		final var pointClass = Class.forName("cafe.cryptography.curve25519.EdwardsPoint");
+		final var fieldClass = Class.forName("cafe.cryptography.curve25519.FieldElement");
+
+		final var element = MethodHandles.privateLookupIn(RistrettoElement.class, lookup)
+			.findGetter(RistrettoElement.class, "e", innerClass);
+		final var repr = MethodHandles.privateLookupIn(innerClass, lookup)
+			.findGetter(innerClass, "repr", pointClass);
+		final var pointLookup = MethodHandles.privateLookupIn(pointClass, lookup);
+		final var toBytes = MethodHandles.privateLookupIn(fieldClass, lookup)
+			.findVirtual(fieldClass, "toByteArray", MethodType.methodType(byte[].class));
+
+		final var type = MethodType.methodType(byte[].class, RistrettoElement.class);
+		final var coordinates = new MethodHandle[4];
+		final var names = new String[]{ "X", "Y", "Z", "T" };
+		for (int i = 0; i < names.length; i++) {
+			final var getter = pointLookup.findGetter(pointClass, names[i], fieldClass);
+			coordinates[i] = MethodHandles.filterReturnValue(
+				MethodHandles.filterReturnValue(MethodHandles.filterReturnValue(element, repr), getter), toBytes)
+				.asType(type);
+		}
+
+		// Sanity check against the library
+		final var result = new Accessors(coordinates[0], coordinates[1], coordinates[2], coordinates[3]);
+		final var expected = RistrettoElement.BASEPOINT.dbl().compress().toByteArray();
+		if (!Arrays.equals(expected, doubleAndCompress(result, new RistrettoElement[]{ RistrettoElement.BASEPOINT })[0]))
+			throw new IllegalStateException("Point coordinates read from curve25519-elisabeth do not match its encoding");
+		return result;
+	}
+
+	/**
+	 * @return true if the point coordinates are accessible, i.e. batching is effective
+	 */
+	public static boolean isAvailable() {
+		return ACCESSORS != null;
+	}
+
+	/**
+	 * @throws IllegalStateException if the point coordinates are not accessible, with the reason as cause
+	 */
+	public static void requireAvailable() {
+		if (ACCESSORS == null)
+			throw new IllegalStateException("Ristretto255 point coordinates not accessible, batch encoding falls back to compress()",
+				UNAVAILABLE_CAUSE);
+	}
+
+	/**
+	 * Encode <code>2 * points[i]</code> for all points, sharing one field inversion
+	 * @param points
+	 * @return Encodings of the doubled points, in the same order
+	 */
+	public static byte[][] doubleAndCompress(RistrettoElement[] points) {
+		if (ACCESSORS == null) {
+			final var result = new byte[points.length][];
+			for (int i = 0; i < points.length; i++)
+				result[i] = points[i].dbl().compress().toByteArray();
+			return result;
+		}
+
+		try {
+			return doubleAndCompress(ACCESSORS, points);
+		} catch (Throwable e) {	//NOSONAR
+			throw new IllegalStateException("Failed to access Ristretto255 point coordinates", e);
+		}
+	}
+
+	private static byte[][] doubleAndCompress(Accessors accessors, RistrettoElement[] points) throws Throwable {
+		final var n = points.length;
+		final var e = new long[n][];
+		final var f = new long[n][];
+		final var g = new long[n][];
+		final var h = new long[n][];
+		final var eg = new long[n][];
+		final var fh = new long[n][];
+		final var inv = new long[n][];
+
+		final var t = Curve25519Field.create();
+		final var u = Curve25519Field.create();
+		for (int i = 0; i < n; i++) {
+			final var X = Curve25519Field.fromBytes((byte[]) accessors.x().invokeExact(points[i]));
+			final var Y = Curve25519Field.fromBytes((byte[]) accessors.y().invokeExact(points[i]));
+			final var Z = Curve25519Field.fromBytes((byte[]) accessors.z().invokeExact(points[i]));
+			final var T = Curve25519Field.fromBytes((byte[]) accessors.t().invokeExact(points[i]));
+
+			// e = 2XY, f = Z^2 + dT^2, g = Y^2 + X^2, h = Z^2 - dT^2
+			e[i] = Curve25519Field.create();
+			f[i] = Curve25519Field.create();
+			g[i] = Curve25519Field.create();
+			h[i] = Curve25519Field.create();
+			Curve25519Field.mul(e[i], X, Y);
+			Curve25519Field.add(e[i], e[i], e[i]);
+			Curve25519Field.sqr(t, Z);
+			Curve25519Field.sqr(u, T);
+			Curve25519Field.mul(u, u, EDWARDS_D);
+			Curve25519Field.add(f[i], t, u);
+			Curve25519Field.sub(h[i], t, u);
+			Curve25519Field.sqr(t, Y);
+			Curve25519Field.sqr(u, X);
+			Curve25519Field.add(g[i], t, u);
+
+			eg[i] = Curve25519Field.create();
+			fh[i] = Curve25519Field.create();
+			inv[i] = Curve25519Field.create();
+			Curve25519Field.mul(eg[i], e[i], g[i]);
+			Curve25519Field.mul(fh[i], f[i], h[i]);
+			Curve25519Field.mul(inv[i], eg[i], fh[i]);
+		}
+
+		final var zero = batchInvert(inv);
+
+		final var result = new byte[n][];
+		final var zInv = Curve25519Field.create();
+		final var tInv = Curve25519Field.create();
+		final var minusE = Curve25519Field.create();
+		final var fSqrtA = Curve25519Field.create();
+		final var magic = Curve25519Field.create();
+		final var s = Curve25519Field.create();
+		for (int i = 0; i < n; i++) {
+			if (zero[i]) {
+				// 2P is the identity, eg * fh = 0 only for the (public) torsion points
+				result[i] = points[i].dbl().compress().toByteArray();
+				continue;
+			}
+
+			Curve25519Field.mul(zInv, eg[i], inv[i]);	// 1 / fh
+			Curve25519Field.mul(tInv, fh[i], inv[i]);	// 1 / eg
+
+			Curve25519Field.mul(t, eg[i], zInv);
+			final var rotate = Curve25519Field.isNegative(t);
+			Curve25519Field.neg(minusE, e[i]);
+			Curve25519Field.mul(fSqrtA, f[i], SQRT_M1);
+			Curve25519Field.cmov(e[i], e[i], g[i], rotate);
+			Curve25519Field.cmov(g[i], g[i], minusE, rotate);
+			Curve25519Field.cmov(h[i], h[i], fSqrtA, rotate);
+			Curve25519Field.cmov(magic, INVSQRT_A_MINUS_D, SQRT_M1, rotate);
+
+			Curve25519Field.mul(t, h[i], e[i]);
+			Curve25519Field.mul(t, t, zInv);
+			Curve25519Field.neg(u, g[i]);
+			Curve25519Field.cmov(g[i], g[i], u, Curve25519Field.isNegative(t));
+
+			// s = (h - g) * magic * g * tInv, |s|
+			Curve25519Field.sub(s, h[i], g[i]);
+			Curve25519Field.mul(t, g[i], tInv);
+			Curve25519Field.mul(t, t, magic);
+			Curve25519Field.mul(s, s, t);
+			Curve25519Field.neg(u, s);
+			Curve25519Field.cmov(s, s, u, Curve25519Field.isNegative(s));
+			result[i] = Curve25519Field.toBytes(s);
+		}
+		return result;
+	}
+
+	/**
+	 * Montgomery's trick, replaces each non-zero a[i] by its inverse
+	 * @return Zero flags (zero elements are skipped)
+	 */
+	private static boolean[] batchInvert(long[][] a) {
+		final var n = a.length;
+		final var zero = new boolean[n];
+		final var prefix = new long[n][];
+		final var acc = Curve25519Field.one();
+		for (int i = 0; i < n; i++) {
+			zero[i] = Curve25519Field.isZero(a[i]);
+			prefix[i] = acc.clone();
+			if (!zero[i])
+				Curve25519Field.mul(acc, acc, a[i]);
+		}
+
+		Curve25519Field.invert(acc, acc);
+		final var t = Curve25519Field.create();
+		for (int i = n - 1; i >= 0; i--) {
+			if (zero[i])
+				continue;
+			Curve25519Field.mul(t, acc, prefix[i]);
+			Curve25519Field.mul(acc, acc, a[i]);
+			Curve25519Field.copy(a[i], t);
+		}
+		return zero;
+	}
+}
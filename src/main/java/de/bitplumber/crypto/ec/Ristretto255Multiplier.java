@@ -0,0 +1,163 @@
+/**
+ * Interleaved double-scalar multiplication for Ristretto255
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import com.weavechain.curve25519.RistrettoElement;
+import com.weavechain.curve25519.Scalar;
+
+/**
+ * a * P + b * Q by joint-wNAF (Straus' method): one shared doubling chain for both scalars,
+ * with a wNAF lookup table of odd multiples for each point. The table for the basepoint is
+ * precomputed once with a wider window (see <code>sumOfTwoMultipliesBasepoint()</code>),
+ * tables of other long-lived points can be kept with <code>precompute()</code>.
+ *
+ * <strong>Not constant-time</strong>: the sequence of additions depends on the scalars,
+ * only to be used with public scalars, e.g. for proof verification.
+ */
+public final class Ristretto255Multiplier {
+	private static final int WIDTH = 5;
+	private static final int BASEPOINT_WIDTH = 8;
+	private static final Table BASEPOINT_TABLE = new Table(oddMultiples(RistrettoElement.BASEPOINT, BASEPOINT_WIDTH), BASEPOINT_WIDTH);
+
+	private Ristretto255Multiplier() { /* */ }
+
+	/**
+	 * wNAF table (odd multiples) of a point, reusable across multiplications
+	 */
+	public static final class Table {
+		private final RistrettoElement[] multiples;
+		private final int width;
+
+		private Table(RistrettoElement[] multiples, int width) {
+			this.multiples = multiples;
+			this.width = width;
+		}
+	}
+
+	/**
+	 * @param P
+	 * @return wNAF table of P, the shared (wider) table for the basepoint
+	 */
+	public static Table precompute(RistrettoElement P) {
+		return RistrettoElement.BASEPOINT.equals(P) ? BASEPOINT_TABLE : new Table(oddMultiples(P, WIDTH), WIDTH);
+	}
+
+	/**
+	 * @param P
+	 * @param width
+	 * @return P, 3P, 5P, ..., (2^(width - 1) - 1)P
+	 */
+	private static RistrettoElement[] oddMultiples(RistrettoElement P, int width) {
+		final var table = new RistrettoElement[1 << (width - 2)];
+		final var P2 = P.dbl();
+		table[0] = P;
+		for (int i = 1; i < table.length; i++)
+			table[i] = table[i - 1].add(P2);
+		return table;
+	}
+
+	/**
+	 * Width-w non-adjacent form of a (reduced) scalar: odd digits in (-2^(w-1), 2^(w-1)),
+	 * at most one non-zero digit in any w consecutive positions
+	 * @param k
+	 * @param width
+	 * @return 256 signed digits, little-endian
+	 */
+	static byte[] nonAdjacentForm(Scalar k, int width) {
+		final var bytes = k.toByteArray();
+		final var x = new long[5];
+		for (int i = 0; i < 32; i++)
+			x[i >>> 3] |= (bytes[i] & 0xffL) << ((i & 7) << 3);
+
+		final var naf = new byte[256];
+		final var windowSize = 1L << width;
+		final var mask = windowSize - 1;
+		long carry = 0;
+		int pos = 0;
+		while (pos < 256) {
+			final var idx = pos >>> 6;
+			final var bit = pos & 63;
+			final var bits = bit < 64 - width ? x[idx] >>> bit : (x[idx] >>> bit) | (x[idx + 1] << (64 - bit));
+			final var window = carry + (bits & mask);
+			if ((window & 1) == 0) {
+				// Skip a zero bit, the carry stays pending
+				pos++;
+				continue;
+			}
+
+			if (window < windowSize / 2) {
+				carry = 0;
+				naf[pos] = (byte) window;
+			} else {
+				carry = 1;
+				naf[pos] = (byte) (window - windowSize);
+			}
+			pos += width;
+		}
+		return naf;
+	}
+
+	private static RistrettoElement addDigit(RistrettoElement R, RistrettoElement[] table, int digit) {
+		if (digit > 0)
+			return R.add(table[digit >>> 1]);
+		if (digit < 0)
+			return R.subtract(table[(-digit) >>> 1]);
+		return R;
+	}
+
+	private static RistrettoElement straus(Scalar a, Table P, Scalar b, Table Q) {
+		return straus(nonAdjacentForm(a, P.width), P.multiples, nonAdjacentForm(b, Q.width), Q.multiples);
+	}
+
+	private static RistrettoElement straus(byte[] nafA, RistrettoElement[] tableA, byte[] nafB, RistrettoElement[] tableB) {
+		var top = 255;
+		while (top >= 0 && nafA[top] == 0 && nafB[top] == 0)
+			top--;
+
+		var R = RistrettoElement.IDENTITY;
+		for (int i = top; i >= 0; i--) {
+			if (i != top)
+				R = R.dbl();
+			R = addDigit(R, tableA, nafA[i]);
+			R = addDigit(R, tableB, nafB[i]);
+		}
+		return R;
+	}
+
+	/**
+	 * @param P
+	 * @param a
+	 * @param Q
+	 * @param b
+	 * @return a * P + b * Q
+	 */
+	public static RistrettoElement sumOfTwoMultiplies(RistrettoElement P, Scalar a, RistrettoElement Q, Scalar b) {
+		return straus(a, new Table(oddMultiples(P, WIDTH), WIDTH), b, new Table(oddMultiples(Q, WIDTH), WIDTH));
+	}
+
+	/**
+	 * @param a
+	 * @param Q
+	 * @param b
+	 * @return a * B + b * Q, with B the Ristretto255 basepoint
+	 */
+	public static RistrettoElement sumOfTwoMultipliesBasepoint(Scalar a, RistrettoElement Q, Scalar b) {
+		return straus(a, BASEPOINT_TABLE, b, new Table(oddMultiples(Q, WIDTH), WIDTH));
+	}
+
+	/**
+	 * @param P
+	 * @param a
+	 * @param Q
+	 * @param b
+	 * @return a * P + b * Q, with the precomputed tables of P and Q
+	 */
+	public static RistrettoElement sumOfTwoMultiplies(Table P, Scalar a, Table Q, Scalar b) {
+		return straus(a, P, b, Q);
+	}
+}
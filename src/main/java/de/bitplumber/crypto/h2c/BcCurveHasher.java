@@ -12,7 +12,12 @@ package de.bitplumber.crypto.h2c;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.bouncycastle.crypto.ExtendedDigest;
 import org.bouncycastle.crypto.Xof;
@@ -26,6 +31,15 @@ import org.bouncycastle.math.ec.ECFieldElement;
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.Memoable;
+
+import de.bitplumber.crypto.ec.P256Batch;
+import de.bitplumber.crypto.ec.P256Curve;
+import de.bitplumber.crypto.ec.P521Curve;
+import de.bitplumber.crypto.h2c.TranscriptWriter.Message;
+import de.bitplumber.crypto.jfr.HashToCurveEvent;
+import de.bitplumber.crypto.metrics.Operation;
+import de.bitplumber.crypto.metrics.OperationCounter;
 
 public class BcCurveHasher {
     private final ECNamedCurveParameterSpec curveSpec;
@@ -36,6 +50,8 @@ public class BcCurveHasher {
 	private final ECFieldElement Z;  //NOSONAR
 	private final BigInteger Q;		// Field order	//NOSONAR
 	private final BigInteger N;		// Curve order	//NOSONAR
+	private final boolean p256;		// Use 4x64 bit Montgomery field arithmetic (P256Curve)
+	private final boolean p521;		// Use Mersenne field arithmetic (P521Curve)
 
 	protected final byte[] hashToCurveDST;
 	protected final byte[] encodeToCurveDST;
@@ -43,6 +59,12 @@ public class BcCurveHasher {
 	protected final boolean useXof;			// Use expandMessageXof
 	protected final int m;
 	protected final int k;					// Security level in bits
+	protected final boolean publicInputs;	// Variable-time sqrt_ratio, see withPublicInputs()
+	protected final Executor mappingExecutor;	// Optional: map q0/q1 concurrently, see withParallelMapping()
+	protected final int parallelMinFieldBits;
+
+	/** Default field size threshold for <code>withParallelMapping()</code>, only P-521 by default */
+	public static final int DEFAULT_PARALLEL_MIN_FIELD_BITS = 512;
 
 	/**
 	 * Constructor for curves that need an isogeny mapping
@@ -58,7 +80,8 @@ public class BcCurveHasher {
 	protected BcCurveHasher(final String curveName, final ExtendedDigest hash, final String hashToCurveDST, final String encodeToCurveDST, final ECCurve isogenyCurve,
 		final int Z, final int m, final int k)
 	{
-		// Curve and parameters
+		// Curve and parameters, ECNamedCurveTable prefers BC's CustomNamedCurves (specialized field arithmetic,
+		// GLV endomorphism for secp256k1), this curve instance is shared by the OPRF suites
 		this.curveSpec = ECNamedCurveTable.getParameterSpec(curveName);
 		this.curve = curveSpec.getCurve();
 		this.isogenyCurve = isogenyCurve;				// Optional: isogeny curve parameters
@@ -70,6 +93,8 @@ public class BcCurveHasher {
 		this.N = htcCurve.getOrder();						// Curve order
 		this.A = htcCurve.getA();
 		this.B = htcCurve.getB();
+		this.p256 = isogenyCurve == null && P256Curve.supports(curve);
+		this.p521 = isogenyCurve == null && P521Curve.supports(curve);
 
 		this.m = m;		// Curve field dimensions(?)
 		this.k = k;		// Curve security level in bits
@@ -79,6 +104,43 @@ public class BcCurveHasher {
 		this.useXof = hash instanceof Xof;
 		this.hashToCurveDST = hashToCurveDST.getBytes(StandardCharsets.UTF_8);
 		this.encodeToCurveDST = encodeToCurveDST.getBytes(StandardCharsets.UTF_8);
+		this.publicInputs = false;
+		this.mappingExecutor = null;
+		this.parallelMinFieldBits = DEFAULT_PARALLEL_MIN_FIELD_BITS;
+	}
+
+	/**
+	 * Copy constructor, used to derive a hasher instance with a different
+	 * mode of operation from an existing one
+	 * @param other
+	 * @param publicInputs
+	 * @param mappingExecutor
+	 * @param parallelMinFieldBits
+	 */
+	protected BcCurveHasher(final BcCurveHasher other, final boolean publicInputs, final Executor mappingExecutor, final int parallelMinFieldBits) {
+		this.curveSpec = other.curveSpec;
+		this.curve = other.curve;
+		this.isogenyCurve = other.isogenyCurve;
+		this.Q = other.Q;
+		this.Z = other.Z;
+		this.N = other.N;
+		this.A = other.A;
+		this.B = other.B;
+		this.p256 = other.p256;
+		this.p521 = other.p521;
+		this.m = other.m;
+		this.k = other.k;
+		this.hash = other.hash instanceof Memoable memoable ? (ExtendedDigest) memoable.copy() : other.hash;
+		this.useXof = other.useXof;
+		this.hashToCurveDST = other.hashToCurveDST;
+		this.encodeToCurveDST = other.encodeToCurveDST;
+		this.publicInputs = publicInputs;
+		this.mappingExecutor = mappingExecutor;
+		this.parallelMinFieldBits = parallelMinFieldBits;
+	}
+
+	protected BcCurveHasher(final BcCurveHasher other, final boolean publicInputs) {
+		this(other, publicInputs, other.mappingExecutor, other.parallelMinFieldBits);
 	}
 
 	/**
@@ -98,11 +160,12 @@ public class BcCurveHasher {
 	}
 
 	/**
-	 * Create a hasher instance for the P256-SHA256 suite
-	 * @return
+	 * Immutable per-curve state (curve parameters, isogeny curve, DSTs), created lazily on
+	 * first use of the curve and shared by all hashers created via the <code>createXXX()</code>
+	 * methods. Only the digest instance is per hasher. Never use these instances directly.
 	 */
-	public static BcCurveHasher createP256() {
-		return new BcCurveHasher(
+	private static final class P256Prototype {
+		static final BcCurveHasher INSTANCE = new BcCurveHasher(
 			"secp256r1",
 			new SHA256Digest(),
 			"P256_XMD:SHA-256_SSWU_RO_",
@@ -113,12 +176,8 @@ public class BcCurveHasher {
 		);
 	}
 
-	/**
-	 * Create a hasher instance for the P384-SHA384 suite
-	 * @return
-	 */
-	public static BcCurveHasher createP384() {
-		return new BcCurveHasher(
+	private static final class P384Prototype {
+		static final BcCurveHasher INSTANCE = new BcCurveHasher(
 			"secp384r1",
 			new SHA384Digest(),
 			"P384_XMD:SHA-384_SSWU_RO_",
@@ -129,12 +188,8 @@ public class BcCurveHasher {
 		);
 	}
 
-	/**
-	 * Create a hasher instance for the P521-SHA512 suite
-	 * @return
-	 */
-	public static BcCurveHasher createP521() {
-		return new BcCurveHasher(
+	private static final class P521Prototype {
+		static final BcCurveHasher INSTANCE = new BcCurveHasher(
 			"secp521r1",
 			new SHA512Digest(),
 			"P521_XMD:SHA-512_SSWU_RO_",
@@ -146,12 +201,10 @@ public class BcCurveHasher {
 	}
 
 	/**
-	 * Create a hasher instance for the secp256k1-SHA256 suite
 	 * Missing secp256k1 isogeny parameters taken from https://github.com/armfazh/hash-to-curve-ref/
-	 * @return
 	 */
-	public static BcCurveHasher createSecp256k1() {
-		return new BcCurveHasher(
+	private static final class Secp256k1Prototype {
+		static final BcCurveHasher INSTANCE = new BcCurveHasher(
 			"secp256k1",
 			new SHA256Digest(),
 			"secp256k1_XMD:SHA-256_SSWU_RO_",
@@ -169,6 +222,109 @@ public class BcCurveHasher {
 		);
 	}
 
+	/**
+	 * Create a hasher instance for the P256-SHA256 suite
+	 * @return
+	 */
+	public static BcCurveHasher createP256() {
+		return new BcCurveHasher(P256Prototype.INSTANCE, false);
+	}
+
+	/**
+	 * Create a hasher instance for the P384-SHA384 suite
+	 * @return
+	 */
+	public static BcCurveHasher createP384() {
+		return new BcCurveHasher(P384Prototype.INSTANCE, false);
+	}
+
+	/**
+	 * Create a hasher instance for the P521-SHA512 suite
+	 * @return
+	 */
+	public static BcCurveHasher createP521() {
+		return new BcCurveHasher(P521Prototype.INSTANCE, false);
+	}
+
+	/**
+	 * Create a hasher instance for the secp256k1-SHA256 suite
+	 * @return
+	 */
+	public static BcCurveHasher createSecp256k1() {
+		return new BcCurveHasher(Secp256k1Prototype.INSTANCE, false);
+	}
+
+
+	/**
+	 * Create a copy of this hasher that runs in <em>public input</em> mode.
+	 *
+	 * In this mode the quadratic residue decision inside sqrt_ratio (SSWU) is made
+	 * with a variable-time binary Jacobi symbol computation, and only the one square
+	 * root that is actually needed is computed afterwards. The resulting points are
+	 * identical to the ones of the default (constant-time oriented) mode, but the
+	 * running time depends on the value being hashed.
+	 *
+	 * The mode only affects the curves that are mapped with the generic SSWU code
+	 * (P-384 and secp256k1). P-256 and P-521 always use their dedicated field arithmetic
+	 * (<code>P256Curve</code>, <code>P521Curve</code>), which is faster than the generic
+	 * variable-time path, so this mode has no effect on them.
+	 *
+	 * <strong>Only use this mode with inputs that are not secret</strong>, e.g. a
+	 * server hashing its own, non-confidential dataset. Safe to use with this mode:
+	 * <ul>
+	 * <li><code>hashToCurve()</code> / <code>encodeToCurve()</code> on public messages</li>
+	 * <li><code>hashToScalar()</code> and <code>expandMessage()</code> (not affected, identical to the default mode)</li>
+	 * </ul>
+	 * Never use it for client-side <code>blind()</code> inputs (passwords, secrets),
+	 * for server-side <code>evaluate()</code> on client-supplied inputs, or for any other
+	 * input that must not leak through timing side-channels.
+	 *
+	 * @return A new hasher instance in public input mode, this instance is left unchanged
+	 */
+	public BcCurveHasher withPublicInputs() {
+		return new BcCurveHasher(this, true);
+	}
+
+	/**
+	 * @return <code>true</code> if this hasher has been created by <code>withPublicInputs()</code>
+	 */
+	public boolean isPublicInputMode() {
+		return this.publicInputs;
+	}
+
+	/**
+	 * Create a copy of this hasher that maps the two field elements of <code>hashToCurve()</code>
+	 * (q0 and q1) concurrently, one of them on <code>executor</code>, to reduce the latency of
+	 * a single call. Only used for curves with a field size of at least
+	 * <code>DEFAULT_PARALLEL_MIN_FIELD_BITS</code> bits, smaller fields are mapped sequentially
+	 * because the fork/join overhead outweighs the gain.
+	 *
+	 * Suitable executors are <code>Executors.newVirtualThreadPerTaskExecutor()</code> or a small
+	 * dedicated pool. If the executor rejects the task, the mapping is done on the calling thread.
+	 *
+	 * @param executor Executor to map q1 on, <code>null</code> disables parallel mapping
+	 * @return A new hasher instance, this instance is left unchanged
+	 */
+	public BcCurveHasher withParallelMapping(Executor executor) {
+		return withParallelMapping(executor, DEFAULT_PARALLEL_MIN_FIELD_BITS);
+	}
+
+	/**
+	 * See <code>withParallelMapping(Executor)</code>
+	 * @param executor Executor to map q1 on, <code>null</code> disables parallel mapping
+	 * @param minFieldBits Minimum field size (in bits) for parallel mapping
+	 * @return A new hasher instance, this instance is left unchanged
+	 */
+	public BcCurveHasher withParallelMapping(Executor executor, int minFieldBits) {
+		return new BcCurveHasher(this, publicInputs, executor, minFieldBits);
+	}
+
+	/**
+	 * @return <code>true</code> if <code>hashToCurve()</code> maps q0 and q1 concurrently
+	 */
+	public boolean isParallelMapping() {
+		return mappingExecutor != null && Q.bitLength() >= parallelMinFieldBits;
+	}
 
 	/**
 	 * @return
@@ -216,7 +372,9 @@ public class BcCurveHasher {
 
 	protected static final record SqrtRatioResult(boolean is_gx1_square, ECFieldElement y1) {}
 	protected SqrtRatioResult sqrtRatio(ECCurve curve, ECFieldElement u, ECFieldElement v) {
-		if (N.mod(BigInteger.valueOf(4)).equals(BigInteger.valueOf(3))) {
+		if (publicInputs) {
+			return sqrtRatioVartime(curve, u, v);
+		} else if (N.mod(BigInteger.valueOf(4)).equals(BigInteger.valueOf(3))) {
 			return sqrtRatio3Mod4(curve, u, v);
 		} else {
 			return sqrtRatioGeneric(curve, u, v);
@@ -303,6 +461,62 @@ public class BcCurveHasher {
 		return new SqrtRatioResult(isQR, y);
 	}
 
+	/**
+	 * Variable-time sqrt_ratio for public inputs only, see <code>withPublicInputs()</code>.
+	 *
+	 * Uses the Jacobi symbol of u * v (which equals the one of u / v, as v != 0)
+	 * to decide whether u / v is a square, then computes a single square root of
+	 * either u / v or Z * u / v. The choice of root does not matter, the sign of
+	 * y is fixed by the sgn0() step of the SSWU mapping.
+	 *
+	 * @param u
+	 * @param v
+	 * @return
+	 */
+	protected SqrtRatioResult sqrtRatioVartime(ECCurve curve, ECFieldElement u, ECFieldElement v) {
+		final var isQR = jacobi(u.multiply(v).toBigInteger(), Q) >= 0;
+		OperationCounter.count(Operation.FIELD_INVERSION);
+		final var invV = curve.fromBigInteger(BigIntegers.modOddInverseVar(Q, v.toBigInteger()));
+		final var ratio = isQR ? u.multiply(invV) : Z.multiply(u).multiply(invV);
+		final var y = ratio.sqrt();
+		if (y == null) throw new IllegalStateException("sqrt_ratio: no square root");
+		return new SqrtRatioResult(isQR, y);
+	}
+
+	/**
+	 * Binary Jacobi symbol algorithm (variable-time!)
+	 * @param a
+	 * @param n Odd positive modulus
+	 * @return The Jacobi symbol (a/n): 1, -1 or 0 if gcd(a, n) != 1
+	 */
+	protected static int jacobi(BigInteger a, BigInteger n) {
+		if (n.signum() <= 0 || !n.testBit(0))
+			throw new IllegalArgumentException("jacobi: n must be odd and positive");
+
+		var x = a.mod(n);
+		var y = n;
+		var t = 1;
+		while (x.signum() != 0) {
+			// Remove factors of two, (2/y) = -1 iff y = 3, 5 (mod 8)
+			final var z = x.getLowestSetBit();
+			x = x.shiftRight(z);
+			final var y8 = y.intValue() & 7;
+			if ((z & 1) == 1 && (y8 == 3 || y8 == 5))
+				t = -t;
+
+			// Quadratic reciprocity, both x and y are odd now
+			if (x.compareTo(y) < 0) {
+				final var tmp = x;
+				x = y;
+				y = tmp;
+				if ((x.intValue() & 3) == 3 && (y.intValue() & 3) == 3)
+					t = -t;
+			}
+			x = x.subtract(y);
+		}
+		return y.equals(BigInteger.ONE) ? t : 0;
+	}
+
 	protected int sgn0_m_eq_1(ECFieldElement x) {	// NOSONAR
 		return x.toBigInteger().mod(BigInteger.TWO).intValue();
 	}
@@ -360,14 +574,24 @@ public class BcCurveHasher {
 		yDen = xIn.multiply(yDen).add(isogenyCurve.fromBigInteger(secp256k1_yden[1]));
 		yDen = xIn.multiply(yDen).add(isogenyCurve.fromBigInteger(secp256k1_yden[0]));
 
-		final var x = xNum.divide(xDen).toBigInteger();
-		final var y = yNum.divide(yDen).multiply(yIn).toBigInteger();
+		// Share a single (safegcd) inversion between both denominators
+		OperationCounter.count(Operation.FIELD_INVERSION);
+		final var invDen = xDen.multiply(yDen).invert();
+		final var x = xNum.multiply(yDen).multiply(invDen).toBigInteger();
+		final var y = yNum.multiply(xDen).multiply(invDen).multiply(yIn).toBigInteger();
 		return curve.createPoint(x, y);
 	}
 
 	protected ECPoint mapToCurveSimpleSWU(ECCurve curve, ECFieldElement u) {
 		if (!curve.isValidFieldElement(u.toBigInteger()))
 			throw new IllegalStateException("u not valid Fp");
+		// sqrt_ratio() and the final x / tv4 division (P256Curve, P521Curve: inversion)
+		OperationCounter.count(Operation.SQUARE_ROOT);
+		OperationCounter.count(Operation.FIELD_INVERSION);
+		if (p256 && curve == this.curve)
+			return P256Curve.mapToCurveSimpleSWU(curve, u);
+		if (p521 && curve == this.curve)
+			return P521Curve.mapToCurveSimpleSWU(curve, u);
 
 		var tv1 = u.square().multiply(Z);
 		var tv2 = tv1.square().add(tv1);
@@ -393,6 +617,37 @@ public class BcCurveHasher {
 		return curve.createPoint(x.toBigInteger(), y.toBigInteger());
 	}
 
+	/**
+	 * map_to_curve(u), including the 3-isogeny map for secp256k1 (AB == 0 special case)
+	 * @param u
+	 * @return
+	 */
+	protected ECPoint mapToCurve(ECFieldElement u) {
+		if (curveSpec.getName().equalsIgnoreCase("secp256k1")) {
+			return isoMap3(mapToCurveSimpleSWU(isogenyCurve, u));
+		} else {
+			return mapToCurveSimpleSWU(curve, u);
+		}
+	}
+
+	private CompletableFuture<ECPoint> forkMapToCurve(ECFieldElement u) {
+		try {
+			return CompletableFuture.supplyAsync(() -> mapToCurve(u), mappingExecutor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.completedFuture(mapToCurve(u));
+		}
+	}
+
+	private static ECPoint joinMapToCurve(CompletableFuture<ECPoint> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re)
+				throw re;
+			throw e;
+		}
+	}
+
 	protected ECPoint clearCofactor(ECCurve curve, ECPoint p) {
 		return p.multiply(curve.getCofactor());
 	}
@@ -406,7 +661,7 @@ public class BcCurveHasher {
 	 * @param k
 	 * @return
 	 */
-	protected byte[] expandMessage(ExtendedDigest hashOrXof, byte[] msg, byte[] dst, int lengthInBytes, int k) {
+	protected byte[] expandMessage(ExtendedDigest hashOrXof, Message msg, byte[] dst, int lengthInBytes, int k) {
 		if (hashOrXof instanceof Xof xof) {
 			return BcExpandMessage.expandMessageXOF(xof, msg, dst, lengthInBytes, k);
 		} else {
@@ -424,7 +679,7 @@ public class BcCurveHasher {
 	 * @param count
 	 * @return
 	 */
-	protected BigInteger[][] hashToScalarField(BigInteger N, byte[] input, byte[] dst, int m, int k, int count) {
+	protected BigInteger[][] hashToScalarField(BigInteger N, Message input, byte[] dst, int m, int k, int count) {
 		final var L = getMinHashLength();
 		final var lengthInBytes = count * m * L;
 		final var uniformBytes = expandMessage(hash, input, dst, lengthInBytes, k);
@@ -454,20 +709,33 @@ public class BcCurveHasher {
 	protected ECFieldElement[][] hashToFieldElement(ECCurve curve, byte[] input, byte[] dst, int m, int k, int count) {
 		final var L = getMinHashLength();
 		final var lengthInBytes = count * m * L;
-		final var uniformBytes = expandMessage(hash, input, dst, lengthInBytes, k);
+		final var uniformBytes = expandMessage(hash, TranscriptWriter.of(input), dst, lengthInBytes, k);
 		final var u = new ECFieldElement[count][];
 		for (int i = 0; i < count; i++) {
 			final var e = new ECFieldElement[m];
 			for (int j = 0; j < m; j++) {
 				final var elmOffset = L * (j + i * m);
 				final var tv = Arrays.copyOfRange(uniformBytes, elmOffset, elmOffset + L);
-				e[j] = curve.fromBigInteger(BigIntegers.fromUnsignedByteArray(tv).mod(Q));
+				e[j] = curve.fromBigInteger(reduce(tv));
 			}
 			u[i] = e;
 		}
 		return u;
 	}
 
+	/**
+	 * hash_to_field reduction of the uniform bytes of one field element
+	 * @param uniformBytes
+	 * @return OS2IP(uniformBytes) mod p
+	 */
+	private BigInteger reduce(byte[] uniformBytes) {
+		if (p256)
+			return P256Curve.reduce(uniformBytes);
+		if (p521)
+			return P521Curve.reduce(uniformBytes);
+		return BigIntegers.fromUnsignedByteArray(uniformBytes).mod(Q);
+	}
+
 	/**
 	 *
 	 * @param input
@@ -492,24 +760,29 @@ public class BcCurveHasher {
 	 * @return
 	 */
 	public ECPoint hashToCurve(byte[] input, byte[] dst) {
+		final var event = HashToCurveEvent.start();
 		final var htcDST = Objects.requireNonNullElse(dst, hashToCurveDST);
 		Objects.requireNonNull(input, "Parameter 'input' must be non-null");
 
-		final ECPoint q0, q1;	// NOSONAR
-		if (curveSpec.getName().equalsIgnoreCase("secp256k1")) {
-			// AB == 0 special case for secp256k1
-			final var u = hashToFieldElement(isogenyCurve, input, htcDST, m, k, 2);
-			q0 = isoMap3(mapToCurveSimpleSWU(isogenyCurve, u[0][0]));
-			q1 = isoMap3(mapToCurveSimpleSWU(isogenyCurve, u[1][0]));
+		final ECPoint r;
+		final var u = hashToFieldElement(Objects.requireNonNullElse(isogenyCurve, curve), input, htcDST, m, k, 2);
+		if (isParallelMapping()) {
+			final var f1 = forkMapToCurve(u[1][0]);
+			final var q0 = mapToCurve(u[0][0]);
+			r = q0.add(joinMapToCurve(f1));
+		} else if (p256) {
+			// Both mappings and their sum stay projective, sharing one inversion
+			OperationCounter.count(Operation.SQUARE_ROOT, 2);
+			OperationCounter.count(Operation.FIELD_INVERSION);
+			r = P256Curve.mapToCurve(curve, u[0][0], u[1][0]);
 		} else {
-			final var u = hashToFieldElement(curve, input, htcDST, m, k, 2);
-			q0 = mapToCurveSimpleSWU(curve, u[0][0]);
-			q1 = mapToCurveSimpleSWU(curve, u[1][0]);
+			r = mapToCurve(u[0][0]).add(mapToCurve(u[1][0]));
 		}
 
-		final var r = q0.add(q1);
 		if (!r.isValid()) throw new IllegalStateException("HashToCurve R invalid");
-		return clearCofactor(curve, r);
+		final var result = clearCofactor(curve, r);
+		event.finish(curveSpec.getName(), "hashToCurve", 1);
+		return result;
 	}
 
 	public ECPoint hashToCurve(byte[] input) {
@@ -523,6 +796,7 @@ public class BcCurveHasher {
 	 * @return
 	 */
 	public ECPoint encodeToCurve(byte[] input, byte[] dst) {
+		final var event = HashToCurveEvent.start();
 		final var etcDST = Objects.requireNonNullElse(dst, encodeToCurveDST);
 		Objects.requireNonNull(input, "Parameter 'input' must be non-null");
 
@@ -536,7 +810,106 @@ public class BcCurveHasher {
 		}
 
 		if (!q.isValid()) throw new IllegalStateException("EncodeToCurve Q invalid");
-		return clearCofactor(curve, q);
+		final var result = clearCofactor(curve, q);
+		event.finish(curveSpec.getName(), "encodeToCurve", 1);
+		return result;
+	}
+
+	/**
+	 * @return <code>true</code> if the batch operations use the vectorized P-256 implementation
+	 */
+	protected boolean useVectorBatch() {
+		return !curveSpec.getName().equalsIgnoreCase("secp256k1") && P256Batch.supports(curve);
+	}
+
+	/**
+	 * Hash a batch of inputs to points on the hasher's curve, equivalent to calling
+	 * <code>hashToCurve()</code> on each input. For P-256 the curve mapping is computed
+	 * lane-parallel when the Vector API is available (see <code>P256Batch</code>).
+	 * @param inputs The messages to map onto the curve
+	 * @param dst Optional: custom domain separation tag (DST)
+	 * @return
+	 */
+	public ECPoint[] hashToCurveBatch(List<byte[]> inputs, byte[] dst) {
+		Objects.requireNonNull(inputs, "Parameter 'inputs' must be non-null");
+		final var event = HashToCurveEvent.start();
+		final var result = doHashToCurveBatch(inputs, Objects.requireNonNullElse(dst, hashToCurveDST));
+		event.finish(curveSpec.getName(), "hashToCurveBatch", result.length);
+		return result;
+	}
+
+	private ECPoint[] doHashToCurveBatch(List<byte[]> inputs, byte[] htcDST) {
+		final var result = new ECPoint[inputs.size()];
+		if (!useVectorBatch() || result.length == 0) {
+			for (int i = 0; i < result.length; i++)
+				result[i] = hashToCurve(inputs.get(i), htcDST);
+			return result;
+		}
+
+		final var u0 = new ECFieldElement[result.length];
+		final var u1 = new ECFieldElement[result.length];
+		for (int i = 0; i < result.length; i++) {
+			final var input = Objects.requireNonNull(inputs.get(i), "Batch inputs must be non-null");
+			final var u = hashToFieldElement(curve, input, htcDST, m, k, 2);
+			u0[i] = u[0][0];
+			u1[i] = u[1][0];
+		}
+
+		final var points = P256Batch.mapToCurve(curve, u0, u1);
+		OperationCounter.count(Operation.SQUARE_ROOT, 2L * result.length);
+		OperationCounter.count(Operation.FIELD_INVERSION, result.length);
+		for (int i = 0; i < result.length; i++) {
+			if (!points[i].isValid()) throw new IllegalStateException("HashToCurve R invalid");
+			result[i] = clearCofactor(curve, points[i]);
+		}
+		return result;
+	}
+
+	public ECPoint[] hashToCurveBatch(List<byte[]> inputs) {
+		return hashToCurveBatch(inputs, null);
+	}
+
+	/**
+	 * Encode a batch of inputs to points on the hasher's curve, equivalent to calling
+	 * <code>encodeToCurve()</code> on each input.
+	 * @param inputs The messages to map onto the curve
+	 * @param dst Optional: custom domain separation tag (DST)
+	 * @return
+	 */
+	public ECPoint[] encodeToCurveBatch(List<byte[]> inputs, byte[] dst) {
+		Objects.requireNonNull(inputs, "Parameter 'inputs' must be non-null");
+		final var event = HashToCurveEvent.start();
+		final var result = doEncodeToCurveBatch(inputs, Objects.requireNonNullElse(dst, encodeToCurveDST));
+		event.finish(curveSpec.getName(), "encodeToCurveBatch", result.length);
+		return result;
+	}
+
+	private ECPoint[] doEncodeToCurveBatch(List<byte[]> inputs, byte[] etcDST) {
+		final var result = new ECPoint[inputs.size()];
+		if (!useVectorBatch() || result.length == 0) {
+			for (int i = 0; i < result.length; i++)
+				result[i] = encodeToCurve(inputs.get(i), etcDST);
+			return result;
+		}
+
+		final var u = new ECFieldElement[result.length];
+		for (int i = 0; i < result.length; i++) {
+			final var input = Objects.requireNonNull(inputs.get(i), "Batch inputs must be non-null");
+			u[i] = hashToFieldElement(curve, input, etcDST, m, k, 1)[0][0];
+		}
+
+		final var points = P256Batch.mapToCurve(curve, u);
+		OperationCounter.count(Operation.SQUARE_ROOT, result.length);
+		OperationCounter.count(Operation.FIELD_INVERSION, result.length);
+		for (int i = 0; i < result.length; i++) {
+			if (!points[i].isValid()) throw new IllegalStateException("EncodeToCurve Q invalid");
+			result[i] = clearCofactor(curve, points[i]);
+		}
+		return result;
+	}
+
+	public ECPoint[] encodeToCurveBatch(List<byte[]> inputs) {
+		return encodeToCurveBatch(inputs, null);
 	}
 
 	/**
@@ -561,6 +934,28 @@ public class BcCurveHasher {
 	 * @return
 	 */
 	public BigInteger hashToScalar(byte[] msg, byte[] dst) {
+		return hashToScalar(TranscriptWriter.of(msg), dst);
+	}
+
+	/**
+	 * hash_to_field() to the scalar field, with the message streamed into the hash
+	 * (see <code>TranscriptWriter</code>)
+	 * @param msg
+	 * @param dst
+	 * @return
+	 */
+	public BigInteger hashToScalar(Message msg, byte[] dst) {
 		return hashToScalarField(N, msg, dst, 1, k, 1)[0][0];
 	}
+
+	/**
+	 * Uniform bytes of <code>hashToScalar()</code> before the reduction modulo the curve order,
+	 * for callers with their own scalar field arithmetic
+	 * @param msg
+	 * @param dst
+	 * @return <code>getMinHashLength()</code> bytes, big-endian
+	 */
+	public byte[] hashToScalarBytes(Message msg, byte[] dst) {
+		return expandMessage(hash, msg, dst, getMinHashLength(), k);
+	}
 }
@@ -7,16 +7,20 @@
  */
 package de.bitplumber.crypto.h2c;
 
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 
 import org.bouncycastle.crypto.ExtendedDigest;
 import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.util.Arrays;
-import org.bouncycastle.util.BigIntegers;
 import org.bouncycastle.util.Bytes;
+import org.bouncycastle.util.Memoable;
+
+import de.bitplumber.crypto.h2c.TranscriptWriter.Message;
+import de.bitplumber.crypto.metrics.OperationCounter;
 
 public class BcExpandMessage {
+	private static final byte[] Z_PAD = new byte[128];
+
 	private BcExpandMessage() { /* */ }
 
 	protected static byte[] hashXMD(ExtendedDigest md, byte[] input) {
@@ -24,6 +28,7 @@ public class BcExpandMessage {
 		md.reset();
 		md.update(input, 0, input.length);
 		md.doFinal(output, 0);
+		OperationCounter.hash(md, input.length, output.length);
 		return output;
 	}
 
@@ -31,14 +36,11 @@ public class BcExpandMessage {
 		final var output = new byte[lengthInBytes];
 		xof.reset();
 		xof.update(input, 0, input.length);
-		xof.doFinal(output, 0);
+		xof.doFinal(output, 0, output.length);
+		OperationCounter.hash(xof, input.length, output.length);
 		return output;
 	}
 
-	protected static byte[] I2OSP(long input, int size) {	// NOSONAR
-		return BigIntegers.asUnsignedByteArray(size, BigInteger.valueOf(input));
-	}
-
 	/**
 	 *
 	 * @param xmd MessageDigest hash instance
@@ -48,6 +50,45 @@ public class BcExpandMessage {
 	 * @return
 	 */
 	public static byte[] expandMessageXMD(ExtendedDigest xmd, byte[] msg, byte[] dst, int lengthInBytes) {
+		return expandMessageXMD(xmd, TranscriptWriter.of(msg), dst, lengthInBytes);
+	}
+
+	/**
+	 * expand_message_xmd with the input message streamed into the hash, see <code>TranscriptWriter</code>
+	 * @param xmd MessageDigest hash instance
+	 * @param msg Input message to hash
+	 * @param dst Domain separation tag
+	 * @param lengthInBytes Output length
+	 * @return
+	 */
+	public static byte[] expandMessageXMD(ExtendedDigest xmd, Message msg, byte[] dst, int lengthInBytes) {
+		return expandMessageXMD(xmd, null, msg, dst, lengthInBytes);
+	}
+
+	/**
+	 * State of <code>xmd</code> after absorbing Z_pad, the common prefix of every b_0 hash.
+	 * The returned state is not modified by <code>expandMessageXMD()</code> and can be shared.
+	 * @param xmd MessageDigest hash instance, must implement <code>Memoable</code> (as all SHA-2 digests do)
+	 * @return
+	 */
+	public static Memoable zPadState(ExtendedDigest xmd) {
+		final var writer = new TranscriptWriter(xmd).reset();
+		for (var remaining = xmd.getByteLength(); remaining > 0; remaining -= Z_PAD.length)
+			writer.bytes(Z_PAD, 0, Math.min(remaining, Z_PAD.length));
+		return ((Memoable) xmd).copy();
+	}
+
+	/**
+	 * expand_message_xmd starting b_0 from a precomputed Z_pad state (see <code>zPadState()</code>),
+	 * which saves one compression function call per invocation
+	 * @param xmd MessageDigest hash instance, of the same type as <code>zPadState</code>
+	 * @param zPadState State after absorbing Z_pad, or null
+	 * @param msg Input message to hash
+	 * @param dst Domain separation tag
+	 * @param lengthInBytes Output length
+	 * @return
+	 */
+	public static byte[] expandMessageXMD(ExtendedDigest xmd, Memoable zPadState, Message msg, byte[] dst, int lengthInBytes) {
 		final var hashOutputSize = xmd.getDigestSize();
 		final var hashBlockSize  = xmd.getByteLength();
 		if (dst.length > 255) {
@@ -59,24 +100,37 @@ public class BcExpandMessage {
 			throw new IllegalArgumentException("expand_message_xmd: Invalid lengthInBytes");
 		}
 
-		final var dstPrime = Arrays.concatenate(dst, I2OSP(dst.length, 1));
-		final var lengthInBytesStr = I2OSP(lengthInBytes, 2);
-		final var zPad = I2OSP(0, hashBlockSize);
+		// b_0 = H(Z_pad || msg || l_i_b_str || I2OSP(0, 1) || DST_prime)
+		final var writer = new TranscriptWriter(xmd).reset();
+		if (zPadState != null) {
+			((Memoable) xmd).reset(zPadState);
+		} else {
+			for (var remaining = hashBlockSize; remaining > 0; remaining -= Z_PAD.length)
+				writer.bytes(Z_PAD, 0, Math.min(remaining, Z_PAD.length));
+		}
+		writer.write(msg).u16(lengthInBytes).u8(0).bytes(dst).u8(dst.length);
+		final var b0 = new byte[hashOutputSize];
+		doFinal(xmd, writer, b0);
 
-		final var b = new byte[ell][];
-		final var b0 = hashXMD(xmd, Arrays.concatenate(new byte[][]{ zPad, msg, lengthInBytesStr, I2OSP(0, 1), dstPrime }));
-		b[0] = hashXMD(xmd, Arrays.concatenate(new byte[][]{ b0, I2OSP(1, 1), dstPrime }));
+		// b_1 = H(b_0 || I2OSP(1, 1) || DST_prime), b_i = H(strxor(b_0, b_(i - 1)) || I2OSP(i, 1) || DST_prime)
+		final var output = new byte[lengthInBytes];
+		final var bi = new byte[hashOutputSize];
+		writer.bytes(b0).u8(1).bytes(dst).u8(dst.length);
+		doFinal(xmd, writer, bi);
+		System.arraycopy(bi, 0, output, 0, Math.min(hashOutputSize, lengthInBytes));
 
-		if (ell > 1) {
-			final var tmp = new byte[hashOutputSize];
-			for (int i = 1; i < ell; i++) {
-				Bytes.xor(b0.length, b0, b[i - 1], tmp);
-				b[i] = hashXMD(xmd, Arrays.concatenate(tmp, I2OSP(i + 1l, 1), dstPrime));
-			}
+		for (int i = 1; i < ell; i++) {
+			Bytes.xor(hashOutputSize, b0, bi, bi);
+			writer.bytes(bi).u8(i + 1).bytes(dst).u8(dst.length);
+			doFinal(xmd, writer, bi);
+			System.arraycopy(bi, 0, output, i * hashOutputSize, Math.min(hashOutputSize, lengthInBytes - i * hashOutputSize));
 		}
+		return output;
+	}
 
-		final var output = Arrays.concatenate(b);
-		return Arrays.copyOfRange(output, 0, lengthInBytes);
+	private static void doFinal(ExtendedDigest md, TranscriptWriter writer, byte[] output) {
+		OperationCounter.hash(md, writer.length(), output.length);
+		writer.doFinal(output, 0);
 	}
 
 	/**
@@ -90,6 +144,19 @@ public class BcExpandMessage {
 	 *
 	 */
 	public static byte[] expandMessageXOF(Xof xof, byte[] msg, byte[] dst, int lengthInBytes, int k) {
+		return expandMessageXOF(xof, TranscriptWriter.of(msg), dst, lengthInBytes, k);
+	}
+
+	/**
+	 * expand_message_xof with the input message streamed into the hash, see <code>TranscriptWriter</code>
+	 * @param xof XOF hash instance
+	 * @param msg Input message to hash
+	 * @param dst Domain separation tag
+	 * @param lengthInBytes Output length
+	 * @param k Security level of the elliptic curve (in bits)
+	 * @return
+	 */
+	public static byte[] expandMessageXOF(Xof xof, Message msg, byte[] dst, int lengthInBytes, int k) {
 		if (dst.length > 255) {
 			dst = hashXOF(xof, Arrays.concatenate("H2C-OVERSIZE-DST-".getBytes(StandardCharsets.UTF_8), dst), Math.ceilDiv(2 * k, 8));
 		}
@@ -98,8 +165,13 @@ public class BcExpandMessage {
 			throw new IllegalArgumentException("expand_message_xof: Invalid lengthInBytes");
 		}
 
-		final var dstPrime = Arrays.concatenate(dst, I2OSP(dst.length, 1));
-		final var msgPrime = Arrays.concatenate(msg, I2OSP(lengthInBytes, 2), dstPrime);
-		return hashXOF(xof, msgPrime, lengthInBytes);
+		// msg_prime = msg || I2OSP(len_in_bytes, 2) || DST_prime
+		final var writer = new TranscriptWriter(xof).reset();
+		writer.write(msg).u16(lengthInBytes).bytes(dst).u8(dst.length);
+		OperationCounter.hash(xof, writer.length(), lengthInBytes);
+
+		final var output = new byte[lengthInBytes];
+		xof.doFinal(output, 0, output.length);
+		return output;
 	}
 }
@@ -0,0 +1,141 @@
+/**
+ * RFC 9380 Hash-to-Curve implementation for Bouncy-Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.h2c;
+
+import org.bouncycastle.crypto.Digest;
+
+/**
+ * Streams the fields of a hash input (e.g. an RFC 9497 transcript) directly into a digest,
+ * instead of concatenating them into an intermediate array first:
+ * <pre>
+ * // I2OSP(len(input), 2) || input || I2OSP(len(element), 2) || element || "Finalize"
+ * final Message message = w -> w.lengthPrefixed(input).lengthPrefixed(element).bytes(Labels.FINALIZE);
+ * </pre>
+ * A writer is bound to its digest and can be reused with <code>reset()</code>, it is not thread-safe.
+ */
+public final class TranscriptWriter {
+	/**
+	 * Hash input written to a <code>TranscriptWriter</code> on demand,
+	 * see <code>BcExpandMessage</code> and <code>BcCurveHasher.hashToScalar()</code>
+	 */
+	@FunctionalInterface
+	public interface Message {
+		public void writeTo(TranscriptWriter writer);
+	}
+
+	private final Digest digest;
+	private long length;
+
+	public TranscriptWriter(Digest digest) {
+		this.digest = digest;
+	}
+
+	/**
+	 * @param input
+	 * @return <code>Message</code> consisting of <code>input</code> only
+	 */
+	public static Message of(byte[] input) {
+		return w -> w.bytes(input);
+	}
+
+	/**
+	 * Reset the digest and the number of bytes written
+	 * @return
+	 */
+	public TranscriptWriter reset() {
+		digest.reset();
+		length = 0;
+		return this;
+	}
+
+	/**
+	 * @param value
+	 * @return
+	 */
+	public TranscriptWriter bytes(byte[] value) {
+		digest.update(value, 0, value.length);
+		length += value.length;
+		return this;
+	}
+
+	/**
+	 * @param value
+	 * @param offset
+	 * @param len
+	 * @return
+	 */
+	public TranscriptWriter bytes(byte[] value, int offset, int len) {
+		digest.update(value, offset, len);
+		length += len;
+		return this;
+	}
+
+	/**
+	 * I2OSP(value, 1)
+	 * @param value
+	 * @return
+	 */
+	public TranscriptWriter u8(int value) {
+		if ((value & ~0xff) != 0)
+			throw new IllegalArgumentException("Value does not fit into 1 byte");
+		digest.update((byte) value);
+		length++;
+		return this;
+	}
+
+	/**
+	 * I2OSP(value, 2)
+	 * @param value
+	 * @return
+	 */
+	public TranscriptWriter u16(int value) {
+		if ((value & ~0xffff) != 0)
+			throw new IllegalArgumentException("Value does not fit into 2 bytes");
+		digest.update((byte) (value >>> 8));
+		digest.update((byte) value);
+		length += 2;
+		return this;
+	}
+
+	/**
+	 * I2OSP(len(value), 2) || value
+	 * @param value
+	 * @return
+	 */
+	public TranscriptWriter lengthPrefixed(byte[] value) {
+		return u16(value.length).bytes(value);
+	}
+
+	/**
+	 * @param message
+	 * @return
+	 */
+	public TranscriptWriter write(Message message) {
+		message.writeTo(this);
+		return this;
+	}
+
+	/**
+	 * @return Number of bytes written since the last <code>reset()</code>
+	 */
+	public long length() {
+		return length;
+	}
+
+	/**
+	 * Finish the digest, the writer is reset afterwards
+	 * @param output
+	 * @param offset
+	 * @return Number of bytes written to <code>output</code>
+	 */
+	public int doFinal(byte[] output, int offset) {
+		final var written = digest.doFinal(output, offset);
+		length = 0;
+		return written;
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * JDK Flight Recorder events for the protocol steps
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * RFC 9497 server-side BlindEvaluate / BlindEvaluateBatch, including proof generation
+ * in the verifiable modes
+ */
+@Name("de.bitplumber.crypto.BlindEvaluate")
+@Label("OPRF Blind Evaluate")
+@Description("RFC 9497 BlindEvaluate, including the proof in VOPRF/POPRF mode")
+@Category({ "Cryptography", "bitplumber" })
+@Enabled(false)
+@StackTrace(false)
+public final class BlindEvaluateEvent extends Event {
+	@Label("Suite")
+	public String suite;
+
+	@Label("Mode")
+	public String mode;
+
+	@Label("Batch Size")
+	public int batchSize;
+
+	public static BlindEvaluateEvent start() {
+		final var event = new BlindEvaluateEvent();
+		event.begin();
+		return event;
+	}
+
+	public void finish(String suite, String mode, int batchSize) {
+		if (shouldCommit()) {
+			this.suite = suite;
+			this.mode = mode;
+			this.batchSize = batchSize;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * JDK Flight Recorder events for the protocol steps
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * RFC 9380 hash_to_curve / encode_to_curve (single or batched)
+ */
+@Name("de.bitplumber.crypto.HashToCurve")
+@Label("Hash to Curve")
+@Description("RFC 9380 hash_to_curve / encode_to_curve")
+@Category({ "Cryptography", "bitplumber" })
+@Enabled(false)
+@StackTrace(false)
+public final class HashToCurveEvent extends Event {
+	@Label("Curve")
+	public String curve;
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Batch Size")
+	public int batchSize;
+
+	public static HashToCurveEvent start() {
+		final var event = new HashToCurveEvent();
+		event.begin();
+		return event;
+	}
+
+	public void finish(String curve, String operation, int batchSize) {
+		if (shouldCommit()) {
+			this.curve = curve;
+			this.operation = operation;
+			this.batchSize = batchSize;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * JDK Flight Recorder events for the protocol steps
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * NOPAQUE registration and recover steps on client and server
+ */
+@Name("de.bitplumber.crypto.Nopaque")
+@Label("NOPAQUE Step")
+@Description("NOPAQUE registration / recover step")
+@Category({ "Cryptography", "bitplumber" })
+@Enabled(false)
+@StackTrace(false)
+public final class NopaqueEvent extends Event {
+	@Label("Suite")
+	public String suite;
+
+	@Label("Role")
+	public String role;
+
+	@Label("Step")
+	public String step;
+
+	public static NopaqueEvent start() {
+		final var event = new NopaqueEvent();
+		event.begin();
+		return event;
+	}
+
+	public void finish(String suite, String role, String step) {
+		if (shouldCommit()) {
+			this.suite = suite;
+			this.role = role;
+			this.step = step;
+			commit();
+		}
+	}
+}
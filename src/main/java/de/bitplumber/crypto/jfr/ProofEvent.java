@@ -0,0 +1,80 @@
+/**
+ * JDK Flight Recorder events for the protocol steps
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import de.bitplumber.crypto.oprf.Labels;
+
+/**
+ * RFC 9497 GenerateProof / VerifyProof
+ */
+@Name("de.bitplumber.crypto.Proof")
+@Label("OPRF Proof")
+@Description("RFC 9497 DLEQ proof generation or verification")
+@Category({ "Cryptography", "bitplumber" })
+@Enabled(false)
+@StackTrace(false)
+public final class ProofEvent extends Event {
+	@Label("Suite")
+	public String suite;
+
+	@Label("Mode")
+	public String mode;
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Batch Size")
+	@Description("Number of (blinded, evaluated) element pairs covered by the proof")
+	public int batchSize;
+
+	public static ProofEvent start() {
+		final var event = new ProofEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * @param suite
+	 * @param context RFC 9497 context string, the mode is taken from it
+	 * @param operation <code>generate</code> or <code>verify</code>
+	 * @param batchSize
+	 */
+	public void finish(String suite, byte[] context, String operation, int batchSize) {
+		if (shouldCommit()) {
+			this.suite = suite;
+			this.mode = modeName(context);
+			this.operation = operation;
+			this.batchSize = batchSize;
+			commit();
+		}
+	}
+
+	/**
+	 * @param context "OPRFV1-" || I2OSP(mode, 1) || "-" || identifier
+	 * @return
+	 */
+	static String modeName(byte[] context) {
+		final var offset = Labels.CONTEXT_PREFIX.length;
+		if (context == null || context.length <= offset)
+			return null;
+		return switch (context[offset]) {
+			case 0x00 -> "OPRF";
+			case 0x01 -> "VOPRF";
+			case 0x02 -> "POPRF";
+			default -> null;
+		};
+	}
+}
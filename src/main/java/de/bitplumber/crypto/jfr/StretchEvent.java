@@ -0,0 +1,44 @@
+/**
+ * JDK Flight Recorder events for the protocol steps
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * NOPAQUE Stretcher invocation (key stretching of the OPRF output)
+ */
+@Name("de.bitplumber.crypto.Stretch")
+@Label("NOPAQUE Stretch")
+@Description("Key stretching function applied to the OPRF output")
+@Category({ "Cryptography", "bitplumber" })
+@Enabled(false)
+@StackTrace(false)
+public final class StretchEvent extends Event {
+	@Label("Stretcher")
+	@Description("Implementation class of the Stretcher")
+	public String stretcher;
+
+	public static StretchEvent start() {
+		final var event = new StretchEvent();
+		event.begin();
+		return event;
+	}
+
+	public void finish(Class<?> stretcher) {
+		if (shouldCommit()) {
+			this.stretcher = stretcher.getName();
+			commit();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <code>MetricsListener</code> recording every (suite, stage) pair into its own
+ * <code>LatencyHistogram</code>, optionally exposed via JMX as
+ * <code>de.bitplumber.crypto:type=LatencyHistogram,suite=...,stage=...</code>.
+ *
+ * <pre>
+ * final var metrics = new HistogramMetricsListener();
+ * metrics.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+ * Metrics.setListener(metrics);
+ * </pre>
+ */
+public class HistogramMetricsListener implements MetricsListener {
+	public static final String JMX_DOMAIN = "de.bitplumber.crypto";
+
+	public static final record Key(String suite, Stage stage) {}
+
+	private final ConcurrentHashMap<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private volatile MBeanServer mbeanServer;
+
+	@Override
+	public void record(String suite, Stage stage, long nanos) {
+		final var key = new Key(suite, stage);
+		var histogram = histograms.get(key);
+		if (histogram == null)
+			histogram = histograms.computeIfAbsent(key, this::createHistogram);
+		histogram.record(nanos);
+	}
+
+	private LatencyHistogram createHistogram(Key key) {
+		final var histogram = new LatencyHistogram();
+		final var server = mbeanServer;
+		if (server != null)
+			register(server, key, histogram);
+		return histogram;
+	}
+
+	/**
+	 * @param suite
+	 * @param stage
+	 * @return Histogram for the given suite and stage, <code>null</code> if nothing has been recorded yet
+	 */
+	public LatencyHistogram getHistogram(String suite, Stage stage) {
+		return histograms.get(new Key(suite, stage));
+	}
+
+	public Map<Key, LatencyHistogram> getHistograms() {
+		return Collections.unmodifiableMap(histograms);
+	}
+
+	/**
+	 * Register all existing and future histograms as MXBeans on the given server
+	 * @param server
+	 */
+	public void registerMBeans(MBeanServer server) {
+		this.mbeanServer = server;
+		histograms.forEach((key, histogram) -> register(server, key, histogram));
+	}
+
+	public static ObjectName objectName(Key key) throws JMException {
+		return new ObjectName(String.format("%s:type=LatencyHistogram,suite=%s,stage=%s",
+			JMX_DOMAIN, ObjectName.quote(key.suite()), key.stage().name()));
+	}
+
+	private static void register(MBeanServer server, Key key, LatencyHistogram histogram) {
+		try {
+			final var name = objectName(key);
+			if (!server.isRegistered(name))
+				server.registerMBean(histogram, name);
+		} catch (InstanceAlreadyExistsException e) {
+			// Registered concurrently by record() and registerMBeans()
+		} catch (JMException e) {
+			throw new IllegalStateException("Failed to register MBean for " + key, e);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear (HDR-style) histogram of non-negative values (nanoseconds).
+ *
+ * Values below 2 * SUB_BUCKETS are counted exactly; above that, every power of two is
+ * split into SUB_BUCKETS linear buckets, i.e. a relative error of at most 1/SUB_BUCKETS
+ * (~3%) over the whole <code>long</code> range, in a fixed array of 1888 counters.
+ * Recording is a single atomic increment plus sum/max updates, safe from any thread.
+ */
+public final class LatencyHistogram implements LatencyHistogramMXBean {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	static int bucketIndex(long value) {
+		if (value < 2 * SUB_BUCKETS)
+			return (int) value;
+		final var shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * @param index
+	 * @return Largest value counted in bucket <code>index</code>
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < 2 * SUB_BUCKETS)
+			return index;
+		final var shift = index / SUB_BUCKETS - 1;
+		final var sub = (long) (index % SUB_BUCKETS + SUB_BUCKETS);
+		return ((sub + 1) << shift) - 1;
+	}
+
+	public void record(long value) {
+		final var v = Math.max(0L, value);
+		counts.incrementAndGet(bucketIndex(v));
+		count.increment();
+		sum.add(v);
+		max.accumulateAndGet(v, Math::max);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public double getMean() {
+		final var n = count.sum();
+		return n == 0 ? 0.0 : (double) sum.sum() / n;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Value at the given percentile, within the bucket resolution (never above the max)
+	 * @param percentile 0.0 - 100.0
+	 * @return
+	 */
+	public long getValueAtPercentile(double percentile) {
+		final var n = count.sum();
+		if (n == 0)
+			return 0L;
+
+		final var rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * n));
+		var seen = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return Math.min(bucketUpperBound(i), max.get());
+		}
+		return max.get();
+	}
+
+	public long getP50() {
+		return getValueAtPercentile(50.0);
+	}
+
+	public long getP90() {
+		return getValueAtPercentile(90.0);
+	}
+
+	public long getP99() {
+		return getValueAtPercentile(99.0);
+	}
+
+	public long getP999() {
+		return getValueAtPercentile(99.9);
+	}
+
+	/**
+	 * Clear all counts. Not atomic with respect to concurrent <code>record()</code> calls,
+	 * which may partially survive the reset.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts.set(i, 0L);
+		count.reset();
+		sum.reset();
+		max.set(0L);
+	}
+}
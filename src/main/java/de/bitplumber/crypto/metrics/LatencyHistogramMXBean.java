@@ -0,0 +1,22 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+/**
+ * JMX view of a <code>LatencyHistogram</code>, all values in nanoseconds
+ */
+public interface LatencyHistogramMXBean {
+	public long getCount();
+	public double getMean();
+	public long getMax();
+	public long getP50();
+	public long getP90();
+	public long getP99();
+	public long getP999();
+	public void reset();
+}
@@ -0,0 +1,64 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import java.util.Objects;
+
+/**
+ * Static entry point for the stage instrumentation in the OPRF suites and NOPAQUE.
+ *
+ * Instrumentation is compiled in, but only active when the JVM is started with
+ * <code>-Dde.bitplumber.crypto.metrics=true</code>. The flag is a <code>static final</code>
+ * constant, so with it unset the JIT folds the timing calls away entirely. With it set,
+ * timings go to the installed listener (<code>MetricsListener.NOOP</code> until one is set),
+ * e.g. a <code>HistogramMetricsListener</code>.
+ *
+ * Usage at an instrumented site:
+ * <pre>
+ * final var start = Metrics.start();
+ * ...
+ * Metrics.stop(suiteName, Stage.MULTIPLY, start);
+ * </pre>
+ */
+public final class Metrics {
+	public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("de.bitplumber.crypto.metrics", "false"));
+
+	private static volatile MetricsListener listener = MetricsListener.NOOP;
+
+	private Metrics() { /* */ }
+
+	/**
+	 * Install the listener receiving all stage timings, replacing the previous one
+	 * @param listener
+	 */
+	public static void setListener(MetricsListener listener) {
+		Metrics.listener = Objects.requireNonNull(listener, "listener");
+	}
+
+	public static MetricsListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @return Start timestamp for <code>stop()</code>, 0 if instrumentation is disabled
+	 */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Report the time elapsed since <code>start</code> to the listener
+	 * @param suite
+	 * @param stage
+	 * @param start Timestamp returned by <code>start()</code>
+	 */
+	public static void stop(String suite, Stage stage, long start) {
+		if (ENABLED)
+			listener.record(suite, stage, System.nanoTime() - start);
+	}
+}
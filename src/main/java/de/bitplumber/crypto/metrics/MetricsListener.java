@@ -0,0 +1,24 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+/**
+ * Receives per-stage timings, see <code>Metrics</code>. Implementations are called on the
+ * hot path from arbitrary threads and must be thread-safe and cheap.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+	public static final MetricsListener NOOP = (suite, stage, nanos) -> {};
+
+	/**
+	 * @param suite Suite identifier, e.g. <code>P256-SHA256</code>
+	 * @param stage
+	 * @param nanos Duration in nanoseconds
+	 */
+	public void record(String suite, Stage stage, long nanos);
+}
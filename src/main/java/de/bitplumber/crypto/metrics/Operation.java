@@ -0,0 +1,27 @@
+/**
+ * Per-thread primitive operation counters (capacity planning)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+/**
+ * Primitive operations counted by <code>OperationCounter</code>. Unlike stages, these
+ * do not nest: every primitive is counted once, at the place it is executed.
+ */
+public enum Operation {
+	/** Scalar multiplication of a single point (variable or fixed base) */
+	POINT_MULTIPLY,
+	/** Interleaved double-scalar multiplication a * P + b * Q (Shamir / Straus), as used for proof verification */
+	DOUBLE_POINT_MULTIPLY,
+	/** Field inversion, including scalar field inversions and point normalizations */
+	FIELD_INVERSION,
+	/** Square root, including sqrt_ratio, point decompression and ristretto255 (inverse) square roots */
+	SQUARE_ROOT,
+	/** Compression function calls (SHA-2) or permutations (SHAKE) of the hash functions */
+	HASH_COMPRESSION,
+	/** HMAC invocations (NOPAQUE, including the HKDF ones) */
+	HMAC,
+}
@@ -0,0 +1,113 @@
+/**
+ * Per-thread primitive operation counters (capacity planning)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import java.util.Arrays;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.crypto.Xof;
+
+/**
+ * Per-thread primitive operation counters for capacity planning, see <code>Operation</code>.
+ *
+ * Counting is compiled in, but only active when the JVM is started with
+ * <code>-Dde.bitplumber.crypto.opcount=true</code>; like <code>Metrics.ENABLED</code> the
+ * flag is a <code>static final</code> constant, so the disabled counting calls are removed
+ * by the JIT. Counters are thread-local, a high-level call therefore has to be measured
+ * on the thread executing it:
+ * <pre>
+ * final var before = OperationCounter.snapshot();
+ * voprf.blindEvaluateBatch(skS, pkS, blindedElements);
+ * final var cost = OperationCounter.snapshot().minus(before);
+ * </pre>
+ * Work forked to other threads (e.g. <code>BcCurveHasher.withParallelMapping()</code>) is
+ * counted on those threads.
+ */
+public final class OperationCounter {
+	public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("de.bitplumber.crypto.opcount", "false"));
+
+	private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[Operation.values().length]);
+
+	private OperationCounter() { /* */ }
+
+	/**
+	 * Count a single execution of <code>operation</code>
+	 * @param operation
+	 */
+	public static void count(Operation operation) {
+		if (ENABLED)
+			COUNTS.get()[operation.ordinal()]++;
+	}
+
+	/**
+	 * @param operation
+	 * @param n Number of executions
+	 */
+	public static void count(Operation operation, long n) {
+		if (ENABLED)
+			COUNTS.get()[operation.ordinal()] += n;
+	}
+
+	/**
+	 * Count the compression function calls of hashing <code>inputLength</code> bytes with
+	 * <code>digest</code>, including the padding block(s)
+	 * @param digest Merkle-Damgard hash (SHA-2) or Xof (SHAKE)
+	 * @param inputLength
+	 * @param outputLength Number of output bytes (only relevant for Xofs)
+	 */
+	public static void hash(ExtendedDigest digest, long inputLength, int outputLength) {
+		if (ENABLED)
+			COUNTS.get()[Operation.HASH_COMPRESSION.ordinal()] += compressions(digest, inputLength, outputLength);
+	}
+
+	/**
+	 * Count one HMAC over a <code>messageLength</code> byte message, with a key no longer than
+	 * the block size, and its compression function calls
+	 * @param digest
+	 * @param messageLength
+	 */
+	public static void hmac(ExtendedDigest digest, long messageLength) {
+		if (ENABLED) {
+			final var counts = COUNTS.get();
+			counts[Operation.HMAC.ordinal()]++;
+			counts[Operation.HASH_COMPRESSION.ordinal()] += compressions(digest, digest.getByteLength() + messageLength, 0)
+				+ compressions(digest, digest.getByteLength() + (long) digest.getDigestSize(), 0);
+		}
+	}
+
+	/**
+	 * @param digest
+	 * @param inputLength
+	 * @param outputLength
+	 * @return Number of compression function calls (or permutations) to hash <code>inputLength</code> bytes
+	 */
+	static long compressions(ExtendedDigest digest, long inputLength, int outputLength) {
+		final var blockSize = digest.getByteLength();
+		if (digest instanceof Xof) {
+			// Sponge: absorb (incl. padding byte), then one permutation per further output block
+			return inputLength / blockSize + 1 + Math.max(0, Math.ceilDiv(outputLength, blockSize) - 1);
+		}
+		// Merkle-Damgard: 0x80 padding byte and 64 bit (SHA-256) or 128 bit (SHA-384/512) length
+		final var lengthSize = blockSize / 8;
+		return Math.ceilDiv(inputLength + 1 + lengthSize, blockSize);
+	}
+
+	/**
+	 * @return Counts of all operations executed by the current thread since the last <code>reset()</code>
+	 */
+	public static OperationCounts snapshot() {
+		return new OperationCounts(COUNTS.get().clone());
+	}
+
+	/**
+	 * Reset all counters of the current thread
+	 */
+	public static void reset() {
+		Arrays.fill(COUNTS.get(), 0L);
+	}
+}
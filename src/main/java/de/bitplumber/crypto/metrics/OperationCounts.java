@@ -0,0 +1,88 @@
+/**
+ * Per-thread primitive operation counters (capacity planning)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Immutable set of primitive operation counts, see <code>OperationCounter.snapshot()</code>.
+ *
+ * Counts of single calls can be combined into a per-request cost model, e.g.
+ * <pre>
+ * final var perSecond = evaluate.times(900).plus(blindEvaluate.times(100));
+ * </pre>
+ */
+public final class OperationCounts {
+	public static final OperationCounts ZERO = new OperationCounts(new long[Operation.values().length]);
+
+	private final long[] counts;
+
+	OperationCounts(long[] counts) {
+		this.counts = counts;
+	}
+
+	/**
+	 * @param operation
+	 * @return Number of times <code>operation</code> was executed
+	 */
+	public long get(Operation operation) {
+		return counts[operation.ordinal()];
+	}
+
+	/**
+	 * @param other Earlier snapshot of the same thread
+	 * @return Operations executed between <code>other</code> and this snapshot
+	 */
+	public OperationCounts minus(OperationCounts other) {
+		final var result = new long[counts.length];
+		for (int i = 0; i < result.length; i++)
+			result[i] = counts[i] - other.counts[i];
+		return new OperationCounts(result);
+	}
+
+	/**
+	 * @param other
+	 * @return Sum of both counts
+	 */
+	public OperationCounts plus(OperationCounts other) {
+		final var result = new long[counts.length];
+		for (int i = 0; i < result.length; i++)
+			result[i] = counts[i] + other.counts[i];
+		return new OperationCounts(result);
+	}
+
+	/**
+	 * @param factor
+	 * @return Counts scaled by <code>factor</code>, e.g. a request rate
+	 */
+	public OperationCounts times(long factor) {
+		final var result = new long[counts.length];
+		for (int i = 0; i < result.length; i++)
+			result[i] = counts[i] * factor;
+		return new OperationCounts(result);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof OperationCounts other && Arrays.equals(counts, other.counts);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(counts);
+	}
+
+	@Override
+	public String toString() {
+		final var joiner = new StringJoiner(", ", "OperationCounts[", "]");
+		for (final var operation : Operation.values())
+			joiner.add(operation.name() + "=" + counts[operation.ordinal()]);
+		return joiner.toString();
+	}
+}
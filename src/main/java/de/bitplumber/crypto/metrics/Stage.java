@@ -0,0 +1,31 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+/**
+ * Instrumented protocol stages. Stages nest: e.g. the <code>MULTIPLY</code> timings of
+ * the composite computation are also contained in its <code>COMPUTE_COMPOSITES</code> timing.
+ */
+public enum Stage {
+	/** RFC 9497 HashToGroup (hash_to_curve / ristretto255 from uniform bytes) */
+	HASH_TO_GROUP,
+	/** Scalar multiplication of a single point */
+	MULTIPLY,
+	/** RFC 9497 ComputeComposites / ComputeCompositesFast */
+	COMPUTE_COMPOSITES,
+	/** Challenge scalar of proof generation and verification */
+	CHALLENGE_HASH,
+	/** Output hash of Finalize / Evaluate */
+	FINALIZE_HASH,
+	/** HKDF-Expand (NOPAQUE) */
+	EXPAND,
+	/** HKDF-Extract (NOPAQUE) */
+	EXTRACT,
+	/** HMAC (NOPAQUE) */
+	HMAC,
+}
@@ -10,6 +10,9 @@ import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.BigIntegers;
 
+import de.bitplumber.crypto.metrics.Metrics;
+import de.bitplumber.crypto.metrics.OperationCounter;
+import de.bitplumber.crypto.metrics.Stage;
 import de.bitplumber.crypto.oprf.ristretto255.Ristretto255OPRF;
 
 /**
@@ -18,6 +21,7 @@ import de.bitplumber.crypto.oprf.ristretto255.Ristretto255OPRF;
  * and server
  */
 public abstract class AbstractRistretto255 {
+	public static final String SUITE_ID = "NOPAQUE-ristretto255-SHA512";
 	protected static final Ristretto255OPRF oprf = new Ristretto255OPRF();
 
 	protected static final int N_SEED = 32; // Seed size
@@ -39,11 +43,17 @@ public abstract class AbstractRistretto255 {
 	 * @return
 	 */
 	protected byte[] expand(byte[] prk, byte[] info, int length) {
-		final var h = new HKDFBytesGenerator(new SHA512Digest());
+		final var start = Metrics.start();
+		final var digest = new SHA512Digest();
+		final var h = new HKDFBytesGenerator(digest);
 		h.init(HKDFParameters.skipExtractParameters(prk, info));
 
 		final var out = new byte[length];
 		h.generateBytes(out, 0, out.length);
+		// T(i) = HMAC(PRK, T(i - 1) || info || i), T(0) = ""
+		for (int i = 0; i < Math.ceilDiv(length, N_H); i++)
+			OperationCounter.hmac(digest, (i > 0 ? N_H : 0) + info.length + 1L);
+		Metrics.stop(SUITE_ID, Stage.EXPAND, start);
 		return out;
 	}
 
@@ -56,8 +66,13 @@ public abstract class AbstractRistretto255 {
 	 * @return
 	 */
 	protected byte[] extract(byte[] ikm, byte[] salt) {
-		return new HKDFBytesGenerator(new SHA512Digest())
+		final var start = Metrics.start();
+		final var digest = new SHA512Digest();
+		final var prk = new HKDFBytesGenerator(digest)
 			.extractPRK(salt, ikm);
+		OperationCounter.hmac(digest, ikm.length);
+		Metrics.stop(SUITE_ID, Stage.EXTRACT, start);
+		return prk;
 	}
 
 	/**
@@ -68,12 +83,16 @@ public abstract class AbstractRistretto255 {
 	 * @return
 	 */
 	protected byte[] hmac(byte[] key, byte[] msg) {
-		final var h = new HMac(new SHA512Digest());
+		final var start = Metrics.start();
+		final var digest = new SHA512Digest();
+		final var h = new HMac(digest);
 		h.init(new KeyParameter(key));
 		h.update(msg, 0, msg.length);
 
 		final var out = new byte[h.getMacSize()];
 		h.doFinal(out, 0);
+		OperationCounter.hmac(digest, msg.length);
+		Metrics.stop(SUITE_ID, Stage.HMAC, start);
 		return out;
 	}
 
@@ -9,6 +9,8 @@ import org.apache.commons.lang3.RandomUtils;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Bytes;
 
+import de.bitplumber.crypto.jfr.NopaqueEvent;
+import de.bitplumber.crypto.jfr.StretchEvent;
 import de.bitplumber.crypto.nopaque.Labels;
 import de.bitplumber.crypto.nopaque.Stretcher;
 
@@ -175,6 +177,14 @@ public class Client extends AbstractRistretto255 {
 	}
 
 
+	private byte[] stretch(byte[] oprfOutput) {
+		final var stretcher = ObjectUtils.defaultIfNull(stretch, Stretcher.IDENTITY);
+		final var event = StretchEvent.start();
+		final var stretchedOprfOutput = stretcher.stretch(oprfOutput);
+		event.finish(stretcher.getClass());
+		return stretchedOprfOutput;
+	}
+
 	/**
 	 * Client - Generate a uniform random secret
 	 * @return
@@ -196,9 +206,11 @@ public class Client extends AbstractRistretto255 {
 	 * @return A <code>CreateRegistrationRequestResult</code> record, containing the <code>blind</code> parameter and the serialized <code>request</code>.
 	 */
 	public CreateRegistrationRequestResult createRegistrationRequest(byte[] secret) throws Exception {
+		final var event = NopaqueEvent.start();
 		final var blindResult = oprf.blind(secret, params.blindRegistration());
 		final var blindedMessage = oprf.encodeElement(blindResult.blindedElement());
 		state = new ClientState(secret, oprf.encodeScalar(blindResult.blind()));
+		event.finish(SUITE_ID, "client", "createRegistrationRequest");
 		return new CreateRegistrationRequestResult(oprf.encodeScalar(blindResult.blind()), blindedMessage);
 	}
 
@@ -223,12 +235,14 @@ public class Client extends AbstractRistretto255 {
 	 * @throws Exception
 	 */
 	public FinalizeRegistrationResult finalizeRegistrationRequest(RegistrationResponse response, byte[] serverIdentity, byte[] clientIdentity) throws Exception {
+		final var event = NopaqueEvent.start();
 		final var evaluatedElement = oprf.decodeElement(response.evaluatedMessage());
 		final var oprfOutput = oprf.finalize(state.secret(), oprf.decodeScalar(state.blind()), evaluatedElement);
 
-		final var stretchedOprfOutput = ObjectUtils.defaultIfNull(stretch, Stretcher.IDENTITY).stretch(oprfOutput);
+		final var stretchedOprfOutput = stretch(oprfOutput);
 		final var randomizedPassword = extract(Arrays.concatenate(oprfOutput, stretchedOprfOutput), ArrayUtils.EMPTY_BYTE_ARRAY);
 		final var result = store(randomizedPassword, response.serverPublicKey(), serverIdentity, clientIdentity);
+		event.finish(SUITE_ID, "client", "finalizeRegistrationRequest");
 		return new FinalizeRegistrationResult(Arrays.concatenate(result.clientPublicKey(), result.maskingKey(), result.envelope()), result.exportKey());
 	}
 
@@ -240,9 +254,11 @@ public class Client extends AbstractRistretto255 {
 	 * @return <code>RecoverRequest</code>
 	 */
 	public RecoverRequest createRecoverRequest(byte[] secret) throws Exception {
+		final var event = NopaqueEvent.start();
 		final var oprfResult = oprf.blind(secret, params.blindRecover());
 		final var blindedMessage = oprf.encodeElement(oprfResult.blindedElement());
 		state = new ClientState(secret, oprf.encodeScalar(oprfResult.blind()));
+		event.finish(SUITE_ID, "client", "createRecoverRequest");
 		return new RecoverRequest(blindedMessage);
 	}
 
@@ -257,9 +273,10 @@ public class Client extends AbstractRistretto255 {
 	 * @throws Exception
 	 */
 	public byte[] finalizeRecoverRequest(RecoverResponse ke2, byte[] serverIdentity, byte[] clientIdentity) throws Exception {
+		final var event = NopaqueEvent.start();
 		final var evaluatedElement = oprf.decodeElement(ke2.evaluatedMessage());
 		final var oprfOutput = oprf.finalize(state.secret(), oprf.decodeScalar(state.blind()), evaluatedElement);
-		final var stretchedOprfOutput = ObjectUtils.defaultIfNull(stretch, Stretcher.IDENTITY).stretch(oprfOutput);
+		final var stretchedOprfOutput = stretch(oprfOutput);
 		final var randomizedPassword = extract(Arrays.concatenate(oprfOutput, stretchedOprfOutput), ArrayUtils.EMPTY_BYTE_ARRAY);
 
 		final var maskingKey = expand(randomizedPassword, Labels.MASKING_KEY, N_H);
@@ -269,7 +286,9 @@ public class Client extends AbstractRistretto255 {
 		Bytes.xor(credentialResponsePad.length, ke2.maskedResponse(), credentialResponsePad, unmaskedResponse);
 		final var clientRecord = MaskedResponse.fromBytes(unmaskedResponse);
 
-		return recover(randomizedPassword, clientRecord.serverPublicKey(), Arrays.concatenate(clientRecord.envelopeNonce(), clientRecord.authTag()),
+		final var exportKey = recover(randomizedPassword, clientRecord.serverPublicKey(), Arrays.concatenate(clientRecord.envelopeNonce(), clientRecord.authTag()),
 			serverIdentity, clientIdentity).exportKey();
+		event.finish(SUITE_ID, "client", "finalizeRecoverRequest");
+		return exportKey;
 	}
 }
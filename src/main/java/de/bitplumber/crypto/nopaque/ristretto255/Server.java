@@ -8,6 +8,7 @@ import org.apache.commons.lang3.RandomUtils;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Bytes;
 
+import de.bitplumber.crypto.jfr.NopaqueEvent;
 import de.bitplumber.crypto.nopaque.CredentialIdentifier;
 import de.bitplumber.crypto.nopaque.Labels;
 import de.bitplumber.crypto.oprf.OPRFKeyPair;
@@ -104,12 +105,14 @@ public class Server extends AbstractRistretto255 {
 	 * @throws Exception
 	 */
 	public RegistrationResponse createRegistrationResponse(RegistrationRequest regRequest, byte[] serverPublicKey, CredentialIdentifier credentialIdentifier, byte[] oprfSeed) throws Exception {
+		final var event = NopaqueEvent.start();
 		final var seed = expand(oprfSeed, Arrays.concatenate(credentialIdentifier.toByteArray(), Labels.OPRF_KEY), N_OK);
 		final var serverKeyPair = oprf.deriveKeyPair(seed, ObjectUtils.defaultIfNull(params.customDeriveKeyPairLabel(), Labels.NOPAQUE_DERIVE_KEYPAIR));
 
 		final var blindedElement = oprf.decodeElement(regRequest.blindedElement());
 		final var evaluatedElement = oprf.blindEvaluate(serverKeyPair.secretKey(), blindedElement);
 		final var evaluatedMessage = oprf.encodeElement(evaluatedElement);
+		event.finish(SUITE_ID, "server", "createRegistrationResponse");
 		return new RegistrationResponse(evaluatedMessage, serverPublicKey);
 	}
 
@@ -141,6 +144,7 @@ public class Server extends AbstractRistretto255 {
 	 * @throws Exception
 	 */
 	public RecoverResponse createRecoverResponse(OPRFKeyPair serverKeyPair, RegistrationRecord regRecord, CredentialIdentifier credentialIdentifier, byte[] oprfSeed, RecoverRequest ke1) throws Exception {
+		final var event = NopaqueEvent.start();
 		final var seed = expand(oprfSeed, Arrays.concatenate(credentialIdentifier.toByteArray(), Labels.OPRF_KEY), N_OK);
 		final var oprfKey = oprf.deriveKeyPair(seed, ObjectUtils.defaultIfNull(params.customDeriveKeyPairLabel(), Labels.NOPAQUE_DERIVE_KEYPAIR)).secretKey();
 
@@ -154,6 +158,7 @@ public class Server extends AbstractRistretto255 {
 
 		final var maskedResponse = new byte[credentialResponsePad.length];
 		Bytes.xor(unmaskedResponse.length, credentialResponsePad, unmaskedResponse, maskedResponse);
+		event.finish(SUITE_ID, "server", "createRecoverResponse");
 		return new RecoverResponse(evaluatedMessage, maskingNonce, maskedResponse);
 	}
 }
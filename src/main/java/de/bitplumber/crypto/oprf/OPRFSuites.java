@@ -0,0 +1,68 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf;
+
+import java.util.List;
+
+import de.bitplumber.crypto.oprf.bc.BcOPRF;
+import de.bitplumber.crypto.oprf.bc.BcPOPRF;
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+import de.bitplumber.crypto.oprf.ristretto255.AbstractRistretto255;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255OPRF;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255POPRF;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255VOPRF;
+
+/**
+ * Suite registry, looks up the OPRF implementations by their RFC 9497 identifier.
+ *
+ * The immutable curve and hash-to-curve state of a suite is created once, on first use,
+ * and shared by all instances; creating further instances (e.g. per tenant or per thread)
+ * only allocates the digests. Instances are not thread-safe.
+ *
+ * Use the typed factories (e.g. <code>BcVOPRF.createP256()</code>, <code>new Ristretto255VOPRF()</code>)
+ * to work with scalars and elements directly.
+ */
+public final class OPRFSuites {
+	public static final String RISTRETTO255_SHA512 = AbstractRistretto255.SUITE_ID;
+	public static final String P256_SHA256 = "P256-SHA256";
+	public static final String P384_SHA384 = "P384-SHA384";
+	public static final String P521_SHA512 = "P521-SHA512";
+	public static final String SECP256K1_SHA256 = "secp256k1-SHA256";
+
+	/** All supported suite identifiers */
+	public static final List<String> IDENTIFIERS = List.of(RISTRETTO255_SHA512, P256_SHA256, P384_SHA384, P521_SHA512, SECP256K1_SHA256);
+
+	private OPRFSuites() { /* */ }
+
+	/**
+	 * @param identifier RFC 9497 suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return Base mode (OPRF) instance of the suite
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static OPRF<?, ?, ?> oprf(String identifier) {
+		return RISTRETTO255_SHA512.equals(identifier) ? new Ristretto255OPRF() : BcOPRF.create(identifier);
+	}
+
+	/**
+	 * @param identifier RFC 9497 suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return Verifiable mode (VOPRF) instance of the suite
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static VOPRF<?, ?, ?, ?, ?> voprf(String identifier) {
+		return RISTRETTO255_SHA512.equals(identifier) ? new Ristretto255VOPRF() : BcVOPRF.create(identifier);
+	}
+
+	/**
+	 * @param identifier RFC 9497 suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return Partially-oblivious mode (POPRF) instance of the suite
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static POPRF<?, ?, ?, ?, ?> poprf(String identifier) {
+		return RISTRETTO255_SHA512.equals(identifier) ? new Ristretto255POPRF() : BcPOPRF.create(identifier);
+	}
+}
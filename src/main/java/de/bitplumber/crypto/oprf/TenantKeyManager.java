@@ -0,0 +1,239 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant server keys, derived on first use with <code>deriveKeyPair(seed, tenant)</code> and kept
+ * in decoded form (e.g. <code>BcVOPRF.serverKey()</code>) in a size-bounded cache.
+ *
+ * Concurrent requests for the same tenant share one derivation. Cached keys are looked up without
+ * locking, once the cache exceeds its capacity the least recently used keys are evicted (found by
+ * a scan, which only happens on a miss and is cheap compared to the derivation itself).
+ * Failed derivations are not cached.
+ *
+ * Derivations run concurrently (in the threads calling <code>get()</code> and on the
+ * <code>preload()</code> executor), so they must not share a suite instance: <code>deriving()</code>
+ * creates a fresh instance for each derivation.
+ *
+ * <pre>
+ * final var keys = TenantKeyManager.deriving(BcVOPRF::createP256, BcVOPRF::deriveKeyPair, seed, BcVOPRF::serverKey, 10_000);
+ * keys.preload(tenants, executor).join();
+ * final var result = voprf.blindEvaluate(keys.get(tenant), blindedElement);
+ * </pre>
+ *
+ * @param <K> Decoded key type
+ */
+public final class TenantKeyManager<K> {
+	/**
+	 * Derive (and decode) the key of a tenant
+	 * @param <K> Decoded key type
+	 */
+	@FunctionalInterface
+	public static interface Loader<K> {
+		public K load(String tenant) throws Exception;
+	}
+
+	/**
+	 * Key derivation of a mode, e.g. <code>BcVOPRF::deriveKeyPair</code>
+	 * @param <M> Mode class
+	 */
+	@FunctionalInterface
+	public static interface Deriver<M> {
+		public OPRFKeyPair deriveKeyPair(M instance, byte[] seed, byte[] info) throws Exception;
+	}
+
+	/**
+	 * @param hits Lookups served from the cache (including ones that waited for a running derivation)
+	 * @param misses Lookups that started a derivation
+	 * @param loadFailures Derivations that failed
+	 * @param evictions Keys dropped to stay within the capacity
+	 * @param size Number of cached keys
+	 */
+	public static final record Stats(long hits, long misses, long loadFailures, long evictions, int size) {
+		public double hitRate() {
+			final var lookups = hits + misses;
+			return lookups == 0 ? 0.0 : (double) hits / lookups;
+		}
+	}
+
+	private static final class Entry<K> {
+		private final CompletableFuture<K> key = new CompletableFuture<>();
+		private volatile long lastAccess = System.nanoTime();
+	}
+
+	private final Loader<K> loader;
+	private final int capacity;
+	private final ConcurrentHashMap<String, Entry<K>> entries = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loadFailures = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param loader
+	 * @param capacity Maximum number of cached keys
+	 */
+	public TenantKeyManager(Loader<K> loader, int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive");
+
+		this.loader = loader;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Mode instances are not thread-safe, each derivation runs on its own instance from
+	 * <code>factory</code> (cheap, the suite parameters are shared, see <code>OPRFSuites</code>).
+	 * @param factory Creates a mode instance, e.g. <code>BcVOPRF::createP256</code>
+	 * @param deriver e.g. <code>BcVOPRF::deriveKeyPair</code>
+	 * @param seed Master seed, the tenant (UTF-8) is the key info
+	 * @param decoder Decodes the derived key pair, e.g. <code>BcVOPRF::serverKey</code>
+	 * @param capacity
+	 * @return
+	 */
+	public static <M, K> TenantKeyManager<K> deriving(Supplier<M> factory, Deriver<M> deriver, byte[] seed, BiFunction<M, OPRFKeyPair, K> decoder, int capacity) {
+		final var s = seed.clone();
+		return new TenantKeyManager<>(tenant -> {
+			final var instance = factory.get();
+			return decoder.apply(instance, deriver.deriveKeyPair(instance, s, info(tenant)));
+		}, capacity);
+	}
+
+	private static byte[] info(String tenant) {
+		return tenant.getBytes(StandardCharsets.UTF_8);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @param tenant
+	 * @return Key of the tenant, derived in the calling thread if it is not cached (or being derived)
+	 * @throws Exception if the derivation failed
+	 */
+	public K get(String tenant) throws Exception {
+		var entry = entries.get(tenant);
+		if (entry != null) {
+			hits.increment();
+			entry.lastAccess = System.nanoTime();
+		} else {
+			entry = startLoad(tenant, null);
+		}
+		return join(entry.key);
+	}
+
+	/**
+	 * Derive the keys of all tenants that are not cached yet in parallel, e.g. on a cold start.
+	 * Only useful up to the capacity, preloading more tenants evicts the earlier ones again.
+	 * @param tenants
+	 * @param executor Executor to derive the keys on
+	 * @return Completes when all keys are available, exceptionally if any derivation failed
+	 */
+	public CompletableFuture<Void> preload(Collection<String> tenants, Executor executor) {
+		final var futures = new CompletableFuture<?>[tenants.size()];
+		var i = 0;
+		for (final var tenant : tenants) {
+			final var entry = entries.get(tenant);
+			futures[i++] = entry != null ? entry.key : startLoad(tenant, executor).key;
+		}
+		return CompletableFuture.allOf(futures);
+	}
+
+	/**
+	 * Drop the cached key of a tenant, the next lookup derives it again
+	 * @param tenant
+	 */
+	public void invalidate(String tenant) {
+		entries.remove(tenant);
+	}
+
+	public Stats stats() {
+		return new Stats(hits.sum(), misses.sum(), loadFailures.sum(), evictions.sum(), entries.size());
+	}
+
+	/**
+	 * Insert a pending entry for the tenant, unless another thread got there first, and derive the key
+	 * @param executor <code>null</code> to derive in the calling thread
+	 */
+	private Entry<K> startLoad(String tenant, Executor executor) {
+		final var created = new Entry<K>();
+		final var existing = entries.putIfAbsent(tenant, created);
+		if (existing != null) {
+			hits.increment();
+			return existing;
+		}
+
+		misses.increment();
+		if (executor == null) {
+			load(tenant, created);
+		} else {
+			try {
+				executor.execute(() -> load(tenant, created));
+			} catch (RejectedExecutionException e) {
+				load(tenant, created);
+			}
+		}
+		return created;
+	}
+
+	private void load(String tenant, Entry<K> entry) {
+		try {
+			entry.key.complete(loader.load(tenant));
+		} catch (Throwable e) {	//NOSONAR Waiting lookups need to be released in any case
+			loadFailures.increment();
+			entries.remove(tenant, entry);
+			entry.key.completeExceptionally(e);
+			return;
+		}
+		entry.lastAccess = System.nanoTime();
+		evict();
+	}
+
+	/**
+	 * Remove the least recently used (loaded) entries until the cache is within its capacity
+	 */
+	private void evict() {
+		while (entries.size() > capacity) {
+			String victim = null;
+			Entry<K> victimEntry = null;
+			for (final var e : entries.entrySet()) {
+				final var entry = e.getValue();
+				if (entry.key.isDone() && (victimEntry == null || entry.lastAccess - victimEntry.lastAccess < 0)) {
+					victim = e.getKey();
+					victimEntry = entry;
+				}
+			}
+			if (victimEntry == null)
+				return;		// Only pending derivations left
+			if (entries.remove(victim, victimEntry))
+				evictions.increment();
+		}
+	}
+
+	private static <K> K join(CompletableFuture<K> future) throws Exception {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Exception cause)
+				throw cause;
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ServerKey;
+
+/**
+ * Key rotation for OPRF servers (read-copy-update): the live keys are published as an immutable
+ * <code>Snapshot</code> through an atomic reference. Request threads read the current snapshot
+ * with a single volatile load and keep using it for the whole request, <code>rotate()</code>
+ * decodes and checks the new key pair first and then swaps in a new snapshot, so readers never
+ * block or see a partially updated key set.
+ *
+ * Each rotation starts a new epoch, the keys of the previous <code>overlapEpochs</code> epochs
+ * stay available (e.g. for clients that still hold the old public key) and are dropped after that.
+ *
+ * Created by the mode classes (e.g. <code>BcVOPRF.keyManager()</code>), keys are bound to the
+ * suite and the mode of the creating instance.
+ */
+public final class BcKeyManager {
+	/**
+	 * Immutable set of live keys
+	 * @param epoch Epoch of the current key
+	 * @param keys Current key first, followed by the keys of the previous epochs (newest first)
+	 */
+	public static final record Snapshot(long epoch, List<ServerKey> keys) {
+		public ServerKey current() {
+			return keys.get(0);
+		}
+
+		/**
+		 * @param epoch
+		 * @return Key of the given epoch, <code>null</code> if it is unknown or has expired
+		 */
+		public ServerKey get(long epoch) {
+			final var age = this.epoch - epoch;
+			return age >= 0 && age < keys.size() ? keys.get((int) age) : null;
+		}
+	}
+
+	private final Function<OPRFKeyPair, ServerKey> loader;
+	private final int overlapEpochs;
+	private final AtomicReference<Snapshot> snapshot;
+
+	BcKeyManager(Function<OPRFKeyPair, ServerKey> loader, OPRFKeyPair keyPair, int overlapEpochs) {
+		if (overlapEpochs < 0)
+			throw new IllegalArgumentException("Number of overlap epochs must not be negative");
+
+		this.loader = loader;
+		this.overlapEpochs = overlapEpochs;
+		this.snapshot = new AtomicReference<>(new Snapshot(0, List.of(loader.apply(keyPair))));
+	}
+
+	public int getOverlapEpochs() {
+		return overlapEpochs;
+	}
+
+	/**
+	 * @return Live keys, to be used for the whole request
+	 */
+	public Snapshot snapshot() {
+		return snapshot.get();
+	}
+
+	public ServerKey current() {
+		return snapshot.get().current();
+	}
+
+	/**
+	 * @param epoch
+	 * @return Key of the given epoch, <code>null</code> if it is unknown or has expired
+	 */
+	public ServerKey get(long epoch) {
+		return snapshot.get().get(epoch);
+	}
+
+	/**
+	 * Make <code>keyPair</code> the current key, starting a new epoch. Safe to call concurrently,
+	 * each call starts its own epoch.
+	 * @param keyPair
+	 * @return Snapshot with the new key
+	 * @throws IllegalArgumentException if the key pair is invalid, the live keys are unchanged then
+	 */
+	public Snapshot rotate(OPRFKeyPair keyPair) {
+		final var key = loader.apply(keyPair);
+		return snapshot.updateAndGet(previous -> {
+			final var keys = new ArrayList<ServerKey>(overlapEpochs + 1);
+			keys.add(key);
+			for (int i = 0; i < previous.keys().size() && i < overlapEpochs; i++)
+				keys.add(previous.keys().get(i));
+			return new Snapshot(previous.epoch() + 1, List.copyOf(keys));
+		});
+	}
+}
@@ -8,12 +8,15 @@
 package de.bitplumber.crypto.oprf.bc;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.Arrays;
 
+import de.bitplumber.crypto.jfr.BlindEvaluateEvent;
 import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ECScalar;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ServerKey;
 import de.bitplumber.crypto.oprf.*;
 
 public class BcOPRF implements OPRF<ECScalar, ECPoint, BcOPRF.BlindResult> {
@@ -46,6 +49,15 @@ public class BcOPRF implements OPRF<ECScalar, ECPoint, BcOPRF.BlindResult> {
 		return new BcOPRF(BcOPRFSuite.createSecp256k1());
 	}
 
+	/**
+	 * @param identifier RFC 9497 suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static BcOPRF create(String identifier) {
+		return new BcOPRF(BcOPRFSuite.create(identifier));
+	}
+
 	public OPRFKeyPair randomKeyPair() {
 		return suite.randomKeyPair();
 	}
@@ -74,12 +86,32 @@ public class BcOPRF implements OPRF<ECScalar, ECPoint, BcOPRF.BlindResult> {
 		return suite.decodeScalar(encoded);
 	}
 
+	/**
+	 * Key rotation holder for servers, see <code>BcKeyManager</code>
+	 * @param keyPair Initial key pair
+	 * @param overlapEpochs Number of previous epochs whose keys stay available after a rotation
+	 * @return
+	 */
+	public BcKeyManager keyManager(OPRFKeyPair keyPair, int overlapEpochs) {
+		return new BcKeyManager(this::serverKey, keyPair, overlapEpochs);
+	}
+
+	/**
+	 * Decode and check a server key pair once, e.g. for caching (see <code>TenantKeyManager</code>)
+	 * @param keyPair
+	 * @return
+	 * @throws IllegalArgumentException if the key pair is invalid
+	 */
+	public ServerKey serverKey(OPRFKeyPair keyPair) {
+		return suite.serverKey(keyPair, context);
+	}
+
 	private BlindResult doBlind(byte[] input, ECScalar blind) throws Exception {
 		final var inputElement = suite.hashToGroup(input, null, context);
 		if (inputElement.isInfinity() || !inputElement.isValid())
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var blindedElement = inputElement.multiply(blind.toBigInteger());
+		final var blindedElement = suite.multiply(inputElement, blind);
 		return new BlindResult(blind, blindedElement);
 	}
 
@@ -92,21 +124,106 @@ public class BcOPRF implements OPRF<ECScalar, ECPoint, BcOPRF.BlindResult> {
 		return doBlind(input, suite.randomScalar());
 	}
 
+	/**
+	 * Blind a batch of inputs, each with its own random blind. The hash-to-curve mapping of
+	 * all inputs is done in one batch (see <code>BcCurveHasher.hashToCurveBatch()</code>).
+	 * @param inputs
+	 * @return
+	 * @throws Exception
+	 */
+	public BlindResult[] blindBatch(List<byte[]> inputs) throws Exception {
+		final var inputElements = suite.hashToGroupBatch(inputs, null, context);
+		final var results = new BlindResult[inputElements.length];
+		for (var i = 0; i < inputElements.length; i++) {
+			if (inputElements[i].isInfinity() || !inputElements[i].isValid())
+				throw new IllegalArgumentException("InvalidInputError");
+
+			final var blind = suite.randomScalar();
+			results[i] = new BlindResult(blind, suite.multiply(inputElements[i], blind));
+		}
+		return results;
+	}
+
 	public ECPoint blindEvaluate(byte[] serverSecretKey, ECPoint blindedElement) throws Exception {
+		return doBlindEvaluate(suite.decodeScalar(serverSecretKey), blindedElement);
+	}
+
+	/**
+	 * BlindEvaluate with a decoded server key, see <code>keyManager()</code>
+	 * @param serverKey
+	 * @param blindedElement
+	 * @return
+	 */
+	public ECPoint blindEvaluate(ServerKey serverKey, ECPoint blindedElement) {
+		return doBlindEvaluate(serverKey.getSecretScalar(), blindedElement);
+	}
+
+	private ECPoint doBlindEvaluate(ECScalar skS, ECPoint blindedElement) {
+		final var event = BlindEvaluateEvent.start();
+		final var evaluatedElement = suite.multiply(blindedElement, skS);
+		event.finish(suite.getName(), "OPRF", 1);
+		return evaluatedElement;
+	}
+
+	/**
+	 * Evaluate a batch of blinded elements with the same key, equivalent to calling
+	 * <code>blindEvaluate()</code> for each element.
+	 * @param serverSecretKey
+	 * @param blindedElements
+	 * @return
+	 * @throws Exception
+	 */
+	public ECPoint[] blindEvaluateBatch(byte[] serverSecretKey, ECPoint[] blindedElements) throws Exception {
+		final var event = BlindEvaluateEvent.start();
 		final var skS = suite.decodeScalar(serverSecretKey);
-		return blindedElement.multiply(skS.toBigInteger());
+		final var evaluatedElements = suite.multiplyBatch(blindedElements, skS);
+		event.finish(suite.getName(), "OPRF", evaluatedElements.length);
+		return evaluatedElements;
+	}
+
+	/**
+	 * Evaluate one blinded element under several keys (e.g. the old and the new key during
+	 * key rotation), equivalent to calling <code>blindEvaluate()</code> for each key, but the
+	 * precomputation for the blinded element is shared (see <code>BcOPRFSuite.multiplyAll()</code>).
+	 * @param serverKeys
+	 * @param blindedElement
+	 * @return Evaluated elements, in the order of the keys
+	 * @throws Exception
+	 */
+	public ECPoint[] blindEvaluateMulti(List<OPRFKeyPair> serverKeys, ECPoint blindedElement) throws Exception {
+		final var skS = new ECScalar[serverKeys.size()];
+		for (int i = 0; i < skS.length; i++)
+			skS[i] = suite.decodeScalar(serverKeys.get(i).secretKey());
+		return doBlindEvaluateMulti(skS, blindedElement);
+	}
+
+	/**
+	 * Evaluate one blinded element under all live keys of a key manager snapshot
+	 * @param snapshot
+	 * @param blindedElement
+	 * @return Evaluated elements, in the order of <code>snapshot.keys()</code>
+	 * @throws Exception
+	 */
+	public ECPoint[] blindEvaluateMulti(BcKeyManager.Snapshot snapshot, ECPoint blindedElement) throws Exception {
+		final var skS = new ECScalar[snapshot.keys().size()];
+		for (int i = 0; i < skS.length; i++)
+			skS[i] = snapshot.keys().get(i).getSecretScalar();
+		return doBlindEvaluateMulti(skS, blindedElement);
+	}
+
+	private ECPoint[] doBlindEvaluateMulti(ECScalar[] skS, ECPoint blindedElement) {
+		final var event = BlindEvaluateEvent.start();
+		final var evaluatedElements = suite.multiplyAll(blindedElement, skS);
+		event.finish(suite.getName(), "OPRF", evaluatedElements.length);
+		return evaluatedElements;
 	}
 
 	public byte[] finalize(byte[] input, ECScalar blind, ECPoint evaluatedElement) throws Exception {
 		final var invBlind = suite.invertScalar(blind);
-		final var n = evaluatedElement.multiply(invBlind.toBigInteger());
+		final var n = suite.multiply(evaluatedElement, invBlind);
 		final var unblindedElement = suite.encodeElement(n);
 
-		return suite.hash(Arrays.concatenate(new byte[][]{
-			suite.I2OSP(input.length, 2), input,
-			suite.I2OSP(unblindedElement.length, 2), unblindedElement,
-			Labels.FINALIZE
-		}));
+		return suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
 	}
 
 	public byte[] evaluate(byte[] serverSecretKey, byte[] input) throws Exception {
@@ -115,13 +232,9 @@ public class BcOPRF implements OPRF<ECScalar, ECPoint, BcOPRF.BlindResult> {
 			throw new IllegalArgumentException("InvalidInputError");
 
 		final var skS = suite.decodeScalar(serverSecretKey);
-		final var evaluatedElement = inputElement.multiply(skS.toBigInteger());
+		final var evaluatedElement = suite.multiply(inputElement, skS);
 		final var issuedElement = suite.encodeElement(evaluatedElement);
 
-		return suite.hash(Arrays.concatenate(new byte[][]{
-			suite.I2OSP(input.length, 2), input,
-			suite.I2OSP(issuedElement.length, 2), issuedElement,
-			Labels.FINALIZE
-		}));
+		return suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
 	}
 }
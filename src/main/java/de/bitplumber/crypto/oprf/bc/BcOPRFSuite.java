@@ -11,6 +11,7 @@
 package de.bitplumber.crypto.oprf.bc;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Objects;
 
 import org.apache.commons.lang3.RandomUtils;
@@ -18,14 +19,26 @@ import org.bouncycastle.crypto.ExtendedDigest;
 import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.digests.SHA384Digest;
 import org.bouncycastle.crypto.digests.SHA512Digest;
-import org.bouncycastle.jce.ECNamedCurveTable;
 import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.WNafUtil;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.BigIntegers;
 
+import de.bitplumber.crypto.ec.MontgomeryField;
+import de.bitplumber.crypto.ec.P256Batch;
+import de.bitplumber.crypto.ec.P256Curve;
+import de.bitplumber.crypto.ec.P521Curve;
 import de.bitplumber.crypto.h2c.BcCurveHasher;
+import de.bitplumber.crypto.h2c.TranscriptWriter;
+import de.bitplumber.crypto.h2c.TranscriptWriter.Message;
+import de.bitplumber.crypto.jfr.ProofEvent;
+import de.bitplumber.crypto.metrics.Metrics;
+import de.bitplumber.crypto.metrics.Operation;
+import de.bitplumber.crypto.metrics.OperationCounter;
+import de.bitplumber.crypto.metrics.Stage;
 import de.bitplumber.crypto.oprf.*;
 
 class BcOPRFSuite {
@@ -41,20 +54,32 @@ class BcOPRFSuite {
 
 	private final BcCurveHasher h2c;
 	private final ExtendedDigest hash;
+	private final TranscriptWriter transcript;	// Bound to hash
 	private final int elementSize;
 	private final int scalarSize;
+	private final boolean p256;		// Use 4x64 bit Montgomery field arithmetic (P256Curve) for point decompression
+	private final boolean p521;		// Use Mersenne field arithmetic (P521Curve)
 
-	private BcOPRFSuite(final String name, final String curveName, final ExtendedDigest hash, final BcCurveHasher h2c, final int k) {
-		this.curveSpec = ECNamedCurveTable.getParameterSpec(curveName);
+	/**
+	 * @param name RFC 9497 suite identifier
+	 * @param hash
+	 * @param h2c Hasher for the suite's curve, its (shared) curve parameters are used
+	 * @param k
+	 */
+	private BcOPRFSuite(final String name, final ExtendedDigest hash, final BcCurveHasher h2c, final int k) {
+		this.curveSpec = h2c.getCurveSpec();
 		this.curve = curveSpec.getCurve();
 		this.Fn = ECScalarField.fromCurve(curve);
 		this.name = name;
 		this.hash = hash;
+		this.transcript = new TranscriptWriter(hash);
 		this.h2c = h2c;
 		this.k = k;
 
 		this.elementSize = curve.getAffinePointEncodingLength(true);
 		this.scalarSize  = curve.getFieldElementEncodingLength();
+		this.p256 = P256Curve.supports(curve);
+		this.p521 = P521Curve.supports(curve);
 	}
 
 	public String getName() {
@@ -88,7 +113,6 @@ class BcOPRFSuite {
 	public static BcOPRFSuite createP256() {
 		return new BcOPRFSuite(
 			"P256-SHA256",
-			"secp256r1",
 			new SHA256Digest(),
 			BcCurveHasher.createP256(),
 			128);
@@ -97,7 +121,6 @@ class BcOPRFSuite {
 	public static BcOPRFSuite createP384() {
 		return new BcOPRFSuite(
 			"P384-SHA384",
-			"secp384r1",
 			new SHA384Digest(),
 			BcCurveHasher.createP384(),
 			192);
@@ -106,7 +129,6 @@ class BcOPRFSuite {
 	public static BcOPRFSuite createP521() {
 		return new BcOPRFSuite(
 			"P521-SHA512",
-			"secp521r1",
 			new SHA512Digest(),
 			BcCurveHasher.createP521(),
 			256);
@@ -115,17 +137,40 @@ class BcOPRFSuite {
 	public static BcOPRFSuite createSecp256k1() {
 		return new BcOPRFSuite(
 			"secp256k1-SHA256",
-			"secp256k1",
 			new SHA256Digest(),
 			BcCurveHasher.createSecp256k1(),
 			128);
 	}
 
+	/**
+	 * Create a suite instance by its RFC 9497 identifier. The curve parameters are shared by
+	 * all instances of a suite, each instance has its own digests and is not thread-safe.
+	 * @param identifier Suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static BcOPRFSuite create(String identifier) {
+		return switch (identifier) {
+			case OPRFSuites.P256_SHA256 -> createP256();
+			case OPRFSuites.P384_SHA384 -> createP384();
+			case OPRFSuites.P521_SHA512 -> createP521();
+			case OPRFSuites.SECP256K1_SHA256 -> createSecp256k1();
+			default -> throw new IllegalArgumentException(String.format("Unsupported suite '%s'", identifier));
+		};
+	}
+
 
+	/**
+	 * Scalar field (modulo the curve order) on fixed-width Montgomery limbs (<code>MontgomeryField</code>),
+	 * no <code>BigInteger</code> allocations or divisions in the arithmetic.
+	 */
 	public static class ECScalarField {
 		private final BigInteger n;
+		private final MontgomeryField field;
+
 		public ECScalarField(BigInteger n) {
 			this.n = n;
+			this.field = new MontgomeryField(n);
 		}
 
 		public static ECScalarField fromCurve(ECCurve curve) {
@@ -140,28 +185,96 @@ class BcOPRFSuite {
 			return x.signum() > 0 && n.compareTo(x) > 0;
 		}
 
+		/**
+		 * @param x
+		 * @return <code>true</code> if 0 &lt; x &lt; n
+		 */
 		public boolean isValid(ECScalar x) {
-			return isValid(x.toBigInteger());
+			// Limbs of this field are always reduced, other scalars can be out of range
+			return x.field == this.field ? !field.isZero(x.limbs) : isValid(x.toBigInteger());
 		}
 
 		public boolean isZero(ECScalar x) {
-			return x.toBigInteger().signum() == 0;
+			return field.isZero(limbs(x));
 		}
 
+		/**
+		 * @param x Any scalar, e.g. created by <code>ECScalar.ONE</code> or another field
+		 * @return Montgomery limbs of x in this field
+		 */
+		private long[] limbs(ECScalar x) {
+			return x.field == this.field ? x.limbs : field.fromBigInteger(x.toBigInteger());
+		}
+
+		/**
+		 * @param x Value in [0, n)
+		 * @return
+		 */
+		ECScalar fromBigInteger(BigInteger x) {
+			return new ECScalar(field, field.fromBigInteger(x), x);
+		}
+
+		/**
+		 * Reduce uniform (big-endian) bytes modulo n, e.g. for hash_to_field
+		 * @param uniformBytes
+		 * @return
+		 */
+		public ECScalar reduce(byte[] uniformBytes) {
+			return new ECScalar(field, field.reduce(uniformBytes), null);
+		}
+
+		/**
+		 * Constant-time inversion using Bouncy Castle's safegcd (Bernstein-Yang divsteps)
+		 * implementation, instead of <code>BigInteger.modInverse()</code> (data-dependent timing)
+		 * or Fermat inversion (slower). The curve order is always an odd prime here.
+		 * @param x
+		 * @return
+		 * @throws ArithmeticException if x is zero
+		 */
 		public ECScalar inverse(ECScalar x) {
-			return new ECScalar(x.toBigInteger().modInverse(this.n));
+			OperationCounter.count(Operation.FIELD_INVERSION);
+			final var r = field.create();
+			if (!field.invert(r, limbs(x)))
+				throw new ArithmeticException("Scalar not invertible");
+			return new ECScalar(field, r, null);
+		}
+
+		/**
+		 * Invert all scalars with a single field inversion (Montgomery's trick)
+		 * @param x
+		 * @return Inverses, in the same order
+		 * @throws ArithmeticException if any scalar is zero
+		 */
+		public ECScalar[] inverseAll(ECScalar[] x) {
+			OperationCounter.count(Operation.FIELD_INVERSION);
+			final var values = new long[x.length][];
+			for (int i = 0; i < x.length; i++)
+				values[i] = limbs(x[i]).clone();
+			if (!field.invertAll(values))
+				throw new ArithmeticException("Scalar not invertible");
+
+			final var result = new ECScalar[x.length];
+			for (int i = 0; i < x.length; i++)
+				result[i] = new ECScalar(field, values[i], null);
+			return result;
 		}
 
 		public ECScalar add(ECScalar x, ECScalar y) {
-			return new ECScalar(x.toBigInteger().add(y.toBigInteger()).mod(this.n));
+			final var r = field.create();
+			field.add(r, limbs(x), limbs(y));
+			return new ECScalar(field, r, null);
 		}
 
 		public ECScalar subtract(ECScalar x, ECScalar y) {
-			return new ECScalar(x.toBigInteger().subtract(y.toBigInteger()).mod(this.n));
+			final var r = field.create();
+			field.sub(r, limbs(x), limbs(y));
+			return new ECScalar(field, r, null);
 		}
 
 		public ECScalar multiply(ECScalar x, ECScalar y) {
-			return new ECScalar(x.toBigInteger().multiply(y.toBigInteger()).mod(this.n));
+			final var r = field.create();
+			field.mul(r, limbs(x), limbs(y));
+			return new ECScalar(field, r, null);
 		}
 
 		public ECScalar divide(ECScalar x, ECScalar y) {
@@ -223,7 +336,7 @@ class BcOPRFSuite {
 				.mod(this.n.subtract(BigInteger.ONE))
 				.add(BigInteger.ONE);
 			if (!this.isValid(s)) throw new IllegalArgumentException("Invalid field element");
-			return new ECScalar(s);
+			return fromBigInteger(s);
 		}
 
 		public ECScalar mapHashToField(final byte[] uniformBytes) {
@@ -231,32 +344,48 @@ class BcOPRFSuite {
 		}
 	}
 
+	/**
+	 * Immutable scalar, either a plain value or Montgomery limbs of an <code>ECScalarField</code>.
+	 * The other representation is derived on demand: limbs for the field arithmetic, the value for
+	 * point multiplication and encoding.
+	 */
 	public static class ECScalar {
 		public static final ECScalar ONE  = new ECScalar(BigInteger.ONE);
 		public static final ECScalar ZERO = new ECScalar(BigInteger.ZERO);
-		private final BigInteger value;
+		private final MontgomeryField field;
+		private final long[] limbs;
+		private BigInteger value;	// Racy single-check, BigInteger is immutable
 
 		ECScalar(BigInteger value) {
+			this(null, null, value);
+		}
+
+		private ECScalar(MontgomeryField field, long[] limbs, BigInteger value) {
+			this.field = field;
+			this.limbs = limbs;
 			this.value = value;
 		}
 
 		public BigInteger toBigInteger() {
-			return this.value;
+			var v = this.value;
+			if (v == null) {
+				v = field.toBigInteger(limbs);
+				this.value = v;
+			}
+			return v;
 		}
 
 		public boolean isZero() {
-			return this.value.signum() == 0;
+			return limbs != null ? field.isZero(limbs) : this.value.signum() == 0;
 		}
 
 		public boolean equals(ECScalar other) {
-			return this.value.equals(other.toBigInteger());
+			if (this.field != null && this.field == other.field)
+				return field.equals(this.limbs, other.limbs);
+			return this.toBigInteger().equals(other.toBigInteger());
 		}
 	}
 
-	protected byte[] I2OSP(long input, int size) {
-		return BigIntegers.asUnsignedByteArray(size, BigInteger.valueOf(input));
-	}
-
 	public byte[] encodeScalar(ECScalar scalar) {
 		final var encoded = BigIntegers.asUnsignedByteArray(scalarSize, scalar.toBigInteger());
 		if (encoded == null || encoded.length != scalarSize) {
@@ -272,10 +401,38 @@ class BcOPRFSuite {
 			throw new IllegalArgumentException(String.format("Encoded %s scalar is invalid",
 				curveSpec.getName()));
 		}
-		return new ECScalar(s);
+		return Fn.fromBigInteger(s);
 	}
 
 	public byte[] encodeElement(ECPoint element) {
+		if (!element.isNormalized())
+			OperationCounter.count(Operation.FIELD_INVERSION);
+		return encodeNormalized(element);
+	}
+
+	/**
+	 * Encode all <code>elements</code>, normalizing them together with a single
+	 * field inversion (<code>ECCurve.normalizeAll()</code>) instead of one per element.
+	 * @param elements
+	 * @return Encoded elements, in the same order
+	 */
+	public byte[][] encodeElements(ECPoint... elements) {
+		final var normalized = elements.clone();
+		var needsInversion = false;
+		for (final var p : normalized)
+			needsInversion |= !p.isNormalized();
+		if (needsInversion) {
+			OperationCounter.count(Operation.FIELD_INVERSION);
+			curve.normalizeAll(normalized);
+		}
+
+		final var encoded = new byte[normalized.length][];
+		for (int i = 0; i < normalized.length; i++)
+			encoded[i] = encodeNormalized(normalized[i]);
+		return encoded;
+	}
+
+	private byte[] encodeNormalized(ECPoint element) {
 		final var encoded = element.getEncoded(true);
 		if (encoded == null || encoded.length != elementSize) {
 			throw new IllegalArgumentException(String.format("Invalid element encoding size: '%d' vs '%d' expected",
@@ -285,7 +442,8 @@ class BcOPRFSuite {
 	}
 
 	public ECPoint decodeElement(byte[] encoded) {
-		final var p = curve.decodePoint(encoded);
+		OperationCounter.count(Operation.SQUARE_ROOT);
+		final var p = p256 ? P256Curve.decodePoint(curve, encoded) : curve.decodePoint(encoded);
 		if (p == null || !p.isValid()) {
 			throw new IllegalArgumentException(String.format("Encoded %s point is invalid",
 				curveSpec.getName()));
@@ -315,37 +473,223 @@ class BcOPRFSuite {
 
 	protected ECPoint hashToGroup(byte[] msg, byte[] customDST, byte[] context) {
 		final var dst = Objects.requireNonNullElseGet(customDST, () -> Arrays.concatenate(Labels.HASH_TO_GROUP, context));
-		return h2c.hashToCurve(msg, dst);
+		final var start = Metrics.start();
+		final var result = h2c.hashToCurve(msg, dst);
+		Metrics.stop(name, Stage.HASH_TO_GROUP, start);
+		return result;
+	}
+
+	protected ECPoint[] hashToGroupBatch(List<byte[]> msgs, byte[] customDST, byte[] context) {
+		final var dst = Objects.requireNonNullElseGet(customDST, () -> Arrays.concatenate(Labels.HASH_TO_GROUP, context));
+		return h2c.hashToCurveBatch(msgs, dst);
+	}
+
+	/**
+	 * Scalar multiplication, using the Mersenne field arithmetic for P-521
+	 * @param p
+	 * @param k
+	 * @return
+	 */
+	protected ECPoint multiply(ECPoint p, ECScalar k) {
+		OperationCounter.count(Operation.POINT_MULTIPLY);
+		if (p521)	// P521Curve works on (and returns) affine points
+			OperationCounter.count(Operation.FIELD_INVERSION, p.isNormalized() ? 1 : 2);
+		final var start = Metrics.start();
+		final var result = p521 ? P521Curve.multiply(p, k.toBigInteger()) : p.multiply(k.toBigInteger());
+		Metrics.stop(name, Stage.MULTIPLY, start);
+		return result;
+	}
+
+	/**
+	 * a * P + b * Q with interleaved multiplication (<code>ECAlgorithms.sumOfTwoMultiplies()</code>,
+	 * GLV for secp256k1). The wNAF table of P is cached on the point, for the shared generator
+	 * it is therefore computed only once.
+	 * <strong>Not constant-time</strong>, only to be used with public scalars (proof verification).
+	 * @param P
+	 * @param a
+	 * @param Q
+	 * @param b
+	 * @return
+	 */
+	protected ECPoint sumOfTwoMultiplies(ECPoint P, ECScalar a, ECPoint Q, ECScalar b) {
+		OperationCounter.count(Operation.DOUBLE_POINT_MULTIPLY);
+		final var start = Metrics.start();
+		final var result = ECAlgorithms.sumOfTwoMultiplies(P, a.toBigInteger(), Q, b.toBigInteger());
+		Metrics.stop(name, Stage.MULTIPLY, start);
+		return result;
+	}
+
+	/**
+	 * Multiply all points by the same scalar, lane-parallel for P-256 if the Vector API
+	 * is available (see <code>P256Batch</code>), one point at a time otherwise.
+	 * @param points
+	 * @param k
+	 * @return
+	 */
+	protected ECPoint[] multiplyBatch(ECPoint[] points, ECScalar k) {
+		var useVector = P256Batch.supports(curve) && !Fn.isZero(k);
+		for (var i = 0; useVector && i < points.length; i++)
+			useVector = !points[i].isInfinity();
+		if (useVector) {
+			if (OperationCounter.ENABLED) {
+				// One shared inversion normalizing the inputs (if needed), one per result
+				var normalized = true;
+				for (final var p : points)
+					normalized &= p.isNormalized();
+				OperationCounter.count(Operation.POINT_MULTIPLY, points.length);
+				OperationCounter.count(Operation.FIELD_INVERSION, points.length + (normalized ? 0 : 1L));
+			}
+			return P256Batch.multiply(curve, points, k.toBigInteger());
+		}
+
+		final var result = new ECPoint[points.length];
+		for (int i = 0; i < points.length; i++)
+			result[i] = multiply(points[i], k);
+		return result;
+	}
+
+	/**
+	 * Multiply the same point by several scalars, e.g. one blinded element under several keys.
+	 * The window table of P is built once for P-521 (see <code>P521Curve.multiply()</code>),
+	 * Bouncy Castle caches the wNAF table on the point for the other curves.
+	 * @param p
+	 * @param k
+	 * @return k[i] * P, in the same order
+	 */
+	protected ECPoint[] multiplyAll(ECPoint p, ECScalar[] k) {
+		if (!p521) {
+			final var result = new ECPoint[k.length];
+			for (int i = 0; i < k.length; i++)
+				result[i] = multiply(p, k[i]);
+			return result;
+		}
+
+		OperationCounter.count(Operation.POINT_MULTIPLY, k.length);
+		OperationCounter.count(Operation.FIELD_INVERSION, k.length + (p.isNormalized() ? 0 : 1L));
+		final var start = Metrics.start();
+		final var scalars = new BigInteger[k.length];
+		for (int i = 0; i < k.length; i++)
+			scalars[i] = k[i].toBigInteger();
+		final var result = P521Curve.multiply(p, scalars);
+		Metrics.stop(name, Stage.MULTIPLY, start);
+		return result;
 	}
 
 	protected ECScalar hashToScalar(byte[] msg, byte[] customDST, byte[] context) {
+		return hashToScalar(TranscriptWriter.of(msg), customDST, context);
+	}
+
+	protected ECScalar hashToScalar(Message msg, byte[] customDST, byte[] context) {
 		final var dst = Objects.requireNonNullElseGet(customDST, () -> Arrays.concatenate(Labels.HASH_TO_SCALAR, context));
-		return new ECScalar(h2c.hashToScalar(msg, dst));
+		return Fn.reduce(h2c.hashToScalarBytes(msg, dst));
 	}
 
 	public OPRFKeyPair randomKeyPair() {
 		final var secretScalar  = randomScalar();
-		final var publicElement = curveSpec.getG().multiply(secretScalar.toBigInteger());
+		final var publicElement = multiply(curveSpec.getG(), secretScalar);
 		return new OPRFKeyPair(encodeScalar(secretScalar), encodeElement(publicElement));
 	}
 
 	public OPRFKeyPair deriveKeyPair(byte[] seed, byte[] info, byte[] context) throws Exception {
 		final var nullSafeInfo = Objects.requireNonNullElse(info, EMPTY_ARRAY);
-		final var deriveInput = Arrays.concatenate(seed, I2OSP(nullSafeInfo.length, 2), nullSafeInfo);
 		final var deriveDST = Arrays.concatenate(Labels.DERIVE_KEYPAIR, context);
 
 		int counter = 0;
 		ECScalar secretScalar = new ECScalar(BigInteger.ZERO);
 		while (Fn.isZero(secretScalar)) {
 			if (counter > 255) throw new Exception("Failed to derive secret key");
-			secretScalar = hashToScalar(Arrays.concatenate(deriveInput, I2OSP(counter, 1)), deriveDST, context);
+			// seed || I2OSP(len(info), 2) || info || I2OSP(counter, 1)
+			final var c = counter;
+			secretScalar = hashToScalar(w -> w.bytes(seed).lengthPrefixed(nullSafeInfo).u8(c), deriveDST, context);
 			counter++;
 		}
 
-		final var publicElement = curveSpec.getG().multiply(secretScalar.toBigInteger());
+		final var publicElement = multiply(curveSpec.getG(), secretScalar);
 		return new OPRFKeyPair(encodeScalar(secretScalar), encodeElement(publicElement));
 	}
 
+	/**
+	 * Server public key (POPRF: tweaked key) of a client that talks to a known server: decoded and validated once,
+	 * together with its encoding, the composite seed and a precomputed (fixed-base) wNAF table for proof verification.
+	 * Immutable, bound to the suite and the mode (context) that created it, see <code>serverPublicKey()</code>.
+	 */
+	public static final class ServerPublicKey {
+		private final ECPoint element;
+		private final byte[] encoded;
+		private final byte[] seed;
+		private final byte[] context;
+
+		private ServerPublicKey(ECPoint element, byte[] encoded, byte[] seed, byte[] context) {
+			this.element = element;
+			this.encoded = encoded;
+			this.seed = seed;
+			this.context = context;
+		}
+
+		public ECPoint getElement() {
+			return element;
+		}
+
+		public byte[] getEncoded() {
+			return encoded.clone();
+		}
+	}
+
+	/**
+	 * @param element Decoded (and validated) server public key or POPRF tweaked key
+	 * @param context
+	 * @return
+	 */
+	public ServerPublicKey serverPublicKey(ECPoint element, byte[] context) {
+		if (element.isInfinity() || !element.isValid())
+			throw new IllegalArgumentException("Invalid server public key");
+
+		if (!element.isNormalized())
+			OperationCounter.count(Operation.FIELD_INVERSION);
+		final var normalized = element.normalize();
+		final var encoded = encodeNormalized(normalized);
+		WNafUtil.configureBasepoint(normalized);
+		WNafUtil.precompute(normalized, WNafUtil.getWindowSize(Fn.getOrder().bitLength(), 8), true);
+		return new ServerPublicKey(normalized, encoded, compositeSeed(encoded, context), context.clone());
+	}
+
+	/**
+	 * Server key pair, decoded and checked once: the secret scalar and the public key handle
+	 * (see <code>ServerPublicKey</code>) for proof generation. Immutable, bound to the suite
+	 * and the mode (context) that created it, see <code>serverKey()</code> and <code>BcKeyManager</code>.
+	 */
+	public static final class ServerKey {
+		private final ECScalar secretScalar;
+		private final ServerPublicKey publicKey;
+
+		private ServerKey(ECScalar secretScalar, ServerPublicKey publicKey) {
+			this.secretScalar = secretScalar;
+			this.publicKey = publicKey;
+		}
+
+		ECScalar getSecretScalar() {
+			return secretScalar;
+		}
+
+		public ServerPublicKey getPublicKey() {
+			return publicKey;
+		}
+	}
+
+	/**
+	 * @param keyPair
+	 * @param context
+	 * @return
+	 * @throws IllegalArgumentException if the public key does not belong to the secret key
+	 */
+	public ServerKey serverKey(OPRFKeyPair keyPair, byte[] context) {
+		final var secretScalar = decodeScalar(keyPair.secretKey());
+		final var publicKey = serverPublicKey(decodeElement(keyPair.publicKey()), context);
+		if (Fn.isZero(secretScalar) || !multiply(getG(), secretScalar).equals(publicKey.getElement()))
+			throw new IllegalArgumentException("Server public key does not match the secret key");
+		return new ServerKey(secretScalar, publicKey);
+	}
+
 	public static final record Proof(byte[] c, byte[] s){
 		public static Proof fromBytes(BcOPRFSuite suite, byte[] input) {
 			final var scalarSize = suite.getScalarSize();
@@ -359,96 +703,141 @@ class BcOPRFSuite {
 		}
 	}
 
+	/**
+	 * Output hash of Finalize / Evaluate over the <code>transcript</code>
+	 * @param transcript
+	 * @return
+	 */
+	protected byte[] finalizeHash(Message transcript) {
+		final var start = Metrics.start();
+		final var output = hash(transcript);
+		Metrics.stop(name, Stage.FINALIZE_HASH, start);
+		return output;
+	}
+
 	protected byte[] hash(byte[] input) {
+		return hash(TranscriptWriter.of(input));
+	}
+
+	protected byte[] hash(Message message) {
 		final var output = new byte[hash.getDigestSize()];
-		hash.reset();
-		hash.update(input, 0, input.length);
-		hash.doFinal(output, 0);
+		transcript.reset().write(message);
+		OperationCounter.hash(hash, transcript.length(), output.length);
+		transcript.doFinal(output, 0);
 		return output;
 	}
 
+	/**
+	 * Seed of ComputeComposites / ComputeCompositesFast:
+	 * Hash(I2OSP(len(Bm), 2) || Bm || I2OSP(len(seedDST), 2) || seedDST)
+	 */
+	private byte[] compositeSeed(byte[] bm, byte[] context) {
+		return hash(w -> w.lengthPrefixed(bm)
+			.u16(Labels.SEED_DST_PREFIX.length + context.length).bytes(Labels.SEED_DST_PREFIX).bytes(context));
+	}
+
+	/**
+	 * Composite scalar d_i of ComputeComposites / ComputeCompositesFast
+	 */
+	private ECScalar compositeScalar(byte[] seed, int i, byte[] ci, byte[] di, byte[] context) {
+		return hashToScalar(w -> w.lengthPrefixed(seed).u16(i).lengthPrefixed(ci).lengthPrefixed(di).bytes(Labels.COMPOSITE), null, context);
+	}
+
+	/**
+	 * Challenge scalar of GenerateProof / VerifyProof
+	 */
+	private ECScalar challenge(ECPoint B, ECPoint M, ECPoint Z, ECPoint t2, ECPoint t3, byte[] context) {
+		final var encoded = encodeElements(B, M, Z, t2, t3);
+		return challenge(encoded[0], encoded[1], encoded[2], encoded[3], encoded[4], context);
+	}
+
+	private ECScalar challenge(byte[] bm, byte[] a0, byte[] a1, byte[] a2, byte[] a3, byte[] context) {
+		final var start = Metrics.start();
+		final var c = hashToScalar(w -> w.lengthPrefixed(bm).lengthPrefixed(a0).lengthPrefixed(a1).lengthPrefixed(a2).lengthPrefixed(a3)
+			.bytes(Labels.CHALLENGE), null, context);
+		Metrics.stop(name, Stage.CHALLENGE_HASH, start);
+		return c;
+	}
+
+	/**
+	 * Encode B, C[0..m] and D[0..m] with one shared normalization
+	 * @return Encoded B || C || D
+	 */
+	private byte[][] encodeComposites(ECPoint B, ECPoint[] C, ECPoint[] D) {
+		final var points = new ECPoint[1 + C.length + D.length];
+		points[0] = B;
+		System.arraycopy(C, 0, points, 1, C.length);
+		System.arraycopy(D, 0, points, 1 + C.length, D.length);
+		return encodeElements(points);
+	}
+
 	protected static final record CompositesResult(ECPoint M, ECPoint Z) {}
 
 	protected CompositesResult computeCompositesFast(ECScalar k, ECPoint B, ECPoint[] C, ECPoint[] D, byte[] context) {
-		final var bm = encodeElement(B);
-		final var seedDST = Arrays.concatenate(Labels.SEED_DST_PREFIX, context);
-		final var seed = hash(Arrays.concatenate(
-			I2OSP(bm.length, 2), bm,
-			I2OSP(seedDST.length, 2), seedDST));
+		final var start = Metrics.start();
+		final var encoded = encodeComposites(B, C, D);
+		final var seed = compositeSeed(encoded[0], context);
 
 		var M = curve.getInfinity();
 		for (var i = 0; i < C.length; i++) {
-			final var Ci = encodeElement(C[i]);
-			final var Di = encodeElement(D[i]);
-			final var di = hashToScalar(Arrays.concatenate(new byte[][]{
-				I2OSP(seed.length, 2), seed,
-				I2OSP(i, 2),
-				I2OSP(Ci.length, 2), Ci,
-				I2OSP(Di.length, 2), Di,
-				Labels.COMPOSITE
-			}), null, context);
+			final var di = compositeScalar(seed, i, encoded[1 + i], encoded[1 + C.length + i], context);
 
-			M = C[i].multiply(di.toBigInteger()).add(M);
+			M = multiply(C[i], di).add(M);
 		}
 
-		final var Z = M.multiply(k.toBigInteger());
+		final var Z = multiply(M, k);
 
+		Metrics.stop(name, Stage.COMPUTE_COMPOSITES, start);
 		return new CompositesResult(M, Z);
 	}
 
 	protected CompositesResult computeComposites(ECPoint B, ECPoint[] C, ECPoint[] D, byte[] context) {
-		final var bm = encodeElement(B);
-		final var seedDST = Arrays.concatenate(Labels.SEED_DST_PREFIX, context);
-		final var seed = hash(Arrays.concatenate(
-			I2OSP(bm.length, 2), bm,
-			I2OSP(seedDST.length, 2), seedDST));
+		final var start = Metrics.start();
+		final var encoded = encodeComposites(B, C, D);
+		final var seed = compositeSeed(encoded[0], context);
+		final var result = computeComposites(seed, encoded, 1, C, D, context);
+		Metrics.stop(name, Stage.COMPUTE_COMPOSITES, start);
+		return result;
+	}
+
+	protected CompositesResult computeComposites(ServerPublicKey B, ECPoint[] C, ECPoint[] D) {
+		final var start = Metrics.start();
+		final var points = new ECPoint[C.length + D.length];
+		System.arraycopy(C, 0, points, 0, C.length);
+		System.arraycopy(D, 0, points, C.length, D.length);
+		final var result = computeComposites(B.seed, encodeElements(points), 0, C, D, B.context);
+		Metrics.stop(name, Stage.COMPUTE_COMPOSITES, start);
+		return result;
+	}
 
+	/**
+	 * @param encoded Encodings of C and D, starting at <code>offset</code>
+	 */
+	private CompositesResult computeComposites(byte[] seed, byte[][] encoded, int offset, ECPoint[] C, ECPoint[] D, byte[] context) {
 		var M = curve.getInfinity();
 		var Z = curve.getInfinity();
 		for (var i = 0; i < C.length; i++) {
-			final var Ci = encodeElement(C[i]);
-			final var Di = encodeElement(D[i]);
-			final var di = hashToScalar(Arrays.concatenate(new byte[][]{
-				I2OSP(seed.length, 2), seed,
-				I2OSP(i, 2),
-				I2OSP(Ci.length, 2), Ci,
-				I2OSP(Di.length, 2), Di,
-				Labels.COMPOSITE
-			}), null, context);
+			final var di = compositeScalar(seed, i, encoded[offset + i], encoded[offset + C.length + i], context);
 
-			M = C[i].multiply(di.toBigInteger()).add(M);
-			Z = D[i].multiply(di.toBigInteger()).add(Z);
+			M = multiply(C[i], di).add(M);
+			Z = multiply(D[i], di).add(Z);
 		}
-
 		return new CompositesResult(M, Z);
 	}
 
 	protected Proof generateProof(ECScalar k, ECPoint A, ECPoint B, ECPoint[] C, ECPoint[] D, ECScalar proofRandomScalar, byte[] context) {
+		final var event = ProofEvent.start();
 		final var MZ = computeCompositesFast(k, B, C, D, context);
 		final var M = MZ.M();
 		final var Z = MZ.Z();
 
 		final var r = Objects.requireNonNullElseGet(proofRandomScalar, () -> randomScalar());
-		final var t2 = A.multiply(r.toBigInteger());
-		final var t3 = M.multiply(r.toBigInteger());
-
-		final var bm = encodeElement(B);
-		final var a0 = encodeElement(M);
-		final var a1 = encodeElement(Z);
-		final var a2 = encodeElement(t2);
-		final var a3 = encodeElement(t3);
-
-		final var challengeTranscript = Arrays.concatenate(new byte[][]{
-			I2OSP(bm.length, 2), bm,
-			I2OSP(a0.length, 2), a0,
-			I2OSP(a1.length, 2), a1,
-			I2OSP(a2.length, 2), a2,
-			I2OSP(a3.length, 2), a3,
-			Labels.CHALLENGE
-		});
-
-		final var c = hashToScalar(challengeTranscript, null, context);
+		final var t2 = multiply(A, r);
+		final var t3 = multiply(M, r);
+
+		final var c = challenge(B, M, Z, t2, t3, context);
 		final var s = Fn.subtract(r, Fn.multiply(c, k));
+		event.finish(name, context, "generate", C.length);
 		return new Proof(encodeScalar(c), encodeScalar(s));
 	}
 
@@ -456,31 +845,158 @@ class BcOPRFSuite {
 		return generateProof(k, A, B, C, D, null, context);
 	}
 
+	/**
+	 * GenerateProof with a known server key, skips encoding B and hashing the composite seed
+	 * @param A
+	 * @param B
+	 * @param C
+	 * @param D
+	 * @param proofRandomScalar
+	 * @return
+	 */
+	protected Proof generateProof(ECPoint A, ServerKey B, ECPoint[] C, ECPoint[] D, ECScalar proofRandomScalar) {
+		final var event = ProofEvent.start();
+		final var start = Metrics.start();
+		final var k = B.secretScalar;
+		final var pk = B.publicKey;
+		final var points = new ECPoint[C.length + D.length];
+		System.arraycopy(C, 0, points, 0, C.length);
+		System.arraycopy(D, 0, points, C.length, D.length);
+		final var encoded = encodeElements(points);
+
+		var M = curve.getInfinity();
+		for (var i = 0; i < C.length; i++) {
+			final var di = compositeScalar(pk.seed, i, encoded[i], encoded[C.length + i], pk.context);
+			M = multiply(C[i], di).add(M);
+		}
+		final var Z = multiply(M, k);
+		Metrics.stop(name, Stage.COMPUTE_COMPOSITES, start);
+
+		final var r = Objects.requireNonNullElseGet(proofRandomScalar, () -> randomScalar());
+		final var t2 = multiply(A, r);
+		final var t3 = multiply(M, r);
+
+		final var transcript = encodeElements(M, Z, t2, t3);
+		final var c = challenge(pk.encoded, transcript[0], transcript[1], transcript[2], transcript[3], pk.context);
+		final var s = Fn.subtract(r, Fn.multiply(c, k));
+		event.finish(name, pk.context, "generate", C.length);
+		return new Proof(encodeScalar(c), encodeScalar(s));
+	}
+
 	protected boolean verifyProof(ECPoint A, ECPoint B, ECPoint[] C, ECPoint[] D, Proof proof, byte[] context) throws Exception {
+		final var event = ProofEvent.start();
 		final var MZ = computeComposites(B, C, D, context);
 		final var M = MZ.M();
 		final var Z = MZ.Z();
 		final var c = decodeScalar(proof.c());
 		final var s = decodeScalar(proof.s());
 
-		final var t2 = A.multiply(s.toBigInteger()).add(B.multiply(c.toBigInteger()));
-		final var t3 = M.multiply(s.toBigInteger()).add(Z.multiply(c.toBigInteger()));
-
-		final var bm = encodeElement(B);
-		final var a0 = encodeElement(M);
-		final var a1 = encodeElement(Z);
-		final var a2 = encodeElement(t2);
-		final var a3 = encodeElement(t3);
-
-		final var challengeTranscript = Arrays.concatenate(new byte[][]{
-			I2OSP(bm.length, 2), bm,
-			I2OSP(a0.length, 2), a0,
-			I2OSP(a1.length, 2), a1,
-			I2OSP(a2.length, 2), a2,
-			I2OSP(a3.length, 2), a3,
-			Labels.CHALLENGE
-		});
-
-		return hashToScalar(challengeTranscript, null, context).equals(c);
+		final var t2 = sumOfTwoMultiplies(A, s, B, c);
+		final var t3 = sumOfTwoMultiplies(M, s, Z, c);
+
+		final var expectedC = challenge(B, M, Z, t2, t3, context);
+		final var valid = expectedC.equals(c);
+		event.finish(name, context, "verify", C.length);
+		return valid;
+	}
+
+	/**
+	 * VerifyProof against a known server key, skips decoding and encoding B and hashing the composite seed
+	 * @param A
+	 * @param B
+	 * @param C
+	 * @param D
+	 * @param proof
+	 * @return
+	 * @throws Exception
+	 */
+	protected boolean verifyProof(ECPoint A, ServerPublicKey B, ECPoint[] C, ECPoint[] D, Proof proof) throws Exception {
+		final var event = ProofEvent.start();
+		final var MZ = computeComposites(B, C, D);
+		final var M = MZ.M();
+		final var Z = MZ.Z();
+		final var c = decodeScalar(proof.c());
+		final var s = decodeScalar(proof.s());
+
+		final var t2 = sumOfTwoMultiplies(A, s, B.element, c);
+		final var t3 = sumOfTwoMultiplies(M, s, Z, c);
+
+		final var encoded = encodeElements(M, Z, t2, t3);
+		final var expectedC = challenge(B.encoded, encoded[0], encoded[1], encoded[2], encoded[3], B.context);
+		final var valid = expectedC.equals(c);
+		event.finish(name, B.context, "verify", C.length);
+		return valid;
+	}
+
+	/**
+	 * Verify many single-element proofs for the same A and B, e.g. the BlindEvaluate results of one server key.
+	 * proofs[j] covers (C[j], D[j]).
+	 *
+	 * The composite seed and the multiplication table of B come with the server key handle, A keeps its
+	 * table across all proofs and all transcript points (M, Z, t2, t3) of the batch share one normalization.
+	 * The challenge covers t2 and t3 (which are not part of the proof), so each proof is still checked on its own
+	 * and the result pinpoints every invalid proof.
+	 * @param A
+	 * @param B
+	 * @param C
+	 * @param D
+	 * @param proofs
+	 * @return Validity of each proof
+	 */
+	protected boolean[] verifyProofs(ECPoint A, ServerPublicKey B, ECPoint[] C, ECPoint[] D, Proof[] proofs) {
+		if (C.length != proofs.length || D.length != proofs.length)
+			throw new IllegalArgumentException("Number of elements and proofs mismatch");
+
+		final var event = ProofEvent.start();
+		final var context = B.context;
+		final var n = proofs.length;
+		final var points = new ECPoint[2 * n];
+		System.arraycopy(C, 0, points, 0, n);
+		System.arraycopy(D, 0, points, n, n);
+		final var encoded = encodeElements(points);
+
+		final var valid = new boolean[n];
+		final var c = new ECScalar[n];
+		final var transcript = new ECPoint[4 * n];
+		final var indices = new int[n];
+		var count = 0;
+		for (int j = 0; j < n; j++) {
+			final ECScalar s;
+			try {
+				c[j] = decodeScalar(proofs[j].c());
+				s = decodeScalar(proofs[j].s());
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+
+			final var start = Metrics.start();
+			final var dj = compositeScalar(B.seed, 0, encoded[j], encoded[n + j], context);
+			final var M = multiply(C[j], dj);
+			final var Z = multiply(D[j], dj);
+			Metrics.stop(name, Stage.COMPUTE_COMPOSITES, start);
+
+			final var t2 = sumOfTwoMultiplies(A, s, B.element, c[j]);
+			final var t3 = sumOfTwoMultiplies(M, s, Z, c[j]);
+			if (M.isInfinity() || Z.isInfinity() || t2.isInfinity() || t3.isInfinity())
+				continue;
+
+			transcript[4 * count] = M;
+			transcript[4 * count + 1] = Z;
+			transcript[4 * count + 2] = t2;
+			transcript[4 * count + 3] = t3;
+			indices[count++] = j;
+		}
+
+		final var transcriptPoints = new ECPoint[4 * count];
+		System.arraycopy(transcript, 0, transcriptPoints, 0, transcriptPoints.length);
+		final var encodedTranscript = encodeElements(transcriptPoints);
+		for (int i = 0; i < count; i++) {
+			final var j = indices[i];
+			final var expectedC = challenge(B.encoded, encodedTranscript[4 * i], encodedTranscript[4 * i + 1],
+				encodedTranscript[4 * i + 2], encodedTranscript[4 * i + 3], context);
+			valid[j] = expectedC.equals(c[j]);
+		}
+		event.finish(name, context, "verifyBatch", n);
+		return valid;
 	}
 }
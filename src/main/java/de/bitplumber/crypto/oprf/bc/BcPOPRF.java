@@ -8,18 +8,23 @@
 package de.bitplumber.crypto.oprf.bc;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.Arrays;
 
+import de.bitplumber.crypto.jfr.BlindEvaluateEvent;
 import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ECScalar;
 import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.Proof;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ServerKey;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ServerPublicKey;
 import de.bitplumber.crypto.oprf.*;
 
 public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, BcPOPRF.BlindEvaluateResult, BcOPRFSuite.Proof> {
 	public static record BlindResult(ECScalar blind, ECPoint blindedElement, ECPoint tweakedKey) {}
 	public static final record BlindEvaluateResult(ECPoint evaluatedElement, byte[] proof) {}
+	public static final record BlindEvaluateBatchResult(ECPoint[] evaluatedElements, byte[] proof) {}
 
     private final BcOPRFSuite suite;
 	private final byte[] context;
@@ -48,6 +53,15 @@ public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, Bc
 		return new BcPOPRF(BcOPRFSuite.createSecp256k1());
 	}
 
+	/**
+	 * @param identifier RFC 9497 suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static BcPOPRF create(String identifier) {
+		return new BcPOPRF(BcOPRFSuite.create(identifier));
+	}
+
 	public OPRFKeyPair randomKeyPair() {
 		return suite.randomKeyPair();
 	}
@@ -76,6 +90,26 @@ public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, Bc
 		return suite.decodeScalar(encoded);
 	}
 
+	/**
+	 * Key rotation holder for servers, see <code>BcKeyManager</code>
+	 * @param keyPair Initial key pair
+	 * @param overlapEpochs Number of previous epochs whose keys stay available after a rotation
+	 * @return
+	 */
+	public BcKeyManager keyManager(OPRFKeyPair keyPair, int overlapEpochs) {
+		return new BcKeyManager(this::serverKey, keyPair, overlapEpochs);
+	}
+
+	/**
+	 * Decode and check a server key pair once, e.g. for caching (see <code>TenantKeyManager</code>)
+	 * @param keyPair
+	 * @return
+	 * @throws IllegalArgumentException if the key pair is invalid
+	 */
+	public ServerKey serverKey(OPRFKeyPair keyPair) {
+		return suite.serverKey(keyPair, context);
+	}
+
 	public Proof decodeProof(byte[] encoded) {
 		return Proof.fromBytes(suite, encoded);
 	}
@@ -84,20 +118,42 @@ public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, Bc
 		return proof.toByteArray();
 	}
 
-	private BlindResult doBlind(byte[] input, byte[] info, byte[] serverPublicKey, ECScalar blind) throws Exception {
+	private ECPoint computeTweakedKey(byte[] serverPublicKey, byte[] info) {
 		final var pkS = suite.decodeElement(serverPublicKey);
-		final var framedInfo = Arrays.concatenate(Labels.INFO, suite.I2OSP(info.length, 2), info);
-		final var m = suite.hashToScalar(framedInfo, null, context);
-		final var T = suite.getG().multiply(m.toBigInteger());
+		final var m = suite.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null, context);
+		final var T = suite.multiply(suite.getG(), m);
 		final var tweakedKey = T.add(pkS);
 		if (!tweakedKey.isValid() || tweakedKey.isInfinity())
 			throw new IllegalArgumentException("InvalidInputError");
+		return tweakedKey;
+	}
+
+	/**
+	 * Tweak and validate a server public key once, for clients that verify many proofs of the same server and info
+	 * @param serverPublicKey
+	 * @param info
+	 * @return
+	 */
+	public ServerPublicKey tweakedKey(byte[] serverPublicKey, byte[] info) {
+		return suite.serverPublicKey(computeTweakedKey(serverPublicKey, info), context);
+	}
+
+	/**
+	 * @param tweakedKey Tweaked key of a <code>BlindResult</code>
+	 * @return
+	 */
+	public ServerPublicKey tweakedKey(ECPoint tweakedKey) {
+		return suite.serverPublicKey(tweakedKey, context);
+	}
+
+	private BlindResult doBlind(byte[] input, byte[] info, byte[] serverPublicKey, ECScalar blind) throws Exception {
+		final var tweakedKey = computeTweakedKey(serverPublicKey, info);
 
 		final var inputElement = suite.hashToGroup(input, null, context);
 		if (!inputElement.isValid() || inputElement.isInfinity())
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var blindedElement = inputElement.multiply(blind.toBigInteger());
+		final var blindedElement = suite.multiply(inputElement, blind);
 		return new BlindResult(blind, blindedElement, tweakedKey);
 	}
 
@@ -110,29 +166,187 @@ public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, Bc
 		return doBlind(input, info, serverPublicKey, suite.randomScalar());
 	}
 
-	private BlindEvaluateResult doBlindEvaluate(byte[] serverSecretKey, ECPoint blindedElement, byte[] info, ECScalar proofRandomScalar) throws Exception {
-		final var skS = suite.decodeScalar(serverSecretKey);
-		final var framedInfo = Arrays.concatenate(Labels.INFO, suite.I2OSP(info.length, 2), info);
-		final var m = suite.hashToScalar(framedInfo, null, context);
+	private BlindEvaluateResult doBlindEvaluate(ECScalar skS, ECPoint blindedElement, byte[] info, ECScalar proofRandomScalar) {
+		final var event = BlindEvaluateEvent.start();
+		final var m = suite.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null, context);
 		final var t = suite.getFn().add(skS, m);
 		if (!suite.getFn().isValid(t))
 			throw new IllegalArgumentException("InverseError");
 
-		final var evaluatedElement = blindedElement.multiply(suite.getFn().inverse(t).toBigInteger());
-		final var tweakedKey = suite.getG().multiply(t.toBigInteger());
+		final var evaluatedElement = suite.multiply(blindedElement, suite.getFn().inverse(t));
+		final var tweakedKey = suite.multiply(suite.getG(), t);
 		final var blindedElements  = new ECPoint[]{ blindedElement };
 		final var evaluatedElements = new ECPoint[]{ evaluatedElement };
 		final var proof = suite.generateProof(t, suite.getG(), tweakedKey, evaluatedElements, blindedElements, proofRandomScalar, context);
+		event.finish(suite.getName(), "POPRF", 1);
 		return new BlindEvaluateResult(evaluatedElement, encodeProof(proof));
 	}
 
 	protected BlindEvaluateResult blindEvaluate(byte[] serverSecretKey, ECPoint blindedElement, byte[] info, byte[] proofRandomScalar) throws Exception {
 		Objects.requireNonNull(proofRandomScalar, "Mandatory parameter 'proofRandomScalar' missing");
-		return doBlindEvaluate(serverSecretKey, blindedElement, info, suite.decodeScalar(proofRandomScalar));
+		return doBlindEvaluate(suite.decodeScalar(serverSecretKey), blindedElement, info, suite.decodeScalar(proofRandomScalar));
 	}
 
 	public BlindEvaluateResult blindEvaluate(byte[] serverSecretKey, ECPoint blindedElement, byte[] info) throws Exception {
-		return doBlindEvaluate(serverSecretKey, blindedElement, info, null);
+		return doBlindEvaluate(suite.decodeScalar(serverSecretKey), blindedElement, info, null);
+	}
+
+	/**
+	 * BlindEvaluate with a decoded server key, see <code>keyManager()</code>
+	 * @param serverKey
+	 * @param blindedElement
+	 * @param info
+	 * @return
+	 */
+	public BlindEvaluateResult blindEvaluate(ServerKey serverKey, ECPoint blindedElement, byte[] info) {
+		return doBlindEvaluate(serverKey.getSecretScalar(), blindedElement, info, null);
+	}
+
+	private BlindEvaluateBatchResult doBlindEvaluateBatch(byte[] serverSecretKey, ECPoint[] blindedElements, byte[] info, ECScalar proofRandomScalar) throws Exception {
+		final var event = BlindEvaluateEvent.start();
+		final var skS = suite.decodeScalar(serverSecretKey);
+		final var m = suite.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null, context);
+		final var t = suite.getFn().add(skS, m);
+		if (!suite.getFn().isValid(t))
+			throw new IllegalArgumentException("InverseError");
+
+		final var evaluatedElements = suite.multiplyBatch(blindedElements, suite.getFn().inverse(t));
+		final var tweakedKey = suite.multiply(suite.getG(), t);
+		final var proof = suite.generateProof(t, suite.getG(), tweakedKey, evaluatedElements, blindedElements, proofRandomScalar, context);
+		event.finish(suite.getName(), "POPRF", evaluatedElements.length);
+		return new BlindEvaluateBatchResult(evaluatedElements, encodeProof(proof));
+	}
+
+	protected BlindEvaluateBatchResult blindEvaluateBatch(byte[] serverSecretKey, ECPoint[] blindedElements, byte[] info, byte[] proofRandomScalar) throws Exception {
+		Objects.requireNonNull(proofRandomScalar, "Mandatory parameter 'proofRandomScalar' missing");
+		return doBlindEvaluateBatch(serverSecretKey, blindedElements, info, suite.decodeScalar(proofRandomScalar));
+	}
+
+	/**
+	 * RFC 9497 - 3.3.3 BlindEvaluateBatch: evaluate a batch of blinded elements with
+	 * a single proof covering all of them
+	 * @param serverSecretKey
+	 * @param blindedElements
+	 * @param info
+	 * @return
+	 * @throws Exception
+	 */
+	public BlindEvaluateBatchResult blindEvaluateBatch(byte[] serverSecretKey, ECPoint[] blindedElements, byte[] info) throws Exception {
+		return doBlindEvaluateBatch(serverSecretKey, blindedElements, info, null);
+	}
+
+	/**
+	 * Evaluate one blinded element under several keys (e.g. the old and the new key during
+	 * key rotation), equivalent to calling <code>blindEvaluate()</code> for each key, but the
+	 * precomputation for the blinded element, the info hash and the inversion of the tweaked
+	 * keys are shared.
+	 * @param serverKeys
+	 * @param blindedElement
+	 * @param info
+	 * @return One result (with its own proof) per key, in the order of the keys
+	 * @throws Exception
+	 */
+	public BlindEvaluateResult[] blindEvaluateMulti(List<OPRFKeyPair> serverKeys, ECPoint blindedElement, byte[] info) throws Exception {
+		final var skS = new ECScalar[serverKeys.size()];
+		for (int i = 0; i < skS.length; i++)
+			skS[i] = suite.decodeScalar(serverKeys.get(i).secretKey());
+		return doBlindEvaluateMulti(skS, blindedElement, info);
+	}
+
+	/**
+	 * Evaluate one blinded element under all live keys of a key manager snapshot
+	 * @param snapshot
+	 * @param blindedElement
+	 * @param info
+	 * @return One result (with its own proof) per key, in the order of <code>snapshot.keys()</code>
+	 */
+	public BlindEvaluateResult[] blindEvaluateMulti(BcKeyManager.Snapshot snapshot, ECPoint blindedElement, byte[] info) {
+		final var skS = new ECScalar[snapshot.keys().size()];
+		for (int i = 0; i < skS.length; i++)
+			skS[i] = snapshot.keys().get(i).getSecretScalar();
+		return doBlindEvaluateMulti(skS, blindedElement, info);
+	}
+
+	private BlindEvaluateResult[] doBlindEvaluateMulti(ECScalar[] skS, ECPoint blindedElement, byte[] info) {
+		final var event = BlindEvaluateEvent.start();
+		final var m = suite.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null, context);
+		final var t = new ECScalar[skS.length];
+		for (int i = 0; i < t.length; i++) {
+			t[i] = suite.getFn().add(skS[i], m);
+			if (!suite.getFn().isValid(t[i]))
+				throw new IllegalArgumentException("InverseError");
+		}
+		final var evaluatedElements = suite.multiplyAll(blindedElement, suite.getFn().inverseAll(t));
+
+		final var blindedElements = new ECPoint[]{ blindedElement };
+		final var results = new BlindEvaluateResult[t.length];
+		for (int i = 0; i < t.length; i++) {
+			final var tweakedKey = suite.multiply(suite.getG(), t[i]);
+			final var proof = suite.generateProof(t[i], suite.getG(), tweakedKey, new ECPoint[]{ evaluatedElements[i] }, blindedElements, null, context);
+			results[i] = new BlindEvaluateResult(evaluatedElements[i], encodeProof(proof));
+		}
+		event.finish(suite.getName(), "POPRF", results.length);
+		return results;
+	}
+
+	/**
+	 * RFC 9497 - 3.3.3 FinalizeBatch: verify the batch proof and finalize all inputs
+	 * @param inputs
+	 * @param blinds
+	 * @param evaluatedElements
+	 * @param blindedElements
+	 * @param proof
+	 * @param info
+	 * @param tweakedKey
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[][] finalizeBatch(byte[][] inputs, ECScalar[] blinds, ECPoint[] evaluatedElements, ECPoint[] blindedElements, Proof proof, byte[] info, ECPoint tweakedKey) throws Exception {
+		if (!suite.verifyProof(suite.getG(), tweakedKey, evaluatedElements, blindedElements, proof, context))
+			throw new Exception("Failed to verify proof");
+
+		return unblindBatch(inputs, blinds, evaluatedElements, info);
+	}
+
+	public byte[][] finalizeBatch(byte[][] inputs, ECScalar[] blinds, ECPoint[] evaluatedElements, ECPoint[] blindedElements, Proof proof, byte[] info, ServerPublicKey tweakedKey) throws Exception {
+		if (!suite.verifyProof(suite.getG(), tweakedKey, evaluatedElements, blindedElements, proof))
+			throw new Exception("Failed to verify proof");
+
+		return unblindBatch(inputs, blinds, evaluatedElements, info);
+	}
+
+	private byte[][] unblindBatch(byte[][] inputs, ECScalar[] blinds, ECPoint[] evaluatedElements, byte[] info) {
+		final var invBlinds = suite.getFn().inverseAll(blinds);
+		final var outputs = new byte[inputs.length][];
+		for (var i = 0; i < inputs.length; i++) {
+			final var n = suite.multiply(evaluatedElements[i], invBlinds[i]);
+			final var unblindedElement = suite.encodeElement(n);
+			final var input = inputs[i];
+			outputs[i] = suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(info).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
+		}
+		return outputs;
+	}
+
+	/**
+	 * Verify the proofs of many BlindEvaluate results for the same tweaked key (server key and info) at once,
+	 * see <code>BcOPRFSuite.verifyProofs()</code>
+	 * @param tweakedKey
+	 * @param blindedElements
+	 * @param results
+	 * @return Validity of each proof, in the same order
+	 */
+	public boolean[] verifyProofsBatch(ECPoint tweakedKey, ECPoint[] blindedElements, BlindEvaluateResult[] results) {
+		return verifyProofsBatch(tweakedKey(tweakedKey), blindedElements, results);
+	}
+
+	public boolean[] verifyProofsBatch(ServerPublicKey tweakedKey, ECPoint[] blindedElements, BlindEvaluateResult[] results) {
+		final var evaluatedElements = new ECPoint[results.length];
+		final var proofs = new Proof[results.length];
+		for (int i = 0; i < results.length; i++) {
+			evaluatedElements[i] = results[i].evaluatedElement();
+			proofs[i] = Proof.fromBytes(suite, results[i].proof());
+		}
+		return suite.verifyProofs(suite.getG(), tweakedKey, evaluatedElements, blindedElements, proofs);
 	}
 
 	public byte[] finalize(byte[] input, ECScalar blind, ECPoint evaluatedElement, ECPoint blindedElement, Proof proof, byte[] info, ECPoint tweakedKey) throws Exception {
@@ -141,15 +355,35 @@ public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, Bc
 		if (!suite.verifyProof(suite.getG(), tweakedKey, evaluatedElements, blindedElements, proof, context))
 			throw new Exception("Failed to verify proof");
 
+		return unblind(input, blind, evaluatedElement, info);
+	}
+
+	/**
+	 * Finalize against a known tweaked key, see <code>tweakedKey()</code>
+	 * @param input
+	 * @param blind
+	 * @param evaluatedElement
+	 * @param blindedElement
+	 * @param proof
+	 * @param info
+	 * @param tweakedKey
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[] finalize(byte[] input, ECScalar blind, ECPoint evaluatedElement, ECPoint blindedElement, Proof proof, byte[] info, ServerPublicKey tweakedKey) throws Exception {
+		final var blindedElements = new ECPoint[]{ blindedElement };
+		final var evaluatedElements = new ECPoint[]{ evaluatedElement };
+		if (!suite.verifyProof(suite.getG(), tweakedKey, evaluatedElements, blindedElements, proof))
+			throw new Exception("Failed to verify proof");
+
+		return unblind(input, blind, evaluatedElement, info);
+	}
+
+	private byte[] unblind(byte[] input, ECScalar blind, ECPoint evaluatedElement, byte[] info) {
 		final var invBlind = suite.invertScalar(blind);
-		final var n = evaluatedElement.multiply(invBlind.toBigInteger());
+		final var n = suite.multiply(evaluatedElement, invBlind);
 		final var unblindedElement = suite.encodeElement(n);
-		return suite.hash(Arrays.concatenate(new byte[][]{
-			suite.I2OSP(input.length, 2), input,
-			suite.I2OSP(info.length, 2), info,
-			suite.I2OSP(unblindedElement.length, 2), unblindedElement,
-			Labels.FINALIZE
-		}));
+		return suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(info).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
 	}
 
 	public byte[] evaluate(byte[] serverSecretKey, byte[] input, byte[] info) throws Exception {
@@ -158,20 +392,14 @@ public class BcPOPRF implements POPRF<ECScalar, ECPoint, BcPOPRF.BlindResult, Bc
 			throw new IllegalArgumentException("InvalidInputError");
 
 		final var skS = suite.decodeScalar(serverSecretKey);
-		final var framedInfo = Arrays.concatenate(Labels.INFO, suite.I2OSP(info.length, 2), info);
-		final var m = suite.hashToScalar(framedInfo, null, context);
+		final var m = suite.hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null, context);
 		final var t = suite.getFn().add(skS, m);
 		if (!suite.getFn().isValid(t))
 			throw new IllegalArgumentException("InverseError");
 
-		final var evaluatedElement = inputElement.multiply(suite.invertScalar(t).toBigInteger());
+		final var evaluatedElement = suite.multiply(inputElement, suite.invertScalar(t));
 		final var issuedElement = suite.encodeElement(evaluatedElement);
 
-		return suite.hash(Arrays.concatenate(new byte[][]{
-			suite.I2OSP(input.length, 2), input,
-			suite.I2OSP(info.length, 2), info,
-			suite.I2OSP(issuedElement.length, 2), issuedElement,
-			Labels.FINALIZE
-		}));
+		return suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(info).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
 	}
 }
@@ -8,18 +8,23 @@
 package de.bitplumber.crypto.oprf.bc;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.Arrays;
 
+import de.bitplumber.crypto.jfr.BlindEvaluateEvent;
 import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ECScalar;
 import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.Proof;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ServerKey;
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ServerPublicKey;
 import de.bitplumber.crypto.oprf.*;
 
 public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, BcVOPRF.BlindEvaluateResult, BcOPRFSuite.Proof> {
 	public static record BlindResult(ECScalar blind, ECPoint blindedElement) {}
 	public static final record BlindEvaluateResult(ECPoint evaluatedElement, byte[] proof) {}
+	public static final record BlindEvaluateBatchResult(ECPoint[] evaluatedElements, byte[] proof) {}
 
     private final BcOPRFSuite suite;
 	private final byte[] context;
@@ -48,6 +53,15 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 		return new BcVOPRF(BcOPRFSuite.createSecp256k1());
 	}
 
+	/**
+	 * @param identifier RFC 9497 suite identifier, e.g. <code>P256-SHA256</code>
+	 * @return
+	 * @throws IllegalArgumentException if the suite is not supported
+	 */
+	public static BcVOPRF create(String identifier) {
+		return new BcVOPRF(BcOPRFSuite.create(identifier));
+	}
+
 	public OPRFKeyPair randomKeyPair() {
 		return suite.randomKeyPair();
 	}
@@ -76,6 +90,26 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 		return suite.decodeScalar(encoded);
 	}
 
+	/**
+	 * Key rotation holder for servers, see <code>BcKeyManager</code>
+	 * @param keyPair Initial key pair
+	 * @param overlapEpochs Number of previous epochs whose keys stay available after a rotation
+	 * @return
+	 */
+	public BcKeyManager keyManager(OPRFKeyPair keyPair, int overlapEpochs) {
+		return new BcKeyManager(this::serverKey, keyPair, overlapEpochs);
+	}
+
+	/**
+	 * Decode and check a server key pair once, e.g. for caching (see <code>TenantKeyManager</code>)
+	 * @param keyPair
+	 * @return
+	 * @throws IllegalArgumentException if the key pair is invalid
+	 */
+	public ServerKey serverKey(OPRFKeyPair keyPair) {
+		return suite.serverKey(keyPair, context);
+	}
+
 	public Proof decodeProof(byte[] encoded) {
 		return Proof.fromBytes(suite, encoded);
 	}
@@ -84,12 +118,21 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 		return proof.toByteArray();
 	}
 
+	/**
+	 * Decode and validate a server public key once, for clients that verify many proofs of the same server
+	 * @param serverPublicKey
+	 * @return
+	 */
+	public ServerPublicKey serverPublicKey(byte[] serverPublicKey) {
+		return suite.serverPublicKey(suite.decodeElement(serverPublicKey), context);
+	}
+
 	private BlindResult doBlind(byte[] input, ECScalar blind) throws Exception {
 		final var inputElement = suite.hashToGroup(input, null, context);
 		if (inputElement.isInfinity() || !inputElement.isValid())
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var blindedElement = inputElement.multiply(blind.toBigInteger());
+		final var blindedElement = suite.multiply(inputElement, blind);
 		return new BlindResult(blind, blindedElement);
 	}
 
@@ -103,12 +146,14 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 	}
 
 	private BlindEvaluateResult doBlindEvaluate(byte[] serverSecretKey, byte[] serverPublicKey, ECPoint blindedElement, ECScalar proofRandomScalar) throws Exception {
+		final var event = BlindEvaluateEvent.start();
 		final var skS = suite.decodeScalar(serverSecretKey);
 		final var pkS = suite.decodeElement(serverPublicKey);
-		final var evaluatedElement = blindedElement.multiply(skS.toBigInteger());
+		final var evaluatedElement = suite.multiply(blindedElement, skS);
 		final var blindedElements  = new ECPoint[]{ blindedElement };
 		final var evaluatedElements = new ECPoint[]{ evaluatedElement };
 		final var proof = suite.generateProof(skS, suite.getG(), pkS, blindedElements, evaluatedElements, proofRandomScalar, context);
+		event.finish(suite.getName(), "VOPRF", 1);
 		return new BlindEvaluateResult(evaluatedElement, encodeProof(proof));
 	}
 
@@ -121,6 +166,171 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 		return doBlindEvaluate(serverSecretKey, serverPublicKey, blindedElement, null);
 	}
 
+	private BlindEvaluateResult doBlindEvaluate(ServerKey serverKey, ECPoint blindedElement, ECScalar proofRandomScalar) {
+		final var event = BlindEvaluateEvent.start();
+		final var evaluatedElement = suite.multiply(blindedElement, serverKey.getSecretScalar());
+		final var blindedElements  = new ECPoint[]{ blindedElement };
+		final var evaluatedElements = new ECPoint[]{ evaluatedElement };
+		final var proof = suite.generateProof(suite.getG(), serverKey, blindedElements, evaluatedElements, proofRandomScalar);
+		event.finish(suite.getName(), "VOPRF", 1);
+		return new BlindEvaluateResult(evaluatedElement, encodeProof(proof));
+	}
+
+	protected BlindEvaluateResult blindEvaluate(ServerKey serverKey, ECPoint blindedElement, byte[] proofRandomScalar) {
+		Objects.requireNonNull(proofRandomScalar, "Mandatory parameter 'proofRandomScalar' missing");
+		return doBlindEvaluate(serverKey, blindedElement, suite.decodeScalar(proofRandomScalar));
+	}
+
+	/**
+	 * BlindEvaluate with a decoded server key, see <code>keyManager()</code>: skips decoding
+	 * both keys and encoding the public key for the proof
+	 * @param serverKey
+	 * @param blindedElement
+	 * @return
+	 */
+	public BlindEvaluateResult blindEvaluate(ServerKey serverKey, ECPoint blindedElement) {
+		return doBlindEvaluate(serverKey, blindedElement, null);
+	}
+
+	private BlindEvaluateBatchResult doBlindEvaluateBatch(byte[] serverSecretKey, byte[] serverPublicKey, ECPoint[] blindedElements, ECScalar proofRandomScalar) throws Exception {
+		final var event = BlindEvaluateEvent.start();
+		final var skS = suite.decodeScalar(serverSecretKey);
+		final var pkS = suite.decodeElement(serverPublicKey);
+		final var evaluatedElements = suite.multiplyBatch(blindedElements, skS);
+		final var proof = suite.generateProof(skS, suite.getG(), pkS, blindedElements, evaluatedElements, proofRandomScalar, context);
+		event.finish(suite.getName(), "VOPRF", evaluatedElements.length);
+		return new BlindEvaluateBatchResult(evaluatedElements, encodeProof(proof));
+	}
+
+	protected BlindEvaluateBatchResult blindEvaluateBatch(byte[] serverSecretKey, byte[] serverPublicKey, ECPoint[] blindedElements, byte[] proofRandomScalar) throws Exception {
+		Objects.requireNonNull(proofRandomScalar, "Mandatory parameter 'proofRandomScalar' missing");
+		return doBlindEvaluateBatch(serverSecretKey, serverPublicKey, blindedElements, suite.decodeScalar(proofRandomScalar));
+	}
+
+	/**
+	 * RFC 9497 - 3.3.2 BlindEvaluateBatch: evaluate a batch of blinded elements with
+	 * a single proof covering all of them
+	 * @param serverSecretKey
+	 * @param serverPublicKey
+	 * @param blindedElements
+	 * @return
+	 * @throws Exception
+	 */
+	public BlindEvaluateBatchResult blindEvaluateBatch(byte[] serverSecretKey, byte[] serverPublicKey, ECPoint[] blindedElements) throws Exception {
+		return doBlindEvaluateBatch(serverSecretKey, serverPublicKey, blindedElements, null);
+	}
+
+	/**
+	 * Evaluate one blinded element under several keys (e.g. the old and the new key during
+	 * key rotation), equivalent to calling <code>blindEvaluate()</code> for each key, but the
+	 * precomputation for the blinded element is shared (see <code>BcOPRFSuite.multiplyAll()</code>).
+	 * @param serverKeys
+	 * @param blindedElement
+	 * @return One result (with its own proof) per key, in the order of the keys
+	 * @throws Exception
+	 */
+	public BlindEvaluateResult[] blindEvaluateMulti(List<OPRFKeyPair> serverKeys, ECPoint blindedElement) throws Exception {
+		final var event = BlindEvaluateEvent.start();
+		final var skS = new ECScalar[serverKeys.size()];
+		for (int i = 0; i < skS.length; i++)
+			skS[i] = suite.decodeScalar(serverKeys.get(i).secretKey());
+		final var evaluatedElements = suite.multiplyAll(blindedElement, skS);
+
+		final var blindedElements = new ECPoint[]{ blindedElement };
+		final var results = new BlindEvaluateResult[skS.length];
+		for (int i = 0; i < skS.length; i++) {
+			final var pkS = suite.decodeElement(serverKeys.get(i).publicKey());
+			final var proof = suite.generateProof(skS[i], suite.getG(), pkS, blindedElements, new ECPoint[]{ evaluatedElements[i] }, null, context);
+			results[i] = new BlindEvaluateResult(evaluatedElements[i], encodeProof(proof));
+		}
+		event.finish(suite.getName(), "VOPRF", results.length);
+		return results;
+	}
+
+	/**
+	 * Evaluate one blinded element under all live keys of a key manager snapshot
+	 * @param snapshot
+	 * @param blindedElement
+	 * @return One result (with its own proof) per key, in the order of <code>snapshot.keys()</code>
+	 */
+	public BlindEvaluateResult[] blindEvaluateMulti(BcKeyManager.Snapshot snapshot, ECPoint blindedElement) {
+		final var event = BlindEvaluateEvent.start();
+		final var keys = snapshot.keys();
+		final var skS = new ECScalar[keys.size()];
+		for (int i = 0; i < skS.length; i++)
+			skS[i] = keys.get(i).getSecretScalar();
+		final var evaluatedElements = suite.multiplyAll(blindedElement, skS);
+
+		final var blindedElements = new ECPoint[]{ blindedElement };
+		final var results = new BlindEvaluateResult[skS.length];
+		for (int i = 0; i < skS.length; i++) {
+			final var proof = suite.generateProof(suite.getG(), keys.get(i), blindedElements, new ECPoint[]{ evaluatedElements[i] }, null);
+			results[i] = new BlindEvaluateResult(evaluatedElements[i], encodeProof(proof));
+		}
+		event.finish(suite.getName(), "VOPRF", results.length);
+		return results;
+	}
+
+	/**
+	 * RFC 9497 - 3.3.2 FinalizeBatch: verify the batch proof and finalize all inputs
+	 * @param inputs
+	 * @param blinds
+	 * @param evaluatedElements
+	 * @param blindedElements
+	 * @param serverPublicKey
+	 * @param proof
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[][] finalizeBatch(byte[][] inputs, ECScalar[] blinds, ECPoint[] evaluatedElements, ECPoint[] blindedElements, byte[] serverPublicKey, Proof proof) throws Exception {
+		final var pkS = suite.decodeElement(serverPublicKey);
+		if (!suite.verifyProof(suite.getG(), pkS, blindedElements, evaluatedElements, proof, context))
+			throw new Exception("Failed to verify proof");
+
+		return unblindBatch(inputs, blinds, evaluatedElements);
+	}
+
+	public byte[][] finalizeBatch(byte[][] inputs, ECScalar[] blinds, ECPoint[] evaluatedElements, ECPoint[] blindedElements, ServerPublicKey serverPublicKey, Proof proof) throws Exception {
+		if (!suite.verifyProof(suite.getG(), serverPublicKey, blindedElements, evaluatedElements, proof))
+			throw new Exception("Failed to verify proof");
+
+		return unblindBatch(inputs, blinds, evaluatedElements);
+	}
+
+	private byte[][] unblindBatch(byte[][] inputs, ECScalar[] blinds, ECPoint[] evaluatedElements) {
+		final var invBlinds = suite.getFn().inverseAll(blinds);
+		final var outputs = new byte[inputs.length][];
+		for (var i = 0; i < inputs.length; i++) {
+			final var n = suite.multiply(evaluatedElements[i], invBlinds[i]);
+			final var unblindedElement = suite.encodeElement(n);
+			final var input = inputs[i];
+			outputs[i] = suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
+		}
+		return outputs;
+	}
+
+	/**
+	 * Verify the proofs of many BlindEvaluate results of the same server key at once,
+	 * see <code>BcOPRFSuite.verifyProofs()</code>
+	 * @param serverPublicKey
+	 * @param blindedElements
+	 * @param results
+	 * @return Validity of each proof, in the same order
+	 */
+	public boolean[] verifyProofsBatch(byte[] serverPublicKey, ECPoint[] blindedElements, BlindEvaluateResult[] results) {
+		return verifyProofsBatch(serverPublicKey(serverPublicKey), blindedElements, results);
+	}
+
+	public boolean[] verifyProofsBatch(ServerPublicKey serverPublicKey, ECPoint[] blindedElements, BlindEvaluateResult[] results) {
+		final var evaluatedElements = new ECPoint[results.length];
+		final var proofs = new Proof[results.length];
+		for (int i = 0; i < results.length; i++) {
+			evaluatedElements[i] = results[i].evaluatedElement();
+			proofs[i] = Proof.fromBytes(suite, results[i].proof());
+		}
+		return suite.verifyProofs(suite.getG(), serverPublicKey, blindedElements, evaluatedElements, proofs);
+	}
+
 	public byte[] finalize(byte[] input, ECScalar blind, ECPoint evaluatedElement, ECPoint blindedElement, byte[] serverPublicKey, Proof proof) throws Exception {
 		final var pkS = suite.decodeElement(serverPublicKey);
 		final var blindedElements = new ECPoint[]{ blindedElement };
@@ -128,14 +338,34 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 		if (!suite.verifyProof(suite.getG(), pkS, blindedElements, evaluatedElements, proof, context))
 			throw new Exception("Failed to verify proof");
 
+		return unblind(input, blind, evaluatedElement);
+	}
+
+	/**
+	 * Finalize against a known server key, see <code>serverPublicKey()</code>
+	 * @param input
+	 * @param blind
+	 * @param evaluatedElement
+	 * @param blindedElement
+	 * @param serverPublicKey
+	 * @param proof
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[] finalize(byte[] input, ECScalar blind, ECPoint evaluatedElement, ECPoint blindedElement, ServerPublicKey serverPublicKey, Proof proof) throws Exception {
+		final var blindedElements = new ECPoint[]{ blindedElement };
+		final var evaluatedElements = new ECPoint[]{ evaluatedElement };
+		if (!suite.verifyProof(suite.getG(), serverPublicKey, blindedElements, evaluatedElements, proof))
+			throw new Exception("Failed to verify proof");
+
+		return unblind(input, blind, evaluatedElement);
+	}
+
+	private byte[] unblind(byte[] input, ECScalar blind, ECPoint evaluatedElement) {
 		final var invBlind = suite.invertScalar(blind);
-		final var n = evaluatedElement.multiply(invBlind.toBigInteger());
+		final var n = suite.multiply(evaluatedElement, invBlind);
 		final var unblindedElement = suite.encodeElement(n);
-		return suite.hash(Arrays.concatenate(new byte[][]{
-			suite.I2OSP(input.length, 2), input,
-			suite.I2OSP(unblindedElement.length, 2), unblindedElement,
-			Labels.FINALIZE
-		}));
+		return suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
 	}
 
 	public byte[] evaluate(byte[] serverSecretKey, byte[] input) throws Exception {
@@ -144,14 +374,10 @@ public class BcVOPRF implements VOPRF<ECScalar, ECPoint, BcVOPRF.BlindResult, Bc
 			throw new IllegalArgumentException("InvalidInputError");
 
 		final var skS = suite.decodeScalar(serverSecretKey);
-		final var evaluatedElement = inputElement.multiply(skS.toBigInteger());
+		final var evaluatedElement = suite.multiply(inputElement, skS);
 		final var issuedElement = suite.encodeElement(evaluatedElement);
 
-		return suite.hash(Arrays.concatenate(new byte[][]{
-			suite.I2OSP(input.length, 2), input,
-			suite.I2OSP(issuedElement.length, 2), issuedElement,
-			Labels.FINALIZE
-		}));
+		return suite.finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
 	}
 
 }
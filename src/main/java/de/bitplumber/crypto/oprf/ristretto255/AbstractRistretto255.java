@@ -8,6 +8,7 @@
 package de.bitplumber.crypto.oprf.ristretto255;
 
 import java.math.BigInteger;
+import java.util.List;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ObjectUtils;
@@ -15,12 +16,22 @@ import org.apache.commons.lang3.RandomUtils;
 import org.bouncycastle.crypto.digests.SHA512Digest;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.Memoable;
 
 import com.weavechain.curve25519.CompressedRistretto;
 import com.weavechain.curve25519.RistrettoElement;
 import com.weavechain.curve25519.Scalar;
 
+import de.bitplumber.crypto.ec.Ristretto255Batch;
+import de.bitplumber.crypto.ec.Ristretto255Multiplier;
 import de.bitplumber.crypto.h2c.BcExpandMessage;
+import de.bitplumber.crypto.h2c.TranscriptWriter;
+import de.bitplumber.crypto.h2c.TranscriptWriter.Message;
+import de.bitplumber.crypto.jfr.ProofEvent;
+import de.bitplumber.crypto.metrics.Metrics;
+import de.bitplumber.crypto.metrics.Operation;
+import de.bitplumber.crypto.metrics.OperationCounter;
+import de.bitplumber.crypto.metrics.Stage;
 import de.bitplumber.crypto.oprf.OPRFKeyPair;
 import de.bitplumber.crypto.oprf.Labels;
 
@@ -31,13 +42,43 @@ public abstract class AbstractRistretto255 {
 	public static final int ELEMENT_SIZE = 32;
 	public static final int SCALAR_SIZE = 32;
 
+	// 1/2 mod L, composites and proof points are computed halved, see encodeDoubledElements()
+	protected static final Scalar HALF = Scalar.fromBytesModOrder(Arrays.reverse(BigIntegers.asUnsignedByteArray(SCALAR_SIZE,
+		BigInteger.ONE.shiftLeft(252).add(new BigInteger("27742317777372353535851937790883648493")).add(BigInteger.ONE).shiftRight(1))));
+
+	// SHA-512 state after absorbing Z_pad, shared by all expand_message_xmd calls
+	private static final Memoable SHA512_ZPAD = BcExpandMessage.zPadState(new SHA512Digest());
+
 	protected abstract byte[] context();
 
 	public byte[] encodeElement(RistrettoElement element) {
+		OperationCounter.count(Operation.SQUARE_ROOT);	// Inverse square root
 		return element.compress().toByteArray();
 	}
 
+	public byte[][] encodeElements(RistrettoElement[] elements) {
+		final var encoded = new byte[elements.length][];
+		for (int i = 0; i < elements.length; i++)
+			encoded[i] = encodeElement(elements[i]);
+		return encoded;
+	}
+
+	/**
+	 * Encode <code>2 * halves[i]</code> for all elements, with a single shared field inversion
+	 * instead of one inverse square root per element (see <code>Ristretto255Batch</code>)
+	 * @param halves
+	 * @return Encoded doubled elements, in the same order
+	 */
+	protected byte[][] encodeDoubledElements(RistrettoElement... halves) {
+		if (Ristretto255Batch.isAvailable())
+			OperationCounter.count(Operation.FIELD_INVERSION);
+		else
+			OperationCounter.count(Operation.SQUARE_ROOT, halves.length);
+		return Ristretto255Batch.doubleAndCompress(halves);
+	}
+
 	public RistrettoElement decodeElement(byte[] input) throws Exception {
+		OperationCounter.count(Operation.SQUARE_ROOT);	// Inverse square root
 		return new CompressedRistretto(input).decompress();
 	}
 
@@ -51,13 +92,112 @@ public abstract class AbstractRistretto255 {
 
 	protected RistrettoElement hashToGroup(byte[] hash, byte[] customDST) {
 		final var dst = ObjectUtils.defaultIfNull(customDST, Arrays.concatenate(Labels.HASH_TO_GROUP, context()));
-		final var uniformBytes = BcExpandMessage.expandMessageXMD(new SHA512Digest(), hash, dst, HASH_OUTPUT_SIZE);
-		return RistrettoElement.fromUniformBytes(uniformBytes);
+		final var start = Metrics.start();
+		final var uniformBytes = BcExpandMessage.expandMessageXMD(new SHA512Digest(), SHA512_ZPAD, TranscriptWriter.of(hash), dst, HASH_OUTPUT_SIZE);
+		final var result = RistrettoElement.fromUniformBytes(uniformBytes);
+		OperationCounter.count(Operation.SQUARE_ROOT, 2);	// Two Elligator maps
+		Metrics.stop(SUITE_ID, Stage.HASH_TO_GROUP, start);
+		return result;
+	}
+
+	/**
+	 * Hash a batch of inputs to the group, sharing one digest instance
+	 * @param inputs
+	 * @param customDST
+	 * @return
+	 */
+	protected RistrettoElement[] hashToGroupBatch(List<byte[]> inputs, byte[] customDST) {
+		final var dst = ObjectUtils.defaultIfNull(customDST, Arrays.concatenate(Labels.HASH_TO_GROUP, context()));
+		final var md = new SHA512Digest();
+		final var result = new RistrettoElement[inputs.size()];
+		for (int i = 0; i < result.length; i++) {
+			final var uniformBytes = BcExpandMessage.expandMessageXMD(md, SHA512_ZPAD, TranscriptWriter.of(inputs.get(i)), dst, HASH_OUTPUT_SIZE);
+			result[i] = RistrettoElement.fromUniformBytes(uniformBytes);
+		}
+		OperationCounter.count(Operation.SQUARE_ROOT, 2L * result.length);
+		return result;
+	}
+
+	/**
+	 * Hash all inputs to the group and encode <code>k * H(input)</code>, the evaluated
+	 * elements of a bulk <code>evaluate()</code>, with one shared field inversion
+	 * @param inputs
+	 * @param k
+	 * @return
+	 */
+	protected byte[][] evaluateElements(List<byte[]> inputs, Scalar k) {
+		final var inputElements = hashToGroupBatch(inputs, null);
+		final var halfK = k.multiply(HALF);
+		final var halves = new RistrettoElement[inputElements.length];
+		for (int i = 0; i < inputElements.length; i++) {
+			if (RistrettoElement.IDENTITY.ctEquals(inputElements[i]) == 1)
+				throw new IllegalArgumentException("InvalidInputError");
+			halves[i] = multiply(inputElements[i], halfK);
+		}
+		return encodeDoubledElements(halves);
+	}
+
+	protected RistrettoElement multiply(RistrettoElement p, Scalar k) {
+		OperationCounter.count(Operation.POINT_MULTIPLY);
+		final var start = Metrics.start();
+		final var result = p.multiply(k);
+		Metrics.stop(SUITE_ID, Stage.MULTIPLY, start);
+		return result;
+	}
+
+	/**
+	 * a * P + b * Q with interleaved multiplication (see <code>Ristretto255Multiplier</code>),
+	 * using the precomputed basepoint table if P is the basepoint.
+	 * <strong>Not constant-time</strong>, only to be used with public scalars (proof verification).
+	 * @param P
+	 * @param a
+	 * @param Q
+	 * @param b
+	 * @return
+	 */
+	protected RistrettoElement sumOfTwoMultiplies(RistrettoElement P, Scalar a, RistrettoElement Q, Scalar b) {
+		OperationCounter.count(Operation.DOUBLE_POINT_MULTIPLY);
+		final var start = Metrics.start();
+		final var result = RistrettoElement.BASEPOINT.equals(P)
+			? Ristretto255Multiplier.sumOfTwoMultipliesBasepoint(a, Q, b)
+			: Ristretto255Multiplier.sumOfTwoMultiplies(P, a, Q, b);
+		Metrics.stop(SUITE_ID, Stage.MULTIPLY, start);
+		return result;
+	}
+
+	/**
+	 * a * P + b * Q with precomputed tables
+	 * @param P
+	 * @param a
+	 * @param Q
+	 * @param b
+	 * @return
+	 */
+	protected RistrettoElement sumOfTwoMultiplies(Ristretto255Multiplier.Table P, Scalar a, Ristretto255Multiplier.Table Q, Scalar b) {
+		OperationCounter.count(Operation.DOUBLE_POINT_MULTIPLY);
+		final var start = Metrics.start();
+		final var result = Ristretto255Multiplier.sumOfTwoMultiplies(P, a, Q, b);
+		Metrics.stop(SUITE_ID, Stage.MULTIPLY, start);
+		return result;
+	}
+
+	/**
+	 * Scalar inversion
+	 * @param k
+	 * @return
+	 */
+	protected Scalar invert(Scalar k) {
+		OperationCounter.count(Operation.FIELD_INVERSION);
+		return k.invert();
 	}
 
 	protected Scalar hashToScalar(byte[] hash, byte[] customDST) {
+		return hashToScalar(TranscriptWriter.of(hash), customDST);
+	}
+
+	protected Scalar hashToScalar(Message msg, byte[] customDST) {
 		final var dst = ObjectUtils.defaultIfNull(customDST, Arrays.concatenate(Labels.HASH_TO_SCALAR, context()));
-		final var uniformBytes = BcExpandMessage.expandMessageXMD(new SHA512Digest(), hash, dst, HASH_OUTPUT_SIZE);
+		final var uniformBytes = BcExpandMessage.expandMessageXMD(new SHA512Digest(), SHA512_ZPAD, msg, dst, HASH_OUTPUT_SIZE);
 		return Scalar.fromBytesModOrderWide(uniformBytes);
 	}
 
@@ -68,39 +208,126 @@ public abstract class AbstractRistretto255 {
 
 	public OPRFKeyPair randomKeyPair() {
 		final var secretScalar  = randomScalar();
-		final var publicElement = RistrettoElement.BASEPOINT.multiply(secretScalar);
-		return new OPRFKeyPair(secretScalar.toByteArray(), publicElement.compress().toByteArray());
+		final var publicElement = multiply(RistrettoElement.BASEPOINT, secretScalar);
+		return new OPRFKeyPair(secretScalar.toByteArray(), encodeElement(publicElement));
 	}
 
 	public OPRFKeyPair deriveKeyPair(byte[] seed, byte[] info) throws Exception {
 		final var nullSafeInfo = ArrayUtils.nullToEmpty(info);
-		final var deriveInput = Arrays.concatenate(seed, I2OSP(nullSafeInfo.length, 2), nullSafeInfo);
 		final var deriveDST = Arrays.concatenate(Labels.DERIVE_KEYPAIR, context());
 
 		int counter = 0;
 		Scalar secretScalar = Scalar.ZERO;
 		while (Scalar.ZERO.ctEquals(secretScalar) == 1) {
 			if (counter > 255) throw new Exception("Failed to derive secret key");
-			secretScalar = hashToScalar(Arrays.concatenate(deriveInput, I2OSP(counter, 1)), deriveDST);
+			// seed || I2OSP(len(info), 2) || info || I2OSP(counter, 1)
+			final var c = counter;
+			secretScalar = hashToScalar(w -> w.bytes(seed).lengthPrefixed(nullSafeInfo).u8(c), deriveDST);
 			counter++;
 		}
 
 		final var secretKey = secretScalar.toByteArray();
-		final var publicKey = RistrettoElement.BASEPOINT.multiply(secretScalar).compress().toByteArray();
+		final var publicKey = encodeElement(multiply(RistrettoElement.BASEPOINT, secretScalar));
 		return new OPRFKeyPair(secretKey, publicKey);
 	}
 
+	/**
+	 * Output hash of Finalize / Evaluate over the <code>transcript</code>
+	 * @param transcript
+	 * @return
+	 */
+	protected byte[] finalizeHash(Message transcript) {
+		final var start = Metrics.start();
+		final var output = hash(transcript);
+		Metrics.stop(SUITE_ID, Stage.FINALIZE_HASH, start);
+		return output;
+	}
+
 	protected byte[] hash(byte[] input) {
+		return hash(TranscriptWriter.of(input));
+	}
+
+	protected byte[] hash(Message message) {
 		final var hash = new SHA512Digest();
-		hash.update(input, 0, input.length);
+		final var writer = new TranscriptWriter(hash).write(message);
 
 		final var output = new byte[hash.getDigestSize()];
-		hash.doFinal(output, 0);
+		OperationCounter.hash(hash, writer.length(), output.length);
+		writer.doFinal(output, 0);
 		return output;
 	}
 
-	protected byte[] I2OSP(long input, int size) {
-		return BigIntegers.asUnsignedByteArray(size, BigInteger.valueOf(input));
+	/**
+	 * Seed of ComputeComposites / ComputeCompositesFast:
+	 * Hash(I2OSP(len(Bm), 2) || Bm || I2OSP(len(seedDST), 2) || seedDST)
+	 */
+	private byte[] compositeSeed(byte[] bm) {
+		final var context = context();
+		return hash(w -> w.lengthPrefixed(bm)
+			.u16(Labels.SEED_DST_PREFIX.length + context.length).bytes(Labels.SEED_DST_PREFIX).bytes(context));
+	}
+
+	/**
+	 * Composite scalar d_i of ComputeComposites / ComputeCompositesFast
+	 */
+	private Scalar compositeScalar(byte[] seed, int i, byte[] ci, byte[] di) {
+		return hashToScalar(w -> w.lengthPrefixed(seed).u16(i).lengthPrefixed(ci).lengthPrefixed(di).bytes(Labels.COMPOSITE), null);
+	}
+
+	/**
+	 * Challenge scalar of GenerateProof / VerifyProof, over M, Z, t2 and t3 given as halves
+	 */
+	private Scalar challenge(RistrettoElement B, RistrettoElement halfM, RistrettoElement halfZ, RistrettoElement halfT2, RistrettoElement halfT3) {
+		final var bm = encodeElement(B);
+		final var encoded = encodeDoubledElements(halfM, halfZ, halfT2, halfT3);
+		return challenge(bm, encoded[0], encoded[1], encoded[2], encoded[3]);
+	}
+
+	private Scalar challenge(byte[] bm, byte[] a0, byte[] a1, byte[] a2, byte[] a3) {
+		final var start = Metrics.start();
+		final var c = hashToScalar(w -> w.lengthPrefixed(bm).lengthPrefixed(a0).lengthPrefixed(a1).lengthPrefixed(a2).lengthPrefixed(a3)
+			.bytes(Labels.CHALLENGE), null);
+		Metrics.stop(SUITE_ID, Stage.CHALLENGE_HASH, start);
+		return c;
+	}
+
+	/**
+	 * Server public key (POPRF: tweaked key) of a client that talks to a known server: decoded and validated once,
+	 * together with its encoding, the composite seed and a precomputed wNAF table for proof verification.
+	 * Immutable, bound to the mode (context) that created it.
+	 */
+	public static final class ServerPublicKey {
+		private final RistrettoElement element;
+		private final byte[] encoded;
+		private final byte[] seed;
+		private final Ristretto255Multiplier.Table table;
+
+		private ServerPublicKey(RistrettoElement element, byte[] encoded, byte[] seed, Ristretto255Multiplier.Table table) {
+			this.element = element;
+			this.encoded = encoded;
+			this.seed = seed;
+			this.table = table;
+		}
+
+		public RistrettoElement getElement() {
+			return element;
+		}
+
+		public byte[] getEncoded() {
+			return encoded.clone();
+		}
+	}
+
+	/**
+	 * @param element Decoded server public key or POPRF tweaked key
+	 * @return
+	 */
+	protected ServerPublicKey serverPublicKey(RistrettoElement element) {
+		if (RistrettoElement.IDENTITY.ctEquals(element) == 1)
+			throw new IllegalArgumentException("Invalid server public key");
+
+		final var encoded = encodeElement(element);
+		return new ServerPublicKey(element, encoded, compositeSeed(encoded), Ristretto255Multiplier.precompute(element));
 	}
 
 	public static final record Proof(byte[] c, byte[] s){
@@ -115,88 +342,70 @@ public abstract class AbstractRistretto255 {
 		}
 	}
 
-	protected static final record CompositesResult(RistrettoElement M, RistrettoElement Z) {}
+	/**
+	 * Composite elements M and Z, both halved (i.e. M / 2 and Z / 2)
+	 */
+	protected static final record CompositesResult(RistrettoElement halfM, RistrettoElement halfZ) {}
 
 	protected CompositesResult computeCompositesFast(Scalar k, RistrettoElement B, RistrettoElement[] C, RistrettoElement[] D) {
-		final var bm = encodeElement(B);
-		final var seedDST = Arrays.concatenate(Labels.SEED_DST_PREFIX, context());
-		final var seed = hash(Arrays.concatenate(
-			I2OSP(bm.length, 2), bm,
-			I2OSP(seedDST.length, 2), seedDST));
+		final var start = Metrics.start();
+		final var seed = compositeSeed(encodeElement(B));
+		final var encodedC = encodeElements(C);
+		final var encodedD = encodeElements(D);
 
 		var M = RistrettoElement.IDENTITY;
 		for (var i = 0; i < C.length; i++) {
-			final var Ci = encodeElement(C[i]);
-			final var Di = encodeElement(D[i]);
-			final var di = hashToScalar(Arrays.concatenate(new byte[][]{
-				I2OSP(seed.length, 2), seed,
-				I2OSP(i, 2),
-				I2OSP(Ci.length, 2), Ci,
-				I2OSP(Di.length, 2), Di,
-				Labels.COMPOSITE
-			}), null);
-
-			M = C[i].multiply(di).add(M);
+			final var di = compositeScalar(seed, i, encodedC[i], encodedD[i]).multiply(HALF);
+
+			M = multiply(C[i], di).add(M);
 		}
 
-		final var Z = M.multiply(k);
+		final var Z = multiply(M, k);
 
+		Metrics.stop(SUITE_ID, Stage.COMPUTE_COMPOSITES, start);
 		return new CompositesResult(M, Z);
 	}
 
 	protected CompositesResult computeComposites(RistrettoElement B, RistrettoElement[] C, RistrettoElement[] D) {
-		final var bm = encodeElement(B);
-		final var seedDST = Arrays.concatenate(Labels.SEED_DST_PREFIX, context());
-		final var seed = hash(Arrays.concatenate(
-			I2OSP(bm.length, 2), bm,
-			I2OSP(seedDST.length, 2), seedDST));
+		return computeComposites(compositeSeed(encodeElement(B)), C, D);
+	}
+
+	protected CompositesResult computeComposites(ServerPublicKey B, RistrettoElement[] C, RistrettoElement[] D) {
+		return computeComposites(B.seed, C, D);
+	}
+
+	private CompositesResult computeComposites(byte[] seed, RistrettoElement[] C, RistrettoElement[] D) {
+		final var start = Metrics.start();
+		final var encodedC = encodeElements(C);
+		final var encodedD = encodeElements(D);
 
 		var M = RistrettoElement.IDENTITY;
 		var Z = RistrettoElement.IDENTITY;
 		for (var i = 0; i < C.length; i++) {
-			final var Ci = encodeElement(C[i]);
-			final var Di = encodeElement(D[i]);
-			final var di = hashToScalar(Arrays.concatenate(new byte[][]{
-				I2OSP(seed.length, 2), seed,
-				I2OSP(i, 2),
-				I2OSP(Ci.length, 2), Ci,
-				I2OSP(Di.length, 2), Di,
-				Labels.COMPOSITE
-			}), null);
-
-			M = C[i].multiply(di).add(M);
-			Z = D[i].multiply(di).add(Z);
+			final var di = compositeScalar(seed, i, encodedC[i], encodedD[i]).multiply(HALF);
+
+			M = multiply(C[i], di).add(M);
+			Z = multiply(D[i], di).add(Z);
 		}
 
+		Metrics.stop(SUITE_ID, Stage.COMPUTE_COMPOSITES, start);
 		return new CompositesResult(M, Z);
 	}
 
 	protected Proof generateProof(Scalar k, RistrettoElement A, RistrettoElement B, RistrettoElement[] C, RistrettoElement[] D, Scalar proofRandomScalar) {
+		final var event = ProofEvent.start();
 		final var MZ = computeCompositesFast(k, B, C, D);
-		final var M = MZ.M();
-		final var Z = MZ.Z();
+		final var M = MZ.halfM();
+		final var Z = MZ.halfZ();
 
+		// t2 / 2 and t3 / 2
 		final var r = ObjectUtils.getIfNull(proofRandomScalar, () -> randomScalar());
-		final var t2 = A.multiply(r);
-		final var t3 = M.multiply(r);
+		final var t2 = multiply(A, r.multiply(HALF));
+		final var t3 = multiply(M, r);
 
-		final var bm = encodeElement(B);
-		final var a0 = encodeElement(M);
-		final var a1 = encodeElement(Z);
-		final var a2 = encodeElement(t2);
-		final var a3 = encodeElement(t3);
-
-		final var challengeTranscript = Arrays.concatenate(new byte[][]{
-			I2OSP(bm.length, 2), bm,
-			I2OSP(a0.length, 2), a0,
-			I2OSP(a1.length, 2), a1,
-			I2OSP(a2.length, 2), a2,
-			I2OSP(a3.length, 2), a3,
-			Labels.CHALLENGE
-		});
-
-		final var c = hashToScalar(challengeTranscript, null);
+		final var c = challenge(B, M, Z, t2, t3);
 		final var s = r.subtract(c.multiply(k));
+		event.finish(SUITE_ID, context(), "generate", C.length);
 		return new Proof(encodeScalar(c), encodeScalar(s));
 	}
 
@@ -205,31 +414,118 @@ public abstract class AbstractRistretto255 {
 	}
 
 	protected boolean verifyProof(RistrettoElement A, RistrettoElement B, RistrettoElement[] C, RistrettoElement[] D, Proof proof) throws Exception {
+		final var event = ProofEvent.start();
 		final var MZ = computeComposites(B, C, D);
-		final var M = MZ.M();
-		final var Z = MZ.Z();
+		final var M = MZ.halfM();
+		final var Z = MZ.halfZ();
 		final var c = decodeScalar(proof.c());
 		final var s = decodeScalar(proof.s());
 
-		final var t2 = A.multiply(s).add(B.multiply(c));
-		final var t3 = M.multiply(s).add(Z.multiply(c));
+		// t2 / 2 and t3 / 2
+		final var t2 = sumOfTwoMultiplies(A, s.multiply(HALF), B, c.multiply(HALF));
+		final var t3 = sumOfTwoMultiplies(M, s, Z, c);
 
-		final var bm = encodeElement(B);
-		final var a0 = encodeElement(M);
-		final var a1 = encodeElement(Z);
-		final var a2 = encodeElement(t2);
-		final var a3 = encodeElement(t3);
-
-		final var challengeTranscript = Arrays.concatenate(new byte[][]{
-			I2OSP(bm.length, 2), bm,
-			I2OSP(a0.length, 2), a0,
-			I2OSP(a1.length, 2), a1,
-			I2OSP(a2.length, 2), a2,
-			I2OSP(a3.length, 2), a3,
-			Labels.CHALLENGE
-		});
-
-		final var expectedC = hashToScalar(challengeTranscript, null);
-		return expectedC.ctEquals(c) == 1;
+		final var expectedC = challenge(B, M, Z, t2, t3);
+		final var valid = expectedC.ctEquals(c) == 1;
+		event.finish(SUITE_ID, context(), "verify", C.length);
+		return valid;
+	}
+
+	/**
+	 * VerifyProof against a known server key, skips decoding and encoding B, hashing the composite seed
+	 * and building the multiplication table of B
+	 * @param A
+	 * @param B
+	 * @param C
+	 * @param D
+	 * @param proof
+	 * @return
+	 * @throws Exception
+	 */
+	protected boolean verifyProof(RistrettoElement A, ServerPublicKey B, RistrettoElement[] C, RistrettoElement[] D, Proof proof) throws Exception {
+		final var event = ProofEvent.start();
+		final var MZ = computeComposites(B, C, D);
+		final var M = MZ.halfM();
+		final var Z = MZ.halfZ();
+		final var c = decodeScalar(proof.c());
+		final var s = decodeScalar(proof.s());
+
+		// t2 / 2 and t3 / 2
+		final var t2 = sumOfTwoMultiplies(Ristretto255Multiplier.precompute(A), s.multiply(HALF), B.table, c.multiply(HALF));
+		final var t3 = sumOfTwoMultiplies(M, s, Z, c);
+
+		final var encoded = encodeDoubledElements(M, Z, t2, t3);
+		final var expectedC = challenge(B.encoded, encoded[0], encoded[1], encoded[2], encoded[3]);
+		final var valid = expectedC.ctEquals(c) == 1;
+		event.finish(SUITE_ID, context(), "verify", C.length);
+		return valid;
+	}
+
+	/**
+	 * Verify many single-element proofs for the same A and B, e.g. the BlindEvaluate results of one server key.
+	 * proofs[j] covers (C[j], D[j]).
+	 *
+	 * The composite seed and the wNAF table of B come with the server key handle, the table of A is looked up once
+	 * and all transcript points (M, Z, t2, t3) of the batch are encoded with one shared field inversion.
+	 * The challenge covers t2 and t3 (which are not part of the proof), so each proof is still checked on its own
+	 * and the result pinpoints every invalid proof.
+	 * @param A
+	 * @param B
+	 * @param C
+	 * @param D
+	 * @param proofs
+	 * @return Validity of each proof
+	 */
+	protected boolean[] verifyProofs(RistrettoElement A, ServerPublicKey B, RistrettoElement[] C, RistrettoElement[] D, Proof[] proofs) {
+		if (C.length != proofs.length || D.length != proofs.length)
+			throw new IllegalArgumentException("Number of elements and proofs mismatch");
+
+		final var event = ProofEvent.start();
+		final var n = proofs.length;
+		final var encodedC = encodeElements(C);
+		final var encodedD = encodeElements(D);
+		final var tableA = Ristretto255Multiplier.precompute(A);
+
+		final var valid = new boolean[n];
+		final var c = new Scalar[n];
+		final var transcript = new RistrettoElement[4 * n];
+		final var indices = new int[n];
+		var count = 0;
+		for (int j = 0; j < n; j++) {
+			final Scalar s;
+			try {
+				c[j] = decodeScalar(proofs[j].c());
+				s = decodeScalar(proofs[j].s());
+			} catch (Exception e) {
+				continue;
+			}
+
+			// M / 2, Z / 2, t2 / 2 and t3 / 2
+			final var start = Metrics.start();
+			final var dj = compositeScalar(B.seed, 0, encodedC[j], encodedD[j]).multiply(HALF);
+			final var M = multiply(C[j], dj);
+			final var Z = multiply(D[j], dj);
+			Metrics.stop(SUITE_ID, Stage.COMPUTE_COMPOSITES, start);
+
+			final var t2 = sumOfTwoMultiplies(tableA, s.multiply(HALF), B.table, c[j].multiply(HALF));
+			final var t3 = sumOfTwoMultiplies(M, s, Z, c[j]);
+
+			transcript[4 * count] = M;
+			transcript[4 * count + 1] = Z;
+			transcript[4 * count + 2] = t2;
+			transcript[4 * count + 3] = t3;
+			indices[count++] = j;
+		}
+
+		final var halves = new RistrettoElement[4 * count];
+		System.arraycopy(transcript, 0, halves, 0, halves.length);
+		final var encoded = encodeDoubledElements(halves);
+		for (int i = 0; i < count; i++) {
+			final var j = indices[i];
+			final var expectedC = challenge(B.encoded, encoded[4 * i], encoded[4 * i + 1], encoded[4 * i + 2], encoded[4 * i + 3]);
+			valid[j] = expectedC.ctEquals(c[j]) == 1;
+		}
+		event.finish(SUITE_ID, context(), "verifyBatch", n);
+		return valid;
 	}
 }
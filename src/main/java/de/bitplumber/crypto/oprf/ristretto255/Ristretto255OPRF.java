@@ -8,12 +8,14 @@
 package de.bitplumber.crypto.oprf.ristretto255;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.bouncycastle.util.Arrays;
 
 import com.weavechain.curve25519.RistrettoElement;
 import com.weavechain.curve25519.Scalar;
 
+import de.bitplumber.crypto.jfr.BlindEvaluateEvent;
 import de.bitplumber.crypto.oprf.Labels;
 import de.bitplumber.crypto.oprf.Modes;
 import de.bitplumber.crypto.oprf.OPRF;
@@ -35,7 +37,7 @@ public class Ristretto255OPRF extends AbstractRistretto255 implements OPRF<Scala
 		if (RistrettoElement.IDENTITY.ctEquals(inputElement) == 1)
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var blindedElement = inputElement.multiply(blind);
+		final var blindedElement = multiply(inputElement, blind);
 		return new BlindResult(blind, blindedElement);
 	}
 
@@ -47,20 +49,39 @@ public class Ristretto255OPRF extends AbstractRistretto255 implements OPRF<Scala
 		return doBlind(input, randomScalar());
 	}
 
+	/**
+	 * Blind a batch of inputs, each with its own random blind, hashing all inputs
+	 * to the group in one batch (see <code>hashToGroupBatch()</code>).
+	 * @param inputs
+	 * @return
+	 * @throws Exception
+	 */
+	public BlindResult[] blindBatch(List<byte[]> inputs) throws Exception {
+		final var inputElements = hashToGroupBatch(inputs, null);
+		final var results = new BlindResult[inputElements.length];
+		for (var i = 0; i < inputElements.length; i++) {
+			if (RistrettoElement.IDENTITY.ctEquals(inputElements[i]) == 1)
+				throw new IllegalArgumentException("InvalidInputError");
+
+			final var blind = randomScalar();
+			results[i] = new BlindResult(blind, multiply(inputElements[i], blind));
+		}
+		return results;
+	}
+
 	public RistrettoElement blindEvaluate(byte[] serverSecretKey, RistrettoElement blindedElement) throws Exception {
+		final var event = BlindEvaluateEvent.start();
 		final var skS = decodeScalar(serverSecretKey);
-		return blindedElement.multiply(skS);
+		final var evaluatedElement = multiply(blindedElement, skS);
+		event.finish(SUITE_ID, "OPRF", 1);
+		return evaluatedElement;
 	}
 
 	public byte[] finalize(byte[] input, Scalar blind, RistrettoElement evaluatedElement) throws Exception {
-		final var invBlind = blind.invert();
-		final var n = evaluatedElement.multiply(invBlind);
+		final var invBlind = invert(blind);
+		final var n = multiply(evaluatedElement, invBlind);
 		final var unblindedElement = encodeElement(n);
-		return hash(Arrays.concatenate(new byte[][]{
-			I2OSP(input.length, 2), input,
-			I2OSP(unblindedElement.length, 2), unblindedElement,
-			Labels.FINALIZE
-		}));
+		return finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
 	}
 
 	public byte[] evaluate(byte[] serverSecretKey, byte[] input) throws Exception {
@@ -69,13 +90,29 @@ public class Ristretto255OPRF extends AbstractRistretto255 implements OPRF<Scala
 			throw new IllegalArgumentException("InvalidInputError");
 
 		final var skS = decodeScalar(serverSecretKey);
-		final var evaluatedElement = inputElement.multiply(skS);
+		final var evaluatedElement = multiply(inputElement, skS);
 		final var issuedElement = encodeElement(evaluatedElement);
 
-		return hash(Arrays.concatenate(new byte[][]{
-			I2OSP(input.length, 2), input,
-			I2OSP(issuedElement.length, 2), issuedElement,
-			Labels.FINALIZE
-		}));
+		return finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
+	}
+
+	/**
+	 * Evaluate a batch of inputs with the same key, equivalent to calling <code>evaluate()</code>
+	 * for each input. The evaluated elements are encoded together (see <code>evaluateElements()</code>).
+	 * @param serverSecretKey
+	 * @param inputs
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[][] evaluateBatch(byte[] serverSecretKey, List<byte[]> inputs) throws Exception {
+		final var skS = decodeScalar(serverSecretKey);
+		final var issuedElements = evaluateElements(inputs, skS);
+		final var outputs = new byte[issuedElements.length][];
+		for (var i = 0; i < outputs.length; i++) {
+			final var input = inputs.get(i);
+			final var issuedElement = issuedElements[i];
+			outputs[i] = finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
+		}
+		return outputs;
 	}
 }
@@ -8,6 +8,7 @@
 package de.bitplumber.crypto.oprf.ristretto255;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 import org.bouncycastle.util.Arrays;
@@ -15,6 +16,7 @@ import org.bouncycastle.util.Arrays;
 import com.weavechain.curve25519.RistrettoElement;
 import com.weavechain.curve25519.Scalar;
 
+import de.bitplumber.crypto.jfr.BlindEvaluateEvent;
 import de.bitplumber.crypto.oprf.Labels;
 import de.bitplumber.crypto.oprf.Modes;
 import de.bitplumber.crypto.oprf.POPRF;
@@ -79,20 +81,51 @@ public class Ristretto255POPRF extends AbstractRistretto255 implements POPRF<Sca
 		}
 	}
 
-	private BlindResult doBlind(byte[] input, byte[] info, byte[] serverPublicKey, Scalar blind) throws Exception {
+	private RistrettoElement computeTweakedKey(byte[] info, byte[] serverPublicKey) throws Exception {
 		final var pkS = decodeElement(serverPublicKey);
-		final var framedInfo = Arrays.concatenate(Labels.INFO, I2OSP(info.length, 2), info);
-		final var m = hashToScalar(framedInfo, null);
-		final var T = RistrettoElement.BASEPOINT.multiply(m);
+		final var m = hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null);
+		final var T = multiply(RistrettoElement.BASEPOINT, m);
 		final var tweakedKey = T.add(pkS);
 		if (RistrettoElement.IDENTITY.ctEquals(tweakedKey) == 1)
 			throw new IllegalArgumentException("InvalidInputError");
+		return tweakedKey;
+	}
+
+	/**
+	 * Tweak and validate a server public key once, for clients that verify many proofs of the same server and info
+	 * @param serverPublicKey
+	 * @param info
+	 * @return
+	 * @throws Exception
+	 */
+	public ServerPublicKey tweakedKey(byte[] serverPublicKey, byte[] info) throws Exception {
+		return serverPublicKey(computeTweakedKey(info, serverPublicKey));
+	}
+
+	/**
+	 * @param tweakedKey Tweaked key of a <code>BlindResult</code>
+	 * @return
+	 */
+	public ServerPublicKey tweakedKey(RistrettoElement tweakedKey) {
+		return serverPublicKey(tweakedKey);
+	}
+
+	private Scalar tweakedSecret(byte[] serverSecretKey, byte[] info) throws Exception {
+		final var skS = decodeScalar(serverSecretKey);
+		final var m = hashToScalar(w -> w.bytes(Labels.INFO).lengthPrefixed(info), null);
+		final var t = skS.add(m);
+		if (Scalar.ZERO.ctEquals(t) == 1)
+			throw new IllegalArgumentException("InverseError");
+		return t;
+	}
 
+	private BlindResult doBlind(byte[] input, byte[] info, byte[] serverPublicKey, Scalar blind) throws Exception {
+		final var tweakedKey = computeTweakedKey(info, serverPublicKey);
 		final var inputElement = hashToGroup(input, null);
 		if (RistrettoElement.IDENTITY.ctEquals(inputElement) == 1)
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var blindedElement = inputElement.multiply(blind);
+		final var blindedElement = multiply(inputElement, blind);
 		return new BlindResult(blind, blindedElement, tweakedKey);
 	}
 
@@ -100,38 +133,100 @@ public class Ristretto255POPRF extends AbstractRistretto255 implements POPRF<Sca
 		return doBlind(input, info, serverPublicKey, params.blindRandomScalar() == null ? randomScalar() : decodeScalar(params.blindRandomScalar()));
 	}
 
+	/**
+	 * Blind a batch of inputs for the same <code>info</code>, each with its own random blind,
+	 * hashing all inputs to the group in one batch (see <code>hashToGroupBatch()</code>).
+	 * @param inputs
+	 * @param info
+	 * @param serverPublicKey
+	 * @return
+	 * @throws Exception
+	 */
+	public BlindResult[] blindBatch(List<byte[]> inputs, byte[] info, byte[] serverPublicKey) throws Exception {
+		final var tweakedKey = computeTweakedKey(info, serverPublicKey);
+		final var inputElements = hashToGroupBatch(inputs, null);
+		final var results = new BlindResult[inputElements.length];
+		for (var i = 0; i < inputElements.length; i++) {
+			if (RistrettoElement.IDENTITY.ctEquals(inputElements[i]) == 1)
+				throw new IllegalArgumentException("InvalidInputError");
+
+			final var blind = randomScalar();
+			results[i] = new BlindResult(blind, multiply(inputElements[i], blind), tweakedKey);
+		}
+		return results;
+	}
+
 	public BlindEvaluateResult blindEvaluate(byte[] serverSecretKey, RistrettoElement blindedElement, byte[] info) throws Exception {
-		final var skS = decodeScalar(serverSecretKey);
-		final var framedInfo = Arrays.concatenate(Labels.INFO, I2OSP(info.length, 2), info);
-		final var m = hashToScalar(framedInfo, null);
-		final var t = skS.add(m);
-		if (Scalar.ZERO.ctEquals(t) == 1)
-			throw new IllegalArgumentException("InverseError");
+		final var event = BlindEvaluateEvent.start();
+		final var t = tweakedSecret(serverSecretKey, info);
 
-		final var evaluatedElement = blindedElement.multiply(t.invert());
-		final var tweakedKey = RistrettoElement.BASEPOINT.multiply(t);
+		final var evaluatedElement = multiply(blindedElement, invert(t));
+		final var tweakedKey = multiply(RistrettoElement.BASEPOINT, t);
 		final var blindedElements  = new RistrettoElement[]{ blindedElement };
 		final var evaluatedElements = new RistrettoElement[]{ evaluatedElement };
 		final var proof = generateProof(t, RistrettoElement.BASEPOINT, tweakedKey, evaluatedElements, blindedElements,
 			params.proofRandomScalar() == null ? null : decodeScalar(params.proofRandomScalar()));
+		event.finish(SUITE_ID, "POPRF", 1);
 		return new BlindEvaluateResult(evaluatedElement, proof.toByteArray());
 	}
 
+	/**
+	 * Verify the proofs of many BlindEvaluate results for the same tweaked key (server key and info) at once,
+	 * see <code>AbstractRistretto255.verifyProofs()</code>
+	 * @param tweakedKey
+	 * @param blindedElements
+	 * @param results
+	 * @return Validity of each proof, in the same order
+	 */
+	public boolean[] verifyProofsBatch(RistrettoElement tweakedKey, RistrettoElement[] blindedElements, BlindEvaluateResult[] results) {
+		return verifyProofsBatch(tweakedKey(tweakedKey), blindedElements, results);
+	}
+
+	public boolean[] verifyProofsBatch(ServerPublicKey tweakedKey, RistrettoElement[] blindedElements, BlindEvaluateResult[] results) {
+		final var evaluatedElements = new RistrettoElement[results.length];
+		final var proofs = new Proof[results.length];
+		for (int i = 0; i < results.length; i++) {
+			evaluatedElements[i] = results[i].evaluatedElement();
+			proofs[i] = Proof.fromBytes(results[i].proof());
+		}
+		return verifyProofs(RistrettoElement.BASEPOINT, tweakedKey, evaluatedElements, blindedElements, proofs);
+	}
+
 	public byte[] finalize(byte[] input, Scalar blind, RistrettoElement evaluatedElement, RistrettoElement blindedElement, Proof proof, byte[] info, RistrettoElement tweakedKey) throws Exception {
 		final var blindedElements = new RistrettoElement[]{ blindedElement };
 		final var evaluatedElements = new RistrettoElement[]{ evaluatedElement };
 		if (!verifyProof(RistrettoElement.BASEPOINT, tweakedKey, evaluatedElements, blindedElements, proof))
 			throw new Exception("Failed to verify proof");
 
-		final var invBlind = blind.invert();
-		final var n = evaluatedElement.multiply(invBlind);
+		return unblind(input, blind, evaluatedElement, info);
+	}
+
+	/**
+	 * Finalize against a known tweaked key, see <code>tweakedKey()</code>
+	 * @param input
+	 * @param blind
+	 * @param evaluatedElement
+	 * @param blindedElement
+	 * @param proof
+	 * @param info
+	 * @param tweakedKey
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[] finalize(byte[] input, Scalar blind, RistrettoElement evaluatedElement, RistrettoElement blindedElement, Proof proof, byte[] info, ServerPublicKey tweakedKey) throws Exception {
+		final var blindedElements = new RistrettoElement[]{ blindedElement };
+		final var evaluatedElements = new RistrettoElement[]{ evaluatedElement };
+		if (!verifyProof(RistrettoElement.BASEPOINT, tweakedKey, evaluatedElements, blindedElements, proof))
+			throw new Exception("Failed to verify proof");
+
+		return unblind(input, blind, evaluatedElement, info);
+	}
+
+	private byte[] unblind(byte[] input, Scalar blind, RistrettoElement evaluatedElement, byte[] info) {
+		final var invBlind = invert(blind);
+		final var n = multiply(evaluatedElement, invBlind);
 		final var unblindedElement = encodeElement(n);
-		return hash(Arrays.concatenate(new byte[][]{
-			I2OSP(input.length, 2), input,
-			I2OSP(info.length, 2), info,
-			I2OSP(unblindedElement.length, 2), unblindedElement,
-			Labels.FINALIZE
-		}));
+		return finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(info).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
 	}
 
 	public byte[] evaluate(byte[] serverSecretKey, byte[] input, byte[] info) throws Exception {
@@ -139,21 +234,32 @@ public class Ristretto255POPRF extends AbstractRistretto255 implements POPRF<Sca
 		if (RistrettoElement.IDENTITY.ctEquals(inputElement) == 1)
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var skS = decodeScalar(serverSecretKey);
-		final var framedInfo = Arrays.concatenate(Labels.INFO, I2OSP(info.length, 2), info);
-		final var m = hashToScalar(framedInfo, null);
-		final var t = skS.add(m);
-		if (Scalar.ZERO.ctEquals(t) == 1)
-			throw new IllegalArgumentException("InverseError");
-
-		final var evaluatedElement = inputElement.multiply(t.invert());
+		final var t = tweakedSecret(serverSecretKey, info);
+		final var evaluatedElement = multiply(inputElement, invert(t));
 		final var issuedElement = encodeElement(evaluatedElement);
 
-		return hash(Arrays.concatenate(new byte[][]{
-			I2OSP(input.length, 2), input,
-			I2OSP(info.length, 2), info,
-			I2OSP(issuedElement.length, 2), issuedElement,
-			Labels.FINALIZE
-		}));
+		return finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(info).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
+	}
+
+	/**
+	 * Evaluate a batch of inputs with the same key and <code>info</code>, equivalent to calling
+	 * <code>evaluate()</code> for each input. The evaluated elements are encoded together
+	 * (see <code>evaluateElements()</code>).
+	 * @param serverSecretKey
+	 * @param inputs
+	 * @param info
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[][] evaluateBatch(byte[] serverSecretKey, List<byte[]> inputs, byte[] info) throws Exception {
+		final var t = tweakedSecret(serverSecretKey, info);
+		final var issuedElements = evaluateElements(inputs, invert(t));
+		final var outputs = new byte[issuedElements.length][];
+		for (var i = 0; i < outputs.length; i++) {
+			final var input = inputs.get(i);
+			final var issuedElement = issuedElements[i];
+			outputs[i] = finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(info).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
+		}
+		return outputs;
 	}
 }
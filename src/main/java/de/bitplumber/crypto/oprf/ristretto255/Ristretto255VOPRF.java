@@ -8,6 +8,7 @@
 package de.bitplumber.crypto.oprf.ristretto255;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 import org.bouncycastle.util.Arrays;
@@ -15,6 +16,7 @@ import org.bouncycastle.util.Arrays;
 import com.weavechain.curve25519.RistrettoElement;
 import com.weavechain.curve25519.Scalar;
 
+import de.bitplumber.crypto.jfr.BlindEvaluateEvent;
 import de.bitplumber.crypto.oprf.Labels;
 import de.bitplumber.crypto.oprf.Modes;
 import de.bitplumber.crypto.oprf.VOPRF;
@@ -79,12 +81,22 @@ public class Ristretto255VOPRF extends AbstractRistretto255 implements VOPRF<Sca
 		}
 	}
 
+	/**
+	 * Decode and validate a server public key once, for clients that verify many proofs of the same server
+	 * @param serverPublicKey
+	 * @return
+	 * @throws Exception
+	 */
+	public ServerPublicKey serverPublicKey(byte[] serverPublicKey) throws Exception {
+		return serverPublicKey(decodeElement(serverPublicKey));
+	}
+
 	private BlindResult doBlind(byte[] input, Scalar blind) throws Exception {
 		final var inputElement = hashToGroup(input, null);
 		if (RistrettoElement.IDENTITY.ctEquals(inputElement) == 1)
 			throw new IllegalArgumentException("InvalidInputError");
 
-		final var blindedElement = inputElement.multiply(blind);
+		final var blindedElement = multiply(inputElement, blind);
 		return new BlindResult(blind, blindedElement);
 	}
 
@@ -92,17 +104,62 @@ public class Ristretto255VOPRF extends AbstractRistretto255 implements VOPRF<Sca
 		return doBlind(input, params.blindRandomScalar() == null ? randomScalar() : decodeScalar(params.blindRandomScalar()));
 	}
 
+	/**
+	 * Blind a batch of inputs, each with its own random blind, hashing all inputs
+	 * to the group in one batch (see <code>hashToGroupBatch()</code>).
+	 * @param inputs
+	 * @return
+	 * @throws Exception
+	 */
+	public BlindResult[] blindBatch(List<byte[]> inputs) throws Exception {
+		final var inputElements = hashToGroupBatch(inputs, null);
+		final var results = new BlindResult[inputElements.length];
+		for (var i = 0; i < inputElements.length; i++) {
+			if (RistrettoElement.IDENTITY.ctEquals(inputElements[i]) == 1)
+				throw new IllegalArgumentException("InvalidInputError");
+
+			final var blind = randomScalar();
+			results[i] = new BlindResult(blind, multiply(inputElements[i], blind));
+		}
+		return results;
+	}
+
 	public BlindEvaluateResult blindEvaluate(byte[] serverSecretKey, byte[] serverPublicKey, RistrettoElement blindedElement) throws Exception {
+		final var event = BlindEvaluateEvent.start();
 		final var skS = decodeScalar(serverSecretKey);
 		final var pkS = decodeElement(serverPublicKey);
-		final var evaluatedElement = blindedElement.multiply(skS);
+		final var evaluatedElement = multiply(blindedElement, skS);
 		final var blindedElements  = new RistrettoElement[]{ blindedElement };
 		final var evaluatedElements = new RistrettoElement[]{ evaluatedElement };
 		final var proof = generateProof(skS, RistrettoElement.BASEPOINT, pkS, blindedElements, evaluatedElements,
 			params.proofRandomScalar() == null ? null : decodeScalar(params.proofRandomScalar()));
+		event.finish(SUITE_ID, "VOPRF", 1);
 		return new BlindEvaluateResult(evaluatedElement, proof.toByteArray());
 	}
 
+	/**
+	 * Verify the proofs of many BlindEvaluate results of the same server key at once,
+	 * see <code>AbstractRistretto255.verifyProofs()</code>
+	 * @param serverPublicKey
+	 * @param blindedElements
+	 * @param results
+	 * @return Validity of each proof, in the same order
+	 * @throws Exception
+	 */
+	public boolean[] verifyProofsBatch(byte[] serverPublicKey, RistrettoElement[] blindedElements, BlindEvaluateResult[] results) throws Exception {
+		return verifyProofsBatch(serverPublicKey(serverPublicKey), blindedElements, results);
+	}
+
+	public boolean[] verifyProofsBatch(ServerPublicKey serverPublicKey, RistrettoElement[] blindedElements, BlindEvaluateResult[] results) {
+		final var evaluatedElements = new RistrettoElement[results.length];
+		final var proofs = new Proof[results.length];
+		for (int i = 0; i < results.length; i++) {
+			evaluatedElements[i] = results[i].evaluatedElement();
+			proofs[i] = Proof.fromBytes(results[i].proof());
+		}
+		return verifyProofs(RistrettoElement.BASEPOINT, serverPublicKey, blindedElements, evaluatedElements, proofs);
+	}
+
 	public byte[] finalize(byte[] input, Scalar blind, RistrettoElement evaluatedElement, RistrettoElement blindedElement, byte[] serverPublicKey, Proof proof) throws Exception {
 		final var pkS = decodeElement(serverPublicKey);
 		final var blindedElements = new RistrettoElement[]{ blindedElement };
@@ -110,14 +167,34 @@ public class Ristretto255VOPRF extends AbstractRistretto255 implements VOPRF<Sca
 		if (!verifyProof(RistrettoElement.BASEPOINT, pkS, blindedElements, evaluatedElements, proof))
 			throw new Exception("Failed to verify proof");
 
-		final var invBlind = blind.invert();
-		final var n = evaluatedElement.multiply(invBlind);
+		return unblind(input, blind, evaluatedElement);
+	}
+
+	/**
+	 * Finalize against a known server key, see <code>serverPublicKey()</code>
+	 * @param input
+	 * @param blind
+	 * @param evaluatedElement
+	 * @param blindedElement
+	 * @param serverPublicKey
+	 * @param proof
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[] finalize(byte[] input, Scalar blind, RistrettoElement evaluatedElement, RistrettoElement blindedElement, ServerPublicKey serverPublicKey, Proof proof) throws Exception {
+		final var blindedElements = new RistrettoElement[]{ blindedElement };
+		final var evaluatedElements = new RistrettoElement[]{ evaluatedElement };
+		if (!verifyProof(RistrettoElement.BASEPOINT, serverPublicKey, blindedElements, evaluatedElements, proof))
+			throw new Exception("Failed to verify proof");
+
+		return unblind(input, blind, evaluatedElement);
+	}
+
+	private byte[] unblind(byte[] input, Scalar blind, RistrettoElement evaluatedElement) {
+		final var invBlind = invert(blind);
+		final var n = multiply(evaluatedElement, invBlind);
 		final var unblindedElement = encodeElement(n);
-		return hash(Arrays.concatenate(new byte[][]{
-			I2OSP(input.length, 2), input,
-			I2OSP(unblindedElement.length, 2), unblindedElement,
-			Labels.FINALIZE
-		}));
+		return finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(unblindedElement).bytes(Labels.FINALIZE));
 	}
 
 	public byte[] evaluate(byte[] serverSecretKey, byte[] input) throws Exception {
@@ -126,13 +203,29 @@ public class Ristretto255VOPRF extends AbstractRistretto255 implements VOPRF<Sca
 			throw new IllegalArgumentException("InvalidInputError");
 
 		final var skS = decodeScalar(serverSecretKey);
-		final var evaluatedElement = inputElement.multiply(skS);
+		final var evaluatedElement = multiply(inputElement, skS);
 		final var issuedElement = encodeElement(evaluatedElement);
 
-		return hash(Arrays.concatenate(new byte[][]{
-			I2OSP(input.length, 2), input,
-			I2OSP(issuedElement.length, 2), issuedElement,
-			Labels.FINALIZE
-		}));
+		return finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
+	}
+
+	/**
+	 * Evaluate a batch of inputs with the same key, equivalent to calling <code>evaluate()</code>
+	 * for each input. The evaluated elements are encoded together (see <code>evaluateElements()</code>).
+	 * @param serverSecretKey
+	 * @param inputs
+	 * @return
+	 * @throws Exception
+	 */
+	public byte[][] evaluateBatch(byte[] serverSecretKey, List<byte[]> inputs) throws Exception {
+		final var skS = decodeScalar(serverSecretKey);
+		final var issuedElements = evaluateElements(inputs, skS);
+		final var outputs = new byte[issuedElements.length][];
+		for (var i = 0; i < outputs.length; i++) {
+			final var input = inputs.get(i);
+			final var issuedElement = issuedElements[i];
+			outputs[i] = finalizeHash(w -> w.lengthPrefixed(input).lengthPrefixed(issuedElement).bytes(Labels.FINALIZE));
+		}
+		return outputs;
 	}
 }
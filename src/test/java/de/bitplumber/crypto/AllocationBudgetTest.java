@@ -0,0 +1,237 @@
+/**
+ * Allocation budgets for the protocol hot paths
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.h2c.BcCurveHasher;
+import de.bitplumber.crypto.nopaque.CredentialIdentifier;
+import de.bitplumber.crypto.nopaque.Stretcher;
+import de.bitplumber.crypto.nopaque.ristretto255.Client;
+import de.bitplumber.crypto.nopaque.ristretto255.Server;
+import de.bitplumber.crypto.nopaque.ristretto255.AbstractRistretto255.RegistrationRequest;
+import de.bitplumber.crypto.nopaque.ristretto255.Server.RegistrationRecord;
+import de.bitplumber.crypto.oprf.bc.BcOPRF;
+import de.bitplumber.crypto.oprf.bc.BcPOPRF;
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255OPRF;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255POPRF;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255VOPRF;
+
+/**
+ * Bytes allocated per operation (<code>ThreadMXBean.getThreadAllocatedBytes</code>), checked
+ * against the budgets in <code>allocation-budgets.properties</code>.
+ *
+ * Every run writes the measured values to the file named by the <code>allocation.report</code>
+ * system property (<code>build/reports/allocation-budgets.properties</code> with Gradle), in the
+ * same format as the budget file, so a budget can be tightened by copying the new value over.
+ */
+class AllocationBudgetTest {
+	private static final String BUDGETS = "/allocation-budgets.properties";
+	private static final int WARMUP_ITERATIONS = 50;
+	private static final int MEASURE_ITERATIONS = 10;
+	private static final int MEASURE_ROUNDS = 3;
+	private static final byte[] INPUT = "allocation budget input".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] INFO = "allocation budget info".getBytes(StandardCharsets.UTF_8);
+
+	private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private static final Properties budgets = new Properties();
+	private static final TreeMap<String, Long> measured = new TreeMap<>();
+
+	private interface Operation {
+		Object run() throws Exception;
+	}
+
+	@BeforeAll
+	static void setup() throws IOException {
+		assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "Thread allocation accounting not supported");
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		try (final var in = AllocationBudgetTest.class.getResourceAsStream(BUDGETS)) {
+			assertNotNull(in, "Missing " + BUDGETS);
+			budgets.load(in);
+		}
+	}
+
+	@AfterAll
+	static void writeReport() throws IOException {
+		final var report = System.getProperty("allocation.report");
+		if (report == null || measured.isEmpty())
+			return;
+
+		final var path = Path.of(report);
+		Files.createDirectories(path.toAbsolutePath().getParent());
+		try (final var out = new FileOutputStream(path.toFile())) {
+			for (final var entry : measured.entrySet())
+				out.write((entry.getKey() + "=" + entry.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Minimum over several rounds of the average bytes allocated per call, after warm-up,
+	 * so that a stray allocation (class loading, JIT) does not trip the budget
+	 * @param operation
+	 * @return
+	 * @throws Exception
+	 */
+	private static long bytesPerOperation(Operation operation) throws Exception {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++)
+			operation.run();
+
+		var min = Long.MAX_VALUE;
+		for (int round = 0; round < MEASURE_ROUNDS; round++) {
+			final var start = threadMXBean.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < MEASURE_ITERATIONS; i++)
+				operation.run();
+			min = Math.min(min, (threadMXBean.getCurrentThreadAllocatedBytes() - start) / MEASURE_ITERATIONS);
+		}
+		return min;
+	}
+
+	private static void check(List<String> failures, String name, Operation operation) throws Exception {
+		final var bytes = bytesPerOperation(operation);
+		measured.put(name, bytes);
+
+		final var budget = budgets.getProperty(name);
+		if (budget == null) {
+			failures.add(String.format("%s: no budget recorded (measured %d bytes/op)", name, bytes));
+		} else if (bytes > Long.parseLong(budget.trim())) {
+			failures.add(String.format("%s: %d bytes/op exceeds budget of %s", name, bytes, budget.trim()));
+		}
+	}
+
+	private static void assertWithinBudgets(List<String> failures) {
+		if (!failures.isEmpty())
+			fail("Allocation budget exceeded:\n  " + String.join("\n  ", failures));
+	}
+
+	@Test
+	void testHashToCurve() throws Exception { //NOSONAR
+		final var failures = new ArrayList<String>();
+		final var hashers = new TreeMap<String, BcCurveHasher>();
+		hashers.put("P256", BcCurveHasher.createP256());
+		hashers.put("P384", BcCurveHasher.createP384());
+		hashers.put("P521", BcCurveHasher.createP521());
+		hashers.put("secp256k1", BcCurveHasher.createSecp256k1());
+
+		for (final var entry : hashers.entrySet()) {
+			final var hasher = entry.getValue();
+			check(failures, "h2c." + entry.getKey() + ".hashToCurve", () -> hasher.hashToCurve(INPUT));
+		}
+		assertWithinBudgets(failures);
+	}
+
+	@Test
+	void testBcOPRF() throws Exception { //NOSONAR
+		final var failures = new ArrayList<String>();
+		final var suites = new TreeMap<String, BcOPRF>();
+		suites.put("P256", BcOPRF.createP256());
+		suites.put("P384", BcOPRF.createP384());
+		suites.put("P521", BcOPRF.createP521());
+		suites.put("secp256k1", BcOPRF.createSecp256k1());
+
+		for (final var entry : suites.entrySet()) {
+			final var oprf = entry.getValue();
+			final var keyPair = oprf.randomKeyPair();
+			final var blindResult = oprf.blind(INPUT);
+			final var evaluatedElement = oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement());
+
+			check(failures, "oprf.bc." + entry.getKey() + ".OPRF.blindEvaluate", () -> oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement()));
+			check(failures, "oprf.bc." + entry.getKey() + ".OPRF.finalize", () -> oprf.finalize(INPUT, blindResult.blind(), evaluatedElement));
+		}
+
+		final var voprf = BcVOPRF.createP256();
+		final var voprfKeyPair = voprf.randomKeyPair();
+		final var voprfBlind = voprf.blind(INPUT);
+		final var voprfEvaluated = voprf.blindEvaluate(voprfKeyPair.secretKey(), voprfKeyPair.publicKey(), voprfBlind.blindedElement());
+		final var voprfProof = voprf.decodeProof(voprfEvaluated.proof());
+		check(failures, "oprf.bc.P256.VOPRF.blindEvaluate", () -> voprf.blindEvaluate(voprfKeyPair.secretKey(), voprfKeyPair.publicKey(), voprfBlind.blindedElement()));
+		check(failures, "oprf.bc.P256.VOPRF.finalize", () -> voprf.finalize(INPUT, voprfBlind.blind(), voprfEvaluated.evaluatedElement(),
+			voprfBlind.blindedElement(), voprfKeyPair.publicKey(), voprfProof));
+
+		final var poprf = BcPOPRF.createP256();
+		final var poprfKeyPair = poprf.randomKeyPair();
+		final var poprfBlind = poprf.blind(INPUT, INFO, poprfKeyPair.publicKey());
+		final var poprfEvaluated = poprf.blindEvaluate(poprfKeyPair.secretKey(), poprfBlind.blindedElement(), INFO);
+		final var poprfProof = poprf.decodeProof(poprfEvaluated.proof());
+		check(failures, "oprf.bc.P256.POPRF.blindEvaluate", () -> poprf.blindEvaluate(poprfKeyPair.secretKey(), poprfBlind.blindedElement(), INFO));
+		check(failures, "oprf.bc.P256.POPRF.finalize", () -> poprf.finalize(INPUT, poprfBlind.blind(), poprfEvaluated.evaluatedElement(),
+			poprfBlind.blindedElement(), poprfProof, INFO, poprfBlind.tweakedKey()));
+
+		assertWithinBudgets(failures);
+	}
+
+	@Test
+	void testRistretto255OPRF() throws Exception { //NOSONAR
+		final var failures = new ArrayList<String>();
+
+		final var oprf = new Ristretto255OPRF();
+		final var keyPair = oprf.randomKeyPair();
+		final var blindResult = oprf.blind(INPUT);
+		final var evaluatedElement = oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement());
+		check(failures, "oprf.ristretto255.OPRF.blindEvaluate", () -> oprf.blindEvaluate(keyPair.secretKey(), blindResult.blindedElement()));
+		check(failures, "oprf.ristretto255.OPRF.finalize", () -> oprf.finalize(INPUT, blindResult.blind(), evaluatedElement));
+
+		final var voprf = new Ristretto255VOPRF();
+		final var voprfBlind = voprf.blind(INPUT);
+		final var voprfEvaluated = voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), voprfBlind.blindedElement());
+		final var voprfProof = Ristretto255VOPRF.Proof.fromBytes(voprfEvaluated.proof());
+		check(failures, "oprf.ristretto255.VOPRF.blindEvaluate", () -> voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), voprfBlind.blindedElement()));
+		check(failures, "oprf.ristretto255.VOPRF.finalize", () -> voprf.finalize(INPUT, voprfBlind.blind(), voprfEvaluated.evaluatedElement(),
+			voprfBlind.blindedElement(), keyPair.publicKey(), voprfProof));
+
+		final var poprf = new Ristretto255POPRF();
+		final var poprfBlind = poprf.blind(INPUT, INFO, keyPair.publicKey());
+		final var poprfEvaluated = poprf.blindEvaluate(keyPair.secretKey(), poprfBlind.blindedElement(), INFO);
+		final var poprfProof = Ristretto255POPRF.Proof.fromBytes(poprfEvaluated.proof());
+		check(failures, "oprf.ristretto255.POPRF.blindEvaluate", () -> poprf.blindEvaluate(keyPair.secretKey(), poprfBlind.blindedElement(), INFO));
+		check(failures, "oprf.ristretto255.POPRF.finalize", () -> poprf.finalize(INPUT, poprfBlind.blind(), poprfEvaluated.evaluatedElement(),
+			poprfBlind.blindedElement(), poprfProof, INFO, poprfBlind.tweakedKey()));
+
+		assertWithinBudgets(failures);
+	}
+
+	@Test
+	void testNOPAQUERecover() throws Exception { //NOSONAR
+		final var failures = new ArrayList<String>();
+		final var client = new Client(Stretcher.IDENTITY);
+		final var server = new Server();
+
+		final var password = client.randomSecret();
+		final var registerRequest = client.createRegistrationRequest(password).request();
+		final var serverKeyPair = server.randomKeyPair();
+		final var credentialId = CredentialIdentifier.fromBytes(client.randomSecret());
+		final var oprfSeed = server.randomSeed();
+		final var registrationResponse = server.createRegistrationResponse(RegistrationRequest.fromBytes(registerRequest), serverKeyPair.publicKey(), credentialId, oprfSeed);
+		final var serverRecord = RegistrationRecord.fromBytes(client.finalizeRegistrationRequest(registrationResponse, null, null).record());
+
+		final var recoverRequest = client.createRecoverRequest(password);
+		final var recoverResponse = server.createRecoverResponse(serverKeyPair, serverRecord, credentialId, oprfSeed, recoverRequest);
+		check(failures, "nopaque.ristretto255.Server.createRecoverResponse", () -> server.createRecoverResponse(serverKeyPair, serverRecord, credentialId, oprfSeed, recoverRequest));
+		check(failures, "nopaque.ristretto255.Client.finalizeRecoverRequest", () -> client.finalizeRecoverRequest(recoverResponse, null, null));
+
+		assertWithinBudgets(failures);
+	}
+}
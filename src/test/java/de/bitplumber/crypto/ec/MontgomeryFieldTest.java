@@ -0,0 +1,105 @@
+/**
+ * Montgomery arithmetic modulo curve orders
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+class MontgomeryFieldTest {
+	private static final String[] CURVES = new String[]{ "P-256", "P-384", "P-521", "secp256k1" };
+
+	private final SHAKEDigest rng = new SHAKEDigest(128);
+
+	private byte[] randomBytes(int length) {
+		final var buf = new byte[length];
+		rng.doOutput(buf, 0, buf.length);
+		return buf;
+	}
+
+	private BigInteger randomBelow(BigInteger n) {
+		return BigIntegers.fromUnsignedByteArray(randomBytes(80)).mod(n);
+	}
+
+	@Test
+	void testArithmetic() {
+		for (final var name : CURVES) {
+			final var n = ECNamedCurveTable.getParameterSpec(name).getN();
+			final var field = new MontgomeryField(n);
+			final var t = field.createScratch();	// Reused across all iterations
+			final var values = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE, n.subtract(BigInteger.ONE), n.shiftRight(1) };
+			for (int i = 0; i < 200; i++) {
+				final var x = i < values.length ? values[i] : randomBelow(n);
+				final var y = i < values.length ? values[values.length - 1 - i] : randomBelow(n);
+				final var a = field.fromBigInteger(x);
+				final var b = field.fromBigInteger(y);
+				final var r = field.create();
+
+				assertEquals(x, field.toBigInteger(a), name);
+				field.mul(r, a, b);
+				assertEquals(x.multiply(y).mod(n), field.toBigInteger(r), name);
+				field.mul(r, a, b, t);
+				assertEquals(x.multiply(y).mod(n), field.toBigInteger(r), name);
+				field.copy(r, a);
+				field.sqr(r, r, t);
+				assertEquals(x.multiply(x).mod(n), field.toBigInteger(r), name);
+				field.add(r, a, b);
+				assertEquals(x.add(y).mod(n), field.toBigInteger(r), name);
+				field.sub(r, a, b);
+				assertEquals(x.subtract(y).mod(n), field.toBigInteger(r), name);
+				field.neg(r, a);
+				assertEquals(x.negate().mod(n), field.toBigInteger(r), name);
+
+				if (x.signum() != 0) {
+					assertTrue(field.invert(r, a));
+					assertEquals(x.modInverse(n), field.toBigInteger(r), name);
+				} else {
+					assertFalse(field.invert(r, a));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testReduce() {
+		for (final var name : CURVES) {
+			final var n = ECNamedCurveTable.getParameterSpec(name).getN();
+			final var field = new MontgomeryField(n);
+			for (final var length : new int[]{ 1, 32, 48, 72, 98, 200 }) {
+				final var uniformBytes = randomBytes(length);
+				assertEquals(BigIntegers.fromUnsignedByteArray(uniformBytes).mod(n), field.toBigInteger(field.reduce(uniformBytes)), name);
+			}
+		}
+	}
+
+	@Test
+	void testInvertAll() {
+		final var n = ECNamedCurveTable.getParameterSpec("P-384").getN();
+		final var field = new MontgomeryField(n);
+		final var x = new BigInteger[8];
+		final var a = new long[x.length][];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = randomBelow(n.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+			a[i] = field.fromBigInteger(x[i]);
+		}
+
+		assertTrue(field.invertAll(a));
+		for (int i = 0; i < x.length; i++)
+			assertEquals(x[i].modInverse(n), field.toBigInteger(a[i]));
+
+		a[3] = field.create();
+		assertFalse(field.invertAll(a));
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * Vector API (jdk.incubator.vector) P-256 field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+class P256BatchTest {
+	private static final int[] BATCH_SIZES = new int[]{ 1, 3, 8, 13, 33 };
+
+	private final SHAKEDigest rng = new SHAKEDigest(128);
+
+	private BigInteger randomBelow(BigInteger n) {
+		final var buf = new byte[48];
+		rng.doOutput(buf, 0, buf.length);
+		return BigIntegers.fromUnsignedByteArray(buf).mod(n);
+	}
+
+	@Test
+	void testLimbConversions() {
+		final var p = P256Limbs.FIELD_P;
+		final var fe = P256Limbs.allocate(3);
+		final var values = new BigInteger[]{ BigInteger.ZERO, p.subtract(BigInteger.ONE), randomBelow(p) };
+		for (int j = 0; j < values.length; j++) {
+			P256Limbs.fromBytes(fe, j, BigIntegers.asUnsignedByteArray(32, values[j]));
+			assertArrayEquals(BigIntegers.asUnsignedByteArray(32, values[j]), P256Limbs.toBytes(fe, j));
+			for (int i = 0; i < P256Limbs.LIMBS; i++)
+				assertEquals(P256Limbs.fromBigInteger(values[j])[i], fe[i][j]);
+		}
+	}
+
+	@Test
+	void testFieldArithmetic() {
+		assumeTrue(P256Batch.isAvailable(), "Vector API not available");
+
+		final var p = P256Limbs.FIELD_P;
+		final var rInv = P256Limbs.MONT_R.modInverse(p);
+		final var n = 4 * P256VectorField.LANES;
+		final var a = P256Limbs.allocate(n);
+		final var b = P256Limbs.allocate(n);
+		final var av = new BigInteger[n];
+		final var bv = new BigInteger[n];
+		for (int j = 0; j < n; j++) {
+			// Loosely reduced inputs in [0, 2p)
+			av[j] = j == 0 ? p.shiftLeft(1).subtract(BigInteger.ONE) : randomBelow(p.shiftLeft(1));
+			bv[j] = j == 1 ? BigInteger.ZERO : randomBelow(p.shiftLeft(1));
+			P256Limbs.set(a, j, P256Limbs.fromBigInteger(av[j]));
+			P256Limbs.set(b, j, P256Limbs.fromBigInteger(bv[j]));
+		}
+
+		final var r = P256Limbs.allocate(n);
+		P256VectorField.mul(r, a, b, n);
+		check(r, n, j -> av[j].multiply(bv[j]).multiply(rInv));
+		P256VectorField.sqr(r, a, n);
+		check(r, n, j -> av[j].multiply(av[j]).multiply(rInv));
+		P256VectorField.add(r, a, b, n);
+		check(r, n, j -> av[j].add(bv[j]));
+		P256VectorField.sub(r, a, b, n);
+		check(r, n, j -> av[j].subtract(bv[j]));
+		P256VectorField.neg(r, a, n);
+		check(r, n, j -> av[j].negate());
+	}
+
+	private interface Expected {
+		BigInteger get(int j);
+	}
+
+	private static void check(long[][] r, int n, Expected expected) {
+		final var p = P256Limbs.FIELD_P;
+		final var reduced = P256Limbs.allocate(n);
+		P256VectorField.reduce(reduced, r, n);
+		for (int j = 0; j < n; j++) {
+			var value = BigInteger.ZERO;
+			for (int i = P256Limbs.LIMBS - 1; i >= 0; i--) {
+				assertTrue(r[i][j] >= 0 && r[i][j] <= P256Limbs.MASK, "limb out of range");
+				value = value.shiftLeft(P256Limbs.BITS).add(BigInteger.valueOf(r[i][j]));
+			}
+			assertTrue(value.compareTo(p.shiftLeft(1)) < 0, "result not loosely reduced");
+			assertEquals(expected.get(j).mod(p), value.mod(p));
+			assertArrayEquals(BigIntegers.asUnsignedByteArray(32, value.mod(p)), P256Limbs.toBytes(reduced, j));
+		}
+	}
+
+	@Test
+	void testMultiply() {
+		assumeTrue(P256Batch.isAvailable(), "Vector API not available");
+
+		final var spec = ECNamedCurveTable.getParameterSpec("P-256");
+		final var curve = spec.getCurve();
+		assertTrue(P256Batch.supports(curve));
+		assertFalse(P256Batch.supports(ECNamedCurveTable.getParameterSpec("secp256k1").getCurve()));
+
+		for (final var size : BATCH_SIZES) {
+			final var points = new ECPoint[size];
+			for (int i = 0; i < size; i++)
+				points[i] = spec.getG().multiply(randomBelow(spec.getN()).add(BigInteger.ONE));
+
+			final var scalars = new BigInteger[]{ BigInteger.ONE, spec.getN().subtract(BigInteger.ONE), randomBelow(spec.getN()) };
+			for (final var k : scalars) {
+				final var result = P256Batch.multiply(curve, points, k);
+				for (int i = 0; i < size; i++)
+					assertEquals(points[i].multiply(k).normalize(), result[i], "batch multiply mismatch");
+			}
+		}
+	}
+
+	@Test
+	void testMapToCurve() {
+		assumeTrue(P256Batch.isAvailable(), "Vector API not available");
+
+		final var curve = ECNamedCurveTable.getParameterSpec("P-256").getCurve();
+		final var q = curve.getField().getCharacteristic();
+		for (final var size : BATCH_SIZES) {
+			final var u0 = new ECFieldElement[size];
+			final var u1 = new ECFieldElement[size];
+			for (int i = 0; i < size; i++) {
+				u0[i] = curve.fromBigInteger(i == 0 ? BigInteger.ZERO : randomBelow(q));
+				u1[i] = curve.fromBigInteger(randomBelow(q));
+			}
+
+			final var single = P256Batch.mapToCurve(curve, u0);
+			final var sum = P256Batch.mapToCurve(curve, u0, u1);
+			for (int i = 0; i < size; i++) {
+				assertTrue(single[i].isValid());
+				assertEquals(single[i].add(P256Batch.mapToCurve(curve, new ECFieldElement[]{ u1[i] })[0]).normalize(), sum[i]);
+			}
+		}
+	}
+}
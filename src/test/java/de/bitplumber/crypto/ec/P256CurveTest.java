@@ -0,0 +1,126 @@
+/**
+ * P-256 prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+class P256CurveTest {
+	private static final BigInteger P = P256Field.P;
+
+	private final SHAKEDigest rng = new SHAKEDigest(128);
+
+	private byte[] randomBytes(int length) {
+		final var buf = new byte[length];
+		rng.doOutput(buf, 0, buf.length);
+		return buf;
+	}
+
+	private BigInteger randomBelow(BigInteger n) {
+		return BigIntegers.fromUnsignedByteArray(randomBytes(64)).mod(n);
+	}
+
+	@Test
+	void testFieldArithmetic() {
+		final var values = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE, P.subtract(BigInteger.ONE), P.shiftRight(1) };
+		for (int i = 0; i < 200; i++) {
+			final var x = i < values.length ? values[i] : randomBelow(P);
+			final var y = i < values.length ? values[values.length - 1 - i] : randomBelow(P);
+			final var a = P256Field.fromBigInteger(x);
+			final var b = P256Field.fromBigInteger(y);
+			final var r = P256Field.create();
+
+			P256Field.mul(r, a, b);
+			assertEquals(x.multiply(y).mod(P), P256Field.toBigInteger(r));
+			P256Field.sqr(r, a);
+			assertEquals(x.multiply(x).mod(P), P256Field.toBigInteger(r));
+			P256Field.add(r, a, b);
+			assertEquals(x.add(y).mod(P), P256Field.toBigInteger(r));
+			P256Field.sub(r, a, b);
+			assertEquals(x.subtract(y).mod(P), P256Field.toBigInteger(r));
+			P256Field.neg(r, a);
+			assertEquals(x.negate().mod(P), P256Field.toBigInteger(r));
+			assertArrayEquals(BigIntegers.asUnsignedByteArray(32, x), P256Field.toBytes(a));
+
+			if (i < 10 && x.signum() != 0) {
+				P256Field.invert(r, a);
+				assertEquals(x.modInverse(P), P256Field.toBigInteger(r));
+				P256Field.powP34(r, a);
+				assertEquals(x.modPow(P.subtract(BigInteger.valueOf(3)).shiftRight(2), P), P256Field.toBigInteger(r));
+			}
+		}
+	}
+
+	@Test
+	void testReduce() {
+		for (int i = 0; i < 100; i++) {
+			final var uniformBytes = randomBytes(48);
+			assertEquals(BigIntegers.fromUnsignedByteArray(uniformBytes).mod(P), P256Curve.reduce(uniformBytes));
+		}
+
+		final var ones = new byte[48];
+		Arrays.fill(ones, (byte) 0xff);
+		assertEquals(BigIntegers.fromUnsignedByteArray(ones).mod(P), P256Curve.reduce(ones));
+	}
+
+	@Test
+	void testMultiply() {
+		final var spec = ECNamedCurveTable.getParameterSpec("P-256");
+		assertTrue(P256Curve.supports(spec.getCurve()));
+
+		final var n = spec.getN();
+		final var scalars = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(16), BigInteger.valueOf(17),
+			BigInteger.valueOf(31), BigInteger.valueOf(32), BigInteger.valueOf(33), n.subtract(BigInteger.valueOf(17)), n.subtract(BigInteger.TWO),
+			n.subtract(BigInteger.ONE), n, BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE) };
+		final var p = spec.getG().multiply(randomBelow(n));
+		for (final var k : scalars)
+			assertEquals(p.multiply(k).normalize(), P256Curve.multiply(p, k));
+
+		for (int i = 0; i < 10; i++) {
+			final var k = randomBelow(n);
+			assertEquals(spec.getG().multiply(k).normalize(), P256Curve.multiply(spec.getG(), k));
+		}
+	}
+
+	@Test
+	void testDecodePoint() {
+		final var spec = ECNamedCurveTable.getParameterSpec("P-256");
+		final var curve = spec.getCurve();
+		for (int i = 0; i < 20; i++) {
+			final var p = spec.getG().multiply(randomBelow(spec.getN())).normalize();
+			assertEquals(p, P256Curve.decodePoint(curve, p.getEncoded(true)));
+		}
+
+		// x = p (not canonical), identity, uncompressed encoding
+		final var invalid = new byte[33];
+		invalid[0] = 0x02;
+		System.arraycopy(BigIntegers.asUnsignedByteArray(32, P), 0, invalid, 1, 32);
+		assertNull(P256Curve.decodePoint(curve, invalid));
+		assertNull(P256Curve.decodePoint(curve, new byte[]{ 0x00 }));
+		assertNull(P256Curve.decodePoint(curve, spec.getG().getEncoded(false)));
+
+		// x with no square root of x^3 + ax + b
+		final var a = curve.getA().toBigInteger();
+		final var b = curve.getB().toBigInteger();
+		var x = BigInteger.ONE;
+		while (x.pow(3).add(a.multiply(x)).add(b).mod(P).modPow(P.shiftRight(1), P).equals(BigInteger.ONE))
+			x = x.add(BigInteger.ONE);
+		System.arraycopy(BigIntegers.asUnsignedByteArray(32, x), 0, invalid, 1, 32);
+		assertNull(P256Curve.decodePoint(curve, invalid));
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * P-521 Mersenne prime field arithmetic
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+class P521CurveTest {
+	private static final BigInteger P = P521Field.P;
+
+	private final SHAKEDigest rng = new SHAKEDigest(128);
+
+	private byte[] randomBytes(int length) {
+		final var buf = new byte[length];
+		rng.doOutput(buf, 0, buf.length);
+		return buf;
+	}
+
+	private BigInteger randomBelow(BigInteger n) {
+		return BigIntegers.fromUnsignedByteArray(randomBytes(80)).mod(n);
+	}
+
+	@Test
+	void testFieldArithmetic() {
+		final var values = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE, P.subtract(BigInteger.ONE), P.shiftRight(1) };
+		for (int i = 0; i < 200; i++) {
+			final var x = i < values.length ? values[i] : randomBelow(P);
+			final var y = randomBelow(P);
+			final var a = P521Field.fromBigInteger(x);
+			final var b = P521Field.fromBigInteger(y);
+			final var r = P521Field.create();
+
+			P521Field.mul(r, a, b);
+			assertEquals(x.multiply(y).mod(P), P521Field.toBigInteger(r));
+			P521Field.sqr(r, a);
+			assertEquals(x.multiply(x).mod(P), P521Field.toBigInteger(r));
+			P521Field.add(r, a, b);
+			assertEquals(x.add(y).mod(P), P521Field.toBigInteger(r));
+			P521Field.sub(r, a, b);
+			assertEquals(x.subtract(y).mod(P), P521Field.toBigInteger(r));
+			P521Field.neg(r, a);
+			assertEquals(x.negate().mod(P), P521Field.toBigInteger(r));
+			assertArrayEquals(BigIntegers.asUnsignedByteArray(66, x), P521Field.toBytes(a));
+
+			if (i < 10 && x.signum() != 0) {
+				P521Field.invert(r, a);
+				assertEquals(x.modInverse(P), P521Field.toBigInteger(r));
+			}
+		}
+	}
+
+	@Test
+	void testReduce() {
+		for (int i = 0; i < 100; i++) {
+			final var uniformBytes = randomBytes(98);
+			assertEquals(BigIntegers.fromUnsignedByteArray(uniformBytes).mod(P), P521Curve.reduce(uniformBytes));
+		}
+
+		final var ones = new byte[98];
+		Arrays.fill(ones, (byte) 0xff);
+		assertEquals(BigIntegers.fromUnsignedByteArray(ones).mod(P), P521Curve.reduce(ones));
+	}
+
+	@Test
+	void testMultiply() {
+		final var spec = ECNamedCurveTable.getParameterSpec("P-521");
+		assertTrue(P521Curve.supports(spec.getCurve()));
+
+		final var n = spec.getN();
+		final var scalars = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(16), n.subtract(BigInteger.ONE), n };
+		final var p = spec.getG().multiply(randomBelow(n));
+		for (final var k : scalars)
+			assertEquals(p.multiply(k).normalize(), P521Curve.multiply(p, k));
+
+		final var multi = P521Curve.multiply(p, scalars);
+		for (int i = 0; i < scalars.length; i++)
+			assertEquals(p.multiply(scalars[i]).normalize(), multi[i]);
+
+		for (int i = 0; i < 10; i++) {
+			final var k = randomBelow(n);
+			assertEquals(spec.getG().multiply(k).normalize(), P521Curve.multiply(spec.getG(), k));
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Batched Ristretto255 encoding
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+import com.weavechain.curve25519.RistrettoElement;
+import com.weavechain.curve25519.Scalar;
+
+class Ristretto255BatchTest {
+	private static final BigInteger P = Curve25519Field.P;
+
+	private final SHAKEDigest rng = new SHAKEDigest(128);
+
+	private byte[] randomBytes(int length) {
+		final var buf = new byte[length];
+		rng.doOutput(buf, 0, buf.length);
+		return buf;
+	}
+
+	private BigInteger randomBelow(BigInteger n) {
+		return BigIntegers.fromUnsignedByteArray(randomBytes(48)).mod(n);
+	}
+
+	@Test
+	void testFieldArithmetic() {
+		final var values = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE, P.subtract(BigInteger.ONE), P.shiftRight(1) };
+		for (int i = 0; i < 200; i++) {
+			final var x = i < values.length ? values[i] : randomBelow(P);
+			final var y = randomBelow(P);
+			final var a = Curve25519Field.fromBigInteger(x);
+			final var b = Curve25519Field.fromBigInteger(y);
+			final var r = Curve25519Field.create();
+
+			Curve25519Field.mul(r, a, b);
+			assertEquals(x.multiply(y).mod(P), Curve25519Field.toBigInteger(r));
+			Curve25519Field.sqr(r, a);
+			assertEquals(x.multiply(x).mod(P), Curve25519Field.toBigInteger(r));
+			Curve25519Field.add(r, a, b);
+			assertEquals(x.add(y).mod(P), Curve25519Field.toBigInteger(r));
+			Curve25519Field.sub(r, a, b);
+			assertEquals(x.subtract(y).mod(P), Curve25519Field.toBigInteger(r));
+			Curve25519Field.neg(r, a);
+			assertEquals(x.negate().mod(P), Curve25519Field.toBigInteger(r));
+
+			final var le = Arrays.reverse(BigIntegers.asUnsignedByteArray(32, x));
+			assertArrayEquals(le, Curve25519Field.toBytes(a));
+			assertEquals(x, Curve25519Field.toBigInteger(Curve25519Field.fromBytes(le)));
+
+			if (i < 10 && x.signum() != 0) {
+				Curve25519Field.invert(r, a);
+				assertEquals(x.modInverse(P), Curve25519Field.toBigInteger(r));
+			}
+		}
+
+		// 1 / sqrt(a - d), a = -1
+		final var d = BigInteger.valueOf(-121665).multiply(BigInteger.valueOf(121666).modInverse(P)).mod(P);
+		final var invsqrt = Curve25519Field.toBigInteger(Ristretto255Batch.INVSQRT_A_MINUS_D);
+		assertEquals(BigInteger.ONE, invsqrt.multiply(invsqrt).multiply(BigInteger.ONE.negate().subtract(d)).mod(P));
+	}
+
+	@Test
+	void testCoordinateAccess() {
+		// Fails (with the reason as cause) if a curve25519-elisabeth update or the module setup
+		// breaks the reflective access, instead of silently falling back to compress()
+		assertDoesNotThrow(Ristretto255Batch::requireAvailable);
+		assertTrue(Ristretto255Batch.isAvailable());
+	}
+
+	@Test
+	void testDoubleAndCompress() {
+		Ristretto255Batch.requireAvailable();
+
+		final var points = new RistrettoElement[20];
+		points[0] = RistrettoElement.IDENTITY;
+		points[1] = RistrettoElement.BASEPOINT;
+		for (int i = 2; i < points.length; i++) {
+			final var k = Scalar.fromBytesModOrderWide(randomBytes(64));
+			points[i] = i % 2 == 0 ? RistrettoElement.BASEPOINT.multiply(k) : RistrettoElement.fromUniformBytes(randomBytes(64));
+		}
+
+		for (final var size : new int[]{ 1, 2, points.length }) {
+			final var batch = java.util.Arrays.copyOf(points, size);
+			final var encoded = Ristretto255Batch.doubleAndCompress(batch);
+			for (int i = 0; i < size; i++)
+				assertArrayEquals(batch[i].dbl().compress().toByteArray(), encoded[i], "encoding mismatch");
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Interleaved double-scalar multiplication for Ristretto255
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.ec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Test;
+
+import com.weavechain.curve25519.RistrettoElement;
+import com.weavechain.curve25519.Scalar;
+
+class Ristretto255MultiplierTest {
+	private final SHAKEDigest rng = new SHAKEDigest(128);
+
+	private Scalar randomScalar() {
+		final var buf = new byte[64];
+		rng.doOutput(buf, 0, buf.length);
+		return Scalar.fromBytesModOrderWide(buf);
+	}
+
+	@Test
+	void testNonAdjacentForm() {
+		for (int i = 0; i < 50; i++) {
+			final var k = i == 0 ? Scalar.ZERO : randomScalar();
+			for (final var width : new int[]{ 5, 8 }) {
+				final var naf = Ristretto255Multiplier.nonAdjacentForm(k, width);
+				var value = BigInteger.ZERO;
+				var lastNonZero = -width;
+				for (int j = naf.length - 1; j >= 0; j--) {
+					value = value.shiftLeft(1).add(BigInteger.valueOf(naf[j]));
+					if (naf[j] != 0) {
+						assertTrue((naf[j] & 1) != 0 && Math.abs(naf[j]) < (1 << (width - 1)), "invalid digit");
+						assertTrue(lastNonZero - j >= width || lastNonZero < 0, "digits too close");
+						lastNonZero = j;
+					}
+				}
+				assertEquals(BigIntegers.fromUnsignedByteArray(Arrays.reverse(k.toByteArray())), value);
+			}
+		}
+	}
+
+	@Test
+	void testSumOfTwoMultiplies() {
+		final var P = RistrettoElement.BASEPOINT.multiply(randomScalar());
+		final var Q = RistrettoElement.BASEPOINT.multiply(randomScalar());
+		final var scalars = new Scalar[]{ Scalar.ZERO, Scalar.ONE, Scalar.ONE.subtract(Scalar.ONE.add(Scalar.ONE)), randomScalar(), randomScalar() };
+		for (final var a : scalars) {
+			for (final var b : scalars) {
+				assertEquals(P.multiply(a).add(Q.multiply(b)), Ristretto255Multiplier.sumOfTwoMultiplies(P, a, Q, b));
+				assertEquals(RistrettoElement.BASEPOINT.multiply(a).add(Q.multiply(b)), Ristretto255Multiplier.sumOfTwoMultipliesBasepoint(a, Q, b));
+			}
+		}
+	}
+}
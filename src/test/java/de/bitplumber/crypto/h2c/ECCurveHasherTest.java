@@ -9,11 +9,22 @@ package de.bitplumber.crypto.h2c;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
 
@@ -476,6 +487,27 @@ public class ECCurveHasherTest {
 		}
 	}
 
+	/**
+	 * Run all vectors (sharing the same DST) through the batch API at once
+	 * @param htc
+	 * @param vectors
+	 */
+	private void runRFC9830BatchVectors(BcCurveHasher htc, RFC9830TestVector[] vectors) {
+		final var mode = StringUtils.substring(vectors[0].DST(), -4);
+		final var DST = vectors[0].DST().getBytes(StandardCharsets.UTF_8);
+		final var msgs = new ArrayList<byte[]>();
+		for (final var vector : vectors)
+			msgs.add(vector.msg().getBytes(StandardCharsets.UTF_8));
+
+		final var points = "_RO_".equals(mode) ? htc.hashToCurveBatch(msgs, DST) : htc.encodeToCurveBatch(msgs, DST);
+		assertEquals(vectors.length, points.length);
+		for (int i = 0; i < points.length; i++) {
+			final var cidx = i;
+			final var p = points[i].normalize();
+			assertArrayEquals(p.getAffineXCoord().getEncoded(), vectors[i].px(), () -> String.format("#%d %s-%s batch P.x is invalid", cidx, htc.getCurveName(), mode));
+			assertArrayEquals(p.getAffineYCoord().getEncoded(), vectors[i].py(), () -> String.format("#%d %s-%s batch P.y is invalid", cidx, htc.getCurveName(), mode));
+		}
+	}
 
 	@Test
 	void testP256HashToCurveRFC9830() {
@@ -524,4 +556,124 @@ public class ECCurveHasherTest {
 		final var htc = BcCurveHasher.createSecp256k1();
 		runRFC9830Vectors(htc, Secp256k1EncodeToCurveTestVectors);
 	}
+
+	@Test
+	void testPublicInputModeRFC9830() {
+		final var p256 = BcCurveHasher.createP256().withPublicInputs();
+		assertTrue(p256.isPublicInputMode());
+		runRFC9830Vectors(p256, P256HashToCurveTestVectors);
+		runRFC9830Vectors(p256, P256EncodeToCurveTestVectors);
+
+		final var p384 = BcCurveHasher.createP384().withPublicInputs();
+		runRFC9830Vectors(p384, P384HashToCurveTestVectors);
+		runRFC9830Vectors(p384, P384EncodeToCurveTestVectors);
+
+		final var p521 = BcCurveHasher.createP521().withPublicInputs();
+		runRFC9830Vectors(p521, P521HashToCurveTestVectors);
+		runRFC9830Vectors(p521, P521EncodeToCurveTestVectors);
+
+		final var secp256k1 = BcCurveHasher.createSecp256k1().withPublicInputs();
+		runRFC9830Vectors(secp256k1, Secp256k1HashToCurveTestVectors);
+		runRFC9830Vectors(secp256k1, Secp256k1EncodeToCurveTestVectors);
+	}
+
+	/**
+	 * Counts the calls of the variable-time sqrt_ratio to check which mapping is used
+	 */
+	private static final class SqrtRatioCountingHasher extends BcCurveHasher {
+		private final AtomicInteger vartimeCalls = new AtomicInteger();
+
+		SqrtRatioCountingHasher(BcCurveHasher other, boolean publicInputs) {
+			super(other, publicInputs);
+		}
+
+		@Override
+		protected SqrtRatioResult sqrtRatioVartime(ECCurve curve, ECFieldElement u, ECFieldElement v) {
+			vartimeCalls.incrementAndGet();
+			return super.sqrtRatioVartime(curve, u, v);
+		}
+	}
+
+	private static int vartimeCalls(BcCurveHasher hasher, boolean publicInputs) {
+		final var counting = new SqrtRatioCountingHasher(hasher, publicInputs);
+		counting.hashToCurve(Hex.decode("616263"));
+		counting.encodeToCurve(Hex.decode("616263"), null);
+		return counting.vartimeCalls.get();
+	}
+
+	@Test
+	void testPublicInputModePath() {
+		// Generic SSWU: variable-time sqrt_ratio in public input mode only
+		assertEquals(3, vartimeCalls(BcCurveHasher.createP384(), true));
+		assertEquals(0, vartimeCalls(BcCurveHasher.createP384(), false));
+		assertEquals(3, vartimeCalls(BcCurveHasher.createSecp256k1(), true));
+		assertEquals(0, vartimeCalls(BcCurveHasher.createSecp256k1(), false));
+
+		// Dedicated field arithmetic, public input mode has no effect
+		assertEquals(0, vartimeCalls(BcCurveHasher.createP256(), true));
+		assertEquals(0, vartimeCalls(BcCurveHasher.createP521(), true));
+	}
+
+	@Test
+	void testBatchRFC9830() {
+		// P-256 uses the vectorized batch implementation (if available), the others loop
+		final var p256 = BcCurveHasher.createP256();
+		runRFC9830BatchVectors(p256, P256HashToCurveTestVectors);
+		runRFC9830BatchVectors(p256, P256EncodeToCurveTestVectors);
+
+		final var p384 = BcCurveHasher.createP384();
+		runRFC9830BatchVectors(p384, P384HashToCurveTestVectors);
+		runRFC9830BatchVectors(p384, P384EncodeToCurveTestVectors);
+
+		final var secp256k1 = BcCurveHasher.createSecp256k1();
+		runRFC9830BatchVectors(secp256k1, Secp256k1HashToCurveTestVectors);
+		runRFC9830BatchVectors(secp256k1, Secp256k1EncodeToCurveTestVectors);
+	}
+
+	@Test
+	void testParallelMappingRFC9830() {
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var forks = new AtomicInteger();
+			final Executor counting = task -> {
+				forks.incrementAndGet();
+				executor.execute(task);
+			};
+
+			final var p521 = BcCurveHasher.createP521().withParallelMapping(counting);
+			assertTrue(p521.isParallelMapping());
+			runRFC9830Vectors(p521, P521HashToCurveTestVectors);
+			runRFC9830Vectors(p521, P521EncodeToCurveTestVectors);
+			assertEquals(P521HashToCurveTestVectors.length, forks.get());
+
+			// Below the field size threshold, mapping stays sequential
+			final var p256 = BcCurveHasher.createP256().withParallelMapping(counting);
+			assertFalse(p256.isParallelMapping());
+			runRFC9830Vectors(p256, P256HashToCurveTestVectors);
+			assertEquals(P521HashToCurveTestVectors.length, forks.get());
+
+			final var secp256k1 = BcCurveHasher.createSecp256k1().withParallelMapping(counting, 256);
+			assertTrue(secp256k1.isParallelMapping());
+			runRFC9830Vectors(secp256k1, Secp256k1HashToCurveTestVectors);
+
+			// Rejecting executor, falls back to the calling thread
+			final var rejecting = BcCurveHasher.createP521().withParallelMapping(task -> {
+				throw new RejectedExecutionException();
+			});
+			runRFC9830Vectors(rejecting, P521HashToCurveTestVectors);
+		}
+	}
+
+	@Test
+	void testJacobiSymbol() {
+		final var p = BcCurveHasher.createP256().getCurve().getField().getCharacteristic();
+		final var euler = p.subtract(BigInteger.ONE).shiftRight(1);
+		for (int i = 0; i < 200; i++) {
+			final var a = BigInteger.valueOf(i).pow(7).add(BigInteger.valueOf(i * 31L)).mod(p);
+			final var e = a.modPow(euler, p);
+			final var expected = a.signum() == 0 ? 0 : (e.equals(BigInteger.ONE) ? 1 : -1);
+			assertEquals(expected, BcCurveHasher.jacobi(a, p), "jacobi(" + a + ")");
+		}
+		assertEquals(-1, BcCurveHasher.jacobi(BigInteger.TWO, BigInteger.valueOf(3)));
+		assertEquals(0, BcCurveHasher.jacobi(BigInteger.valueOf(21), BigInteger.valueOf(15)));
+	}
 }
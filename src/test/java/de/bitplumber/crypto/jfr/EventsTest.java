@@ -0,0 +1,140 @@
+/**
+ * JDK Flight Recorder events for the protocol steps
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.h2c.BcCurveHasher;
+import de.bitplumber.crypto.nopaque.CredentialIdentifier;
+import de.bitplumber.crypto.nopaque.Stretcher;
+import de.bitplumber.crypto.nopaque.ristretto255.Client;
+import de.bitplumber.crypto.nopaque.ristretto255.Server;
+import de.bitplumber.crypto.nopaque.ristretto255.AbstractRistretto255.RegistrationRequest;
+import de.bitplumber.crypto.nopaque.ristretto255.Server.RegistrationRecord;
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+
+class EventsTest {
+	private static final byte[] INPUT = "jfr input".getBytes(StandardCharsets.UTF_8);
+
+	private static final String[] EVENTS = new String[]{
+		"de.bitplumber.crypto.HashToCurve",
+		"de.bitplumber.crypto.BlindEvaluate",
+		"de.bitplumber.crypto.Proof",
+		"de.bitplumber.crypto.Nopaque",
+		"de.bitplumber.crypto.Stretch",
+	};
+
+	@Test
+	void testDisabledByDefault() { //NOSONAR
+		FlightRecorder.register(HashToCurveEvent.class);
+		FlightRecorder.register(BlindEvaluateEvent.class);
+		FlightRecorder.register(ProofEvent.class);
+		FlightRecorder.register(NopaqueEvent.class);
+		FlightRecorder.register(StretchEvent.class);
+
+		final var names = new ArrayList<String>();
+		for (final var type : FlightRecorder.getFlightRecorder().getEventTypes()) {
+			if (type.getName().startsWith("de.bitplumber.crypto.")) {
+				names.add(type.getName());
+				assertFalse(type.isEnabled(), type.getName() + " enabled by default");
+			}
+		}
+		for (final var name : EVENTS)
+			assertTrue(names.contains(name), "missing event type " + name);
+		assertFalse(HashToCurveEvent.start().shouldCommit());
+	}
+
+	@Test
+	void testRecording() throws Exception { //NOSONAR
+		final Configuration configuration;
+		try (final var reader = new InputStreamReader(EventsTest.class.getResourceAsStream("crypto.jfc"), StandardCharsets.UTF_8)) {
+			configuration = Configuration.create(reader);
+		}
+
+		final var file = Files.createTempFile("crypto", ".jfr");
+		try {
+			try (final var recording = new Recording(configuration)) {
+				recording.start();
+
+				BcCurveHasher.createP384().hashToCurve(INPUT);
+
+				final var voprf = BcVOPRF.createP256();
+				final var keyPair = voprf.randomKeyPair();
+				final var blindResult = voprf.blind(INPUT);
+				final var evaluated = voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), blindResult.blindedElement());
+				voprf.finalize(INPUT, blindResult.blind(), evaluated.evaluatedElement(), blindResult.blindedElement(),
+					keyPair.publicKey(), voprf.decodeProof(evaluated.proof()));
+
+				final var client = new Client(Stretcher.IDENTITY);
+				final var server = new Server();
+				final var password = client.randomSecret();
+				final var serverKeyPair = server.randomKeyPair();
+				final var credentialId = CredentialIdentifier.fromBytes(client.randomSecret());
+				final var oprfSeed = server.randomSeed();
+				final var registrationResponse = server.createRegistrationResponse(RegistrationRequest.fromBytes(client.createRegistrationRequest(password).request()),
+					serverKeyPair.publicKey(), credentialId, oprfSeed);
+				final var serverRecord = RegistrationRecord.fromBytes(client.finalizeRegistrationRequest(registrationResponse, null, null).record());
+				final var recoverResponse = server.createRecoverResponse(serverKeyPair, serverRecord, credentialId, oprfSeed, client.createRecoverRequest(password));
+				client.finalizeRecoverRequest(recoverResponse, null, null);
+
+				recording.stop();
+				recording.dump(file);
+			}
+
+			final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+			final var hashToCurve = select(events, "de.bitplumber.crypto.HashToCurve");
+			assertTrue(hashToCurve.stream().anyMatch(e -> "hashToCurve".equals(e.getString("operation")) && e.getInt("batchSize") == 1));
+			assertTrue(hashToCurve.stream().allMatch(e -> e.getString("curve") != null));
+
+			final var blindEvaluate = select(events, "de.bitplumber.crypto.BlindEvaluate");
+			assertTrue(blindEvaluate.stream().anyMatch(e -> "P256-SHA256".equals(e.getString("suite")) && "VOPRF".equals(e.getString("mode"))
+				&& e.getInt("batchSize") == 1));
+			assertTrue(blindEvaluate.stream().anyMatch(e -> "ristretto255-SHA512".equals(e.getString("suite")) && "OPRF".equals(e.getString("mode"))));
+
+			final var proofs = select(events, "de.bitplumber.crypto.Proof");
+			assertEquals(2, proofs.size());
+			assertTrue(proofs.stream().allMatch(e -> "VOPRF".equals(e.getString("mode")) && e.getInt("batchSize") == 1));
+			assertTrue(proofs.stream().anyMatch(e -> "generate".equals(e.getString("operation"))));
+			assertTrue(proofs.stream().anyMatch(e -> "verify".equals(e.getString("operation"))));
+
+			final var steps = select(events, "de.bitplumber.crypto.Nopaque").stream().map(e -> e.getString("role") + "." + e.getString("step")).toList();
+			for (final var step : new String[]{ "client.createRegistrationRequest", "server.createRegistrationResponse", "client.finalizeRegistrationRequest",
+					"client.createRecoverRequest", "server.createRecoverResponse", "client.finalizeRecoverRequest" })
+				assertTrue(steps.contains(step), "missing NOPAQUE step " + step);
+
+			final var stretch = select(events, "de.bitplumber.crypto.Stretch");
+			assertEquals(2, stretch.size());
+			assertTrue(stretch.stream().allMatch(e -> e.getString("stretcher") != null));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static List<RecordedEvent> select(List<RecordedEvent> events, String name) {
+		final var result = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+		assertFalse(result.isEmpty(), "no " + name + " events recorded");
+		return result;
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.nopaque.CredentialIdentifier;
+import de.bitplumber.crypto.nopaque.Stretcher;
+import de.bitplumber.crypto.nopaque.ristretto255.Client;
+import de.bitplumber.crypto.nopaque.ristretto255.Server;
+import de.bitplumber.crypto.nopaque.ristretto255.AbstractRistretto255.RegistrationRequest;
+import de.bitplumber.crypto.nopaque.ristretto255.Server.RegistrationRecord;
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+
+class MetricsTest {
+	private static final byte[] INPUT = "metrics input".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void testLatencyHistogram() { //NOSONAR
+		// Bucket boundaries are contiguous and every value lands in a bucket whose bounds contain it
+		for (long v = 0; v < 1L << 20; v++) {
+			final var index = LatencyHistogram.bucketIndex(v);
+			assertTrue(v <= LatencyHistogram.bucketUpperBound(index));
+			assertTrue(index == 0 || v > LatencyHistogram.bucketUpperBound(index - 1));
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+
+		final var histogram = new LatencyHistogram();
+		assertEquals(0L, histogram.getP99());
+		for (long v = 1; v <= 10000; v++)
+			histogram.record(v * 1000);
+
+		assertEquals(10000L, histogram.getCount());
+		assertEquals(5000500.0, histogram.getMean(), 0.001);
+		assertEquals(10000000L, histogram.getMax());
+		// Within the ~3% bucket resolution
+		assertEquals(5000000.0, histogram.getP50(), 5000000.0 / 32);
+		assertEquals(9900000.0, histogram.getP99(), 9900000.0 / 32);
+		assertEquals(10000000L, histogram.getValueAtPercentile(100.0));
+
+		histogram.reset();
+		assertEquals(0L, histogram.getCount());
+		assertEquals(0L, histogram.getMax());
+	}
+
+	@Test
+	void testConcurrentRecording() throws Exception { //NOSONAR
+		final var histogram = new LatencyHistogram();
+		final var threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final var thread = new Thread(() -> {
+				for (int i = 0; i < 100000; i++)
+					histogram.record(i);
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (final var thread : threads)
+			thread.join();
+
+		assertEquals(400000L, histogram.getCount());
+		assertEquals(99999L, histogram.getMax());
+	}
+
+	@Test
+	void testStageTimings() throws Exception { //NOSONAR
+		assumeTrue(Metrics.ENABLED, "Instrumentation disabled (-Dde.bitplumber.crypto.metrics=true)");
+
+		final var listener = new HistogramMetricsListener();
+		final var mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		listener.registerMBeans(mbeanServer);
+		Metrics.setListener(listener);
+		try {
+			final var voprf = BcVOPRF.createP256();
+			final var keyPair = voprf.randomKeyPair();
+			final var blindResult = voprf.blind(INPUT);
+			final var evaluated = voprf.blindEvaluate(keyPair.secretKey(), keyPair.publicKey(), blindResult.blindedElement());
+			voprf.finalize(INPUT, blindResult.blind(), evaluated.evaluatedElement(), blindResult.blindedElement(),
+				keyPair.publicKey(), voprf.decodeProof(evaluated.proof()));
+
+			for (final var stage : new Stage[]{ Stage.HASH_TO_GROUP, Stage.MULTIPLY, Stage.COMPUTE_COMPOSITES, Stage.CHALLENGE_HASH, Stage.FINALIZE_HASH }) {
+				final var histogram = listener.getHistogram("P256-SHA256", stage);
+				assertNotNull(histogram, "no timings for " + stage);
+				assertTrue(histogram.getCount() > 0);
+			}
+			// Proof generation + verification each compute composites once
+			assertEquals(2L, listener.getHistogram("P256-SHA256", Stage.COMPUTE_COMPOSITES).getCount());
+
+			final var client = new Client(Stretcher.IDENTITY);
+			final var server = new Server();
+			final var password = client.randomSecret();
+			final var serverKeyPair = server.randomKeyPair();
+			final var credentialId = CredentialIdentifier.fromBytes(client.randomSecret());
+			final var oprfSeed = server.randomSeed();
+			final var registrationResponse = server.createRegistrationResponse(RegistrationRequest.fromBytes(client.createRegistrationRequest(password).request()),
+				serverKeyPair.publicKey(), credentialId, oprfSeed);
+			final var serverRecord = RegistrationRecord.fromBytes(client.finalizeRegistrationRequest(registrationResponse, null, null).record());
+			final var recoverResponse = server.createRecoverResponse(serverKeyPair, serverRecord, credentialId, oprfSeed, client.createRecoverRequest(password));
+			client.finalizeRecoverRequest(recoverResponse, null, null);
+
+			for (final var stage : new Stage[]{ Stage.EXPAND, Stage.EXTRACT, Stage.HMAC })
+				assertNotNull(listener.getHistogram(Server.SUITE_ID, stage), "no timings for " + stage);
+			assertNotNull(listener.getHistogram("ristretto255-SHA512", Stage.HASH_TO_GROUP));
+
+			final var name = HistogramMetricsListener.objectName(new HistogramMetricsListener.Key("P256-SHA256", Stage.MULTIPLY));
+			assertTrue(mbeanServer.isRegistered(name));
+			assertTrue((Long) mbeanServer.getAttribute(name, "Count") > 0);
+			assertTrue((Long) mbeanServer.getAttribute(name, "P99") > 0);
+		} finally {
+			Metrics.setListener(MetricsListener.NOOP);
+			for (final var key : listener.getHistograms().keySet())
+				mbeanServer.unregisterMBean(HistogramMetricsListener.objectName(key));
+		}
+	}
+}
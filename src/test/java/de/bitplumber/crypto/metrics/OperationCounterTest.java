@@ -0,0 +1,138 @@
+/**
+ * Protocol stage metrics (latency histograms, JMX)
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.nopaque.CredentialIdentifier;
+import de.bitplumber.crypto.nopaque.Stretcher;
+import de.bitplumber.crypto.nopaque.ristretto255.Client;
+import de.bitplumber.crypto.nopaque.ristretto255.Server;
+import de.bitplumber.crypto.nopaque.ristretto255.AbstractRistretto255.RecoverResponse;
+import de.bitplumber.crypto.nopaque.ristretto255.AbstractRistretto255.RegistrationRequest;
+import de.bitplumber.crypto.nopaque.ristretto255.Server.RegistrationRecord;
+import de.bitplumber.crypto.oprf.bc.BcPOPRF;
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+
+class OperationCounterTest {
+	private static final byte[] INPUT = "opcount input".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] INFO = "opcount info".getBytes(StandardCharsets.UTF_8);
+
+	private interface Call {
+		void run() throws Exception;
+	}
+
+	private static OperationCounts measure(Call call) throws Exception {
+		final var before = OperationCounter.snapshot();
+		call.run();
+		return OperationCounter.snapshot().minus(before);
+	}
+
+	@Test
+	void testCompressions() { //NOSONAR
+		final var sha256 = new SHA256Digest();
+		assertEquals(1, OperationCounter.compressions(sha256, 0, 32));
+		assertEquals(1, OperationCounter.compressions(sha256, 55, 32));
+		assertEquals(2, OperationCounter.compressions(sha256, 56, 32));
+		assertEquals(3, OperationCounter.compressions(sha256, 120, 32));
+
+		final var sha512 = new SHA512Digest();
+		assertEquals(1, OperationCounter.compressions(sha512, 111, 64));
+		assertEquals(2, OperationCounter.compressions(sha512, 112, 64));
+
+		final var shake128 = new SHAKEDigest(128);	// rate 168 bytes
+		assertEquals(1, OperationCounter.compressions(shake128, 167, 64));
+		assertEquals(2, OperationCounter.compressions(shake128, 168, 64));
+		assertEquals(3, OperationCounter.compressions(shake128, 0, 337));
+	}
+
+	@Test
+	void testSnapshotReset() { //NOSONAR
+		assumeTrue(OperationCounter.ENABLED, "Counting disabled (-Dde.bitplumber.crypto.opcount=true)");
+
+		OperationCounter.reset();
+		assertEquals(OperationCounts.ZERO, OperationCounter.snapshot());
+		OperationCounter.count(Operation.POINT_MULTIPLY);
+		OperationCounter.count(Operation.SQUARE_ROOT, 3);
+		OperationCounter.hmac(new SHA512Digest(), 10);
+
+		final var counts = OperationCounter.snapshot();
+		assertEquals(1, counts.get(Operation.POINT_MULTIPLY));
+		assertEquals(3, counts.get(Operation.SQUARE_ROOT));
+		assertEquals(1, counts.get(Operation.HMAC));
+		assertEquals(4, counts.get(Operation.HASH_COMPRESSION));	// 2 inner + 2 outer
+		assertEquals(2, counts.times(2).get(Operation.HMAC));
+		assertEquals(counts, counts.plus(counts).minus(counts));
+
+		OperationCounter.reset();
+		assertEquals(OperationCounts.ZERO, OperationCounter.snapshot());
+	}
+
+	@Test
+	void testProtocolCounts() throws Exception { //NOSONAR
+		assumeTrue(OperationCounter.ENABLED, "Counting disabled (-Dde.bitplumber.crypto.opcount=true)");
+
+		// VOPRF BlindEvaluateBatch: N evaluations, N + 1 composite multiplications, 2 for the proof
+		final var voprf = BcVOPRF.createP384();
+		final var keyPair = voprf.randomKeyPair();
+		final var costs = new OperationCounts[5];
+		for (final var n : new int[]{ 1, 2, 4 }) {
+			final var blindedElements = new ECPoint[n];
+			for (int i = 0; i < n; i++)
+				blindedElements[i] = voprf.blind(INPUT).blindedElement();
+
+			final var cost = measure(() -> voprf.blindEvaluateBatch(keyPair.secretKey(), keyPair.publicKey(), blindedElements));
+			assertEquals(2L * n + 3, cost.get(Operation.POINT_MULTIPLY));
+			assertEquals(1, cost.get(Operation.SQUARE_ROOT));		// Public key decompression
+			assertEquals(0, cost.get(Operation.HMAC));
+			costs[n] = cost;
+		}
+		// Cost per element is constant
+		final var perElement = costs[2].minus(costs[1]);
+		assertEquals(costs[4], costs[1].plus(perElement.times(3)));
+
+		// POPRF Evaluate: hash_to_curve (2x sqrt_ratio + division), 1/t, one multiplication, encoding
+		final var poprf = BcPOPRF.createP384();
+		final var poprfKeyPair = poprf.randomKeyPair();
+		final var evaluate = measure(() -> poprf.evaluate(poprfKeyPair.secretKey(), INPUT, INFO));
+		assertEquals(1, evaluate.get(Operation.POINT_MULTIPLY));
+		assertEquals(2, evaluate.get(Operation.SQUARE_ROOT));
+		assertEquals(4, evaluate.get(Operation.FIELD_INVERSION));
+		assertTrue(evaluate.get(Operation.HASH_COMPRESSION) > 0);
+
+		// NOPAQUE recover
+		final var client = new Client(Stretcher.IDENTITY);
+		final var server = new Server();
+		final var password = client.randomSecret();
+		final var serverKeyPair = server.randomKeyPair();
+		final var credentialId = CredentialIdentifier.fromBytes(client.randomSecret());
+		final var oprfSeed = server.randomSeed();
+		final var registrationResponse = server.createRegistrationResponse(RegistrationRequest.fromBytes(client.createRegistrationRequest(password).request()),
+			serverKeyPair.publicKey(), credentialId, oprfSeed);
+		final var serverRecord = RegistrationRecord.fromBytes(client.finalizeRegistrationRequest(registrationResponse, null, null).record());
+		final var recoverRequest = client.createRecoverRequest(password);
+
+		final var recoverResponse = new RecoverResponse[1];
+		final var serverCost = measure(() -> recoverResponse[0] = server.createRecoverResponse(serverKeyPair, serverRecord, credentialId, oprfSeed, recoverRequest));
+		assertEquals(3, serverCost.get(Operation.HMAC));				// OPRF key seed (1 block), credential response pad (2 blocks)
+		assertEquals(2, serverCost.get(Operation.POINT_MULTIPLY));		// Derived public key, evaluation
+		final var clientCost = measure(() -> client.finalizeRecoverRequest(recoverResponse[0], null, null));
+		assertEquals(8, clientCost.get(Operation.HMAC));
+		assertTrue(clientCost.get(Operation.POINT_MULTIPLY) > 0);
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+import de.bitplumber.crypto.oprf.ristretto255.Ristretto255VOPRF;
+
+class OPRFSuitesTest {
+	private static final byte[] SEED = Hex.decode("a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3");
+	private static final byte[] KEY_INFO = Hex.decode("74657374206b6579");
+	private static final byte[] INPUT = Hex.decode("00");
+	private static final byte[] INFO = "suite info".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void testTestVectors() throws Exception { //NOSONAR
+		// RFC 9497 - OPRF - Test Vector 1, Batch Size 1
+		final var ristretto255 = OPRFSuites.oprf(OPRFSuites.RISTRETTO255_SHA512);
+		final var ristretto255Key = ristretto255.deriveKeyPair(SEED, KEY_INFO).secretKey();
+		assertArrayEquals(Hex.decode("5ebcea5ee37023ccb9fc2d2019f9d7737be85591ae8652ffa9ef0f4d37063b0e"), ristretto255Key);
+		assertArrayEquals(Hex.decode("527759c3d9366f277d8c6020418d96bb393ba2afb20ff90df23fb7708264e2f3ab9135e3bd69955851de4b1f9fe8a0973396719b7912ba9ee8aa7d0b5e24bcf6"),
+			ristretto255.evaluate(ristretto255Key, INPUT));
+
+		final var p256 = OPRFSuites.oprf(OPRFSuites.P256_SHA256);
+		final var p256Key = p256.deriveKeyPair(SEED, KEY_INFO).secretKey();
+		assertArrayEquals(Hex.decode("159749d750713afe245d2d39ccfaae8381c53ce92d098a9375ee70739c7ac0bf"), p256Key);
+		assertArrayEquals(Hex.decode("a0b34de5fa4c5b6da07e72af73cc507cceeb48981b97b7285fc375345fe495dd"), p256.evaluate(p256Key, INPUT));
+	}
+
+	@Test
+	void testAllSuites() throws Exception { //NOSONAR
+		for (final var identifier : OPRFSuites.IDENTIFIERS) {
+			// Instances of the same suite share curve state, but must produce identical results
+			final var voprf = OPRFSuites.voprf(identifier);
+			final var keyPair = voprf.deriveKeyPair(SEED, KEY_INFO);
+			assertArrayEquals(keyPair.secretKey(), OPRFSuites.voprf(identifier).deriveKeyPair(SEED, KEY_INFO).secretKey());
+			assertArrayEquals(voprf.evaluate(keyPair.secretKey(), INPUT), OPRFSuites.voprf(identifier).evaluate(keyPair.secretKey(), INPUT));
+
+			final var poprf = OPRFSuites.poprf(identifier);
+			final var poprfKeyPair = poprf.deriveKeyPair(SEED, KEY_INFO);
+			assertArrayEquals(poprf.evaluate(poprfKeyPair.secretKey(), INPUT, INFO), OPRFSuites.poprf(identifier).evaluate(poprfKeyPair.secretKey(), INPUT, INFO));
+		}
+
+		final var keyPair = BcVOPRF.createP384().deriveKeyPair(SEED, KEY_INFO);
+		assertArrayEquals(BcVOPRF.createP384().evaluate(keyPair.secretKey(), INPUT),
+			OPRFSuites.voprf(OPRFSuites.P384_SHA384).evaluate(keyPair.secretKey(), INPUT));
+		final var ristrettoKeyPair = new Ristretto255VOPRF().deriveKeyPair(SEED, KEY_INFO);
+		assertArrayEquals(new Ristretto255VOPRF().evaluate(ristrettoKeyPair.secretKey(), INPUT),
+			OPRFSuites.voprf(OPRFSuites.RISTRETTO255_SHA512).evaluate(ristrettoKeyPair.secretKey(), INPUT));
+
+		assertThrows(IllegalArgumentException.class, () -> OPRFSuites.oprf("P256-SHA512"));
+		assertThrows(IllegalArgumentException.class, () -> OPRFSuites.voprf("decaf448-SHAKE256"));
+	}
+}
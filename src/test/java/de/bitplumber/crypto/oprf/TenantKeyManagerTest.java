@@ -0,0 +1,139 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.oprf.bc.BcVOPRF;
+
+class TenantKeyManagerTest {
+	private static final byte[] SEED = Hex.decode("a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3");
+	private static final byte[] INPUT = Hex.decode("00");
+
+	@Test
+	void testDerivation() throws Exception {
+		final var voprf = BcVOPRF.createP256();
+		final var keys = TenantKeyManager.deriving(BcVOPRF::createP256, BcVOPRF::deriveKeyPair, SEED, BcVOPRF::serverKey, 4);
+		final var expected = voprf.deriveKeyPair(SEED, "tenant-a".getBytes(StandardCharsets.UTF_8));
+
+		final var key = keys.get("tenant-a");
+		assertSame(key, keys.get("tenant-a"));
+		assertArrayEquals(expected.publicKey(), key.getPublicKey().getEncoded());
+
+		final var blindResult = voprf.blind(INPUT);
+		final var result = voprf.blindEvaluate(key, blindResult.blindedElement());
+		assertArrayEquals(voprf.evaluate(expected.secretKey(), INPUT), voprf.finalize(INPUT, blindResult.blind(), result.evaluatedElement(),
+			blindResult.blindedElement(), expected.publicKey(), voprf.decodeProof(result.proof())));
+		assertEquals(new TenantKeyManager.Stats(1, 1, 0, 0, 1), keys.stats());
+	}
+
+	@Test
+	void testEviction() throws Exception {
+		final var loads = new AtomicInteger();
+		final var keys = new TenantKeyManager<String>(tenant -> tenant + "#" + loads.incrementAndGet(), 2);
+		final var a = keys.get("a");
+		keys.get("b");
+		assertSame(a, keys.get("a"));
+		keys.get("c");		// Evicts b, the least recently used
+
+		assertSame(a, keys.get("a"));
+		assertEquals("b#4", keys.get("b"));
+		assertEquals(2, keys.stats().evictions());
+		assertEquals(2, keys.stats().size());
+
+		keys.invalidate("b");
+		assertEquals("b#5", keys.get("b"));
+	}
+
+	@Test
+	void testFailedLoad() throws Exception {
+		final var attempts = new AtomicInteger();
+		final var keys = new TenantKeyManager<String>(tenant -> {
+			if (attempts.incrementAndGet() == 1)
+				throw new IllegalStateException("unavailable");
+			return tenant;
+		}, 2);
+
+		assertThrows(IllegalStateException.class, () -> keys.get("a"));
+		assertEquals("a", keys.get("a"));
+		assertEquals(1, keys.stats().loadFailures());
+	}
+
+	@Test
+	void testConcurrentDerivation() throws Exception {
+		final var loads = new AtomicInteger();
+		final var release = new CountDownLatch(1);
+		final var keys = new TenantKeyManager<String>(tenant -> {
+			loads.incrementAndGet();
+			release.await();
+			return tenant;
+		}, 16);
+
+		final var executor = Executors.newFixedThreadPool(4);
+		try {
+			final var tasks = new ArrayList<Callable<String>>();
+			for (int i = 0; i < 8; i++)
+				tasks.add(() -> keys.get("shared"));
+			final var futures = tasks.stream().map(executor::submit).toList();
+			Thread.sleep(50);
+			release.countDown();
+			for (final var f : futures)
+				assertEquals("shared", f.get());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, loads.get(), "concurrent lookups share one derivation");
+
+		// Parallel cold start
+		final var preloadExecutor = Executors.newFixedThreadPool(4);
+		try {
+			keys.preload(List.of("t1", "t2", "t3", "shared"), preloadExecutor).join();
+		} finally {
+			preloadExecutor.shutdown();
+		}
+		assertEquals(4, loads.get());
+		assertEquals(4, keys.stats().size());
+	}
+
+	@Test
+	void testConcurrentPreload() throws Exception {
+		final var tenants = new ArrayList<String>();
+		for (int i = 0; i < 256; i++)
+			tenants.add("tenant-" + i);
+
+		final var keys = TenantKeyManager.deriving(BcVOPRF::createP256, BcVOPRF::deriveKeyPair, SEED, BcVOPRF::serverKey, tenants.size());
+		final var executor = Executors.newFixedThreadPool(8);
+		try {
+			keys.preload(tenants, executor).join();
+		} finally {
+			executor.shutdown();
+		}
+
+		// Derivations on concurrent threads must match the sequential ones
+		final var voprf = BcVOPRF.createP256();
+		for (final var tenant : tenants) {
+			final var expected = voprf.deriveKeyPair(SEED, tenant.getBytes(StandardCharsets.UTF_8));
+			assertArrayEquals(expected.publicKey(), keys.get(tenant).getPublicKey().getEncoded(), tenant);
+		}
+		assertEquals(0, keys.stats().loadFailures());
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * RFC 9497 OPRF implementation for Bouncy Castle EC
+ *
+ * Copyright (c) 2025 Stefan Knoblich <stkn@bitplumber.de>
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package de.bitplumber.crypto.oprf.bc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import de.bitplumber.crypto.oprf.OPRFKeyPair;
+
+class BcKeyManagerTest {
+	@Test
+	void testRotation() {
+		final var voprf = BcVOPRF.createP256();
+		final var keys = voprf.keyManager(voprf.randomKeyPair(), 1);
+		final var first = keys.current();
+		assertEquals(0, keys.snapshot().epoch());
+		assertSame(first, keys.get(0));
+
+		final var second = keys.rotate(voprf.randomKeyPair()).current();
+		assertEquals(1, keys.snapshot().epoch());
+		assertSame(second, keys.current());
+		assertSame(first, keys.get(0));
+		assertEquals(2, keys.snapshot().keys().size());
+
+		// The first key expires with the next rotation
+		final var third = keys.rotate(voprf.randomKeyPair()).current();
+		assertSame(third, keys.get(2));
+		assertSame(second, keys.get(1));
+		assertNull(keys.get(0));
+		assertNull(keys.get(3));
+
+		// Old snapshots stay unchanged
+		final var snapshot = keys.snapshot();
+		keys.rotate(voprf.randomKeyPair());
+		assertSame(third, snapshot.current());
+	}
+
+	@Test
+	void testInvalidKeyPair() {
+		final var voprf = BcVOPRF.createP256();
+		final var keyPair = voprf.randomKeyPair();
+		final var keys = voprf.keyManager(keyPair, 1);
+		final var mismatch = new OPRFKeyPair(keyPair.secretKey(), voprf.randomKeyPair().publicKey());
+		assertThrows(IllegalArgumentException.class, () -> keys.rotate(mismatch));
+		assertEquals(0, keys.snapshot().epoch());
+		assertThrows(IllegalArgumentException.class, () -> voprf.keyManager(keyPair, -1));
+	}
+
+	@Test
+	void testEvaluate() throws Exception {
+		final var input = "test input".getBytes();
+		final var info = "test info".getBytes();
+
+		final var oprf = BcOPRF.createP256();
+		final var oprfKeyPair = oprf.randomKeyPair();
+		final var oprfKeys = oprf.keyManager(oprfKeyPair, 1);
+		final var oprfBlind = oprf.blind(input);
+		final var oprfElement = oprf.blindEvaluate(oprfKeys.current(), oprfBlind.blindedElement());
+		assertArrayEquals(oprf.evaluate(oprfKeyPair.secretKey(), input), oprf.finalize(input, oprfBlind.blind(), oprfElement));
+
+		final var voprf = BcVOPRF.createP256();
+		final var keyPairs = new OPRFKeyPair[]{ voprf.randomKeyPair(), voprf.randomKeyPair() };
+		final var keys = voprf.keyManager(keyPairs[0], 1);
+		keys.rotate(keyPairs[1]);
+		final var blindResult = voprf.blind(input);
+		final var results = voprf.blindEvaluateMulti(keys.snapshot(), blindResult.blindedElement());
+		for (int i = 0; i < results.length; i++) {
+			final var keyPair = keyPairs[keyPairs.length - 1 - i];
+			final var output = voprf.finalize(input, blindResult.blind(), results[i].evaluatedElement(), blindResult.blindedElement(),
+				keyPair.publicKey(), voprf.decodeProof(results[i].proof()));
+			assertArrayEquals(voprf.evaluate(keyPair.secretKey(), input), output);
+		}
+
+		final var poprf = BcPOPRF.createP256();
+		final var poprfKeyPair = poprf.randomKeyPair();
+		final var poprfKeys = poprf.keyManager(poprfKeyPair, 0);
+		final var poprfBlind = poprf.blind(input, info, poprfKeyPair.publicKey());
+		final var poprfResult = poprf.blindEvaluate(poprfKeys.current(), poprfBlind.blindedElement(), info);
+		final var poprfOutput = poprf.finalize(input, poprfBlind.blind(), poprfResult.evaluatedElement(), poprfBlind.blindedElement(),
+			poprf.decodeProof(poprfResult.proof()), info, poprfBlind.tweakedKey());
+		assertArrayEquals(poprf.evaluate(poprfKeyPair.secretKey(), input, info), poprfOutput);
+	}
+
+	@Test
+	void testConcurrentRotation() throws Exception {
+		final var oprf = BcOPRF.createP256();
+		final var keyPairs = new OPRFKeyPair[8];
+		for (int i = 0; i < keyPairs.length; i++)
+			keyPairs[i] = oprf.randomKeyPair();
+
+		final var keys = oprf.keyManager(oprf.randomKeyPair(), keyPairs.length);
+		final var executor = Executors.newFixedThreadPool(4);
+		try {
+			final var tasks = new ArrayList<Callable<Long>>();
+			for (final var keyPair : keyPairs)
+				tasks.add(() -> keys.rotate(keyPair).epoch());
+
+			final var epochs = new HashSet<Long>();
+			for (final Future<Long> f : executor.invokeAll(tasks))
+				epochs.add(assertDoesNotThrow(() -> f.get()));
+			assertEquals(keyPairs.length, epochs.size(), "each rotation starts its own epoch");
+		} finally {
+			executor.shutdown();
+		}
+
+		final var snapshot = keys.snapshot();
+		assertEquals(keyPairs.length, snapshot.epoch());
+		assertEquals(keyPairs.length + 1, snapshot.keys().size());
+		for (long epoch = 0; epoch <= snapshot.epoch(); epoch++)
+			assertTrue(snapshot.get(epoch) != null);
+	}
+}
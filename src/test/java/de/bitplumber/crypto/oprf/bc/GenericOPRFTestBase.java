@@ -9,14 +9,24 @@ package de.bitplumber.crypto.oprf.bc;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.crypto.digests.CSHAKEDigest;
+import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 
+import de.bitplumber.crypto.oprf.bc.BcOPRFSuite.ECScalar;
+
 abstract class GenericOPRFTestBase {
 	protected static final record RFC9497OPRFTestVector(byte[] seed, byte[] keyInfo, byte[] secretKey, byte[] input,
 		byte[] blind, byte[] blindedElement, byte[] evaluationElement, byte[] output) {}
@@ -85,6 +95,11 @@ abstract class GenericOPRFTestBase {
 			assertArrayEquals(vector.evaluationElement(), voprf.encodeElement(blindEvaluateResult.evaluatedElement()), "evaluatedElement");
 			assertArrayEquals(vector.proof(), blindEvaluateResult.proof(), "proof");
 
+			final var serverKey = voprf.keyManager(keypair, 0).current();
+			final var keyResult = voprf.blindEvaluate(serverKey, blindResult.blindedElement(), vector.proofRandomScalar());
+			assertArrayEquals(vector.evaluationElement(), voprf.encodeElement(keyResult.evaluatedElement()), "evaluatedElement with server key");
+			assertArrayEquals(vector.proof(), keyResult.proof(), "proof with server key");
+
 			final var finalizeResult = assertDoesNotThrow(() -> voprf.finalize(vector.input(), blindResult.blind(), blindEvaluateResult.evaluatedElement(),
 				blindResult.blindedElement(), vector.publicKey(), voprf.decodeProof(vector.proof())));
 			assertArrayEquals(vector.output(), finalizeResult, "finalize output");
@@ -106,6 +121,24 @@ abstract class GenericOPRFTestBase {
 		return h;
 	}
 
+	protected void runScalarValidation(BcOPRFSuite suite) {
+		final var fn = suite.getFn();
+		final var n = fn.getOrder();
+		final var max = new ECScalar(n.subtract(BigInteger.ONE));
+		assertTrue(fn.isValid(ECScalar.ONE));
+		assertTrue(fn.isValid(max));
+		assertFalse(fn.isValid(ECScalar.ZERO));
+		assertFalse(fn.isValid(new ECScalar(BigInteger.ONE.negate())));
+
+		// Plain values are not reduced, n and above are out of range
+		assertFalse(fn.isValid(new ECScalar(n)));
+		assertFalse(fn.isValid(new ECScalar(n.add(BigInteger.ONE))));
+
+		// Field arithmetic results are always reduced
+		assertTrue(fn.isValid(fn.add(max, new ECScalar(BigInteger.TWO))));
+		assertFalse(fn.isValid(fn.add(max, ECScalar.ONE)));
+	}
+
 	protected static final int DEFAULT_RANDOM_ROUNDS = 100;
 
 	protected void runRandomizedRountrip(BcOPRF oprf, Integer rounds) {
@@ -185,4 +218,189 @@ abstract class GenericOPRFTestBase {
 	protected void runRandomizedRountrip(BcVOPRF voprf) {
 		runRandomizedRountrip(voprf, null);
 	}
+
+	protected static final int DEFAULT_BATCH_SIZE = 11;
+
+	/**
+	 * Batch round trip: blindBatch / blindEvaluateBatch outputs need to match evaluate()
+	 * @param oprf
+	 */
+	protected void runBatchRoundtrip(BcOPRF oprf) {
+		final var seed = Hex.decode("a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3");
+		final var keyInfo = Hex.decode("74657374206b6579");
+		final var hash = hashXOF(seed, "batch".getBytes(StandardCharsets.UTF_8));
+		final var keySeed = new byte[32];
+		hash.doOutput(keySeed, 0, keySeed.length);
+
+		final var inputs = new ArrayList<byte[]>();
+		for (int i = 0; i < DEFAULT_BATCH_SIZE; i++) {
+			final var input = new byte[32];
+			hash.doOutput(input, 0, input.length);
+			inputs.add(input);
+		}
+
+		final var keypair = assertDoesNotThrow(() -> oprf.deriveKeyPair(keySeed, keyInfo));
+		final var blindResults = assertDoesNotThrow(() -> oprf.blindBatch(inputs));
+		final var blindedElements = new ECPoint[blindResults.length];
+		for (int i = 0; i < blindResults.length; i++)
+			blindedElements[i] = blindResults[i].blindedElement();
+
+		final var evaluatedElements = assertDoesNotThrow(() -> oprf.blindEvaluateBatch(keypair.secretKey(), blindedElements));
+		for (int i = 0; i < inputs.size(); i++) {
+			final var idx = i;
+			final var finalizeResult = assertDoesNotThrow(() -> oprf.finalize(inputs.get(idx), blindResults[idx].blind(), evaluatedElements[idx]));
+			final var evaluateResult = assertDoesNotThrow(() -> oprf.evaluate(keypair.secretKey(), inputs.get(idx)));
+			assertArrayEquals(finalizeResult, evaluateResult, "evaluate and batch finalize outputs do not match");
+		}
+
+		final var nextKeySeed = new byte[32];
+		hash.doOutput(nextKeySeed, 0, nextKeySeed.length);
+		final var nextKeypair = assertDoesNotThrow(() -> oprf.deriveKeyPair(nextKeySeed, keyInfo));
+		final var multiElements = assertDoesNotThrow(() -> oprf.blindEvaluateMulti(List.of(keypair, nextKeypair), blindedElements[0]));
+		assertEquals(assertDoesNotThrow(() -> oprf.blindEvaluate(keypair.secretKey(), blindedElements[0])), multiElements[0], "blindEvaluateMulti result does not match");
+		assertEquals(assertDoesNotThrow(() -> oprf.blindEvaluate(nextKeypair.secretKey(), blindedElements[0])), multiElements[1], "blindEvaluateMulti result does not match");
+	}
+
+	protected void runBatchRoundtrip(BcVOPRF voprf) {
+		final var seed = Hex.decode("a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3");
+		final var keyInfo = Hex.decode("74657374206b6579");
+		final var hash = hashXOF(seed, "batch".getBytes(StandardCharsets.UTF_8));
+		final var keySeed = new byte[32];
+		hash.doOutput(keySeed, 0, keySeed.length);
+
+		final var inputs = new byte[DEFAULT_BATCH_SIZE][32];
+		final var blinds = new ECScalar[DEFAULT_BATCH_SIZE];
+		final var blindedElements = new ECPoint[DEFAULT_BATCH_SIZE];
+		for (int i = 0; i < DEFAULT_BATCH_SIZE; i++) {
+			hash.doOutput(inputs[i], 0, inputs[i].length);
+			final var input = inputs[i];
+			final var blindResult = assertDoesNotThrow(() -> voprf.blind(input));
+			blinds[i] = blindResult.blind();
+			blindedElements[i] = blindResult.blindedElement();
+		}
+
+		final var keypair = assertDoesNotThrow(() -> voprf.deriveKeyPair(keySeed, keyInfo));
+		final var result = assertDoesNotThrow(() -> voprf.blindEvaluateBatch(keypair.secretKey(), keypair.publicKey(), blindedElements));
+		final var proof = voprf.decodeProof(result.proof());
+		final var outputs = assertDoesNotThrow(() -> voprf.finalizeBatch(inputs, blinds, result.evaluatedElements(), blindedElements, keypair.publicKey(), proof));
+		for (int i = 0; i < inputs.length; i++) {
+			final var input = inputs[i];
+			final var evaluateResult = assertDoesNotThrow(() -> voprf.evaluate(keypair.secretKey(), input));
+			assertArrayEquals(outputs[i], evaluateResult, "evaluate and batch finalize outputs do not match");
+		}
+
+		final var results = new BcVOPRF.BlindEvaluateResult[DEFAULT_BATCH_SIZE];
+		for (int i = 0; i < DEFAULT_BATCH_SIZE; i++) {
+			final var blindedElement = blindedElements[i];
+			results[i] = assertDoesNotThrow(() -> voprf.blindEvaluate(keypair.secretKey(), keypair.publicKey(), blindedElement));
+		}
+		assertArrayEquals(expectedValid(-1), voprf.verifyProofsBatch(keypair.publicKey(), blindedElements, results), "batch proof verification");
+
+		final var serverPublicKey = voprf.serverPublicKey(keypair.publicKey());
+		assertArrayEquals(keypair.publicKey(), serverPublicKey.getEncoded(), "server public key encoding");
+		final var handleOutputs = assertDoesNotThrow(() -> voprf.finalizeBatch(inputs, blinds, result.evaluatedElements(), blindedElements, serverPublicKey, proof));
+		for (int i = 0; i < inputs.length; i++) {
+			final var idx = i;
+			assertArrayEquals(outputs[i], handleOutputs[i], "finalizeBatch outputs with server public key handle do not match");
+			final var finalizeResult = assertDoesNotThrow(() -> voprf.finalize(inputs[idx], blinds[idx], results[idx].evaluatedElement(), blindedElements[idx],
+				serverPublicKey, voprf.decodeProof(results[idx].proof())));
+			assertArrayEquals(outputs[i], finalizeResult, "finalize output with server public key handle does not match");
+		}
+
+		results[1] = new BcVOPRF.BlindEvaluateResult(results[1].evaluatedElement(), results[0].proof());
+		assertArrayEquals(expectedValid(1), voprf.verifyProofsBatch(keypair.publicKey(), blindedElements, results), "batch proof verification");
+
+		final var nextKeySeed = new byte[32];
+		hash.doOutput(nextKeySeed, 0, nextKeySeed.length);
+		final var nextKeypair = assertDoesNotThrow(() -> voprf.deriveKeyPair(nextKeySeed, keyInfo));
+		final var keypairs = List.of(keypair, nextKeypair);
+		final var multiResults = assertDoesNotThrow(() -> voprf.blindEvaluateMulti(keypairs, blindedElements[0]));
+		for (int i = 0; i < keypairs.size(); i++) {
+			final var idx = i;
+			final var finalizeResult = assertDoesNotThrow(() -> voprf.finalize(inputs[0], blinds[0], multiResults[idx].evaluatedElement(), blindedElements[0],
+				keypairs.get(idx).publicKey(), voprf.decodeProof(multiResults[idx].proof())));
+			final var evaluateResult = assertDoesNotThrow(() -> voprf.evaluate(keypairs.get(idx).secretKey(), inputs[0]));
+			assertArrayEquals(evaluateResult, finalizeResult, "evaluate and blindEvaluateMulti outputs do not match");
+		}
+	}
+
+	protected void runBatchRoundtrip(BcPOPRF poprf) {
+		final var seed = Hex.decode("a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3a3");
+		final var info = Hex.decode("7465737420696e666f");
+		final var keyInfo = Hex.decode("74657374206b6579");
+		final var hash = hashXOF(seed, "batch".getBytes(StandardCharsets.UTF_8));
+		final var keySeed = new byte[32];
+		hash.doOutput(keySeed, 0, keySeed.length);
+
+		final var keypair = assertDoesNotThrow(() -> poprf.deriveKeyPair(keySeed, keyInfo));
+		final var inputs = new byte[DEFAULT_BATCH_SIZE][32];
+		final var blinds = new ECScalar[DEFAULT_BATCH_SIZE];
+		final var blindedElements = new ECPoint[DEFAULT_BATCH_SIZE];
+		ECPoint tweakedKey = null;
+		for (int i = 0; i < DEFAULT_BATCH_SIZE; i++) {
+			hash.doOutput(inputs[i], 0, inputs[i].length);
+			final var input = inputs[i];
+			final var blindResult = assertDoesNotThrow(() -> poprf.blind(input, info, keypair.publicKey()));
+			blinds[i] = blindResult.blind();
+			blindedElements[i] = blindResult.blindedElement();
+			tweakedKey = blindResult.tweakedKey();
+		}
+
+		final var result = assertDoesNotThrow(() -> poprf.blindEvaluateBatch(keypair.secretKey(), blindedElements, info));
+		final var proof = poprf.decodeProof(result.proof());
+		final var finalTweakedKey = tweakedKey;
+		final var outputs = assertDoesNotThrow(() -> poprf.finalizeBatch(inputs, blinds, result.evaluatedElements(), blindedElements, proof, info, finalTweakedKey));
+		for (int i = 0; i < inputs.length; i++) {
+			final var input = inputs[i];
+			final var evaluateResult = assertDoesNotThrow(() -> poprf.evaluate(keypair.secretKey(), input, info));
+			assertArrayEquals(outputs[i], evaluateResult, "evaluate and batch finalize outputs do not match");
+		}
+
+		final var results = new BcPOPRF.BlindEvaluateResult[DEFAULT_BATCH_SIZE];
+		for (int i = 0; i < DEFAULT_BATCH_SIZE; i++) {
+			final var blindedElement = blindedElements[i];
+			results[i] = assertDoesNotThrow(() -> poprf.blindEvaluate(keypair.secretKey(), blindedElement, info));
+		}
+		assertArrayEquals(expectedValid(-1), poprf.verifyProofsBatch(finalTweakedKey, blindedElements, results), "batch proof verification");
+
+		final var tweakedKeyHandle = poprf.tweakedKey(keypair.publicKey(), info);
+		assertArrayEquals(poprf.encodeElement(finalTweakedKey), tweakedKeyHandle.getEncoded(), "tweaked key encoding");
+		final var handleOutputs = assertDoesNotThrow(() -> poprf.finalizeBatch(inputs, blinds, result.evaluatedElements(), blindedElements, proof, info, tweakedKeyHandle));
+		for (int i = 0; i < inputs.length; i++) {
+			final var idx = i;
+			assertArrayEquals(outputs[i], handleOutputs[i], "finalizeBatch outputs with tweaked key handle do not match");
+			final var finalizeResult = assertDoesNotThrow(() -> poprf.finalize(inputs[idx], blinds[idx], results[idx].evaluatedElement(), blindedElements[idx],
+				poprf.decodeProof(results[idx].proof()), info, tweakedKeyHandle));
+			assertArrayEquals(outputs[i], finalizeResult, "finalize output with tweaked key handle does not match");
+		}
+
+		results[1] = new BcPOPRF.BlindEvaluateResult(results[1].evaluatedElement(), results[0].proof());
+		assertArrayEquals(expectedValid(1), poprf.verifyProofsBatch(finalTweakedKey, blindedElements, results), "batch proof verification");
+
+		final var nextKeySeed = new byte[32];
+		hash.doOutput(nextKeySeed, 0, nextKeySeed.length);
+		final var nextKeypair = assertDoesNotThrow(() -> poprf.deriveKeyPair(nextKeySeed, keyInfo));
+		final var keypairs = List.of(keypair, nextKeypair);
+		final var multiResults = assertDoesNotThrow(() -> poprf.blindEvaluateMulti(keypairs, blindedElements[0], info));
+		for (int i = 0; i < keypairs.size(); i++) {
+			final var idx = i;
+			final var keyHandle = poprf.tweakedKey(keypairs.get(idx).publicKey(), info);
+			final var finalizeResult = assertDoesNotThrow(() -> poprf.finalize(inputs[0], blinds[0], multiResults[idx].evaluatedElement(), blindedElements[0],
+				poprf.decodeProof(multiResults[idx].proof()), info, keyHandle));
+			final var evaluateResult = assertDoesNotThrow(() -> poprf.evaluate(keypairs.get(idx).secretKey(), inputs[0], info));
+			assertArrayEquals(evaluateResult, finalizeResult, "evaluate and blindEvaluateMulti outputs do not match");
+		}
+	}
+
+	/**
+	 * @param invalid Index of the tampered proof, -1 for none
+	 * @return Expected result of verifyProofsBatch()
+	 */
+	private static boolean[] expectedValid(int invalid) {
+		final var valid = new boolean[DEFAULT_BATCH_SIZE];
+		Arrays.fill(valid, true);
+		if (invalid >= 0)
+			valid[invalid] = false;
+		return valid;
+	}
 }
@@ -51,6 +51,12 @@ class P256OPRFTest extends GenericOPRFTestBase {
 		runRandomizedRountrip(oprf);
 	}
 
+	@Test
+	void testOPRFBatch() { //NOSONAR
+		final var oprf = BcOPRF.createP256();
+		runBatchRoundtrip(oprf);
+	}
+
 	/**
 	 * VOPRF Tests
 	 **/
@@ -97,6 +103,12 @@ class P256OPRFTest extends GenericOPRFTestBase {
 		runRandomizedRountrip(voprf);
 	}
 
+	@Test
+	void testVOPRFBatch() { //NOSONAR
+		final var voprf = BcVOPRF.createP256();
+		runBatchRoundtrip(voprf);
+	}
+
 	/**
 	 * POPRF Tests
 	 **/
@@ -144,4 +156,15 @@ class P256OPRFTest extends GenericOPRFTestBase {
 		final var poprf = BcPOPRF.createP256();
 		runRandomizedRountrip(poprf);
 	}
+
+	@Test
+	void testPOPRFBatch() { //NOSONAR
+		final var poprf = BcPOPRF.createP256();
+		runBatchRoundtrip(poprf);
+	}
+
+	@Test
+	void testScalarValidation() { //NOSONAR
+		runScalarValidation(BcOPRFSuite.createP256());
+	}
 }
@@ -51,6 +51,12 @@ class P384OPRFTest extends GenericOPRFTestBase {
 		runRandomizedRountrip(oprf);
 	}
 
+	@Test
+	void testOPRFBatch() { //NOSONAR
+		final var oprf = BcOPRF.createP384();
+		runBatchRoundtrip(oprf);
+	}
+
 	/**
 	 * VOPRF Tests
 	 **/
@@ -97,6 +103,12 @@ class P384OPRFTest extends GenericOPRFTestBase {
 		runRandomizedRountrip(voprf);
 	}
 
+	@Test
+	void testVOPRFBatch() { //NOSONAR
+		final var voprf = BcVOPRF.createP384();
+		runBatchRoundtrip(voprf);
+	}
+
 	/**
 	 * POPRF Tests
 	 **/
@@ -144,4 +156,10 @@ class P384OPRFTest extends GenericOPRFTestBase {
 		final var poprf = BcPOPRF.createP384();
 		runRandomizedRountrip(poprf);
 	}
+
+	@Test
+	void testPOPRFBatch() { //NOSONAR
+		final var poprf = BcPOPRF.createP384();
+		runBatchRoundtrip(poprf);
+	}
 }
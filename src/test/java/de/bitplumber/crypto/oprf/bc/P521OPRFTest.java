@@ -144,4 +144,9 @@ class P521OPRFTest extends GenericOPRFTestBase {
 		final var poprf = BcPOPRF.createP521();
 		runRandomizedRountrip(poprf);
 	}
+
+	@Test
+	void testScalarValidation() { //NOSONAR
+		runScalarValidation(BcOPRFSuite.createP521());
+	}
 }
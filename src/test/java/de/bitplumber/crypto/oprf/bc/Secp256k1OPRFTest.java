@@ -7,6 +7,12 @@
  */
 package de.bitplumber.crypto.oprf.bc;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.GLVMultiplier;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -50,4 +56,25 @@ class Secp256k1OPRFTest extends GenericOPRFTestBase {
 		final var voprf = BcVOPRF.createSecp256k1();
 		runRandomizedRountrip(voprf);
 	}
+
+	@Test
+	void testGLVEndomorphism() { //NOSONAR
+		final var suite = BcOPRFSuite.createSecp256k1();
+		final var curve = suite.getCurve();
+		assertInstanceOf(GLVMultiplier.class, curve.getMultiplier());
+
+		// Same encodings as plain wNAF multiplication on the curve without endomorphism
+		final var plain = new ECCurve.Fp(curve.getField().getCharacteristic(), curve.getA().toBigInteger(), curve.getB().toBigInteger(),
+			curve.getOrder(), curve.getCofactor());
+		final var plainG = plain.decodePoint(suite.encodeElement(suite.getG()));
+		for (int i = 0; i < 16; i++) {
+			final var a = suite.randomScalar();
+			final var b = suite.randomScalar();
+			final var P = suite.multiply(suite.getG(), a);
+			final var plainP = plainG.multiply(a.toBigInteger());
+			assertArrayEquals(plainP.getEncoded(true), suite.encodeElement(P));
+			assertArrayEquals(ECAlgorithms.sumOfTwoMultiplies(plainG, b.toBigInteger(), plainP, a.toBigInteger()).getEncoded(true),
+				suite.encodeElement(suite.sumOfTwoMultiplies(suite.getG(), b, P, a)));
+		}
+	}
 }
@@ -10,6 +10,8 @@ package de.bitplumber.crypto.oprf.ristretto255;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.util.Arrays;
+
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
 
@@ -63,4 +65,22 @@ class Ristretto255OPRFTest {
 			assertArrayEquals(vector.output(), evaluateResult);
 		}
 	}
+
+	@Test
+	void testBatch() {
+		final var oprf = new Ristretto255OPRF();
+		final var keypair = assertDoesNotThrow(() -> oprf.deriveKeyPair(OPRF_TEST_VECTORS[0].seed(), OPRF_TEST_VECTORS[0].keyInfo()));
+		final var inputs = Arrays.stream(OPRF_TEST_VECTORS).map(RFC9497TestVector::input).toList();
+
+		final var outputs = assertDoesNotThrow(() -> oprf.evaluateBatch(keypair.secretKey(), inputs));
+		final var blindResults = assertDoesNotThrow(() -> oprf.blindBatch(inputs));
+		for (int i = 0; i < OPRF_TEST_VECTORS.length; i++) {
+			final var vector = OPRF_TEST_VECTORS[i];
+			assertArrayEquals(vector.output(), outputs[i]);
+
+			final var blindResult = blindResults[i];
+			final var evaluatedElement = assertDoesNotThrow(() -> oprf.blindEvaluate(keypair.secretKey(), blindResult.blindedElement()));
+			assertArrayEquals(vector.output(), assertDoesNotThrow(() -> oprf.finalize(vector.input(), blindResult.blind(), evaluatedElement)));
+		}
+	}
 }
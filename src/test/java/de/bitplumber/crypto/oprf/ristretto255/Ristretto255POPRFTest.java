@@ -10,9 +10,13 @@ package de.bitplumber.crypto.oprf.ristretto255;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.util.Arrays;
+
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
 
+import com.weavechain.curve25519.RistrettoElement;
+
 import de.bitplumber.crypto.oprf.ristretto255.AbstractRistretto255.Proof;
 
 class Ristretto255POPRFTest {
@@ -78,4 +82,45 @@ class Ristretto255POPRFTest {
 			assertArrayEquals(vector.output(), evaluateResult, "evaluate output");
 		}
 	}
+
+	@Test
+	void testBatch() {
+		final var poprf = new Ristretto255POPRF();
+		final var info = POPRF_TEST_VECTORS[0].info();
+		final var keypair = assertDoesNotThrow(() -> poprf.deriveKeyPair(POPRF_TEST_VECTORS[0].seed(), POPRF_TEST_VECTORS[0].keyInfo()));
+		final var inputs = Arrays.stream(POPRF_TEST_VECTORS).map(RFC9497TestVector::input).toList();
+
+		final var outputs = assertDoesNotThrow(() -> poprf.evaluateBatch(keypair.secretKey(), inputs, info));
+		final var blindResults = assertDoesNotThrow(() -> poprf.blindBatch(inputs, info, keypair.publicKey()));
+		for (int i = 0; i < POPRF_TEST_VECTORS.length; i++) {
+			final var vector = POPRF_TEST_VECTORS[i];
+			assertArrayEquals(vector.output(), outputs[i], "evaluate output");
+
+			final var blindResult = blindResults[i];
+			final var blindEvaluateResult = assertDoesNotThrow(() -> poprf.blindEvaluate(keypair.secretKey(), blindResult.blindedElement(), info));
+			final var finalizeResult = assertDoesNotThrow(() -> poprf.finalize(vector.input(), blindResult.blind(), blindEvaluateResult.evaluatedElement(), blindResult.blindedElement(),
+				Proof.fromBytes(blindEvaluateResult.proof()), info, blindResult.tweakedKey()));
+			assertArrayEquals(vector.output(), finalizeResult, "finalize output");
+		}
+
+		final var blindedElements = Arrays.stream(blindResults).map(Ristretto255POPRF.BlindResult::blindedElement).toArray(RistrettoElement[]::new);
+		final var results = Arrays.stream(blindResults)
+			.map(blindResult -> assertDoesNotThrow(() -> poprf.blindEvaluate(keypair.secretKey(), blindResult.blindedElement(), info)))
+			.toArray(Ristretto255POPRF.BlindEvaluateResult[]::new);
+		assertArrayEquals(new boolean[]{ true, true }, assertDoesNotThrow(() -> poprf.verifyProofsBatch(blindResults[0].tweakedKey(), blindedElements, results)), "batch proof verification");
+
+		final var tweakedKey = assertDoesNotThrow(() -> poprf.tweakedKey(keypair.publicKey(), info));
+		assertArrayEquals(poprf.encodeElement(blindResults[0].tweakedKey()), tweakedKey.getEncoded(), "tweaked key encoding");
+		for (int i = 0; i < POPRF_TEST_VECTORS.length; i++) {
+			final var vector = POPRF_TEST_VECTORS[i];
+			final var blindResult = blindResults[i];
+			final var blindEvaluateResult = results[i];
+			final var finalizeResult = assertDoesNotThrow(() -> poprf.finalize(vector.input(), blindResult.blind(), blindEvaluateResult.evaluatedElement(),
+				blindResult.blindedElement(), Proof.fromBytes(blindEvaluateResult.proof()), info, tweakedKey));
+			assertArrayEquals(vector.output(), finalizeResult, "finalize output with tweaked key handle");
+		}
+
+		results[1] = new Ristretto255POPRF.BlindEvaluateResult(results[1].evaluatedElement(), results[0].proof());
+		assertArrayEquals(new boolean[]{ true, false }, assertDoesNotThrow(() -> poprf.verifyProofsBatch(blindResults[0].tweakedKey(), blindedElements, results)), "batch proof verification");
+	}
 }
@@ -10,9 +10,13 @@ package de.bitplumber.crypto.oprf.ristretto255;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.util.Arrays;
+
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
 
+import com.weavechain.curve25519.RistrettoElement;
+
 import de.bitplumber.crypto.oprf.ristretto255.AbstractRistretto255.Proof;
 
 class Ristretto255VOPRFTest {
@@ -75,4 +79,44 @@ class Ristretto255VOPRFTest {
 			assertArrayEquals(vector.output(), evaluateResult, "evaluate output");
 		}
 	}
+
+	@Test
+	void testBatch() {
+		final var voprf = new Ristretto255VOPRF();
+		final var keypair = assertDoesNotThrow(() -> voprf.deriveKeyPair(VOPRF_TEST_VECTORS[0].seed(), VOPRF_TEST_VECTORS[0].keyInfo()));
+		final var inputs = Arrays.stream(VOPRF_TEST_VECTORS).map(RFC9497TestVector::input).toList();
+
+		final var outputs = assertDoesNotThrow(() -> voprf.evaluateBatch(keypair.secretKey(), inputs));
+		final var blindResults = assertDoesNotThrow(() -> voprf.blindBatch(inputs));
+		for (int i = 0; i < VOPRF_TEST_VECTORS.length; i++) {
+			final var vector = VOPRF_TEST_VECTORS[i];
+			assertArrayEquals(vector.output(), outputs[i], "evaluate output");
+
+			final var blindResult = blindResults[i];
+			final var blindEvaluateResult = assertDoesNotThrow(() -> voprf.blindEvaluate(keypair.secretKey(), keypair.publicKey(), blindResult.blindedElement()));
+			final var finalizeResult = assertDoesNotThrow(() -> voprf.finalize(vector.input(), blindResult.blind(), blindEvaluateResult.evaluatedElement(),
+				blindResult.blindedElement(), keypair.publicKey(), Proof.fromBytes(blindEvaluateResult.proof())));
+			assertArrayEquals(vector.output(), finalizeResult, "finalize output");
+		}
+
+		final var blindedElements = Arrays.stream(blindResults).map(Ristretto255VOPRF.BlindResult::blindedElement).toArray(RistrettoElement[]::new);
+		final var results = Arrays.stream(blindResults)
+			.map(blindResult -> assertDoesNotThrow(() -> voprf.blindEvaluate(keypair.secretKey(), keypair.publicKey(), blindResult.blindedElement())))
+			.toArray(Ristretto255VOPRF.BlindEvaluateResult[]::new);
+		assertArrayEquals(new boolean[]{ true, true }, assertDoesNotThrow(() -> voprf.verifyProofsBatch(keypair.publicKey(), blindedElements, results)), "batch proof verification");
+
+		final var serverPublicKey = assertDoesNotThrow(() -> voprf.serverPublicKey(keypair.publicKey()));
+		assertArrayEquals(keypair.publicKey(), serverPublicKey.getEncoded(), "server public key encoding");
+		for (int i = 0; i < VOPRF_TEST_VECTORS.length; i++) {
+			final var vector = VOPRF_TEST_VECTORS[i];
+			final var blindResult = blindResults[i];
+			final var blindEvaluateResult = results[i];
+			final var finalizeResult = assertDoesNotThrow(() -> voprf.finalize(vector.input(), blindResult.blind(), blindEvaluateResult.evaluatedElement(),
+				blindResult.blindedElement(), serverPublicKey, Proof.fromBytes(blindEvaluateResult.proof())));
+			assertArrayEquals(vector.output(), finalizeResult, "finalize output with server public key handle");
+		}
+
+		results[1] = new Ristretto255VOPRF.BlindEvaluateResult(results[1].evaluatedElement(), results[0].proof());
+		assertArrayEquals(new boolean[]{ true, false }, assertDoesNotThrow(() -> voprf.verifyProofsBatch(keypair.publicKey(), blindedElements, results)), "batch proof verification");
+	}
 }